@@ -1,7 +1,6 @@
 // License: AGPL. For details, see LICENSE file.
 package org.openstreetmap.josm.plugins.indoorhelper;
 
-import org.openstreetmap.josm.data.Preferences;
 import org.openstreetmap.josm.gui.MainApplication;
 import org.openstreetmap.josm.gui.MapFrame;
 import org.openstreetmap.josm.gui.autofilter.AutoFilter;
@@ -15,15 +14,10 @@ import org.openstreetmap.josm.plugins.Plugin;
 import org.openstreetmap.josm.plugins.PluginInformation;
 import org.openstreetmap.josm.plugins.indoorhelper.controller.IndoorHelperController;
 import org.openstreetmap.josm.plugins.indoorhelper.io.controller.ImportDataController;
-import org.openstreetmap.josm.tools.Logging;
 
-import java.io.File;
+import javax.swing.SwingUtilities;
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.util.jar.JarFile;
-import java.util.zip.ZipEntry;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * This is the main class for the indoorhelper plug-in.
@@ -35,24 +29,27 @@ public class IndoorHelperPlugin extends Plugin implements PaintableInvalidationL
     private IndoorHelperController indoorController;    // controller for indoor helper panel
     private ImportDataController importController = null;        // controller for import function
 
-    private final String pluginDir = Preferences.main().getPluginsDirectory().toString();
-    private final String[] styleFiles = {"sit.mapcss", "entrance_door_icon.png", "entrance_icon.png", "elevator_icon.png"};
+    private final String[] styleFiles = {"data/sit.mapcss", "data/entrance_door_icon.png", "data/entrance_icon.png",
+            "data/elevator_icon.png"};
+    // export of style files, the style is registered once it completed
+    private final CompletableFuture<Void> styleExport;
+
+    // label of auto filter the working level was last updated with, null if not updated yet
+    private String lastAutoFilterLabel;
+    // true while a level update is queued on the EDT, further invalidations are coalesced into it
+    private boolean levelUpdatePending;
 
     /**
      * Constructor for the plug-in.
      * <p>
-     * Exports the needed files and adds them to the settings.
+     * Exports the needed files in background and adds them to the settings.
      *
      * @param info general information about the plug-in
      * @throws IOException if any I/O error occurs
      */
     public IndoorHelperPlugin(PluginInformation info) throws IOException {
         super(info);
-        try {
-            exportStyleFiles();
-        } catch (Exception e) {
-            Logging.info(e.getMessage());
-        }
+        styleExport = PluginResourceManager.exportAsync(styleFiles);
         MainApplication.getLayerManager().addAndFireActiveLayerChangeListener(this);
     }
 
@@ -62,35 +59,15 @@ public class IndoorHelperPlugin extends Plugin implements PaintableInvalidationL
 
         if (oldFrame == null && newFrame != null) {
             // Secures that the plug-in is only loaded, if a new MapFrame is created.
-            indoorController = new IndoorHelperController();
+            indoorController = new IndoorHelperController(styleExport);
+            // new controller has no working level yet, so it is set on next update
+            lastAutoFilterLabel = null;
             if (importController == null) {
                 importController = new ImportDataController();
             }
-        }
-    }
-
-    /**
-     * Exports the mapCSS files to the resources directory.
-     *
-     * @throws IOException if any I/O error occurs
-     */
-    private void exportStyleFiles() throws IOException {
-        File jarFile = new File(Preferences.main().getPluginsDirectory().toURI().getPath() + "/indoorhelper.jar");
-        if (jarFile.isFile()) {
-            Logging.info("Copying style resource files from jar to file system");
-            try (JarFile jar = new JarFile(jarFile)) {
-                for (String filename : styleFiles) {
-                    ZipEntry zip = jar.getEntry("data/" + filename);
-                    InputStream is = jar.getInputStream(zip);
-                    if (Files.notExists(Paths.get(pluginDir + "/indoorhelper/resources/"))) {
-                        if (!new File(pluginDir + "/indoorhelper/resources").mkdirs()) {
-                            return;
-                        }
-                    }
-                    Files.copy(is, Paths.get(pluginDir + "/indoorhelper/resources/" + filename));
-                    is.close();
-                }
-            }
+        } else if (newFrame == null && indoorController != null) {
+            // map frame is removed if the last layer is closed and on exit, a new controller is created afterwards
+            indoorController.savePresetCounts();
         }
     }
 
@@ -104,15 +81,29 @@ public class IndoorHelperPlugin extends Plugin implements PaintableInvalidationL
 
     @Override
     public void paintableInvalidated(PaintableInvalidationEvent event) {
-        AutoFilter currentAutoFilter = AutoFilterManager.getInstance().getCurrentAutoFilter();
-        if (currentAutoFilter != null) {
-            if (indoorController != null) {
-                indoorController.setWorkingLevel(currentAutoFilter.getLabel());
-                indoorController.updateRepeatOnKeyFilter();
-            }
-        } else if (indoorController != null) {
-            indoorController.setWorkingLevel("");
+        // invalidations are fired on every repaint, e.g. while panning, handle them once per EDT cycle
+        if (!levelUpdatePending) {
+            levelUpdatePending = true;
+            SwingUtilities.invokeLater(this::updateWorkingLevel);
         }
     }
 
+    /**
+     * Updates working level and repeat_on filter if the auto filter level changed
+     */
+    private void updateWorkingLevel() {
+        levelUpdatePending = false;
+        if (indoorController == null) return;
+
+        AutoFilter currentAutoFilter = AutoFilterManager.getInstance().getCurrentAutoFilter();
+        String label = currentAutoFilter != null ? currentAutoFilter.getLabel() : "";
+        boolean levelChanged = !label.equals(lastAutoFilterLabel);
+        if (levelChanged) {
+            lastAutoFilterLabel = label;
+            indoorController.setWorkingLevel(label);
+        }
+        if (currentAutoFilter != null && (levelChanged || indoorController.isRepeatOnKeyFilterOutdated())) {
+            indoorController.updateRepeatOnKeyFilter();
+        }
+    }
 }
@@ -0,0 +1,164 @@
+// License: AGPL. For details, see LICENSE file.
+package org.openstreetmap.josm.plugins.indoorhelper;
+
+import org.openstreetmap.josm.data.Preferences;
+import org.openstreetmap.josm.tools.Logging;
+
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.jar.JarFile;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+
+/**
+ * Exports resource files embedded in the plugin jar to the plugin resource directory. Exports run on a background
+ * thread, so plugin start does not block the EDT. Files already exported with equal size and checksum are not
+ * written again.
+ */
+public final class PluginResourceManager {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "indoorhelper-resource-export");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private PluginResourceManager() {
+        // private constructor for utility class
+    }
+
+    /**
+     * Returns directory resources are exported to
+     *
+     * @return resource directory of plugin
+     */
+    public static Path getResourceDirectory() {
+        return Paths.get(Preferences.main().getPluginsDirectory().toString(), "indoorhelper", "resources");
+    }
+
+    /**
+     * Exports resources in background
+     *
+     * @param resources paths of resources inside of plugin jar, e.g. data/sit.mapcss
+     * @return future completed after all resources are exported
+     */
+    public static CompletableFuture<Void> exportAsync(String... resources) {
+        List<String> resourceList = Arrays.asList(resources.clone());
+        return CompletableFuture.runAsync(() -> {
+            for (String resource : resourceList) {
+                try {
+                    export(resource, getResourceDirectory());
+                } catch (IOException e) {
+                    Logging.info(PluginResourceManager.class.getName() + ": failed to export " + resource + ": "
+                            + e.getMessage());
+                }
+            }
+        }, EXECUTOR);
+    }
+
+    /**
+     * Opens resource from classpath, or from the plugin jar if classpath does not contain it
+     *
+     * @param resource path of resource inside of plugin jar, e.g. resources/IFC4.exp
+     * @return stream of resource or null if resource does not exist
+     * @throws IOException if plugin jar can not be read
+     */
+    public static InputStream openResource(String resource) throws IOException {
+        InputStream in = PluginResourceManager.class.getResourceAsStream("/" + resource);
+        if (in != null) return in;
+
+        File jarFile = new File(Preferences.main().getPluginsDirectory(), "indoorhelper.jar");
+        if (!jarFile.isFile()) return null;
+        JarFile jar = new JarFile(jarFile);
+        ZipEntry entry = jar.getEntry(resource);
+        if (entry == null) {
+            jar.close();
+            return null;
+        }
+        return new FilterInputStream(jar.getInputStream(entry)) {
+            @Override
+            public void close() throws IOException {
+                super.close();
+                jar.close();
+            }
+        };
+    }
+
+    /**
+     * Exports resource into directory unless an equal file exists there
+     *
+     * @param resource  path of resource inside of plugin jar
+     * @param directory to export to
+     * @throws IOException if resource can not be read or written
+     */
+    private static void export(String resource, Path directory) throws IOException {
+        Path target = directory.resolve(Paths.get(resource).getFileName());
+        if (Files.isRegularFile(target)) {
+            try (InputStream in = openExistingResource(resource)) {
+                if (isUnchanged(in, target)) return;
+            }
+        }
+
+        Files.createDirectories(directory);
+        Path tempFile = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+        try {
+            try (InputStream in = openExistingResource(resource)) {
+                Files.copy(in, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+        Logging.info(PluginResourceManager.class.getName() + ": exported " + resource);
+    }
+
+    /**
+     * Checks if file has the content of a stream, by size and checksum. Both are read in chunks, so resources are
+     * not held in memory.
+     *
+     * @param in   stream of resource content, not closed
+     * @param file to compare with
+     * @return true if file has equal size and checksum
+     * @throws IOException if stream or file can not be read
+     */
+    public static boolean isUnchanged(InputStream in, Path file) throws IOException {
+        if (!Files.isRegularFile(file)) return false;
+        CRC32 contentChecksum = new CRC32();
+        if (update(contentChecksum, in) != Files.size(file)) return false;
+        CRC32 fileChecksum = new CRC32();
+        try (InputStream fileIn = Files.newInputStream(file)) {
+            update(fileChecksum, fileIn);
+        }
+        return contentChecksum.getValue() == fileChecksum.getValue();
+    }
+
+    private static InputStream openExistingResource(String resource) throws IOException {
+        InputStream in = openResource(resource);
+        if (in == null) throw new IOException("resource does not exist");
+        return in;
+    }
+
+    private static long update(CRC32 checksum, InputStream in) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long size = 0;
+        int read;
+        while ((read = in.read(buffer)) > 0) {
+            checksum.update(buffer, 0, read);
+            size += read;
+        }
+        return size;
+    }
+}
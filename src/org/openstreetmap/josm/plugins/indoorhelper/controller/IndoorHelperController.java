@@ -2,7 +2,8 @@
 package org.openstreetmap.josm.plugins.indoorhelper.controller;
 
 import org.openstreetmap.josm.plugins.indoorhelper.model.IndoorHelperModel;
-import org.openstreetmap.josm.plugins.indoorhelper.model.LevelRangeVerifier;
+import org.openstreetmap.josm.plugins.indoorhelper.model.LevelSet;
+import org.openstreetmap.josm.plugins.indoorhelper.model.RepeatOnIndex;
 import org.openstreetmap.josm.plugins.indoorhelper.model.TagCatalog.IndoorObject;
 import org.openstreetmap.josm.plugins.indoorhelper.views.LevelSelectorView;
 import org.openstreetmap.josm.plugins.indoorhelper.views.ToolBoxView;
@@ -15,6 +16,7 @@ import org.openstreetmap.josm.data.osm.Tag;
 import org.openstreetmap.josm.gui.MainApplication;
 import org.openstreetmap.josm.gui.help.HelpBrowser;
 import org.openstreetmap.josm.gui.mappaint.MapPaintStyles;
+import org.openstreetmap.josm.gui.util.GuiHelper;
 import org.openstreetmap.josm.spi.preferences.Config;
 import org.openstreetmap.josm.spi.preferences.MapListSetting;
 import org.openstreetmap.josm.spi.preferences.Setting;
@@ -23,6 +25,7 @@ import org.openstreetmap.josm.tools.Shortcut;
 import javax.swing.*;
 import java.awt.event.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 import static org.openstreetmap.josm.tools.I18n.tr;
 
@@ -44,6 +47,8 @@ public class IndoorHelperController {
     private boolean outerHelp, innerHelp, levelHelp;
     private Collection<OsmPrimitive> innerRelation;
     private LevelSelectorView selectorView;
+    private RepeatOnIndex repeatOnIndex;
+    private int repeatOnFilterChangeCount;
 
     /**
      * The listener which provides the handling of the applyButton.
@@ -247,12 +252,14 @@ public class IndoorHelperController {
 
     /**
      * Constructor for the {@link IndoorHelperController} which initiates model and views.
+     *
+     * @param styleExport export of the mappaint style files, the style is registered after it completed
      */
-    public IndoorHelperController() {
+    public IndoorHelperController(CompletableFuture<Void> styleExport) {
         toolboxView = new ToolBoxView();
 
-        // set preference if no value ist set already
-        setPluginPreferences(true);
+        // set preference if no value ist set already, style file must exist when style is loaded
+        styleExport.thenRun(() -> GuiHelper.runInEDT(() -> setPluginPreferences(true)));
 
         // Ui elements
         toolboxView.setAllUiElementsEnabled(true);
@@ -369,36 +376,43 @@ public class IndoorHelperController {
 
     /**
      * Updates visibility of objects tagged by repeat_on key using the active working level.
+     * Only primitives repeated on the working level are visited, they are looked up in the repeat_on index
+     * of the edit data set.
      */
     public void updateRepeatOnKeyFilter() {
-        String key = "repeat_on";
-        try{
-            Integer.parseInt(workingLevel);
-        }catch(Exception e){
-            System.out.println("No support of -unsetSpecificKeyFilter- for float values right now.");
-            return;
-        }
+        double level = LevelSet.parseLevel(workingLevel);
+        if (Double.isNaN(level)) return;
 
         DataSet editDataSet = OsmDataManager.getInstance().getEditDataSet();
+        if (repeatOnIndex != null && repeatOnIndex.getDataSet() != editDataSet) {
+            repeatOnIndex.dispose();
+            repeatOnIndex = null;
+        }
         if (editDataSet != null) {
-            ArrayList<OsmPrimitive> primitiveCollection = new ArrayList<>(editDataSet.allPrimitives());
-            ArrayList<OsmPrimitive> primitivesToDisable = new ArrayList<>();
-            int level = Integer.parseInt(workingLevel);
-            for (OsmPrimitive primitive : primitiveCollection) {
-                if ((primitive.isDisabledAndHidden() || primitive.isDisabled()) && primitive.hasKey(key)) {
-                    primitivesToDisable.add(primitive);
-                }
+            if (repeatOnIndex == null) {
+                repeatOnIndex = new RepeatOnIndex(editDataSet);
             }
-
-            // TODO check if we really need to perform this on a new thread
-            new Thread(() -> primitivesToDisable.forEach(primitive -> {
-                if (LevelRangeVerifier.isPartOfWorkingLevel(primitive.get(key), level)) {
+            for (OsmPrimitive primitive : repeatOnIndex.getPrimitivesOnLevel(level)) {
+                if (primitive.isDisabledAndHidden() || primitive.isDisabled()) {
                     primitive.unsetDisabledState();
                 }
-            })).start();
+            }
+            repeatOnFilterChangeCount = repeatOnIndex.getChangeCount();
         }
     }
 
+    /**
+     * Checks if the edit data set changed since the repeat_on filter was updated, in this case filters may have
+     * disabled repeated primitives again.
+     *
+     * @return true if {@link #updateRepeatOnKeyFilter()} has to be called again, else false
+     */
+    public boolean isRepeatOnKeyFilterOutdated() {
+        DataSet editDataSet = OsmDataManager.getInstance().getEditDataSet();
+        return repeatOnIndex == null || repeatOnIndex.getDataSet() != editDataSet
+                || repeatOnIndex.getChangeCount() != repeatOnFilterChangeCount;
+    }
+
     /**
      * Function sets the current working level and updates the toolbox level label
      *
@@ -409,6 +423,13 @@ public class IndoorHelperController {
         toolboxView.setLevelLabel(workingLevel);
     }
 
+    /**
+     * Saves usage counts of the presets, has to be called before the controller is discarded.
+     */
+    public void savePresetCounts() {
+        model.savePresetCounts();
+    }
+
     /**
      * Forces JOSM to load the mappaint settings.
      */
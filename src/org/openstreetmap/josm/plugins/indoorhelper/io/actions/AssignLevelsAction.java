@@ -0,0 +1,65 @@
+// License: AGPL. For details, see LICENSE file.
+package org.openstreetmap.josm.plugins.indoorhelper.io.actions;
+
+import org.openstreetmap.josm.actions.JosmAction;
+import org.openstreetmap.josm.command.Command;
+import org.openstreetmap.josm.data.UndoRedoHandler;
+import org.openstreetmap.josm.data.osm.DataSet;
+import org.openstreetmap.josm.data.osm.Way;
+import org.openstreetmap.josm.gui.MainApplication;
+import org.openstreetmap.josm.plugins.indoorhelper.model.LevelAssigner;
+import org.openstreetmap.josm.spi.preferences.Config;
+
+import javax.swing.*;
+import java.awt.event.ActionEvent;
+import java.util.Collection;
+
+import static org.openstreetmap.josm.tools.I18n.tr;
+
+/**
+ * Menu entry action which assigns level tags to all ways without level tag, e.g. after a BIM import. If ways are
+ * selected, only selected ways get levels assigned.
+ */
+public class AssignLevelsAction extends JosmAction {
+
+    private static final String BANDS_PREF = "indoorhelper.level-assignment.bands";
+    private static final String ELEVATION_KEY_PREF = "indoorhelper.level-assignment.elevation-key";
+
+    public AssignLevelsAction() {
+        super(tr("Assign Levels"), null, tr("Assign level tags to ways by elevation or storey outline"), null,
+                false);
+    }
+
+    @Override
+    public void actionPerformed(ActionEvent e) {
+        DataSet editDataSet = MainApplication.getLayerManager().getEditDataSet();
+        if (editDataSet == null) return;
+
+        String bands = JOptionPane.showInputDialog(MainApplication.getMainFrame(),
+                tr("Elevation bands as lower:upper=level separated by semicolon, e.g. 0:3=0;3:6=1.\n"
+                        + "Leave empty to use storey outlines (indoor=level) only."),
+                Config.getPref().get(BANDS_PREF, ""));
+        if (bands == null) return;
+
+        LevelAssigner assigner;
+        try {
+            assigner = new LevelAssigner(LevelAssigner.parseBands(bands),
+                    Config.getPref().get(ELEVATION_KEY_PREF, LevelAssigner.DEFAULT_ELEVATION_KEY));
+        } catch (IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(MainApplication.getMainFrame(), ex.getMessage(), tr("Error"),
+                    JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        Config.getPref().put(BANDS_PREF, bands.trim());
+
+        Collection<Way> ways = editDataSet.getSelectedWays().isEmpty() ? editDataSet.getWays()
+                : editDataSet.getSelectedWays();
+        Command command = assigner.createCommand(editDataSet, ways);
+        if (command != null) {
+            UndoRedoHandler.getInstance().add(command);
+        } else {
+            JOptionPane.showMessageDialog(MainApplication.getMainFrame(), tr("No level could be assigned."),
+                    tr("Assign Levels"), JOptionPane.INFORMATION_MESSAGE);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+// License: AGPL. For details, see LICENSE file.
+package org.openstreetmap.josm.plugins.indoorhelper.io.actions;
+
+import org.openstreetmap.josm.actions.JosmAction;
+import org.openstreetmap.josm.command.Command;
+import org.openstreetmap.josm.data.UndoRedoHandler;
+import org.openstreetmap.josm.data.osm.DataSet;
+import org.openstreetmap.josm.gui.MainApplication;
+import org.openstreetmap.josm.gui.layer.OsmDataLayer;
+import org.openstreetmap.josm.plugins.indoorhelper.io.model.ImportDataModel;
+import org.openstreetmap.josm.plugins.indoorhelper.model.Conflator;
+import org.openstreetmap.josm.spi.preferences.Config;
+
+import javax.swing.*;
+import java.awt.event.ActionEvent;
+import java.util.List;
+
+import static org.openstreetmap.josm.tools.I18n.tr;
+
+/**
+ * Menu entry action which matches the ways of the last BIM import with the ways of the active layer. Tags of
+ * imported ways are transferred to the matched existing ways and the duplicated imported ways are removed.
+ */
+public class ConflateImportAction extends JosmAction {
+
+    private static final String MIN_IOU_PREF = "indoorhelper.conflation.min-iou";
+    private static final String MAX_DISTANCE_PREF = "indoorhelper.conflation.max-hausdorff-distance";
+
+    private final ImportDataModel model;
+
+    public ConflateImportAction(ImportDataModel model) {
+        super(tr("Conflate BIM Import"), null,
+                tr("Transfer tags of imported ways to matching ways of the active layer and remove duplicates"),
+                null, false);
+        this.model = model;
+    }
+
+    @Override
+    public void actionPerformed(ActionEvent e) {
+        DataSet target = MainApplication.getLayerManager().getEditDataSet();
+        DataSet imported = model.getData();
+        if (target == null || imported == null || target == imported || !isLayerData(imported)) {
+            JOptionPane.showMessageDialog(MainApplication.getMainFrame(),
+                    tr("Activate the layer of existing data to conflate the last BIM import with."),
+                    tr("Conflate BIM Import"), JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+
+        Conflator conflator = new Conflator(Config.getPref().getDouble(MIN_IOU_PREF, Conflator.DEFAULT_MIN_IOU),
+                Config.getPref().getDouble(MAX_DISTANCE_PREF, Conflator.DEFAULT_MAX_HAUSDORFF_DISTANCE));
+        List<Conflator.Match> matches = conflator.findMatches(target, imported.getWays());
+        if (matches.isEmpty()) {
+            JOptionPane.showMessageDialog(MainApplication.getMainFrame(), tr("No matching ways found."),
+                    tr("Conflate BIM Import"), JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+
+        int answer = JOptionPane.showConfirmDialog(MainApplication.getMainFrame(),
+                tr("{0} imported ways match existing ways.\n"
+                        + "Transfer their missing tags and remove them from the imported data?", matches.size()),
+                tr("Conflate BIM Import"), JOptionPane.OK_CANCEL_OPTION);
+        if (answer != JOptionPane.OK_OPTION) return;
+
+        Command tagTransfer = Conflator.createTagTransferCommand(matches);
+        if (tagTransfer != null) UndoRedoHandler.getInstance().add(tagTransfer);
+        UndoRedoHandler.getInstance().add(Conflator.createRemoveDuplicatesCommand(imported, matches));
+    }
+
+    private static boolean isLayerData(DataSet dataSet) {
+        return MainApplication.getLayerManager().getLayersOfType(OsmDataLayer.class).stream()
+                .anyMatch(layer -> layer.getDataSet() == dataSet);
+    }
+}
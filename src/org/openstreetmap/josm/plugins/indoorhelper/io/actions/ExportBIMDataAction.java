@@ -0,0 +1,63 @@
+// License: AGPL. For details, see LICENSE file.
+package org.openstreetmap.josm.plugins.indoorhelper.io.actions;
+
+import org.openstreetmap.josm.plugins.indoorhelper.io.controller.ImportEventListener;
+import org.openstreetmap.josm.actions.JosmAction;
+import org.openstreetmap.josm.gui.MainApplication;
+
+import javax.swing.*;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import java.awt.event.ActionEvent;
+
+import static org.openstreetmap.josm.tools.I18n.tr;
+
+/**
+ * Menu entry action which converts a BIM file directly into an OSM file or IMDF files, without loading the data into
+ * a layer.
+ */
+public class ExportBIMDataAction extends JosmAction {
+
+    private ImportEventListener importListener;
+    // true to export IMDF files into a directory instead of an OSM file
+    private final boolean imdf;
+
+    public ExportBIMDataAction(ImportEventListener listener) {
+        this(listener, false);
+    }
+
+    public ExportBIMDataAction(ImportEventListener listener, boolean imdf) {
+        super(imdf ? tr("Export BIM File as IMDF") : tr("Convert BIM File to OSM File"), "dialogs/bim_small",
+                imdf ? tr("Exports a BIM file as IMDF feature collections into a directory")
+                        : tr("Converts a BIM file into an OSM file without loading it into a layer"), null, false);
+        importListener = listener;
+        this.imdf = imdf;
+    }
+
+    @Override
+    public void actionPerformed(ActionEvent arg0) {
+        JFileChooser fc = new JFileChooser();
+        fc.setFileFilter(new FileNameExtensionFilter("IFC", "ifc", "ifczip", "gz"));
+        if (fc.showOpenDialog(MainApplication.getMainFrame()) != JFileChooser.APPROVE_OPTION) return;
+        String filepath = fc.getSelectedFile().getPath();
+
+        if (imdf) {
+            JFileChooser directoryFc = new JFileChooser(fc.getCurrentDirectory());
+            directoryFc.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+            if (directoryFc.showSaveDialog(MainApplication.getMainFrame()) != JFileChooser.APPROVE_OPTION) return;
+            importListener.onIMDFExport(filepath, directoryFc.getSelectedFile().getPath());
+            return;
+        }
+
+        JFileChooser outputFc = new JFileChooser(fc.getCurrentDirectory());
+        outputFc.setFileFilter(new FileNameExtensionFilter(tr("OSM XML (*.osm, *.osm.gz)"), "osm", "gz"));
+        FileNameExtensionFilter pbfFilter = new FileNameExtensionFilter(tr("OSM PBF (*.osm.pbf)"), "pbf");
+        outputFc.addChoosableFileFilter(pbfFilter);
+        if (outputFc.showSaveDialog(MainApplication.getMainFrame()) != JFileChooser.APPROVE_OPTION) return;
+        String outputPath = outputFc.getSelectedFile().getPath();
+        // format is chosen by suffix of output file
+        if (outputFc.getFileFilter() == pbfFilter && !outputPath.endsWith(".pbf")) {
+            outputPath += ".osm.pbf";
+        }
+        importListener.onBIMExport(filepath, outputPath);
+    }
+}
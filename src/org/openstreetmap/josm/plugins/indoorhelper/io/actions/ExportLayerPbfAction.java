@@ -0,0 +1,50 @@
+// License: AGPL. For details, see LICENSE file.
+package org.openstreetmap.josm.plugins.indoorhelper.io.actions;
+
+import org.openstreetmap.josm.actions.JosmAction;
+import org.openstreetmap.josm.data.osm.DataSet;
+import org.openstreetmap.josm.gui.MainApplication;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.writer.OsmPbfWriter;
+import org.openstreetmap.josm.tools.Logging;
+
+import javax.swing.*;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import java.awt.event.ActionEvent;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.openstreetmap.josm.tools.I18n.tr;
+
+/**
+ * Menu entry action which writes the nodes and ways of the active layer, e.g. after a BIM import, into an OSM PBF
+ * file.
+ */
+public class ExportLayerPbfAction extends JosmAction {
+
+    public ExportLayerPbfAction() {
+        super(tr("Export Layer as OSM PBF"), null, tr("Writes nodes and ways of the active layer into an OSM PBF file"),
+                null, false);
+    }
+
+    @Override
+    public void actionPerformed(ActionEvent e) {
+        DataSet editDataSet = MainApplication.getLayerManager().getEditDataSet();
+        if (editDataSet == null) return;
+
+        JFileChooser fc = new JFileChooser();
+        fc.setFileFilter(new FileNameExtensionFilter(tr("OSM PBF (*.osm.pbf)"), "pbf"));
+        if (fc.showSaveDialog(MainApplication.getMainFrame()) != JFileChooser.APPROVE_OPTION) return;
+        String filepath = fc.getSelectedFile().getPath();
+        Path file = Paths.get(filepath.endsWith(".pbf") ? filepath : filepath + ".osm.pbf");
+
+        // data set is only changed on the EDT, so it is written without further locking
+        try (OsmPbfWriter writer = OsmPbfWriter.open(file)) {
+            writer.write(editDataSet);
+        } catch (IOException ex) {
+            Logging.error(ex);
+            JOptionPane.showMessageDialog(MainApplication.getMainFrame(), tr("Could not write OSM PBF file."),
+                    tr("Error"), JOptionPane.ERROR_MESSAGE);
+        }
+    }
+}
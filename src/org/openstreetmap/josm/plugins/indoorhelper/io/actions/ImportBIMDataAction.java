@@ -17,20 +17,33 @@ import static org.openstreetmap.josm.tools.I18n.tr;
 public class ImportBIMDataAction extends JosmAction {
 
     private ImportEventListener importListener;
+    // true to update data of the edit layer instead of importing into a new layer
+    private final boolean update;
 
     public ImportBIMDataAction(ImportEventListener listener) {
-        super(tr("Import BIM File"), "dialogs/bim_small", null, null, false);
+        this(listener, false);
+    }
+
+    public ImportBIMDataAction(ImportEventListener listener, boolean update) {
+        super(update ? tr("Update from BIM File") : tr("Import BIM File"), "dialogs/bim_small",
+                update ? tr("Applies the changes of a new revision of a BIM file to the data of an earlier import")
+                        : null, null, false);
         importListener = listener;
+        this.update = update;
     }
 
     @Override
     public void actionPerformed(ActionEvent arg0) {
         JFileChooser fc = new JFileChooser();
-        FileNameExtensionFilter filter = new FileNameExtensionFilter("IFC", "ifc");
+        FileNameExtensionFilter filter = new FileNameExtensionFilter("IFC", "ifc", "ifczip", "gz");
         fc.setFileFilter(filter);
         int returnVal = fc.showOpenDialog(MainApplication.getMainFrame());
         if (returnVal == JFileChooser.APPROVE_OPTION) {
-            importListener.onBIMImport(fc.getSelectedFile().getPath());
+            if (update) {
+                importListener.onBIMUpdate(fc.getSelectedFile().getPath());
+            } else {
+                importListener.onBIMImport(fc.getSelectedFile().getPath());
+            }
         }
     }
 }
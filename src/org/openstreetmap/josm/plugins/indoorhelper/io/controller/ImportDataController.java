@@ -1,16 +1,27 @@
 // License: AGPL. For details, see LICENSE file.
 package org.openstreetmap.josm.plugins.indoorhelper.io.controller;
 
+import org.openstreetmap.josm.plugins.indoorhelper.PluginResourceManager;
+import org.openstreetmap.josm.plugins.indoorhelper.io.actions.AssignLevelsAction;
+import org.openstreetmap.josm.plugins.indoorhelper.io.actions.ConflateImportAction;
+import org.openstreetmap.josm.plugins.indoorhelper.io.actions.ExportBIMDataAction;
+import org.openstreetmap.josm.plugins.indoorhelper.io.actions.ExportLayerPbfAction;
 import org.openstreetmap.josm.plugins.indoorhelper.io.actions.ImportBIMDataAction;
+import org.openstreetmap.josm.plugins.indoorhelper.io.model.ImportDiff;
 import org.openstreetmap.josm.plugins.indoorhelper.io.model.ImportDataModel;
+import org.openstreetmap.josm.plugins.indoorhelper.io.model.ImportRecord;
 import org.openstreetmap.josm.plugins.indoorhelper.io.parser.BIMtoOSMParser;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.express.ExpressSchemaRegistry;
 import org.openstreetmap.josm.plugins.indoorhelper.io.renderer.ImportDataRenderer;
 import org.openstreetmap.josm.actions.JosmAction;
 import org.openstreetmap.josm.data.Preferences;
+import org.openstreetmap.josm.data.UndoRedoHandler;
 import org.openstreetmap.josm.data.osm.DataSet;
 import org.openstreetmap.josm.gui.MainApplication;
 import org.openstreetmap.josm.gui.MainMenu;
 import org.openstreetmap.josm.gui.MapFrame;
+import org.openstreetmap.josm.gui.layer.OsmDataLayer;
+import org.openstreetmap.josm.gui.util.GuiHelper;
 import org.openstreetmap.josm.gui.widgets.JMultilineLabel;
 import org.openstreetmap.josm.gui.widgets.UrlLabel;
 import org.openstreetmap.josm.spi.preferences.Config;
@@ -25,13 +36,9 @@ import javax.swing.border.EtchedBorder;
 import java.awt.*;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.util.jar.JarFile;
 import java.util.logging.FileHandler;
 import java.util.logging.SimpleFormatter;
-import java.util.zip.ZipEntry;
 
 import static java.awt.GridBagConstraints.EAST;
 import static org.openstreetmap.josm.tools.I18n.tr;
@@ -43,6 +50,8 @@ public class ImportDataController implements ImportEventListener {
 
     private final ImportDataModel model;
     private String importedFilepath;
+    // layer of an earlier import updated by parsed data, null to import into a new layer
+    private OsmDataLayer updatedLayer;
     private final String pluginDir = Preferences.main().getPluginsDirectory().toString();
 
     private JFrame progressFrame;
@@ -55,6 +64,12 @@ public class ImportDataController implements ImportEventListener {
         model = new ImportDataModel();
         JosmAction importBIMAction = new ImportBIMDataAction(this);
         MainMenu.add(MainApplication.getMenu().fileMenu, importBIMAction, false, 21);
+        MainMenu.add(MainApplication.getMenu().fileMenu, new ImportBIMDataAction(this, true), false, 22);
+        MainMenu.add(MainApplication.getMenu().fileMenu, new ExportBIMDataAction(this), false, 23);
+        MainMenu.add(MainApplication.getMenu().fileMenu, new ExportLayerPbfAction(), false, 24);
+        MainMenu.add(MainApplication.getMenu().fileMenu, new ExportBIMDataAction(this, true), false, 25);
+        MainMenu.add(MainApplication.getMenu().toolsMenu, new AssignLevelsAction());
+        MainMenu.add(MainApplication.getMenu().toolsMenu, new ConflateImportAction(model));
 
         // add log file handler
         try {
@@ -65,16 +80,32 @@ public class ImportDataController implements ImportEventListener {
             Logging.info(e.getMessage());
         }
 
-        // export resource files used by BuildingSMARTLibrary from jar to file system
-        try {
-            exportBIMResource();
-        } catch (Exception e) {
-            Logging.info(e.getMessage());
+        // export resource files used by BuildingSMARTLibrary and parse schemas in background
+        String[] resources = new String[BIMResources.length];
+        for (int i = 0; i < BIMResources.length; i++) {
+            resources[i] = "resources/" + BIMResources[i];
+            ExpressSchemaRegistry.preload(PluginResourceManager.getResourceDirectory().resolve(BIMResources[i]));
         }
+        PluginResourceManager.exportAsync(resources);
     }
 
     @Override
     public void onBIMImport(String filepath) {
+        updatedLayer = null;
+        importBIMData(filepath);
+    }
+
+    @Override
+    public void onBIMUpdate(String filepath) {
+        OsmDataLayer editLayer = MainApplication.getLayerManager().getEditLayer();
+        if (editLayer == null || model.getImportRecord(editLayer.getDataSet()) == null) {
+            // only layers created by an import can be updated, other data would be deleted
+            JOptionPane.showMessageDialog(MainApplication.getMainFrame(),
+                    tr("Activate the layer of an earlier BIM import to update it."),
+                    tr("Update from BIM File"), JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        updatedLayer = editLayer;
         importBIMData(filepath);
     }
 
@@ -94,17 +125,63 @@ public class ImportDataController implements ImportEventListener {
         }).start();
     }
 
+    @Override
+    public void onBIMExport(String filepath, String outputPath) {
+        initProgressProcess();
+        progressFrame.setVisible(true);
+        new Thread(() -> {
+            new BIMtoOSMParser(this, pluginDir + "/indoorhelper/").convert(filepath, Paths.get(outputPath));
+            progressFrame.setVisible(false);
+        }).start();
+    }
+
+    @Override
+    public void onIMDFExport(String filepath, String outputDirectory) {
+        initProgressProcess();
+        progressFrame.setVisible(true);
+        new Thread(() -> {
+            new BIMtoOSMParser(this, pluginDir + "/indoorhelper/").exportImdf(filepath, Paths.get(outputDirectory));
+            progressFrame.setVisible(false);
+        }).start();
+    }
+
     @Override
     public void onDataParsed(DataSet ds) {
         model.setImportData(ds);
+        if (updatedLayer != null) {
+            updateLayer(updatedLayer, ds);
+            return;
+        }
         String layerName = String.format("BIMObject%2d", MainApplication.getLayerManager().getLayers().size());
         if (importedFilepath != null) {
             String[] parts = importedFilepath.split(File.separator.equals("\\") ? "\\\\" : "/");
             layerName = parts[parts.length - 1];
         }
+        model.setImportRecord(ds, ImportRecord.of(ds));
         ImportDataRenderer.renderDataOnNewLayer(ds, layerName);
     }
 
+    /**
+     * Applies differences between parsed data and the ways of the earlier import in the layer as one command. The
+     * layer can be edited while the file is parsed, so the difference is computed and applied on the EDT.
+     *
+     * @param layer to update
+     * @param ds    parsed data of new revision
+     */
+    private void updateLayer(OsmDataLayer layer, DataSet ds) {
+        GuiHelper.runInEDTAndWait(() -> {
+            DataSet target = layer.getDataSet();
+            ImportDiff diff = ImportDiff.compute(target, model.getImportRecord(target), ds);
+            Logging.info(String.format("%s: update of %s: %d added, %d changed, %d deleted, %d unchanged ways",
+                    getClass().getName(), layer.getName(), diff.getAddedCount(), diff.getChangedCount(),
+                    diff.getDeletedCount(), diff.getUnchangedCount()));
+            if (diff.getCommand() != null) {
+                UndoRedoHandler.getInstance().add(diff.getCommand());
+            }
+            model.setImportRecord(target, diff.getRecord());
+        });
+    }
+
     @Override
     public void onProcessStatusChanged(String statusMsg) {
         progressBar.setString(statusMsg);
@@ -164,29 +241,4 @@ public class ImportDataController implements ImportEventListener {
         infoPanel.add(closeButton, GBC.std(3, 1).span(1, 2).anchor(EAST));
         map.addTopPanel(infoPanel);
     }
-
-    /**
-     * Export BIM resources embedded in jar into file system
-     *
-     * @throws Exception IOException
-     */
-    private void exportBIMResource() throws Exception {
-        File jarFile = new File(Preferences.main().getPluginsDirectory().toURI().getPath() + "/indoorhelper.jar");
-        if (jarFile.isFile()) {
-            Logging.info("Copying BIM resource files from jar to file system");
-            try (JarFile jar = new JarFile(jarFile)) {
-                for (String filename : BIMResources) {
-                    ZipEntry zip = jar.getEntry("resources/" + filename);
-                    InputStream is = jar.getInputStream(zip);
-                    if (Files.notExists(Paths.get(pluginDir + "/indoorhelper/resources/"))) {
-                        if (!new File(pluginDir + "/indoorhelper/resources").mkdirs()) {
-                            return;
-                        }
-                    }
-                    Files.copy(is, Paths.get(pluginDir + "/indoorhelper/resources/" + filename));
-                    is.close();
-                }
-            }
-        }
-    }
 }
@@ -15,6 +15,29 @@ public interface ImportEventListener {
      */
     void onBIMImport(String filepath);
 
+    /**
+     * Will be called when import action started to update data of an earlier import
+     *
+     * @param filepath Path to BIM file of new revision
+     */
+    void onBIMUpdate(String filepath);
+
+    /**
+     * Will be called when export action started
+     *
+     * @param filepath   Path to BIM file
+     * @param outputPath Path to OSM file to write
+     */
+    void onBIMExport(String filepath, String outputPath);
+
+    /**
+     * Will be called when IMDF export action started
+     *
+     * @param filepath        Path to BIM file
+     * @param outputDirectory Path to directory to write IMDF files to
+     */
+    void onIMDFExport(String filepath, String outputDirectory);
+
     /**
      * Will be called after parsing finished
      *
@@ -1,6 +1,8 @@
 // License: AGPL. For details, see LICENSE file.
 package org.openstreetmap.josm.plugins.indoorhelper.io.model;
 
+import org.openstreetmap.josm.plugins.indoorhelper.model.TagCatalog.IndoorObject;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -8,6 +10,12 @@ import java.util.List;
  * Class holding information of BIM to OSM translation schema
  */
 public class BIMtoOSMCatalog {
+
+    /**
+     * Key of the tag holding the IFC GlobalId of the element a way was imported from
+     */
+    public static final String GLOBAL_ID_KEY = "ref:ifc";
+
     /**
      * Returns all BIM tags representing a wall
      *
@@ -21,6 +29,17 @@ public class BIMtoOSMCatalog {
         return wallTags;
     }
 
+    /**
+     * Returns all BIM tags representing a room
+     *
+     * @return List of {@link BIMObject}s representing a room
+     */
+    public static List<String> getSpaceTags() {
+        ArrayList<String> spaceTags = new ArrayList<>();
+        spaceTags.add(BIMObject.IfcSpace.toString());
+        return spaceTags;
+    }
+
     /**
      * Returns all BIM tags representing an area
      *
@@ -101,14 +120,73 @@ public class BIMtoOSMCatalog {
         return ifcSiteTags;
     }
 
+    /**
+     * Returns root types of all entities read while extracting BIM data. Entities not referenced
+     * directly or indirectly by entities of these types are not needed for the import.
+     *
+     * @return List of {@link BIMObject}s the extraction starts from
+     */
+    public static List<String> getLoadRootTags() {
+        ArrayList<String> rootTags = new ArrayList<>();
+        rootTags.addAll(getIFCSITETags());
+        rootTags.addAll(getSpaceTags());
+        rootTags.addAll(getAreaTags());
+        rootTags.addAll(getWallTags());
+        rootTags.addAll(getColumnTags());
+        rootTags.addAll(getDoorTags());
+        rootTags.addAll(getWindowTags());
+        rootTags.addAll(getStairTags());
+        rootTags.addAll(getRelVoidsElementTags());
+        rootTags.add(BIMObject.IfcRelContainedInSpatialStructure.toString());
+        rootTags.add(BIMObject.IfcRelAggregates.toString());
+        rootTags.add(BIMObject.IfcBuildingStorey.toString());
+        rootTags.add(BIMObject.IfcProject.toString());
+        rootTags.add(BIMObject.IfcUnitAssignment.toString());
+        return rootTags;
+    }
+
+    /**
+     * Returns indoor object whose tag-set describes BIM object in OSM
+     *
+     * @param object BIM object
+     * @return indoor object, {@link IndoorObject#NONE} if BIM object is not tagged
+     */
+    public static IndoorObject getIndoorObject(BIMObject object) {
+        switch (object) {
+            case IfcSpace:
+            case IfcSlab:
+            case IfcSlabStandardCase:
+            case IfcSlabElementedCase:
+            case IfcSlabType:
+                return IndoorObject.ROOM;
+            case IfcWall:
+            case IfcWallStandardCase:
+            case IfcWallElementedCase:
+            case IfcWallType:
+            case IfcColumn:
+            case IfcColumnType:
+                return IndoorObject.CONCRETE_WALL;
+            case IfcDoor:
+            case IfcDoorStandardCase:
+                return IndoorObject.DOOR_PRIVATE;
+            case IfcWindow:
+                return IndoorObject.GLASS_WALL;
+            case IfcStair:
+                return IndoorObject.STEPS;
+            default:
+                return IndoorObject.NONE;
+        }
+    }
+
     /**
      * Relevant BIM objects
      *
      * @author rebsc
      */
     public enum BIMObject {
-        IfcSlab, IfcSlabStandardCase, IfcSlabElementedCase, IfcSlabType, IfcWall, IfcWallStandardCase,
+        IfcSpace, IfcSlab, IfcSlabStandardCase, IfcSlabElementedCase, IfcSlabType, IfcWall, IfcWallStandardCase,
         IfcWallElementedCase, IfcWallType, IfcColumn, IfcColumnType, IfcDoor, IfcDoorStandardCase, IfcStair,
-        IfcRelVoidsElement, IfcWindow, IfcSite
+        IfcRelVoidsElement, IfcWindow, IfcSite, IfcRelContainedInSpatialStructure, IfcRelAggregates, IfcBuildingStorey,
+        IfcProject, IfcUnitAssignment
     }
 }
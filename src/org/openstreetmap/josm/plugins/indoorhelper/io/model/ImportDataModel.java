@@ -3,12 +3,17 @@ package org.openstreetmap.josm.plugins.indoorhelper.io.model;
 
 import org.openstreetmap.josm.data.osm.DataSet;
 
+import java.util.Map;
+import java.util.WeakHashMap;
+
 /**
  * Class holding imported data
  */
 public class ImportDataModel {
 
     private DataSet ds;
+    // ways created by imports per data set of import layers, entries are removed with their data set
+    private final Map<DataSet, ImportRecord> importRecords = new WeakHashMap<>();
 
     public void setImportData(DataSet data) {
         ds = data;
@@ -18,5 +23,23 @@ public class ImportDataModel {
         return ds;
     }
 
+    /**
+     * Sets ways an import created in a data set
+     *
+     * @param data   data set of layer
+     * @param record ways of the import
+     */
+    public void setImportRecord(DataSet data, ImportRecord record) {
+        importRecords.put(data, record);
+    }
 
+    /**
+     * Returns ways an import created in a data set
+     *
+     * @param data data set of layer
+     * @return record of import or null if data set was not created by an import
+     */
+    public ImportRecord getImportRecord(DataSet data) {
+        return importRecords.get(data);
+    }
 }
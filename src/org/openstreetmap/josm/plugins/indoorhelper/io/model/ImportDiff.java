@@ -0,0 +1,343 @@
+// License: AGPL. For details, see LICENSE file.
+package org.openstreetmap.josm.plugins.indoorhelper.io.model;
+
+import org.openstreetmap.josm.command.AddCommand;
+import org.openstreetmap.josm.command.ChangeNodesCommand;
+import org.openstreetmap.josm.command.ChangePropertyCommand;
+import org.openstreetmap.josm.command.Command;
+import org.openstreetmap.josm.command.DeleteCommand;
+import org.openstreetmap.josm.command.SequenceCommand;
+import org.openstreetmap.josm.data.osm.DataSet;
+import org.openstreetmap.josm.data.osm.Node;
+import org.openstreetmap.josm.data.osm.OsmPrimitive;
+import org.openstreetmap.josm.data.osm.Way;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.openstreetmap.josm.tools.I18n.tr;
+
+/**
+ * Difference between a re-imported revision of a BIM model and the data of an earlier import. Only ways of the
+ * {@link ImportRecord} of the earlier import are changed or deleted. Ways are matched by the IFC GlobalId tag
+ * ({@link BIMtoOSMCatalog#GLOBAL_ID_KEY}) and compared by a hash of their node positions. Ways without GlobalId are
+ * matched by that hash against ways without GlobalId the earlier import created.
+ * Only added ways, changed geometries or tags and deleted ways end up in the command, unchanged ways are not
+ * touched. Tags added to existing ways after the import are kept.
+ */
+public final class ImportDiff {
+
+    // positions are compared in OSM precision
+    private static final double POSITION_SCALE = 1e7;
+
+    private final DataSet target;
+    private final ImportRecord record;
+    // usable nodes of target by position, new nodes are reused at positions of existing nodes
+    private final Map<Long, Node> nodesByPosition = new HashMap<>();
+    // nodes of target used for nodes of imported data
+    private final Map<Node, Node> targetNodes = new HashMap<>();
+
+    private final List<Command> addCommands = new ArrayList<>();
+    private final List<Command> changeCommands = new ArrayList<>();
+    private final Map<Way, List<Node>> changedNodes = new HashMap<>();
+    private final Set<Way> deletedWays = new LinkedHashSet<>();
+    // nodes of changed and added ways, never deleted
+    private final Set<Node> usedNodes = new HashSet<>();
+    // nodes removed from ways, deleted if no other way refers to them
+    private final Set<Node> removedNodes = new LinkedHashSet<>();
+
+    // ways of the import in target data after the command is executed
+    private final Set<String> globalIds = new HashSet<>();
+    private final List<Way> waysWithoutGlobalId = new ArrayList<>();
+
+    private int added;
+    private int changed;
+    private int unchanged;
+    private Command command;
+
+    private ImportDiff(DataSet target, ImportRecord record) {
+        this.target = target;
+        this.record = record;
+    }
+
+    /**
+     * Calculates difference between imported data and target data
+     *
+     * @param target   data containing the earlier import, e.g. data of edit layer
+     * @param record   ways of the earlier import in target data
+     * @param imported data of new revision
+     * @return difference
+     */
+    public static ImportDiff compute(DataSet target, ImportRecord record, DataSet imported) {
+        ImportDiff diff = new ImportDiff(target, record);
+        diff.compare(imported);
+        return diff;
+    }
+
+    /**
+     * Returns command applying the difference to target data
+     *
+     * @return command or null if data does not differ
+     */
+    public Command getCommand() {
+        return command;
+    }
+
+    /**
+     * Returns ways of the import in target data after the command is executed
+     *
+     * @return record to compute the next update with
+     */
+    public ImportRecord getRecord() {
+        return new ImportRecord(globalIds, waysWithoutGlobalId);
+    }
+
+    public int getAddedCount() {
+        return added;
+    }
+
+    public int getChangedCount() {
+        return changed;
+    }
+
+    public int getDeletedCount() {
+        return deletedWays.size();
+    }
+
+    public int getUnchangedCount() {
+        return unchanged;
+    }
+
+    private void compare(DataSet imported) {
+        for (Node node : target.getNodes()) {
+            if (node.isUsable() && node.isLatLonKnown()) nodesByPosition.putIfAbsent(getPositionKey(node), node);
+        }
+
+        List<Way> recordedWays = new ArrayList<>();
+        for (Way way : target.getWays()) {
+            if (record.contains(way)) recordedWays.add(way);
+        }
+        Map<String, List<Way>> targetWays = groupByGlobalId(recordedWays);
+        Map<String, List<Way>> importedWays = groupByGlobalId(imported.getWays());
+        globalIds.addAll(importedWays.keySet());
+        compareWaysWithoutGlobalId(recordedWays, imported.getWays());
+        for (Map.Entry<String, List<Way>> entry : importedWays.entrySet()) {
+            compareGroup(targetWays.getOrDefault(entry.getKey(), Collections.emptyList()), entry.getValue());
+        }
+        for (Map.Entry<String, List<Way>> entry : targetWays.entrySet()) {
+            if (!importedWays.containsKey(entry.getKey())) entry.getValue().forEach(this::deleteWay);
+        }
+
+        List<Command> commands = new ArrayList<>(addCommands);
+        commands.addAll(changeCommands);
+        if (!deletedWays.isEmpty()) {
+            // also removes the ways from relations they are members of, e.g. multipolygons. Nodes are not deleted
+            // by this command, it would compute them from the ways before the change commands are executed.
+            Command deleteWays = DeleteCommand.delete(deletedWays, false, true);
+            if (deleteWays != null) commands.add(deleteWays);
+        }
+        List<Node> deletedNodes = new ArrayList<>();
+        for (Node node : removedNodes) {
+            if (isOrphaned(node)) deletedNodes.add(node);
+        }
+        if (!deletedNodes.isEmpty()) commands.add(new DeleteCommand(target, deletedNodes));
+        if (!commands.isEmpty()) {
+            command = new SequenceCommand(tr("Update BIM import: {0} added, {1} changed, {2} deleted",
+                    added, changed, deletedWays.size()), commands);
+        }
+    }
+
+    /**
+     * Compares ways of one GlobalId, e.g. several outlines of one element. Ways with equal geometry are matched
+     * first, remaining ways are matched in order.
+     *
+     * @param targetWays   ways of earlier import
+     * @param importedWays ways of new revision
+     */
+    private void compareGroup(List<Way> targetWays, List<Way> importedWays) {
+        List<Way> unmatchedTarget = new ArrayList<>(targetWays);
+        List<Way> unmatchedImported = new ArrayList<>();
+        for (Way importedWay : importedWays) {
+            long hash = getGeometryHash(importedWay);
+            Way match = null;
+            for (Way targetWay : unmatchedTarget) {
+                if (getGeometryHash(targetWay) == hash) {
+                    match = targetWay;
+                    break;
+                }
+            }
+            if (match != null) {
+                unmatchedTarget.remove(match);
+                updateTags(match, importedWay, false);
+            } else {
+                unmatchedImported.add(importedWay);
+            }
+        }
+
+        for (int i = 0; i < unmatchedImported.size(); i++) {
+            if (i < unmatchedTarget.size()) {
+                updateWay(unmatchedTarget.get(i), unmatchedImported.get(i));
+            } else {
+                addWay(unmatchedImported.get(i));
+            }
+        }
+        for (int i = unmatchedImported.size(); i < unmatchedTarget.size(); i++) {
+            deleteWay(unmatchedTarget.get(i));
+        }
+    }
+
+    /**
+     * Compares ways without GlobalId. They are matched by geometry only, imported ways without equal way of the
+     * earlier import are added and unmatched ways of the earlier import are deleted.
+     *
+     * @param targetWays   ways of earlier import
+     * @param importedWays ways of new revision
+     */
+    private void compareWaysWithoutGlobalId(Collection<Way> targetWays, Collection<Way> importedWays) {
+        Map<Long, List<Way>> unmatchedTarget = new HashMap<>();
+        for (Way way : targetWays) {
+            if (way.get(BIMtoOSMCatalog.GLOBAL_ID_KEY) == null && way.isUsable() && way.getNodesCount() > 1) {
+                unmatchedTarget.computeIfAbsent(getGeometryHash(way), hash -> new ArrayList<>()).add(way);
+            }
+        }
+        for (Way importedWay : importedWays) {
+            if (importedWay.get(BIMtoOSMCatalog.GLOBAL_ID_KEY) != null || importedWay.getNodesCount() < 2) continue;
+            List<Way> matches = unmatchedTarget.get(getGeometryHash(importedWay));
+            if (matches != null && !matches.isEmpty()) {
+                Way match = matches.remove(0);
+                updateTags(match, importedWay, false);
+                waysWithoutGlobalId.add(match);
+            } else {
+                waysWithoutGlobalId.add(addWay(importedWay));
+            }
+        }
+        unmatchedTarget.values().forEach(ways -> ways.forEach(this::deleteWay));
+    }
+
+    private void updateWay(Way targetWay, Way importedWay) {
+        List<Node> nodes = getTargetNodes(importedWay);
+        changedNodes.put(targetWay, nodes);
+        changeCommands.add(new ChangeNodesCommand(targetWay, nodes));
+        removedNodes.addAll(targetWay.getNodes());
+        updateTags(targetWay, importedWay, true);
+    }
+
+    /**
+     * Sets tags of imported way which differ on target way
+     *
+     * @param targetWay       to update
+     * @param importedWay     to get tags from
+     * @param geometryChanged true if geometry of target way is changed
+     */
+    private void updateTags(Way targetWay, Way importedWay, boolean geometryChanged) {
+        Map<String, String> changedTags = new LinkedHashMap<>();
+        importedWay.getKeys().forEach((key, value) -> {
+            if (!value.equals(targetWay.get(key))) changedTags.put(key, value);
+        });
+        if (!changedTags.isEmpty()) {
+            changeCommands.add(new ChangePropertyCommand(Collections.singleton(targetWay), changedTags));
+        }
+        if (geometryChanged || !changedTags.isEmpty()) {
+            changed++;
+        } else {
+            unchanged++;
+        }
+    }
+
+    private Way addWay(Way importedWay) {
+        Way way = new Way();
+        way.setNodes(getTargetNodes(importedWay));
+        way.setKeys(importedWay.getKeys());
+        addCommands.add(new AddCommand(target, way));
+        added++;
+        return way;
+    }
+
+    private void deleteWay(Way targetWay) {
+        deletedWays.add(targetWay);
+        removedNodes.addAll(targetWay.getNodes());
+    }
+
+    /**
+     * Gets nodes of target data for nodes of imported way. Existing nodes at the same position are reused, else
+     * new nodes are added.
+     *
+     * @param importedWay to get nodes for
+     * @return nodes of target data
+     */
+    private List<Node> getTargetNodes(Way importedWay) {
+        List<Node> nodes = new ArrayList<>(importedWay.getNodesCount());
+        for (Node importedNode : importedWay.getNodes()) {
+            Node node = targetNodes.get(importedNode);
+            if (node == null) {
+                long position = getPositionKey(importedNode);
+                node = nodesByPosition.get(position);
+                if (node == null) {
+                    node = new Node(importedNode.getCoor());
+                    node.setKeys(importedNode.getKeys());
+                    addCommands.add(new AddCommand(target, node));
+                    nodesByPosition.put(position, node);
+                }
+                targetNodes.put(importedNode, node);
+            }
+            nodes.add(node);
+        }
+        usedNodes.addAll(nodes);
+        return nodes;
+    }
+
+    /**
+     * Checks if node removed from ways is not needed anymore
+     *
+     * @param node removed from changed or deleted ways
+     * @return true if node has no tags and is not referred to by any remaining way or relation
+     */
+    private boolean isOrphaned(Node node) {
+        if (usedNodes.contains(node) || node.hasKeys() || !node.isUsable()) return false;
+        for (OsmPrimitive referrer : node.getReferrers()) {
+            // nodes of changed ways are in used nodes if they are kept
+            if (!deletedWays.contains(referrer) && !changedNodes.containsKey(referrer)) return false;
+        }
+        return true;
+    }
+
+    private static Map<String, List<Way>> groupByGlobalId(Collection<Way> ways) {
+        Map<String, List<Way>> groups = new LinkedHashMap<>();
+        for (Way way : ways) {
+            String globalId = way.get(BIMtoOSMCatalog.GLOBAL_ID_KEY);
+            if (globalId != null && way.isUsable() && way.getNodesCount() > 1) {
+                groups.computeIfAbsent(globalId, id -> new ArrayList<>()).add(way);
+            }
+        }
+        return groups;
+    }
+
+    /**
+     * Calculates hash of node positions of way
+     *
+     * @param way to get hash of
+     * @return hash of geometry
+     */
+    static long getGeometryHash(Way way) {
+        long hash = way.getNodesCount();
+        for (Node node : way.getNodes()) {
+            hash = hash * 0x9E3779B97F4A7C15L + getPositionKey(node);
+            hash ^= hash >>> 29;
+        }
+        return hash;
+    }
+
+    private static long getPositionKey(Node node) {
+        long lat = Math.round(node.lat() * POSITION_SCALE);
+        long lon = Math.round(node.lon() * POSITION_SCALE);
+        return (lat << 32) ^ (lon & 0xFFFFFFFFL);
+    }
+}
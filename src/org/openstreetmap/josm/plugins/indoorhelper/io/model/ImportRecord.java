@@ -0,0 +1,66 @@
+// License: AGPL. For details, see LICENSE file.
+package org.openstreetmap.josm.plugins.indoorhelper.io.model;
+
+import org.openstreetmap.josm.data.osm.DataSet;
+import org.openstreetmap.josm.data.osm.Way;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Ways a BIM import created in a data set. Ways are identified by their IFC GlobalId tag
+ * ({@link BIMtoOSMCatalog#GLOBAL_ID_KEY}), ways without GlobalId are kept as they are. Updates of the import only
+ * change and delete these ways, other ways of the data set, e.g. downloaded from OSM or drawn by the user, are not
+ * touched.
+ */
+public final class ImportRecord {
+
+    private final Set<String> globalIds;
+    private final Set<Way> waysWithoutGlobalId;
+
+    ImportRecord(Collection<String> globalIds, Collection<Way> waysWithoutGlobalId) {
+        this.globalIds = Collections.unmodifiableSet(new HashSet<>(globalIds));
+        this.waysWithoutGlobalId = Collections.unmodifiableSet(new HashSet<>(waysWithoutGlobalId));
+    }
+
+    /**
+     * Creates record of all ways of imported data
+     *
+     * @param ds imported data
+     * @return record of data
+     */
+    public static ImportRecord of(DataSet ds) {
+        Set<String> globalIds = new HashSet<>();
+        Set<Way> waysWithoutGlobalId = new HashSet<>();
+        for (Way way : ds.getWays()) {
+            String globalId = way.get(BIMtoOSMCatalog.GLOBAL_ID_KEY);
+            if (globalId != null) {
+                globalIds.add(globalId);
+            } else {
+                waysWithoutGlobalId.add(way);
+            }
+        }
+        return new ImportRecord(globalIds, waysWithoutGlobalId);
+    }
+
+    /**
+     * Checks if way was created by the import
+     *
+     * @param way to check
+     * @return true if GlobalId of way is part of the import or way without GlobalId was created by the import
+     */
+    public boolean contains(Way way) {
+        String globalId = way.get(BIMtoOSMCatalog.GLOBAL_ID_KEY);
+        return globalId != null ? globalIds.contains(globalId) : waysWithoutGlobalId.contains(way);
+    }
+
+    public Set<String> getGlobalIds() {
+        return globalIds;
+    }
+
+    public Set<Way> getWaysWithoutGlobalId() {
+        return waysWithoutGlobalId;
+    }
+}
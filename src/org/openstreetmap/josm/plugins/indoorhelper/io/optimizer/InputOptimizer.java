@@ -1,6 +1,9 @@
 // License: AGPL. For details, see LICENSE file.
 package org.openstreetmap.josm.plugins.indoorhelper.io.optimizer;
 
+import org.openstreetmap.josm.plugins.indoorhelper.io.model.BIMtoOSMCatalog;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.step.StepModel;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.utils.IfcInputUtility;
 import org.openstreetmap.josm.tools.Logging;
 
 import java.io.*;
@@ -13,7 +16,8 @@ import java.util.Scanner;
 public class InputOptimizer {
 
     /**
-     * Optimizes an ifc file following the given config parameters
+     * Optimizes an ifc file following the given config parameters. Compressed files (.ifczip, .ifc.gz) are
+     * decompressed while reading, the optimized file is written uncompressed.
      *
      * @param ifcFilepath to file to optimize
      * @return optimized file as {@link File}
@@ -25,22 +29,44 @@ public class InputOptimizer {
         tempFile.deleteOnExit();
 
         if (config.REMOVE_BLOCK_COMMENTS) {
-            StringBuilder optimizedInput = new StringBuilder("");
-            try {
-                File file = new File(ifcFilepath);
-                Scanner reader = new Scanner(file, StandardCharsets.UTF_8.name());
+            // stream lines from (decompressed) input to temporary file
+            try (Scanner reader = new Scanner(IfcInputUtility.openInputStream(new File(ifcFilepath)),
+                    StandardCharsets.UTF_8.name());
+                 Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tempFile),
+                         StandardCharsets.UTF_8))) {
                 while (reader.hasNextLine()) {
-                    optimizedInput.append(reader.nextLine().replaceAll("/\\*.*?\\*/", "")).append("\n");
+                    writer.write(reader.nextLine().replaceAll("/\\*.*?\\*/", ""));
+                    writer.write('\n');
                 }
-                reader.close();
             } catch (FileNotFoundException e) {
                 Logging.error(e.getMessage());
             }
+        }
+        return tempFile;
+    }
 
-            try (FileWriter writer = new FileWriter(tempFile)) {
-                writer.write(String.valueOf(optimizedInput));
-            }
+    /**
+     * Writes all entities needed for BIM data extraction into a new file. Entities not reachable from the
+     * extraction root types ({@link BIMtoOSMCatalog#getLoadRootTags()}) like property sets, quantities and
+     * materials are removed, so they are not parsed by the model loader. Block comments are removed as well,
+     * so the file does not need to be optimized by {@link #optimizeIfcFile} before. Compressed files are
+     * decompressed into memory, so the reduced file is the only copy written to disk.
+     *
+     * @param ifcFile to reduce, may be compressed
+     * @return reduced file as {@link File}
+     * @throws IOException if file can not be read or written
+     */
+    public static File removeUnreachableEntities(File ifcFile) throws IOException {
+        StepModel model = StepModel.load(ifcFile.toPath());
+        StepModel reducedModel = model.retainReachable(BIMtoOSMCatalog.getLoadRootTags());
+
+        File tempFile = File.createTempFile(getFileName(ifcFile.getPath()) + "_reduced", ".ifc");
+        tempFile.deleteOnExit();
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(tempFile))) {
+            reducedModel.write(out);
         }
+        Logging.info(String.format("%s-InputOptimizerReport: kept %d of %d entities",
+                InputOptimizer.class.getName(), reducedModel.size(), model.size()));
         return tempFile;
     }
 
@@ -64,9 +90,15 @@ public class InputOptimizer {
      */
     public static class Configuration {
         public final boolean REMOVE_BLOCK_COMMENTS;
+        public final boolean REMOVE_UNREACHABLE_ENTITIES;
 
         public Configuration(boolean removeBlockCommands) {
+            this(removeBlockCommands, false);
+        }
+
+        public Configuration(boolean removeBlockCommands, boolean removeUnreachableEntities) {
             REMOVE_BLOCK_COMMENTS = removeBlockCommands;
+            REMOVE_UNREACHABLE_ENTITIES = removeUnreachableEntities;
         }
     }
 
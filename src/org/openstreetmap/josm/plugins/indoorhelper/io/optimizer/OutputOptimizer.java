@@ -3,13 +3,21 @@ package org.openstreetmap.josm.plugins.indoorhelper.io.optimizer;
 
 import org.openstreetmap.josm.plugins.indoorhelper.io.parser.math.ParserGeoMath;
 import org.openstreetmap.josm.plugins.indoorhelper.io.parser.utils.ParserUtility;
+import org.openstreetmap.gui.jmapviewer.OsmMercator;
 import org.openstreetmap.josm.data.osm.DataSet;
 import org.openstreetmap.josm.data.osm.Node;
+import org.openstreetmap.josm.data.osm.OsmPrimitive;
+import org.openstreetmap.josm.data.osm.Way;
 import org.openstreetmap.josm.tools.Logging;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Class providing methods to optimize OSM data files to avoid unnecessary nodes/ways in data set
@@ -33,12 +41,153 @@ public class OutputOptimizer {
                 mergeData(merges, ds);
             }
 
-            Logging.info(String.format("%s-OutputOptimizerReport: OSM primitives reduced by factor %.2f",
-                    OutputOptimizer.class.getName(),
-                    1.0 - ((double) (ds.getNodes().size() + ds.getWays().size()) / preCount)));
+            logReduction(preCount, ds);
+        }
+        if (config.SIMPLIFY_WAYS) {
+            int preCount = ds.getNodes().size() + ds.getWays().size();
+            simplifyWays(ds, config.SIMPLIFY_TOLERANCE);
+            logReduction(preCount, ds);
+        }
+    }
+
+    private static void logReduction(int preCount, DataSet ds) {
+        Logging.info(String.format("%s-OutputOptimizerReport: OSM primitives reduced by factor %.2f",
+                OutputOptimizer.class.getName(),
+                preCount == 0 ? 0.0 : 1.0 - ((double) (ds.getNodes().size() + ds.getWays().size()) / preCount)));
+    }
+
+    /**
+     * Method removes collinear and nearly duplicate nodes of ways by Douglas-Peucker simplification. Nodes shared
+     * with other ways and tagged nodes are kept, so connections between ways are not changed. Simplified node
+     * lists are computed in parallel and applied to the data set afterwards.
+     *
+     * @param ds        data set to simplify ways in
+     * @param tolerance maximum distance of removed nodes to the simplified way in meter
+     */
+    private static void simplifyWays(DataSet ds, double tolerance) {
+        List<Way> ways = new ArrayList<>(ds.getWays());
+        List<List<Node>> simplified = ways.parallelStream()
+                .map(way -> simplify(way, tolerance))
+                .collect(Collectors.toList());
+
+        Set<Node> removedNodes = new LinkedHashSet<>();
+        for (int i = 0; i < ways.size(); i++) {
+            List<Node> nodes = simplified.get(i);
+            if (nodes == null) continue;
+            removedNodes.addAll(ways.get(i).getNodes());
+            ways.get(i).setNodes(nodes);
+        }
+        for (Node node : removedNodes) {
+            if (node.getReferrers().isEmpty()) ds.removePrimitive(node);
         }
     }
 
+    /**
+     * Method simplifies node list of way. The way is split at kept nodes into sections which are simplified
+     * separately.
+     *
+     * @param way       to simplify
+     * @param tolerance maximum distance of removed nodes to the simplified way in meter
+     * @return simplified node list or null if no node can be removed
+     */
+    private static List<Node> simplify(Way way, double tolerance) {
+        List<Node> nodes = way.getNodes();
+        int count = nodes.size();
+        if (count < 3) return null;
+        boolean closed = way.isClosed();
+
+        // project to local plane in meter around first node
+        double lat0 = nodes.get(0).lat();
+        double lon0 = nodes.get(0).lon();
+        double meterPerDegree = OsmMercator.EARTH_RADIUS * Math.PI / 180.0;
+        double lonScale = Math.cos(Math.toRadians(lat0)) * meterPerDegree;
+        double[] x = new double[count];
+        double[] y = new double[count];
+        for (int i = 0; i < count; i++) {
+            x[i] = (nodes.get(i).lon() - lon0) * lonScale;
+            y[i] = (nodes.get(i).lat() - lat0) * meterPerDegree;
+        }
+
+        boolean[] keep = new boolean[count];
+        keep[0] = true;
+        keep[count - 1] = true;
+        for (int i = 1; i < count - 1; i++) {
+            keep[i] = isFixed(nodes.get(i), way);
+        }
+        if (closed) {
+            // rings need a second anchor, the node farthest from the first node
+            int farthest = 1;
+            for (int i = 2; i < count - 1; i++) {
+                if (x[i] * x[i] + y[i] * y[i] > x[farthest] * x[farthest] + y[farthest] * y[farthest]) farthest = i;
+            }
+            keep[farthest] = true;
+        }
+
+        int start = 0;
+        for (int end = 1; end < count; end++) {
+            if (!keep[end]) continue;
+            if (end - start > 1) douglasPeucker(x, y, start, end, tolerance * tolerance, keep);
+            start = end;
+        }
+
+        List<Node> result = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            if (keep[i]) result.add(nodes.get(i));
+        }
+        // keep degenerated rings and unchanged ways
+        if (result.size() == count || (closed && result.size() < 4)) return null;
+        return result;
+    }
+
+    /**
+     * Marks nodes between start and end to keep, whose distance to the simplified section exceeds the tolerance
+     */
+    private static void douglasPeucker(double[] x, double[] y, int start, int end, double toleranceSq,
+                                       boolean[] keep) {
+        Deque<int[]> sections = new ArrayDeque<>();
+        sections.push(new int[]{start, end});
+        while (!sections.isEmpty()) {
+            int[] section = sections.pop();
+            int first = section[0];
+            int last = section[1];
+            double maxDistanceSq = -1.0;
+            int index = -1;
+            for (int i = first + 1; i < last; i++) {
+                double distanceSq = getSegmentDistanceSq(x[i], y[i], x[first], y[first], x[last], y[last]);
+                if (distanceSq > maxDistanceSq) {
+                    maxDistanceSq = distanceSq;
+                    index = i;
+                }
+            }
+            if (index < 0 || maxDistanceSq <= toleranceSq) continue;
+            keep[index] = true;
+            if (index - first > 1) sections.push(new int[]{first, index});
+            if (last - index > 1) sections.push(new int[]{index, last});
+        }
+    }
+
+    private static double getSegmentDistanceSq(double px, double py, double ax, double ay, double bx, double by) {
+        double dx = bx - ax;
+        double dy = by - ay;
+        double lengthSq = dx * dx + dy * dy;
+        double t = lengthSq > 0.0 ? ((px - ax) * dx + (py - ay) * dy) / lengthSq : 0.0;
+        t = Math.max(0.0, Math.min(1.0, t));
+        double ex = px - (ax + t * dx);
+        double ey = py - (ay + t * dy);
+        return ex * ex + ey * ey;
+    }
+
+    /**
+     * Checks if node has to be kept, i.e. it is tagged or used by another way
+     */
+    private static boolean isFixed(Node node, Way way) {
+        if (node.hasKeys()) return true;
+        for (OsmPrimitive referrer : node.getReferrers()) {
+            if (referrer != way) return true;
+        }
+        return false;
+    }
+
     /**
      * Method merges nodes in data set following the mergeLayout.
      *
@@ -139,10 +288,19 @@ public class OutputOptimizer {
     public static class Configuration {
         public final boolean MERGE_CLOSE_NODES;
         public final double MERGE_DISTANCE;
+        public final boolean SIMPLIFY_WAYS;
+        public final double SIMPLIFY_TOLERANCE;
 
         public Configuration(boolean mergeCloseNodes, double mergeDistance) {
+            this(mergeCloseNodes, mergeDistance, false, 0.0);
+        }
+
+        public Configuration(boolean mergeCloseNodes, double mergeDistance, boolean simplifyWays,
+                             double simplifyTolerance) {
             MERGE_CLOSE_NODES = mergeCloseNodes;
             MERGE_DISTANCE = mergeDistance;
+            SIMPLIFY_WAYS = simplifyWays;
+            SIMPLIFY_TOLERANCE = simplifyTolerance;
         }
     }
 }
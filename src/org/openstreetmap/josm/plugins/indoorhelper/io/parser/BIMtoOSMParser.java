@@ -10,12 +10,20 @@ import org.openstreetmap.josm.plugins.indoorhelper.io.optimizer.OutputOptimizer;
 import org.openstreetmap.josm.plugins.indoorhelper.io.parser.data.BIMDataCollection;
 import org.openstreetmap.josm.plugins.indoorhelper.io.parser.data.BIMObject3D;
 import org.openstreetmap.josm.plugins.indoorhelper.io.parser.math.*;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.utils.IfcInputUtility;
 import org.openstreetmap.josm.plugins.indoorhelper.io.parser.utils.ifc.BIMtoOSMUtility;
 import org.openstreetmap.josm.plugins.indoorhelper.io.parser.utils.ifc.IfcGeometryExtractor;
-import org.openstreetmap.josm.plugins.indoorhelper.io.parser.utils.ifc.IfcObjectIdentifier;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.writer.ImdfWriter;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.writer.OsmPbfWriter;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.writer.OsmStreamWriter;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.writer.OsmXmlStreamWriter;
 import org.openstreetmap.josm.plugins.indoorhelper.model.TagCatalog;
-import nl.tue.buildingsmart.express.population.EntityInstance;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.cache.ParseCache;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.express.ExpressModel;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.express.ExpressSchemaRegistry;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.step.StepModel;
 import nl.tue.buildingsmart.express.population.ModelPopulation;
+import nl.tue.buildingsmart.schema.SchemaDefinition;
 import org.openstreetmap.josm.data.Preferences;
 import org.openstreetmap.josm.data.coor.LatLon;
 import org.openstreetmap.josm.data.osm.DataSet;
@@ -23,20 +31,22 @@ import org.openstreetmap.josm.data.osm.Node;
 import org.openstreetmap.josm.data.osm.Tag;
 import org.openstreetmap.josm.data.osm.Way;
 import org.openstreetmap.josm.gui.MainApplication;
+import org.openstreetmap.josm.spi.preferences.Config;
 import org.openstreetmap.josm.tools.Logging;
-import org.openstreetmap.josm.tools.Pair;
 
 import javax.swing.*;
 import java.awt.*;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Scanner;
 
 import static org.openstreetmap.josm.plugins.indoorhelper.io.parser.utils.ParserUtility.prepareDoubleString;
@@ -51,26 +61,38 @@ public class BIMtoOSMParser {
     private static final String FLAG_IFC2X3_TC1 = "FILE_SCHEMA(('IFC2X3_TC1'))";
     private static final String FLAG_IFC2X3 = "FILE_SCHEMA(('IFC2X3'))";
     private static final String FLAG_IFC4 = "FILE_SCHEMA(('IFC4'))";
+    private static final String FLAG_IFC4X2 = "FILE_SCHEMA(('IFC4X2'))";
+    private static final String FLAG_IFC4X3 = "FILE_SCHEMA(('IFC4X3";
     private static final String IFC2X3_TC1_SCHEMA = "IFC2X3_TC1.exp";
     private static final String IFC4_SCHEMA = "IFC4.exp";
     private final String resourcePathDir;
+    private final String cacheDir;
     private String ifcSchemaFilePath;
 
     private final ImportEventListener importListener;
-    private FileInputStream inputFs = null;
+    private InputStream inputFs = null;
 
-    private ModelPopulation ifcModel;
+    private IfcModel ifcModel;
+    // indoor objects and tag-sets by BIM object, tag-sets are shared by all ways of the same object type
     private final TagCatalog tagCatalog;
+    private final Map<BIMtoOSMCatalog.BIMObject, TagCatalog.IndoorObject> indoorObjects;
+    private final Map<BIMtoOSMCatalog.BIMObject, List<Tag>> objectTags;
     private IfcUnitCatalog.LengthUnit lengthUnit;
 
-    private static final int DEFAULT_LEVEL = 999;
+    private static final int DEFAULT_LEVEL = BIMtoOSMUtility.DEFAULT_LEVEL;
+    // preferences enabling way simplification of imported data, disabled by default
+    private static final String SIMPLIFY_WAYS_PREF = "indoorhelper.import.simplify-ways";
+    private static final String SIMPLIFY_TOLERANCE_PREF = "indoorhelper.import.simplify-tolerance";
+    private static final double DEFAULT_SIMPLIFY_TOLERANCE = 0.01;
 
     // configuration parameters
+    private ModelLoader modelLoader;
     private BIMtoOSMUtility.GeometrySolution solutionType;
     private boolean optimizeInputFile;
     private InputOptimizer.Configuration optimizeInputConfig;
     private boolean optimizeOutput;
     private OutputOptimizer.Configuration optimizeOutputConfig;
+    private ParseCache parseCache;
 
     /**
      * Constructor
@@ -86,24 +108,63 @@ public class BIMtoOSMParser {
 
         if (pluginDirectory == null) {
             resourcePathDir = Preferences.main().getPluginsDirectory().toString() + "/indoorhelper/resources";
+            cacheDir = Preferences.main().getPluginsDirectory().toString() + "/indoorhelper/cache";
         } else {
             resourcePathDir = pluginDirectory + "/resources/";
+            cacheDir = pluginDirectory + "/cache/";
         }
 
         ifcSchemaFilePath = resourcePathDir + IFC2X3_TC1_SCHEMA;
-        tagCatalog = new TagCatalog();
+        tagCatalog = TagCatalog.load(Paths.get(resourcePathDir).resolveSibling(TagCatalog.OVERRIDE_FILE));
+        indoorObjects = mapIndoorObjects(tagCatalog);
+        objectTags = createObjectTags(tagCatalog, indoorObjects);
         lengthUnit = IfcUnitCatalog.LengthUnit.M;
+        modelLoader = ModelLoader.EXPRESS_SCHEMA;
+        parseCache = new ParseCache(Paths.get(cacheDir));
         applyDefaultConfiguration();
     }
 
+    /**
+     * Loaders to read IFC file into model
+     */
+    public enum ModelLoader {
+        /**
+         * BuildingSMARTLibrary, parses all entities against EXPRESS schema. Supports IFC2X3 and IFC4.
+         */
+        EXPRESS_SCHEMA,
+        /**
+         * {@link StepModel}, indexes entities and decodes them on demand. Supports IFC2X3, IFC4, IFC4X2 and IFC4X3.
+         */
+        LIGHTWEIGHT_STEP
+    }
+
+    /**
+     * Sets loader used to read IFC files. Files of schemas not supported by
+     * {@link ModelLoader#EXPRESS_SCHEMA} are always read by {@link ModelLoader#LIGHTWEIGHT_STEP}.
+     *
+     * @param loader to use
+     */
+    public void setModelLoader(ModelLoader loader) {
+        if (loader == null) {
+            Logging.info(BIMtoOSMParser.class.getName()
+                    + ": Failed to set model loader. Loader equals null!");
+            return;
+        }
+        modelLoader = loader;
+        Logging.info(String.format("%s-ConfigurationReport: model loader set to %s",
+                BIMtoOSMParser.class.getName(), modelLoader.name()));
+    }
+
     /**
      * Applies default configuration to parser
      */
     private void applyDefaultConfiguration() {
         configure(BIMtoOSMUtility.GeometrySolution.BOUNDING_BOX,
-                new InputOptimizer.Configuration(true),
-                // default: merge overlapping nodes only (distance < 0.01)
-                new OutputOptimizer.Configuration(true, 0.01));
+                new InputOptimizer.Configuration(true, true),
+                // default: merge overlapping nodes only (distance < 0.01), simplify ways only if enabled by preference
+                new OutputOptimizer.Configuration(true, 0.01,
+                        Config.getPref().getBoolean(SIMPLIFY_WAYS_PREF, false),
+                        Config.getPref().getDouble(SIMPLIFY_TOLERANCE_PREF, DEFAULT_SIMPLIFY_TOLERANCE)));
     }
 
     /**
@@ -140,19 +201,23 @@ public class BIMtoOSMParser {
 
         optimizeInputFile = optimizeInputConfig.REMOVE_BLOCK_COMMENTS;
         this.optimizeInputConfig = optimizeInputConfig;
-        Logging.info(String.format("%s-ConfigurationReport: optimizeInputFile %s; RemoveBlockCommands %s",
+        Logging.info(String.format("%s-ConfigurationReport: optimizeInputFile %s; RemoveBlockCommands %s; " +
+                        "RemoveUnreachableEntities %s",
                 BIMtoOSMParser.class.getName(),
                 optimizeInputConfig.REMOVE_BLOCK_COMMENTS ? "enabled" : "disabled",
-                optimizeInputConfig.REMOVE_BLOCK_COMMENTS ? "enabled" : "disabled"));
+                optimizeInputConfig.REMOVE_BLOCK_COMMENTS ? "enabled" : "disabled",
+                optimizeInputConfig.REMOVE_UNREACHABLE_ENTITIES ? "enabled" : "disabled"));
 
-        optimizeOutput = optimizeOutputConfig.MERGE_CLOSE_NODES;
+        optimizeOutput = optimizeOutputConfig.MERGE_CLOSE_NODES || optimizeOutputConfig.SIMPLIFY_WAYS;
         this.optimizeOutputConfig = optimizeOutputConfig;
         Logging.info(String.format("%s-ConfigurationReport: optimizeOutput %s; MergeCloseNodes %s; " +
-                        "MergeDistance set to %.2f m",
+                        "MergeDistance set to %.2f m; SimplifyWays %s; SimplifyTolerance set to %.2f m",
                 BIMtoOSMParser.class.getName(),
+                optimizeOutput ? "enabled" : "disabled",
                 optimizeOutputConfig.MERGE_CLOSE_NODES ? "enabled" : "disabled",
-                optimizeOutputConfig.MERGE_CLOSE_NODES ? "enabled" : "disabled",
-                optimizeOutputConfig.MERGE_CLOSE_NODES ? optimizeOutputConfig.MERGE_DISTANCE : -999));
+                optimizeOutputConfig.MERGE_CLOSE_NODES ? optimizeOutputConfig.MERGE_DISTANCE : -999,
+                optimizeOutputConfig.SIMPLIFY_WAYS ? "enabled" : "disabled",
+                optimizeOutputConfig.SIMPLIFY_WAYS ? optimizeOutputConfig.SIMPLIFY_TOLERANCE : -999));
 
         return true;
     }
@@ -160,36 +225,25 @@ public class BIMtoOSMParser {
     /**
      * Method parses data from ifc file into OSM data
      *
-     * @param filepath of ifc file
+     * @param filepath of ifc file, may be compressed (.ifczip, .ifc.gz)
      */
     public boolean parse(String filepath) {
-        if (!loadFile(filepath)) return false;
-
-        // get osm relevant data
-        BIMDataCollection rawFilteredData = BIMtoOSMUtility.extractMajorBIMData(ifcModel);
-
-        if (!checkForIFCSITE(rawFilteredData)) {
-            showParsingErrorView(filepath, "Could not import IFC file.\nIFC " +
-                    "file does not contain IFCSITE element.", true);
-            return false;
-        }
-
-        // transform osm relevant data into BIMObject3D
-        ArrayList<BIMObject3D> preparedData = (ArrayList<BIMObject3D>) transformToBIMData(rawFilteredData);
+        ParseCache.ParsedData parsedData = getParsedData(filepath);
+        if (parsedData == null) return false;
+        ArrayList<BIMObject3D> preparedData = new ArrayList<>(parsedData.objects);
 
         // transform building coordinates to WCS
-        setUnits();
-        LatLon llBuildingOrigin = getLatLonBuildingOrigin(rawFilteredData.getIfcSite());
-        transformToGeodetic(llBuildingOrigin, preparedData);
+        lengthUnit = parsedData.lengthUnit;
+        transformToGeodetic(parsedData.buildingOrigin, parsedData.trueNorth, preparedData);
 
         // pack parsed data into osm format
-        DataSet packedOSMData = packIntoOSMData(preparedData);
+        DataSet packedOSMData = packIntoOSMData(preparedData, parsedData.levels);
         if (optimizeOutput) {
             importListener.onProcessStatusChanged("optimizing data");
             OutputOptimizer.optimize(optimizeOutputConfig, packedOSMData);
         }
 
-        if (preparedData.size() != rawFilteredData.getSize()) {
+        if (preparedData.size() != parsedData.sourceObjectCount) {
             showParsingErrorView(filepath, "Caution!\nImported data might include errors!", false);
         }
 
@@ -200,6 +254,193 @@ public class BIMtoOSMParser {
         return true;
     }
 
+    /**
+     * Method converts data from ifc file directly into an OSM file, without building a {@link DataSet}. Ways
+     * are projected and written one by one, so output optimization is not applied.
+     *
+     * @param filepath   of ifc file, may be compressed (.ifczip, .ifc.gz)
+     * @param outputFile OSM file to write, OSM PBF if it has .pbf suffix, else OSM XML which is gzip compressed if
+     *                   it has .gz suffix
+     * @return true if conversion successful, else false
+     */
+    public boolean convert(String filepath, Path outputFile) {
+        ParseCache.ParsedData parsedData = getParsedData(filepath);
+        if (parsedData == null) return false;
+        GeodeticTransformation transformation = getGeodeticTransformation(filepath, parsedData);
+        if (transformation == null) return false;
+
+        importListener.onProcessStatusChanged("writing data");
+        int writtenWays = 0;
+        try (OsmStreamWriter writer = openWriter(outputFile)) {
+            for (int i = 0; i < parsedData.objects.size(); i++) {
+                BIMObject3D object = parsedData.objects.get(i);
+                List<LatLon> points = transformation.transform(object.getCartesianGeometryCoordinates());
+                if (writer.writeWay(points, getWayTags(object, parsedData.levels[i])) != 0) writtenWays++;
+            }
+        } catch (IOException e) {
+            Logging.error(e.getMessage());
+            showErrorView(tr("Could not write OSM file."));
+            return false;
+        }
+
+        if (parsedData.objects.size() != parsedData.sourceObjectCount) {
+            showParsingErrorView(filepath, "Caution!\nImported data might include errors!", false);
+        }
+        Logging.info(String.format("%s: %s converted successfully, %d ways written to %s",
+                this.getClass().getName(), filepath, writtenWays, outputFile));
+        return true;
+    }
+
+    /**
+     * Method exports data from ifc file as IMDF feature collections. Features of each level are projected and
+     * written one by one into their own file, objects without level are written to level 0.
+     *
+     * @param filepath        of ifc file, may be compressed (.ifczip, .ifc.gz)
+     * @param outputDirectory directory to write IMDF files to
+     * @return true if export successful, else false
+     */
+    public boolean exportImdf(String filepath, Path outputDirectory) {
+        ParseCache.ParsedData parsedData = getParsedData(filepath);
+        if (parsedData == null) return false;
+        GeodeticTransformation transformation = getGeodeticTransformation(filepath, parsedData);
+        if (transformation == null) return false;
+
+        importListener.onProcessStatusChanged("writing data");
+        int writtenFeatures = 0;
+        try (ImdfWriter writer = new ImdfWriter(outputDirectory, ImdfWriter.DEFAULT_PRECISION)) {
+            for (int i = 0; i < parsedData.objects.size(); i++) {
+                BIMObject3D object = parsedData.objects.get(i);
+                int level = parsedData.levels[i] != DEFAULT_LEVEL ? parsedData.levels[i] : 0;
+                List<LatLon> points = transformation.transform(object.getCartesianGeometryCoordinates());
+                if (writer.writeFeature(points, getIndoorObject(object), level)) writtenFeatures++;
+            }
+        } catch (IOException e) {
+            Logging.error(e.getMessage());
+            showErrorView(tr("Could not write IMDF files."));
+            return false;
+        }
+
+        Logging.info(String.format("%s: %s exported successfully, %d features written to %s",
+                this.getClass().getName(), filepath, writtenFeatures, outputDirectory));
+        return true;
+    }
+
+    /**
+     * Gets transformation of building coordinates to latlon for streamed output
+     *
+     * @param filepath   of ifc file
+     * @param parsedData extracted data of file
+     * @return transformation or null if file is not georeferenced
+     */
+    private GeodeticTransformation getGeodeticTransformation(String filepath, ParseCache.ParsedData parsedData) {
+        if (parsedData.buildingOrigin == null) {
+            showParsingErrorView(filepath, "Could not convert IFC file.\nIFC file is not georeferenced.", true);
+            return null;
+        }
+        lengthUnit = parsedData.lengthUnit;
+        return new GeodeticTransformation(getGeoreference(parsedData.trueNorth),
+                new GeodeticProjection(parsedData.buildingOrigin));
+    }
+
+    /**
+     * Opens writer matching the suffix of output file
+     *
+     * @param outputFile OSM file to write
+     * @return writer
+     * @throws IOException if file can not be created
+     */
+    private static OsmStreamWriter openWriter(Path outputFile) throws IOException {
+        if (outputFile.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".pbf")) {
+            return OsmPbfWriter.open(outputFile);
+        }
+        return OsmXmlStreamWriter.open(outputFile);
+    }
+
+    /**
+     * Gets extracted data of file, from parse cache if file was parsed before with same solution
+     *
+     * @param filepath of IFC file
+     * @return extracted data or null if file can not be loaded or does not contain IFCSITE element
+     */
+    private ParseCache.ParsedData getParsedData(String filepath) {
+        String cacheKey = getCacheKey(filepath);
+        ParseCache.ParsedData parsedData = cacheKey != null ? parseCache.read(cacheKey) : null;
+        if (parsedData != null) {
+            Logging.info(this.getClass().getName() + ": " + filepath + " loaded from parse cache");
+        } else {
+            parsedData = extractData(filepath);
+            if (parsedData == null) return null;
+            if (cacheKey != null) parseCache.write(cacheKey, parsedData);
+        }
+        return parsedData;
+    }
+
+    /**
+     * Enables or disables the on-disk parse cache
+     *
+     * @param enabled true to reuse extracted data of files parsed before
+     */
+    public void setParseCacheEnabled(boolean enabled) {
+        parseCache = enabled ? new ParseCache(Paths.get(cacheDir)) : null;
+        Logging.info(String.format("%s-ConfigurationReport: parse cache %s",
+                BIMtoOSMParser.class.getName(), enabled ? "enabled" : "disabled"));
+    }
+
+    /**
+     * Calculates parse cache key of file
+     *
+     * @param filepath of IFC file
+     * @return cache key or null if cache is disabled or file can not be read
+     */
+    private String getCacheKey(String filepath) {
+        if (parseCache == null) return null;
+        File file = new File(filepath);
+        String schemaFlag = chooseSchemaFile(file);
+        String schema = schemaFlag.replace("FILE_SCHEMA(('", "").replaceAll("[^A-Za-z0-9_]", "");
+        if (schema.isEmpty()) return null;
+        // files without EXPRESS schema are always read by the lightweight loader, see loadFile
+        ModelLoader loader = schemaFlag.equals(FLAG_IFC4X2) || schemaFlag.equals(FLAG_IFC4X3)
+                ? ModelLoader.LIGHTWEIGHT_STEP : modelLoader;
+        try {
+            return parseCache.getKey(file, schema, solutionType, loader, optimizeInputConfig);
+        } catch (IOException e) {
+            Logging.info(e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Loads IFC file and extracts OSM relevant data
+     *
+     * @param filepath of IFC file
+     * @return extracted data or null if file can not be loaded or does not contain IFCSITE element
+     */
+    private ParseCache.ParsedData extractData(String filepath) {
+        if (!loadFile(filepath)) return null;
+
+        // get osm relevant data
+        BIMDataCollection rawFilteredData = BIMtoOSMUtility.extractMajorBIMData(ifcModel);
+
+        if (!checkForIFCSITE(rawFilteredData)) {
+            showParsingErrorView(filepath, "Could not import IFC file.\nIFC " +
+                    "file does not contain IFCSITE element.", true);
+            return null;
+        }
+
+        ParseCache.ParsedData parsedData = new ParseCache.ParsedData();
+        parsedData.sourceObjectCount = rawFilteredData.getSize();
+
+        // transform osm relevant data into BIMObject3D
+        parsedData.objects = transformToBIMData(rawFilteredData);
+        parsedData.levels = BIMtoOSMUtility.getLevelTags(ifcModel, parsedData.objects);
+
+        setUnits();
+        parsedData.lengthUnit = lengthUnit;
+        parsedData.buildingOrigin = getLatLonBuildingOrigin(rawFilteredData.getIfcSite());
+        parsedData.trueNorth = getTrueNorth();
+        return parsedData;
+    }
+
     /**
      * Load file into ifcModel
      *
@@ -208,36 +449,52 @@ public class BIMtoOSMParser {
      */
     private boolean loadFile(String filepath) {
         try {
-            // pre-optimize and load IFC file
-            File file;
-            if (optimizeInputFile) {
-                file = InputOptimizer.optimizeIfcFile(optimizeInputConfig, filepath);
-            } else {
-                file = new File(filepath);
+            if (modelLoader == ModelLoader.LIGHTWEIGHT_STEP) {
+                // tokenizer skips comments itself, so pre-optimization is not needed
+                return loadStepModel(filepath, new File(filepath));
             }
 
-            inputFs = new FileInputStream(file);
-
-            // find used IFC schema
+            // find used IFC schema, compressed files are decompressed while reading
+            File file = new File(filepath);
             String usedIfcSchema = chooseSchemaFile(file);
             if (usedIfcSchema.isEmpty()) {
                 showLoadingErrorView(filepath, "Could not load IFC file.\nIFC schema is not supported.");
                 return false;
             }
+            if (usedIfcSchema.equals(FLAG_IFC4X2) || usedIfcSchema.equals(FLAG_IFC4X3)) {
+                // no EXPRESS schema available
+                return loadStepModel(filepath, file);
+            }
             if (usedIfcSchema.equals(FLAG_IFC4)) {
                 ifcSchemaFilePath = resourcePathDir + IFC4_SCHEMA;
             }
 
+            // pre-optimize IFC file, at most one temporary copy is written
+            if (optimizeInputConfig.REMOVE_UNREACHABLE_ENTITIES) {
+                // schema parser only gets entities needed for extraction, reduced file contains no comments
+                file = InputOptimizer.removeUnreachableEntities(file);
+            } else if (optimizeInputFile) {
+                file = InputOptimizer.optimizeIfcFile(optimizeInputConfig, filepath);
+            }
+            inputFs = IfcInputUtility.openInputStream(file);
+
             // load IFC file data into model
-            ifcModel = new ModelPopulation(inputFs);
-            ifcModel.setSchemaFile(Paths.get(ifcSchemaFilePath));
-            ifcModel.load();
+            ModelPopulation population = new ModelPopulation(inputFs);
+            // schema is parsed once per process and shared by all imports
+            SchemaDefinition schema = ExpressSchemaRegistry.getSchema(Paths.get(ifcSchemaFilePath));
+            if (schema != null) {
+                population.setSchema(schema);
+            } else {
+                population.setSchemaFile(Paths.get(ifcSchemaFilePath));
+            }
+            population.load();
 
             // if loading throws ParseException check if ifcModel is empty to recognize something went wrong
-            if (ifcModel.getInstances() == null) {
+            if (population.getInstances() == null) {
                 showLoadingErrorView(filepath, "Could not load IFC file.");
                 return false;
             }
+            ifcModel = new ExpressModel(population);
         } catch (IOException e) {
             Logging.error(e.getMessage());
             return false;
@@ -254,6 +511,33 @@ public class BIMtoOSMParser {
         return true;
     }
 
+    /**
+     * Load file into ifcModel using {@link StepModel}
+     *
+     * @param filepath of IFC file
+     * @param file     (if necessary) optimized IFC file
+     * @return true if loading successful, else false
+     * @throws IOException if file can not be read
+     */
+    private boolean loadStepModel(String filepath, File file) throws IOException {
+        StepModel stepModel = StepModel.load(file.toPath());
+        if (optimizeInputConfig.REMOVE_UNREACHABLE_ENTITIES) {
+            stepModel = stepModel.retainReachable(BIMtoOSMCatalog.getLoadRootTags());
+        }
+        String schema = stepModel.getSchema();
+        if (!schema.startsWith("IFC2X3") && !schema.startsWith("IFC4")) {
+            showLoadingErrorView(filepath, "Could not load IFC file.\nIFC schema is not supported.");
+            return false;
+        }
+        if (stepModel.size() == 0) {
+            showLoadingErrorView(filepath, "Could not load IFC file.");
+            return false;
+        }
+        ifcModel = stepModel;
+        Logging.info(this.getClass().getName() + ": " + filepath + " loaded successfully");
+        return true;
+    }
+
     /**
      * Read the FILE_SCHEMA flag from ifc file and return used schema
      *
@@ -263,7 +547,7 @@ public class BIMtoOSMParser {
     private String chooseSchemaFile(File ifcFile) {
         String schema = "";
         try {
-            Scanner reader = new Scanner(ifcFile, StandardCharsets.UTF_8.name());
+            Scanner reader = new Scanner(IfcInputUtility.openInputStream(ifcFile), StandardCharsets.UTF_8.name());
             while (reader.hasNextLine()) {
                 String data = reader.nextLine();
                 data = data.replaceAll("\\s+", "");
@@ -280,9 +564,17 @@ public class BIMtoOSMParser {
                     schema = FLAG_IFC4;
                     break;
                 }
+                // check if IFC4X2 or IFC4X3
+                else if (data.contains(FLAG_IFC4X2)) {
+                    schema = FLAG_IFC4X2;
+                    break;
+                } else if (data.contains(FLAG_IFC4X3)) {
+                    schema = FLAG_IFC4X3;
+                    break;
+                }
             }
             reader.close();
-        } catch (FileNotFoundException e) {
+        } catch (IOException e) {
             Logging.error(e.getMessage());
         }
 
@@ -312,12 +604,16 @@ public class BIMtoOSMParser {
      */
     private List<BIMObject3D> transformToBIMData(BIMDataCollection rawBIMData) {
         List<BIMObject3D> transformedData = new ArrayList<>();
-        List<BIMObject3D> slabs = BIMtoOSMUtility.transformBIMObjects(ifcModel, solutionType, BIMtoOSMCatalog.BIMObject.IfcSlab, rawBIMData.getAreaObjects());
-        List<BIMObject3D> walls = BIMtoOSMUtility.transformBIMObjects(ifcModel, solutionType, BIMtoOSMCatalog.BIMObject.IfcWall, rawBIMData.getWallObjects());
-        List<BIMObject3D> columns = BIMtoOSMUtility.transformBIMObjects(ifcModel, solutionType, BIMtoOSMCatalog.BIMObject.IfcColumn, rawBIMData.getColumnObjects());
-//        List<BIMObject3D> doors = BIMtoOSMUtility.transformBIMObjects(ifcModel, solutionType, BIMtoOSMCatalog.BIMObject.IfcDoor, rawBIMData.getDoorObjects());
-//        List<BIMObject3D> windows = BIMtoOSMUtility.transformBIMObjects(ifcModel, solutionType, BIMtoOSMCatalog.BIMObject.IfcWindow, rawBIMData.getWindowObjects());
-        List<BIMObject3D> stairs = BIMtoOSMUtility.transformBIMObjects(ifcModel, solutionType, BIMtoOSMCatalog.BIMObject.IfcStair, rawBIMData.getStairObjects());
+        // IfcCartesianPoints are shared between objects, decode each of them once per import
+        IfcPointCache pointCache = new IfcPointCache();
+        List<BIMObject3D> spaces = BIMtoOSMUtility.transformSpaces(ifcModel, rawBIMData.getSpaceObjects());
+        List<BIMObject3D> slabs = BIMtoOSMUtility.transformBIMObjects(ifcModel, pointCache, solutionType, BIMtoOSMCatalog.BIMObject.IfcSlab, rawBIMData.getAreaObjects());
+        List<BIMObject3D> walls = BIMtoOSMUtility.transformBIMObjects(ifcModel, pointCache, solutionType, BIMtoOSMCatalog.BIMObject.IfcWall, rawBIMData.getWallObjects());
+        List<BIMObject3D> columns = BIMtoOSMUtility.transformBIMObjects(ifcModel, pointCache, solutionType, BIMtoOSMCatalog.BIMObject.IfcColumn, rawBIMData.getColumnObjects());
+//        List<BIMObject3D> doors = BIMtoOSMUtility.transformBIMObjects(ifcModel, pointCache, solutionType, BIMtoOSMCatalog.BIMObject.IfcDoor, rawBIMData.getDoorObjects());
+//        List<BIMObject3D> windows = BIMtoOSMUtility.transformBIMObjects(ifcModel, pointCache, solutionType, BIMtoOSMCatalog.BIMObject.IfcWindow, rawBIMData.getWindowObjects());
+        List<BIMObject3D> stairs = BIMtoOSMUtility.transformBIMObjects(ifcModel, pointCache, solutionType, BIMtoOSMCatalog.BIMObject.IfcStair, rawBIMData.getStairObjects());
+        transformedData.addAll(spaces);
         transformedData.addAll(slabs);
         transformedData.addAll(walls);
         transformedData.addAll(columns);
@@ -331,15 +627,16 @@ public class BIMtoOSMParser {
      * Method packs prepared BIM data into OSM ways and nodes
      *
      * @param preparedBIMData to transform to OSM data
+     * @param levels          level tags of prepared data
      * @return packed data as {@link DataSet}
      */
-    private DataSet packIntoOSMData(ArrayList<BIMObject3D> preparedBIMData) {
+    private DataSet packIntoOSMData(ArrayList<BIMObject3D> preparedBIMData, int[] levels) {
         ArrayList<Way> ways = new ArrayList<>();
         ArrayList<Node> nodes = new ArrayList<>();
-        ArrayList<Pair<Double, Integer>> levelIdentifier = extractAndIdentifyLevels();
 
-        for (BIMObject3D object : preparedBIMData) {
-            int level = getLevelTag(object, levelIdentifier);
+        for (int i = 0; i < preparedBIMData.size(); i++) {
+            BIMObject3D object = preparedBIMData.get(i);
+            int level = levels[i];
 
             ArrayList<Node> tmpNodes = new ArrayList<>();
             for (LatLon point : object.getGeodeticGeometryCoordinates()) {
@@ -358,8 +655,7 @@ public class BIMtoOSMParser {
             }
             Way w = new Way();
             w.setNodes(tmpNodes);
-            getObjectTags(object).forEach(w::put);
-            if (level != DEFAULT_LEVEL) w.put(new Tag("level", Integer.toString(level)));
+            getWayTags(object, level).forEach(w::put);
             ways.add(w);
         }
 
@@ -370,117 +666,42 @@ public class BIMtoOSMParser {
     }
 
     /**
-     * Method gets level tag of PreparedBIMObject3D
+     * Method sets geodetic shape coordinates of PreparedBIMObject3D
      *
-     * @param object              to get level tag for
-     * @param levelIdentifierList with identified levels
-     * @return level
+     * @param llBuildingOrigin building origin latlon
+     * @param trueNorth        true north of building, null if not defined
+     * @param preparedBIMData  data to set the geodetic shapes
      */
-    private int getLevelTag(BIMObject3D object, ArrayList<Pair<Double, Integer>> levelIdentifierList) {
-        int level = DEFAULT_LEVEL;
-
-        // get all IfcRelContainedInSpatialStructure elements
-        List<EntityInstance> relContainedInSpatialStructureElements = ifcModel.getInstancesOfType("IfcRelContainedInSpatialStructure");
-
-        for (EntityInstance entity : relContainedInSpatialStructureElements) {
-            // for each element get contained entities
-            ArrayList<EntityInstance> containedElements = entity.getAttributeValueBNasEntityInstanceList("RelatedElements");
-
-            // check if object is part of contained entities
-            for (EntityInstance element : containedElements) {
-
-                if (element.getId() == object.getId()) {
-                    // if part of contained elements get Elevation entity from object
-                    EntityInstance relatingStructure = entity.getAttributeValueBNasEntityInstance("RelatingStructure");
-
-                    String relatingStructureType = IfcObjectIdentifier.getSpatialStructureElementType(ifcModel, relatingStructure);
-                    // get type of relatingStructure
-                    if (!relatingStructureType.equals(IfcSpatialStructureElementTypes.IfcBuildingStorey.name()))
-                        return 0;
-                    // if of type IfcBuildingStorey
-                    double storeyElevation = prepareDoubleString((String) relatingStructure.getAttributeValueBN("Elevation"));
-
-                    // get assigned level tag to Elevation entity
-                    for (Pair<Double, Integer> identifier : levelIdentifierList) {
-                        if (identifier.a == storeyElevation) {
-                            level = identifier.b;
-                            break;
-                        }
-                    }
-                }
-
+    private void transformToGeodetic(LatLon llBuildingOrigin, Vector3D trueNorth, ArrayList<BIMObject3D> preparedBIMData) {
+        if (llBuildingOrigin != null) {
+            GeodeticTransformation transformation = new GeodeticTransformation(getGeoreference(trueNorth),
+                    new GeodeticProjection(llBuildingOrigin));
+            for (BIMObject3D object : preparedBIMData) {
+                object.setGeodeticGeometryCoordinates(
+                        transformation.transform(object.getCartesianGeometryCoordinates()));
             }
         }
-        return level;
     }
 
     /**
-     * Method extracts and identifies level tags from IfcRelContainedInSpatialStructure elements
+     * Method composes transformation of building coordinates to meter coordinates oriented to north
      *
-     * @return List with pairs of level Elevation entity (Double) and assigned level tag (Integer)
+     * @param trueNorth true north of building, null if not defined
+     * @return transformation rotating by true north and scaling to meter
      */
-    private ArrayList<Pair<Double, Integer>> extractAndIdentifyLevels() {
-        // get all IfcRelContainedInSpatialStructure elements
-        List<EntityInstance> relContainedInSpatialStructureElements = ifcModel.getInstancesOfType("IfcRelContainedInSpatialStructure");
-
-        ArrayList<Pair<Double, Integer>> levelIdentifier = new ArrayList<>();
-        ArrayList<Double> levelList = new ArrayList<>();
-
-        // run thru IfcRelContainedInSpatialStructure and get the buildingStorey elements. Those elements include an Elevation entity
-        for (EntityInstance entity : relContainedInSpatialStructureElements) {
-            EntityInstance buildingStorey = entity.getAttributeValueBNasEntityInstance("RelatingStructure");
-            double storeyElevation = prepareDoubleString((String) buildingStorey.getAttributeValueBN("Elevation"));
-            levelList.add(storeyElevation);
+    private Affine3D getGeoreference(Vector3D trueNorth) {
+        double unitScale = 1.0;
+        if (lengthUnit == IfcUnitCatalog.LengthUnit.CM) {
+            unitScale = 1.0 / 100.0;
+        } else if (lengthUnit == IfcUnitCatalog.LengthUnit.MM) {
+            unitScale = 1.0 / 1000.0;
         }
-
-        // Sort the Elevation entity ascending
-        Collections.sort(levelList);
-
-        int level0Index = -1;
-        double level0 = 999.0;
-        for (Double level : levelList) {
-            double d = Math.abs(0.0 - level);
-            if (d < level0) {
-                level0Index = levelList.indexOf(level);
-                level0 = d;
-            }
-        }
-
-        for (Double level : levelList) {
-            int index = levelList.indexOf(level) - level0Index;
-            levelIdentifier.add(new Pair<>(level, index));
-        }
-
-        return levelIdentifier;
-    }
-
-    /**
-     * Method sets geodetic shape coordinates of PreparedBIMObject3D
-     *
-     * @param llBuildingOrigin building origin latlon
-     * @param preparedBIMData  data to set the geodetic shapes
-     */
-    private void transformToGeodetic(LatLon llBuildingOrigin, ArrayList<BIMObject3D> preparedBIMData) {
-        if (llBuildingOrigin != null) {
-            // get building rotation matrix
-            Vector3D trueNorth = getTrueNorth();
-            Matrix3D rotationMatrix = null;
-            if (trueNorth != null) {
-                double rotationAngle = new Vector3D(0,1,0).angleBetween(trueNorth);
-                rotationMatrix = ParserMath.getRotationMatrixZ(rotationAngle);
-            }
-            for (BIMObject3D object : preparedBIMData) {
-                ArrayList<LatLon> transformedCoordinates = new ArrayList<>();
-                for (Vector3D point : object.getCartesianGeometryCoordinates()) {
-                    // rotate point
-                    if(rotationMatrix != null) rotationMatrix.transform(point);
-                    // transform point
-                    LatLon llPoint = ParserGeoMath.cartesianToGeodetic(point, new Vector3D(0.0, 0.0, 0.0), llBuildingOrigin, lengthUnit);
-                    transformedCoordinates.add(llPoint);
-                }
-                object.setGeodeticGeometryCoordinates(transformedCoordinates);
-            }
+        Affine3D georeference = Affine3D.scale(unitScale);
+        if (trueNorth != null) {
+            double rotationAngle = new Vector3D(0, 1, 0).angleBetween(trueNorth);
+            georeference.multiply(new Affine3D(ParserMath.getRotationMatrixZ(rotationAngle), null));
         }
+        return georeference;
     }
 
     /**
@@ -490,7 +711,7 @@ public class BIMtoOSMParser {
      * @return latlon coordinates of building corner
      */
     @SuppressWarnings("unchecked")
-    private LatLon getLatLonBuildingOrigin(EntityInstance ifcSite) {
+    private LatLon getLatLonBuildingOrigin(IfcEntity ifcSite) {
         // get RefLatitude and RefLongitude of IfcSite
         List<String> refLat;
         List<String> refLon;
@@ -531,10 +752,10 @@ public class BIMtoOSMParser {
     private Vector3D getProjectNorth() {
         List<String> projectNorthDirectionRatios;
         try {
-            EntityInstance ifcProject = ifcModel.getInstancesOfType("IfcProject").get(0);
-            EntityInstance geometricContext = ifcProject.getAttributeValueBNasEntityInstanceList("RepresentationContexts").get(0);
-            EntityInstance worldCoordinates = geometricContext.getAttributeValueBNasEntityInstance("WorldCoordinateSystem");
-            EntityInstance projectNorth = worldCoordinates.getAttributeValueBNasEntityInstance("RefDirection");
+            IfcEntity ifcProject = ifcModel.getInstancesOfType("IfcProject").get(0);
+            IfcEntity geometricContext = ifcProject.getAttributeValueBNasEntityInstanceList("RepresentationContexts").get(0);
+            IfcEntity worldCoordinates = geometricContext.getAttributeValueBNasEntityInstance("WorldCoordinateSystem");
+            IfcEntity projectNorth = worldCoordinates.getAttributeValueBNasEntityInstance("RefDirection");
             projectNorthDirectionRatios = (List<String>) projectNorth.getAttributeValueBN("DirectionRatios");
         } catch (NullPointerException e) {
             return null;
@@ -551,9 +772,9 @@ public class BIMtoOSMParser {
     private Vector3D getTrueNorth() {
         List<String> trueNorthDirectionRatios;
         try {
-            EntityInstance ifcProject = ifcModel.getInstancesOfType("IfcProject").get(0);
-            EntityInstance geometricContext = ifcProject.getAttributeValueBNasEntityInstanceList("RepresentationContexts").get(0);
-            EntityInstance trueNorth = geometricContext.getAttributeValueBNasEntityInstance("TrueNorth");
+            IfcEntity ifcProject = ifcModel.getInstancesOfType("IfcProject").get(0);
+            IfcEntity geometricContext = ifcProject.getAttributeValueBNasEntityInstanceList("RepresentationContexts").get(0);
+            IfcEntity trueNorth = geometricContext.getAttributeValueBNasEntityInstance("TrueNorth");
             trueNorthDirectionRatios = (List<String>) trueNorth.getAttributeValueBN("DirectionRatios");
         } catch (NullPointerException e) {
             return null;
@@ -565,9 +786,9 @@ public class BIMtoOSMParser {
      * Method sets length unit of file
      */
     private void setUnits() {
-        ArrayList<EntityInstance> units =
+        ArrayList<IfcEntity> units =
                 ifcModel.getInstancesOfType("IfcUnitAssignment").get(0).getAttributeValueBNasEntityInstanceList("Units");
-        for (EntityInstance unit : units) {
+        for (IfcEntity unit : units) {
             try {
                 String unitType = (String) unit.getAttributeValueBN("UnitType");
                 String unitLabel = (String) unit.getAttributeValueBN("Name");
@@ -595,28 +816,84 @@ public class BIMtoOSMParser {
      * Method get OSM tags describing BIM object
      *
      * @param object to get OSM tags for
-     * @return OSM Tags as array
+     * @return shared unmodifiable list of OSM tags
      */
-    private ArrayList<Tag> getObjectTags(BIMObject3D object) {
-        if (object.getType().name().contains("Slab")) {
-            return (ArrayList<Tag>) tagCatalog.getTags(TagCatalog.IndoorObject.ROOM);
-        }
-        if (object.getType().name().contains("Wall")) {
-            return (ArrayList<Tag>) tagCatalog.getTags(TagCatalog.IndoorObject.CONCRETE_WALL);
-        }
-        if (object.getType().name().contains("Column")) {
-            return (ArrayList<Tag>) tagCatalog.getTags(TagCatalog.IndoorObject.CONCRETE_WALL);
-        }
-        if (object.getType().name().contains("Door")) {
-            return (ArrayList<Tag>) tagCatalog.getTags(TagCatalog.IndoorObject.DOOR_PRIVATE);
-        }
-        if (object.getType().name().contains("Window")) {
-            return (ArrayList<Tag>) tagCatalog.getTags(TagCatalog.IndoorObject.GLASS_WALL);
+    private List<Tag> getObjectTags(BIMObject3D object) {
+        TagCatalog.IndoorObject usageObject = getUsageObject(object);
+        return usageObject != null ? tagCatalog.getTags(usageObject) : objectTags.get(object.getType());
+    }
+
+    /**
+     * Method gets indoor object describing BIM object
+     *
+     * @param object to get indoor object for
+     * @return indoor object mapped by usage of object or by object type
+     */
+    private TagCatalog.IndoorObject getIndoorObject(BIMObject3D object) {
+        TagCatalog.IndoorObject usageObject = getUsageObject(object);
+        return usageObject != null ? usageObject : indoorObjects.get(object.getType());
+    }
+
+    /**
+     * Method gets indoor object the usage of a room is mapped to by the tag catalog, e.g. "WC = TOILET_MALE"
+     *
+     * @param object to get indoor object for
+     * @return mapped indoor object or null if object has no usage or usage is not mapped
+     */
+    private TagCatalog.IndoorObject getUsageObject(BIMObject3D object) {
+        return object.getUsage() != null ? tagCatalog.getMappedObject(object.getUsage()) : null;
+    }
+
+    /**
+     * Method gets OSM tags of way of BIM object
+     *
+     * @param object to get OSM tags for
+     * @param level  level tag of object
+     * @return OSM tags, shared tag-set of object type if object has neither level, GlobalId nor room attributes
+     */
+    private List<Tag> getWayTags(BIMObject3D object, int level) {
+        List<Tag> tags = getObjectTags(object);
+        if (level == DEFAULT_LEVEL && object.getGlobalId() == null && object.getName() == null
+                && object.getNumber() == null) {
+            return tags;
         }
-        if (object.getType().name().contains("Stair")) {
-            return (ArrayList<Tag>) tagCatalog.getTags(TagCatalog.IndoorObject.STEPS);
+        List<Tag> wayTags = new ArrayList<>(tags.size() + 4);
+        wayTags.addAll(tags);
+        if (level != DEFAULT_LEVEL) wayTags.add(new Tag("level", Integer.toString(level)));
+        if (object.getName() != null) wayTags.add(new Tag("name", object.getName()));
+        if (object.getNumber() != null) wayTags.add(new Tag("ref", object.getNumber()));
+        if (object.getGlobalId() != null) wayTags.add(new Tag(BIMtoOSMCatalog.GLOBAL_ID_KEY, object.getGlobalId()));
+        return wayTags;
+    }
+
+    /**
+     * Compiles the tag-set of each BIM object, mappings of the tag catalog override the default mapping
+     *
+     * @param catalog tag catalog
+     * @return tag-sets by BIM object
+     */
+    private static Map<BIMtoOSMCatalog.BIMObject, List<Tag>> createObjectTags(TagCatalog catalog,
+            Map<BIMtoOSMCatalog.BIMObject, TagCatalog.IndoorObject> indoorObjects) {
+        Map<BIMtoOSMCatalog.BIMObject, List<Tag>> tags = new EnumMap<>(BIMtoOSMCatalog.BIMObject.class);
+        indoorObjects.forEach((object, indoorObject) -> tags.put(object, catalog.getTags(indoorObject)));
+        return tags;
+    }
+
+    /**
+     * Maps each BIM object to an indoor object, mappings of the tag catalog override the default mapping
+     *
+     * @param catalog tag catalog
+     * @return indoor objects by BIM object
+     */
+    private static Map<BIMtoOSMCatalog.BIMObject, TagCatalog.IndoorObject> mapIndoorObjects(TagCatalog catalog) {
+        Map<BIMtoOSMCatalog.BIMObject, TagCatalog.IndoorObject> indoorObjects =
+                new EnumMap<>(BIMtoOSMCatalog.BIMObject.class);
+        for (BIMtoOSMCatalog.BIMObject object : BIMtoOSMCatalog.BIMObject.values()) {
+            TagCatalog.IndoorObject indoorObject = catalog.getMappedObject(object.name());
+            if (indoorObject == null) indoorObject = BIMtoOSMCatalog.getIndoorObject(object);
+            indoorObjects.put(object, indoorObject);
         }
-        return new ArrayList<>();
+        return indoorObjects;
     }
 
     /**
@@ -659,4 +936,52 @@ public class BIMtoOSMParser {
         }
     }
 
+    /**
+     * Transformation of building coordinates to latlon. True north rotation and unit scale are composed into one
+     * transformation, which is applied to the coordinate arrays of each object before projecting them.
+     */
+    private static class GeodeticTransformation {
+
+        private final Affine3D georeference;
+        private final GeodeticProjection projection;
+        // coordinate arrays reused for all objects, points of an object are transformed in batch
+        private double[] x = new double[0];
+        private double[] y = new double[0];
+        private double[] z = new double[0];
+
+        GeodeticTransformation(Affine3D georeference, GeodeticProjection projection) {
+            this.georeference = georeference;
+            this.projection = projection;
+        }
+
+        /**
+         * Transforms points of object
+         *
+         * @param points cartesian points of object
+         * @return latlon of points
+         */
+        List<LatLon> transform(List<Vector3D> points) {
+            int count = points.size();
+            if (x.length < count) {
+                x = new double[count];
+                y = new double[count];
+                z = new double[count];
+            }
+            int index = 0;
+            for (Vector3D point : points) {
+                x[index] = point.getX();
+                y[index] = point.getY();
+                z[index] = point.getZ();
+                index++;
+            }
+            georeference.transform(x, y, z, count);
+            projection.project(x, y, x, y, count);
+
+            ArrayList<LatLon> transformedCoordinates = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                transformedCoordinates.add(new LatLon(x[i], y[i]));
+            }
+            return transformedCoordinates;
+        }
+    }
 }
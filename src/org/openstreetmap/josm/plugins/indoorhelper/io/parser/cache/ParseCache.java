@@ -0,0 +1,319 @@
+// License: AGPL. For details, see LICENSE file.
+package org.openstreetmap.josm.plugins.indoorhelper.io.parser.cache;
+
+import org.openstreetmap.josm.plugins.indoorhelper.io.model.BIMtoOSMCatalog;
+import org.openstreetmap.josm.plugins.indoorhelper.io.optimizer.InputOptimizer;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.BIMtoOSMParser;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.data.BIMObject3D;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.data.ifc.IfcUnitCatalog;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.math.Vector3D;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.utils.ifc.BIMtoOSMUtility;
+import org.openstreetmap.josm.data.coor.LatLon;
+import org.openstreetmap.josm.tools.Logging;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * On-disk cache of extracted BIM data. Entries are keyed by SHA-256 hash of the IFC file content, the IFC schema,
+ * the {@link BIMtoOSMUtility.GeometrySolution}, the model loader and the input optimization. An entry holds the
+ * cartesian geometry of all extracted {@link BIMObject3D} and the model data needed to transform and pack them, so a
+ * cached file does not need to be loaded again. Entries not used within the maximum age are removed, and least
+ * recently used entries are removed if the cache exceeds its maximum size.
+ */
+public class ParseCache {
+
+    // format identifier "IHPC" and version of cache files, increase version if format changes
+    private static final int MAGIC = 0x49485043;
+    private static final int VERSION = 3;
+    private static final String SUFFIX = ".bin";
+    private static final String TEMP_SUFFIX = ".tmp";
+    public static final long DEFAULT_MAX_SIZE = 512L << 20;
+    public static final Duration DEFAULT_MAX_AGE = Duration.ofDays(30);
+
+    private final Path cacheDir;
+    private final long maxSize;
+    private final Duration maxAge;
+
+    /**
+     * Constructor, cache is limited to {@link #DEFAULT_MAX_SIZE} and {@link #DEFAULT_MAX_AGE}
+     *
+     * @param cacheDir directory holding cache files, created on first write
+     */
+    public ParseCache(Path cacheDir) {
+        this(cacheDir, DEFAULT_MAX_SIZE, DEFAULT_MAX_AGE);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param cacheDir directory holding cache files, created on first write
+     * @param maxSize  maximum total size of cache files in bytes
+     * @param maxAge   maximum time since last use of an entry
+     */
+    public ParseCache(Path cacheDir, long maxSize, Duration maxAge) {
+        this.cacheDir = cacheDir;
+        this.maxSize = maxSize;
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * Calculates cache key of IFC file
+     *
+     * @param ifcFile     IFC file, compressed files are hashed as they are
+     * @param schema      IFC schema of file
+     * @param solution    geometry solution used for extraction
+     * @param loader      model loader the file is read with
+     * @param inputConfig input optimization applied before extraction
+     * @return cache key
+     * @throws IOException if file can not be read
+     */
+    public String getKey(File ifcFile, String schema, BIMtoOSMUtility.GeometrySolution solution,
+                         BIMtoOSMParser.ModelLoader loader, InputOptimizer.Configuration inputConfig)
+            throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+        try (InputStream in = new DigestInputStream(new BufferedInputStream(Files.newInputStream(ifcFile.toPath())),
+                digest)) {
+            byte[] buffer = new byte[1 << 16];
+            while (in.read(buffer) >= 0) {
+                // digest is updated while reading
+            }
+        }
+        StringBuilder key = new StringBuilder();
+        for (byte b : digest.digest()) {
+            key.append(String.format("%02x", b));
+        }
+        return key.append('_').append(schema).append('_').append(solution.name()).append('_').append(loader.name())
+                .append('_').append(inputConfig.REMOVE_BLOCK_COMMENTS ? '1' : '0')
+                .append(inputConfig.REMOVE_UNREACHABLE_ENTITIES ? '1' : '0').toString();
+    }
+
+    /**
+     * Reads cache entry
+     *
+     * @param key of entry
+     * @return cached data or null if there is no valid entry
+     */
+    public ParsedData read(String key) {
+        Path file = cacheDir.resolve(key + SUFFIX);
+        if (!Files.isRegularFile(file)) return null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) return null;
+            ParsedData data = new ParsedData();
+            data.lengthUnit = IfcUnitCatalog.LengthUnit.valueOf(in.readUTF());
+            if (in.readBoolean()) data.buildingOrigin = new LatLon(in.readDouble(), in.readDouble());
+            if (in.readBoolean()) data.trueNorth = readVector(in);
+            data.sourceObjectCount = in.readInt();
+
+            int objectCount = in.readInt();
+            data.objects = new ArrayList<>(objectCount);
+            data.levels = new int[objectCount];
+            for (int i = 0; i < objectCount; i++) {
+                int id = in.readInt();
+                String globalId = readString(in);
+                String name = readString(in);
+                String number = readString(in);
+                String usage = readString(in);
+                BIMtoOSMCatalog.BIMObject type = BIMtoOSMCatalog.BIMObject.valueOf(in.readUTF());
+                data.levels[i] = in.readInt();
+                int pointCount = in.readInt();
+                List<Vector3D> points = new ArrayList<>(pointCount);
+                for (int p = 0; p < pointCount; p++) {
+                    points.add(readVector(in));
+                }
+                BIMObject3D object = new BIMObject3D(id, type, new Vector3D(), points);
+                object.setGlobalId(globalId);
+                object.setName(name);
+                object.setNumber(number);
+                object.setUsage(usage);
+                data.objects.add(object);
+            }
+            touch(file);
+            return data;
+        } catch (IOException | IllegalArgumentException e) {
+            Logging.info(ParseCache.class.getName() + ": ignoring invalid cache file " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Writes cache entry. The entry is written to a temporary file first and moved afterwards, so
+     * concurrent imports never read partially written entries. Outdated and least recently used entries are removed
+     * afterwards.
+     *
+     * @param key  of entry
+     * @param data to cache
+     */
+    public void write(String key, ParsedData data) {
+        Path file = cacheDir.resolve(key + SUFFIX);
+        Path tempFile = null;
+        try {
+            Files.createDirectories(cacheDir);
+            tempFile = Files.createTempFile(cacheDir, key, TEMP_SUFFIX);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeUTF(data.lengthUnit.name());
+                out.writeBoolean(data.buildingOrigin != null);
+                if (data.buildingOrigin != null) {
+                    out.writeDouble(data.buildingOrigin.lat());
+                    out.writeDouble(data.buildingOrigin.lon());
+                }
+                out.writeBoolean(data.trueNorth != null);
+                if (data.trueNorth != null) writeVector(out, data.trueNorth);
+                out.writeInt(data.sourceObjectCount);
+
+                out.writeInt(data.objects.size());
+                for (int i = 0; i < data.objects.size(); i++) {
+                    BIMObject3D object = data.objects.get(i);
+                    out.writeInt(object.getId());
+                    writeString(out, object.getGlobalId());
+                    writeString(out, object.getName());
+                    writeString(out, object.getNumber());
+                    writeString(out, object.getUsage());
+                    out.writeUTF(object.getType().name());
+                    out.writeInt(data.levels[i]);
+                    out.writeInt(object.getCartesianGeometryCoordinates().size());
+                    for (Vector3D point : object.getCartesianGeometryCoordinates()) {
+                        writeVector(out, point);
+                    }
+                }
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Logging.info(ParseCache.class.getName() + ": failed to write cache file " + file + ": " + e.getMessage());
+            try {
+                if (tempFile != null) Files.deleteIfExists(tempFile);
+            } catch (IOException ignored) {
+                // do nothing
+            }
+            return;
+        }
+        evict();
+    }
+
+    /**
+     * Removes entries not used within the maximum age, then least recently used entries until the cache does not
+     * exceed its maximum size. Left over temporary files of failed writes are removed after the maximum age, too.
+     */
+    private void evict() {
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(cacheDir)) {
+            files = stream.filter(Files::isRegularFile)
+                    .filter(f -> f.toString().endsWith(SUFFIX) || f.toString().endsWith(TEMP_SUFFIX))
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            Logging.info(ParseCache.class.getName() + ": failed to list cache directory " + cacheDir + ": "
+                    + e.getMessage());
+            return;
+        }
+
+        long oldest = System.currentTimeMillis() - maxAge.toMillis();
+        List<CacheFile> entries = new ArrayList<>();
+        long size = 0;
+        for (Path file : files) {
+            try {
+                long lastUsed = Files.getLastModifiedTime(file).toMillis();
+                if (lastUsed < oldest) {
+                    Files.deleteIfExists(file);
+                } else if (file.toString().endsWith(SUFFIX)) {
+                    long fileSize = Files.size(file);
+                    entries.add(new CacheFile(file, lastUsed, fileSize));
+                    size += fileSize;
+                }
+            } catch (IOException e) {
+                // file was removed or replaced by a concurrent import
+                Logging.trace(e);
+            }
+        }
+
+        entries.sort(Comparator.comparingLong(entry -> entry.lastUsed));
+        for (int i = 0; i < entries.size() && size > maxSize; i++) {
+            try {
+                Files.deleteIfExists(entries.get(i).file);
+                size -= entries.get(i).size;
+            } catch (IOException e) {
+                Logging.info(ParseCache.class.getName() + ": failed to remove cache file " + entries.get(i).file
+                        + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static void touch(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            Logging.trace(e);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) out.writeUTF(value);
+    }
+
+    private static Vector3D readVector(DataInputStream in) throws IOException {
+        return new Vector3D(in.readDouble(), in.readDouble(), in.readDouble());
+    }
+
+    private static void writeVector(DataOutputStream out, Vector3D vector) throws IOException {
+        out.writeDouble(vector.getX());
+        out.writeDouble(vector.getY());
+        out.writeDouble(vector.getZ());
+    }
+
+    private static final class CacheFile {
+        final Path file;
+        final long lastUsed;
+        final long size;
+
+        CacheFile(Path file, long lastUsed, long size) {
+            this.file = file;
+            this.lastUsed = lastUsed;
+            this.size = size;
+        }
+    }
+
+    /**
+     * Extracted BIM data of an IFC file, ready for geodetic transformation and packing into OSM data
+     */
+    public static class ParsedData {
+        // extracted objects with cartesian geometry and their level tags
+        public List<BIMObject3D> objects;
+        public int[] levels;
+        // number of objects found in file, may differ from extracted objects if extraction failed
+        public int sourceObjectCount;
+
+        // model data needed for geodetic transformation
+        public IfcUnitCatalog.LengthUnit lengthUnit;
+        public LatLon buildingOrigin;
+        public Vector3D trueNorth;
+    }
+}
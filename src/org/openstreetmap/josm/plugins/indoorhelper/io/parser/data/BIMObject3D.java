@@ -4,7 +4,7 @@ package org.openstreetmap.josm.plugins.indoorhelper.io.parser.data;
 import org.openstreetmap.josm.plugins.indoorhelper.io.model.BIMtoOSMCatalog;
 import org.openstreetmap.josm.plugins.indoorhelper.io.parser.math.Matrix3D;
 import org.openstreetmap.josm.plugins.indoorhelper.io.parser.math.Vector3D;
-import nl.tue.buildingsmart.express.population.EntityInstance;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.data.ifc.IfcEntity;
 import org.openstreetmap.josm.data.coor.LatLon;
 
 import java.util.ArrayList;
@@ -17,10 +17,16 @@ public class BIMObject3D {
 
     // object identity
     private int id;
+    // IFC GlobalId, stable over revisions of the model
+    private String globalId;
     private BIMtoOSMCatalog.BIMObject type;
-    private EntityInstance rootEntity;
-    private EntityInstance placementEntity;
-    private EntityInstance representationEntity;
+    // room attributes of IfcSpace, null for other objects
+    private String name;
+    private String number;
+    private String usage;
+    private IfcEntity rootEntity;
+    private IfcEntity placementEntity;
+    private IfcEntity representationEntity;
 
     // object representation data
     private List<Vector3D> cartesianGeometryCoordinates;
@@ -61,6 +67,38 @@ public class BIMObject3D {
         this.id = id;
     }
 
+    public String getGlobalId() {
+        return globalId;
+    }
+
+    public void setGlobalId(String globalId) {
+        this.globalId = globalId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getNumber() {
+        return number;
+    }
+
+    public void setNumber(String number) {
+        this.number = number;
+    }
+
+    public String getUsage() {
+        return usage;
+    }
+
+    public void setUsage(String usage) {
+        this.usage = usage;
+    }
+
     public BIMtoOSMCatalog.BIMObject getType() {
         return type;
     }
@@ -69,27 +107,27 @@ public class BIMObject3D {
         this.type = type;
     }
 
-    public EntityInstance getRootEntity() {
+    public IfcEntity getRootEntity() {
         return rootEntity;
     }
 
-    public void setRootEntity(EntityInstance rootEntity) {
+    public void setRootEntity(IfcEntity rootEntity) {
         this.rootEntity = rootEntity;
     }
 
-    public EntityInstance getPlacementEntity() {
+    public IfcEntity getPlacementEntity() {
         return placementEntity;
     }
 
-    public void setPlacementEntity(EntityInstance placementEntity) {
+    public void setPlacementEntity(IfcEntity placementEntity) {
         this.placementEntity = placementEntity;
     }
 
-    public EntityInstance getRepresentationEntity() {
+    public IfcEntity getRepresentationEntity() {
         return representationEntity;
     }
 
-    public void setRepresentationEntity(EntityInstance representationEntity) {
+    public void setRepresentationEntity(IfcEntity representationEntity) {
         this.representationEntity = representationEntity;
     }
 
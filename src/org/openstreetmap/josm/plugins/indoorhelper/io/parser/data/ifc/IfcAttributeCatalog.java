@@ -0,0 +1,129 @@
+// License: AGPL. For details, see LICENSE file.
+package org.openstreetmap.josm.plugins.indoorhelper.io.parser.data.ifc;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Class holding the explicit attribute order of ifc entity types used by the parser.
+ * The lightweight STEP loader has no EXPRESS schema, so attribute names are mapped to attribute positions here.
+ * Positions are equal for IFC2X3, IFC4, IFC4X2 and IFC4X3 unless noted otherwise.
+ */
+public class IfcAttributeCatalog {
+
+    private static final Map<String, String[]> ATTRIBUTES = new HashMap<>();
+
+    // inheritance chains of commonly used supertypes
+    private static final String[] ROOT = {"GlobalId", "OwnerHistory", "Name", "Description"};
+    private static final String[] OBJECT = concat(ROOT, "ObjectType");
+    private static final String[] PRODUCT = concat(OBJECT, "ObjectPlacement", "Representation");
+    private static final String[] ELEMENT = concat(PRODUCT, "Tag");
+    private static final String[] SPATIAL_ELEMENT = concat(PRODUCT, "LongName", "CompositionType");
+    private static final String[] PROFILE_DEF = {"ProfileType", "ProfileName"};
+    private static final String[] PARAMETERIZED_PROFILE_DEF = concat(PROFILE_DEF, "Position");
+    private static final String[] HALF_SPACE_SOLID = {"BaseSurface", "AgreementFlag"};
+
+    static {
+        // products
+        register(concat(ELEMENT, "PredefinedType"),
+                "IfcSlab", "IfcSlabStandardCase", "IfcSlabElementedCase",
+                "IfcWall", "IfcWallStandardCase", "IfcWallElementedCase",
+                "IfcColumn", "IfcColumnStandardCase", "IfcOpeningElement", "IfcOpeningStandardCase",
+                // IFC2X3 defines ShapeType instead of PredefinedType for IfcStair, both are at same position
+                "IfcStair");
+        register(concat(ELEMENT, "OverallHeight", "OverallWidth", "PredefinedType", "OperationType",
+                        "UserDefinedOperationType"),
+                "IfcDoor", "IfcDoorStandardCase", "IfcWindow", "IfcWindowStandardCase");
+        register(concat(SPATIAL_ELEMENT, "RefLatitude", "RefLongitude", "RefElevation", "LandTitleNumber",
+                "SiteAddress"), "IfcSite");
+        register(concat(SPATIAL_ELEMENT, "ElevationOfRefHeight", "ElevationOfTerrain", "BuildingAddress"),
+                "IfcBuilding");
+        register(concat(SPATIAL_ELEMENT, "Elevation"), "IfcBuildingStorey");
+        // IFC2X3 defines InteriorOrExteriorSpace instead of PredefinedType, both are at same position
+        register(concat(SPATIAL_ELEMENT, "PredefinedType", "ElevationWithFlooring"), "IfcSpace");
+        register(concat(OBJECT, "LongName", "Phase", "RepresentationContexts", "UnitsInContext"), "IfcProject");
+
+        // relationships
+        register(concat(ROOT, "RelatedElements", "RelatingStructure"), "IfcRelContainedInSpatialStructure");
+        register(concat(ROOT, "RelatingBuildingElement", "RelatedOpeningElement"), "IfcRelVoidsElement");
+        register(concat(ROOT, "RelatingObject", "RelatedObjects"), "IfcRelAggregates");
+
+        // placement and representation
+        register(new String[]{"PlacementRelTo", "RelativePlacement"}, "IfcLocalPlacement");
+        register(new String[]{"Location", "Axis", "RefDirection"}, "IfcAxis2Placement3D");
+        register(new String[]{"Location", "RefDirection"}, "IfcAxis2Placement2D");
+        register(new String[]{"Coordinates"}, "IfcCartesianPoint");
+        register(new String[]{"DirectionRatios"}, "IfcDirection");
+        register(new String[]{"Name", "Description", "Representations"}, "IfcProductDefinitionShape");
+        register(new String[]{"ContextOfItems", "RepresentationIdentifier", "RepresentationType", "Items"},
+                "IfcShapeRepresentation");
+        register(new String[]{"ContextIdentifier", "ContextType", "CoordinateSpaceDimension", "Precision",
+                "WorldCoordinateSystem", "TrueNorth"}, "IfcGeometricRepresentationContext");
+        register(new String[]{"MappingSource", "MappingTarget"}, "IfcMappedItem");
+
+        // units
+        register(new String[]{"Units"}, "IfcUnitAssignment");
+        register(new String[]{"Dimensions", "UnitType", "Prefix", "Name"}, "IfcSIUnit");
+        register(new String[]{"Dimensions", "UnitType", "Name", "ConversionFactor"}, "IfcConversionBasedUnit");
+
+        // geometry
+        register(new String[]{"Corner", "XDim", "YDim", "ZDim"}, "IfcBoundingBox");
+        register(new String[]{"Outer"}, "IfcFacetedBrep");
+        register(new String[]{"CfsFaces"}, "IfcClosedShell", "IfcOpenShell");
+        register(new String[]{"Bounds"}, "IfcFace");
+        register(new String[]{"Bound", "Orientation"}, "IfcFaceBound", "IfcFaceOuterBound");
+        register(new String[]{"Polygon"}, "IfcPolyLoop");
+        register(new String[]{"Points"}, "IfcPolyline");
+        register(new String[]{"Segments", "SelfIntersect"}, "IfcCompositeCurve");
+        register(new String[]{"Transition", "SameSense", "ParentCurve"}, "IfcCompositeCurveSegment");
+        register(new String[]{"BasisCurve", "Trim1", "Trim2", "SenseAgreement", "MasterRepresentation"},
+                "IfcTrimmedCurve");
+        register(new String[]{"Position", "Radius"}, "IfcCircle");
+        register(new String[]{"Operator", "FirstOperand", "SecondOperand"},
+                "IfcBooleanResult", "IfcBooleanClippingResult");
+        register(HALF_SPACE_SOLID, "IfcHalfSpaceSolid");
+        register(concat(HALF_SPACE_SOLID, "Position", "PolygonalBoundary"), "IfcPolygonalBoundedHalfSpace");
+        register(concat(HALF_SPACE_SOLID, "Enclosure"), "IfcBoxedHalfSpace");
+        register(new String[]{"Elements"}, "IfcGeometricSet", "IfcGeometricCurveSet");
+        register(new String[]{"SweptArea", "Position", "ExtrudedDirection", "Depth"}, "IfcExtrudedAreaSolid");
+        register(new String[]{"SweptArea", "Position", "Axis", "Angle"}, "IfcRevolvedAreaSolid");
+        register(concat(PARAMETERIZED_PROFILE_DEF, "XDim", "YDim"), "IfcRectangleProfileDef");
+        register(concat(PARAMETERIZED_PROFILE_DEF, "Radius"), "IfcCircleProfileDef");
+        register(concat(PROFILE_DEF, "OuterCurve"), "IfcArbitraryClosedProfileDef");
+        register(concat(PROFILE_DEF, "OuterCurve", "InnerCurves"), "IfcArbitraryProfileDefWithVoids");
+    }
+
+    private IfcAttributeCatalog() {
+        // private constructor for utility class
+    }
+
+    /**
+     * Returns position of attribute in STEP record of entity type
+     *
+     * @param typeName      entity type, case insensitive
+     * @param attributeName EXPRESS attribute name
+     * @return position of attribute or -1 if type or attribute is unknown
+     */
+    public static int getAttributeIndex(String typeName, String attributeName) {
+        String[] attributes = ATTRIBUTES.get(typeName.toUpperCase(Locale.ROOT));
+        if (attributes == null) return -1;
+        for (int i = 0; i < attributes.length; i++) {
+            if (attributes[i].equals(attributeName)) return i;
+        }
+        return -1;
+    }
+
+    private static void register(String[] attributes, String... typeNames) {
+        for (String typeName : typeNames) {
+            ATTRIBUTES.put(typeName.toUpperCase(Locale.ROOT), attributes);
+        }
+    }
+
+    private static String[] concat(String[] supertype, String... attributes) {
+        String[] result = Arrays.copyOf(supertype, supertype.length + attributes.length);
+        System.arraycopy(attributes, 0, result, supertype.length, attributes.length);
+        return result;
+    }
+}
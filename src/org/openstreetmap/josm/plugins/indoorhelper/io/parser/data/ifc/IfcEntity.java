@@ -0,0 +1,50 @@
+// License: AGPL. For details, see LICENSE file.
+package org.openstreetmap.josm.plugins.indoorhelper.io.parser.data.ifc;
+
+import java.util.ArrayList;
+
+/**
+ * Entity instance of a loaded IFC model. Attributes are accessed by their EXPRESS name like in the
+ * BuildingSMARTLibrary. Simple values are returned as they are written in the STEP file (strings with quotes,
+ * enumerations with dots, numbers as string), aggregates as {@link java.util.List} and references as {@link IfcEntity}.
+ */
+public interface IfcEntity {
+
+    /**
+     * Returns STEP instance id of entity
+     *
+     * @return instance id
+     */
+    int getId();
+
+    /**
+     * Returns type name of entity in upper case like written in STEP file, e.g. IFCWALL
+     *
+     * @return type name
+     */
+    String getTypeName();
+
+    /**
+     * Returns value of attribute
+     *
+     * @param name of attribute
+     * @return attribute value or null if attribute is unset or unknown
+     */
+    Object getAttributeValueBN(String name);
+
+    /**
+     * Returns value of attribute referencing another entity
+     *
+     * @param name of attribute
+     * @return referenced entity or null if attribute is unset or no reference
+     */
+    IfcEntity getAttributeValueBNasEntityInstance(String name);
+
+    /**
+     * Returns all entities referenced by aggregate attribute
+     *
+     * @param name of attribute
+     * @return referenced entities, empty if attribute is unset
+     */
+    ArrayList<IfcEntity> getAttributeValueBNasEntityInstanceList(String name);
+}
@@ -0,0 +1,45 @@
+// License: AGPL. For details, see LICENSE file.
+package org.openstreetmap.josm.plugins.indoorhelper.io.parser.data.ifc;
+
+import java.util.List;
+
+/**
+ * Loaded IFC model. Abstracts the loader used to read the IFC file, so the extraction code does not depend
+ * on the BuildingSMARTLibrary model population. Loaded models can be read by several threads at once.
+ */
+public interface IfcModel {
+
+    /**
+     * Returns all entities of type. Subtypes are not included.
+     *
+     * @param typeName of entities, case insensitive
+     * @return entities of type, empty if there are none
+     */
+    List<IfcEntity> getInstancesOfType(String typeName);
+
+    /**
+     * Returns entity with instance id
+     *
+     * @param id STEP instance id
+     * @return entity or null if model does not contain id
+     */
+    IfcEntity getInstance(int id);
+
+    /**
+     * Checks if entity is of type. Subtypes are not included.
+     *
+     * @param entity   to check type of
+     * @param typeName to check, case insensitive
+     * @return true if entity is of type, else false
+     */
+    default boolean isInstanceOf(IfcEntity entity, String typeName) {
+        return entity != null && entity.getTypeName().equalsIgnoreCase(typeName);
+    }
+
+    /**
+     * Returns number of entities in model
+     *
+     * @return number of entities
+     */
+    int size();
+}
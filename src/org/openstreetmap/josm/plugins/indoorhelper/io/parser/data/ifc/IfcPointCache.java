@@ -0,0 +1,134 @@
+// License: AGPL. For details, see LICENSE file.
+package org.openstreetmap.josm.plugins.indoorhelper.io.parser.data.ifc;
+
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.math.Vector3D;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.openstreetmap.josm.plugins.indoorhelper.io.parser.utils.ParserUtility.prepareDoubleString;
+
+/**
+ * Per-import cache of decoded IfcCartesianPoint coordinates.
+ * Each point entity is parsed once and its coordinates are kept in a primitive array keyed by entity id,
+ * so points shared by several loops, polylines or profiles are not decoded and stored again.
+ */
+public class IfcPointCache {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int EMPTY_KEY = Integer.MIN_VALUE;
+    private static final int INVALID_POINT = -1;
+
+    // open addressing map: entity id -> point index
+    private int[] keys;
+    private int[] values;
+    private int entries;
+
+    // decoded coordinates x, y, z per point
+    private double[] coordinates;
+    private int points;
+
+    public IfcPointCache() {
+        keys = new int[INITIAL_CAPACITY];
+        values = new int[INITIAL_CAPACITY];
+        Arrays.fill(keys, EMPTY_KEY);
+        coordinates = new double[INITIAL_CAPACITY * 3];
+    }
+
+    /**
+     * Returns coordinates of IfcCartesianPoint entity as new {@link Vector3D}. Point is decoded on first access only.
+     *
+     * @param cartesianPoint IfcCartesianPoint entity
+     * @return coordinate as {@link Vector3D} or null if point has no valid coordinates
+     */
+    public Vector3D getVector3D(IfcEntity cartesianPoint) {
+        int index = resolve(cartesianPoint);
+        if (index == INVALID_POINT) return null;
+        return new Vector3D(coordinates[index * 3], coordinates[index * 3 + 1], coordinates[index * 3 + 2]);
+    }
+
+    /**
+     * Returns number of decoded points
+     *
+     * @return number of points stored in cache
+     */
+    public int size() {
+        return points;
+    }
+
+    /**
+     * Gets index of point in coordinate array, decodes point if not cached yet
+     *
+     * @param cartesianPoint IfcCartesianPoint entity
+     * @return index of point or INVALID_POINT
+     */
+    private int resolve(IfcEntity cartesianPoint) {
+        if (cartesianPoint == null) return INVALID_POINT;
+        int id = cartesianPoint.getId();
+        int slot = findSlot(id);
+        if (keys[slot] == id) return values[slot];
+
+        int index = decode(cartesianPoint);
+        keys[slot] = id;
+        values[slot] = index;
+        if (++entries * 2 > keys.length) rehash();
+        return index;
+    }
+
+    /**
+     * Parses coordinates of point and appends them to coordinate array
+     *
+     * @param cartesianPoint IfcCartesianPoint entity
+     * @return index of point or INVALID_POINT
+     */
+    private int decode(IfcEntity cartesianPoint) {
+        @SuppressWarnings("unchecked")
+        List<String> objectCoords = (List<String>) cartesianPoint.getAttributeValueBN("Coordinates");
+        if (objectCoords == null || objectCoords.size() < 2) return INVALID_POINT;
+        double x = prepareDoubleString(objectCoords.get(0));
+        double y = prepareDoubleString(objectCoords.get(1));
+        double z = 0.0;
+        if (objectCoords.size() == 3) {
+            z = prepareDoubleString(objectCoords.get(2));
+        }
+        if (Double.isNaN(x) || Double.isNaN(y) || Double.isNaN(z)) {
+            return INVALID_POINT;
+        }
+
+        if ((points + 1) * 3 > coordinates.length) {
+            coordinates = Arrays.copyOf(coordinates, coordinates.length * 2);
+        }
+        coordinates[points * 3] = x;
+        coordinates[points * 3 + 1] = y;
+        coordinates[points * 3 + 2] = z;
+        return points++;
+    }
+
+    private int findSlot(int id) {
+        int mask = keys.length - 1;
+        int slot = mix(id) & mask;
+        while (keys[slot] != EMPTY_KEY && keys[slot] != id) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash() {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = new int[oldValues.length * 2];
+        Arrays.fill(keys, EMPTY_KEY);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY_KEY) continue;
+            int slot = findSlot(oldKeys[i]);
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+    }
+
+    private static int mix(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,76 @@
+// License: AGPL. For details, see LICENSE file.
+package org.openstreetmap.josm.plugins.indoorhelper.io.parser.express;
+
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.data.ifc.IfcEntity;
+import nl.tue.buildingsmart.express.population.EntityInstance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * {@link IfcEntity} backed by a BuildingSMARTLibrary {@link EntityInstance}
+ */
+class ExpressEntity implements IfcEntity {
+
+    private final ExpressModel model;
+    private final EntityInstance instance;
+
+    ExpressEntity(ExpressModel model, EntityInstance instance) {
+        this.model = model;
+        this.instance = instance;
+    }
+
+    @Override
+    public int getId() {
+        return instance.getId();
+    }
+
+    @Override
+    public String getTypeName() {
+        return instance.getEntityDefinition().getName().toUpperCase(Locale.ROOT);
+    }
+
+    @Override
+    public Object getAttributeValueBN(String name) {
+        return wrapValue(instance.getAttributeValueBN(name));
+    }
+
+    @Override
+    public IfcEntity getAttributeValueBNasEntityInstance(String name) {
+        return model.wrap(instance.getAttributeValueBNasEntityInstance(name));
+    }
+
+    @Override
+    public ArrayList<IfcEntity> getAttributeValueBNasEntityInstanceList(String name) {
+        ArrayList<IfcEntity> entities = new ArrayList<>();
+        ArrayList<EntityInstance> instances = instance.getAttributeValueBNasEntityInstanceList(name);
+        if (instances != null) {
+            instances.forEach(i -> entities.add(model.wrap(i)));
+        }
+        return entities;
+    }
+
+    /**
+     * Replaces entity instances in value by their {@link IfcEntity}
+     *
+     * @param value attribute value
+     * @return value with wrapped entity instances
+     */
+    private Object wrapValue(Object value) {
+        if (value instanceof EntityInstance) {
+            return model.wrap((EntityInstance) value);
+        }
+        if (value instanceof List && ((List<?>) value).stream().anyMatch(v -> v instanceof EntityInstance || v instanceof List)) {
+            List<Object> values = new ArrayList<>();
+            ((List<?>) value).forEach(v -> values.add(wrapValue(v)));
+            return values;
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return instance.toString();
+    }
+}
@@ -0,0 +1,63 @@
+// License: AGPL. For details, see LICENSE file.
+package org.openstreetmap.josm.plugins.indoorhelper.io.parser.express;
+
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.data.ifc.IfcEntity;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.data.ifc.IfcModel;
+import nl.tue.buildingsmart.express.population.EntityInstance;
+import nl.tue.buildingsmart.express.population.ModelPopulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link IfcModel} backed by a BuildingSMARTLibrary {@link ModelPopulation} loaded with EXPRESS schema
+ */
+public class ExpressModel implements IfcModel {
+
+    private final ModelPopulation population;
+    private final Map<Integer, ExpressEntity> entities = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor
+     *
+     * @param population loaded model population
+     */
+    public ExpressModel(ModelPopulation population) {
+        this.population = population;
+    }
+
+    @Override
+    public List<IfcEntity> getInstancesOfType(String typeName) {
+        List<EntityInstance> instances = population.getInstancesOfType(typeName);
+        List<IfcEntity> wrapped = new ArrayList<>();
+        if (instances != null) {
+            instances.forEach(instance -> wrapped.add(wrap(instance)));
+        }
+        return wrapped;
+    }
+
+    @Override
+    public IfcEntity getInstance(int id) {
+        Map<Integer, EntityInstance> instances = population.getInstances();
+        return instances == null ? null : wrap(instances.get(id));
+    }
+
+    @Override
+    public int size() {
+        Map<Integer, EntityInstance> instances = population.getInstances();
+        return instances == null ? 0 : instances.size();
+    }
+
+    /**
+     * Returns {@link IfcEntity} of entity instance. Each instance is wrapped once.
+     *
+     * @param instance to wrap
+     * @return wrapped instance or null if instance is null
+     */
+    ExpressEntity wrap(EntityInstance instance) {
+        if (instance == null) return null;
+        return entities.computeIfAbsent(instance.getId(), id -> new ExpressEntity(this, instance));
+    }
+}
@@ -0,0 +1,100 @@
+// License: AGPL. For details, see LICENSE file.
+package org.openstreetmap.josm.plugins.indoorhelper.io.parser.express;
+
+import nl.tue.buildingsmart.express.parser.ExpressSchemaParser;
+import nl.tue.buildingsmart.schema.SchemaDefinition;
+import org.openstreetmap.josm.plugins.indoorhelper.PluginResourceManager;
+import org.openstreetmap.josm.tools.Logging;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Process-wide registry of parsed EXPRESS schemas. Each schema is parsed once in background and the parsed
+ * {@link SchemaDefinition} is shared by all imports. Imports only read the schema definition. Schemas are
+ * identified by file name and read from the plugin classpath if available, else from the schema file.
+ */
+public final class ExpressSchemaRegistry {
+
+    private static final Map<String, CompletableFuture<SchemaDefinition>> SCHEMAS = new ConcurrentHashMap<>();
+
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "indoorhelper-schema-loader");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    private ExpressSchemaRegistry() {
+        // private constructor for utility class
+    }
+
+    /**
+     * Starts parsing of schema files in background. Schemas already parsed or being parsed are skipped.
+     *
+     * @param schemaFiles EXPRESS schema files
+     */
+    public static void preload(Path... schemaFiles) {
+        for (Path schemaFile : schemaFiles) {
+            request(schemaFile);
+        }
+    }
+
+    /**
+     * Returns parsed schema. Waits for the schema if it is still being parsed and parses it if it was not
+     * preloaded.
+     *
+     * @param schemaFile EXPRESS schema file
+     * @return parsed schema or null if schema file can not be parsed
+     */
+    public static SchemaDefinition getSchema(Path schemaFile) {
+        CompletableFuture<SchemaDefinition> schema = request(schemaFile);
+        try {
+            return schema.join();
+        } catch (CompletionException e) {
+            // allow parsing again, e.g. if schema file was not exported yet
+            SCHEMAS.remove(schemaFile.getFileName().toString(), schema);
+            Logging.info(ExpressSchemaRegistry.class.getName() + ": failed to parse schema " + schemaFile + ": "
+                    + e.getCause());
+            return null;
+        }
+    }
+
+    private static CompletableFuture<SchemaDefinition> request(Path schemaFile) {
+        return SCHEMAS.computeIfAbsent(schemaFile.getFileName().toString(),
+                name -> CompletableFuture.supplyAsync(() -> parse(schemaFile), EXECUTOR));
+    }
+
+    private static SchemaDefinition parse(Path schemaFile) {
+        long start = System.currentTimeMillis();
+        ExpressSchemaParser parser;
+        try (InputStream in = PluginResourceManager.openResource("resources/" + schemaFile.getFileName())) {
+            if (in != null) {
+                parser = new ExpressSchemaParser(in);
+            } else if (Files.isRegularFile(schemaFile)) {
+                parser = new ExpressSchemaParser(schemaFile.toFile());
+            } else {
+                throw new IllegalStateException("schema file does not exist");
+            }
+            parser.parse();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        SchemaDefinition schema = parser.getSchema();
+        if (schema == null) {
+            throw new IllegalStateException("schema file could not be parsed");
+        }
+        Logging.info(String.format("%s: parsed schema %s in %d ms", ExpressSchemaRegistry.class.getName(),
+                schemaFile.getFileName(), System.currentTimeMillis() - start));
+        return schema;
+    }
+}
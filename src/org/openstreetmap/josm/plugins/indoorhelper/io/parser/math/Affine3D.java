@@ -0,0 +1,221 @@
+// License: AGPL. For details, see LICENSE file.
+package org.openstreetmap.josm.plugins.indoorhelper.io.parser.math;
+
+import java.util.List;
+
+/**
+ * Class provides 3D affine transformation as 3x4 matrix, i.e. a linear part and a translation. Transformations are
+ * composed once and applied to all points in a single pass.
+ */
+public class Affine3D {
+
+    private double m00;
+    private double m01;
+    private double m02;
+    private double m03;
+    private double m10;
+    private double m11;
+    private double m12;
+    private double m13;
+    private double m20;
+    private double m21;
+    private double m22;
+    private double m23;
+
+    /**
+     * Creates identity transformation
+     */
+    public Affine3D() {
+        setIdentity();
+    }
+
+    /**
+     * Creates transformation which first applies the linear matrix and then the translation
+     *
+     * @param linear      linear part, e.g. rotation
+     * @param translation translation, may be null
+     */
+    public Affine3D(Matrix3D linear, Vector3D translation) {
+        this.m00 = linear.getM00();
+        this.m01 = linear.getM01();
+        this.m02 = linear.getM02();
+        this.m10 = linear.getM10();
+        this.m11 = linear.getM11();
+        this.m12 = linear.getM12();
+        this.m20 = linear.getM20();
+        this.m21 = linear.getM21();
+        this.m22 = linear.getM22();
+        if (translation != null) {
+            this.m03 = translation.getX();
+            this.m13 = translation.getY();
+            this.m23 = translation.getZ();
+        }
+    }
+
+    public Affine3D(Affine3D affine) {
+        set(affine);
+    }
+
+    /**
+     * Creates scale transformation
+     *
+     * @param scalar uniform scale factor
+     * @return scale transformation
+     */
+    public static Affine3D scale(double scalar) {
+        Affine3D affine = new Affine3D();
+        affine.m00 = scalar;
+        affine.m11 = scalar;
+        affine.m22 = scalar;
+        return affine;
+    }
+
+    /**
+     * Sets this transformation to identity
+     */
+    public void setIdentity() {
+        this.m00 = 1.0;
+        this.m01 = 0.0;
+        this.m02 = 0.0;
+        this.m03 = 0.0;
+
+        this.m10 = 0.0;
+        this.m11 = 1.0;
+        this.m12 = 0.0;
+        this.m13 = 0.0;
+
+        this.m20 = 0.0;
+        this.m21 = 0.0;
+        this.m22 = 1.0;
+        this.m23 = 0.0;
+    }
+
+    /**
+     * Sets values of this transformation to values from param transformation
+     *
+     * @param affine to get values from
+     */
+    public void set(Affine3D affine) {
+        this.m00 = affine.m00;
+        this.m01 = affine.m01;
+        this.m02 = affine.m02;
+        this.m03 = affine.m03;
+        this.m10 = affine.m10;
+        this.m11 = affine.m11;
+        this.m12 = affine.m12;
+        this.m13 = affine.m13;
+        this.m20 = affine.m20;
+        this.m21 = affine.m21;
+        this.m22 = affine.m22;
+        this.m23 = affine.m23;
+    }
+
+    /**
+     * Sets this transformation to the composition of this and param transformation. The result applies param
+     * transformation first and this transformation afterwards.
+     *
+     * @param affine to apply first
+     */
+    public void multiply(Affine3D affine) {
+        double n00 = this.m00 * affine.m00 + this.m01 * affine.m10 + this.m02 * affine.m20;
+        double n01 = this.m00 * affine.m01 + this.m01 * affine.m11 + this.m02 * affine.m21;
+        double n02 = this.m00 * affine.m02 + this.m01 * affine.m12 + this.m02 * affine.m22;
+        double n03 = this.m00 * affine.m03 + this.m01 * affine.m13 + this.m02 * affine.m23 + this.m03;
+
+        double n10 = this.m10 * affine.m00 + this.m11 * affine.m10 + this.m12 * affine.m20;
+        double n11 = this.m10 * affine.m01 + this.m11 * affine.m11 + this.m12 * affine.m21;
+        double n12 = this.m10 * affine.m02 + this.m11 * affine.m12 + this.m12 * affine.m22;
+        double n13 = this.m10 * affine.m03 + this.m11 * affine.m13 + this.m12 * affine.m23 + this.m13;
+
+        double n20 = this.m20 * affine.m00 + this.m21 * affine.m10 + this.m22 * affine.m20;
+        double n21 = this.m20 * affine.m01 + this.m21 * affine.m11 + this.m22 * affine.m21;
+        double n22 = this.m20 * affine.m02 + this.m21 * affine.m12 + this.m22 * affine.m22;
+        double n23 = this.m20 * affine.m03 + this.m21 * affine.m13 + this.m22 * affine.m23 + this.m23;
+
+        this.m00 = n00;
+        this.m01 = n01;
+        this.m02 = n02;
+        this.m03 = n03;
+
+        this.m10 = n10;
+        this.m11 = n11;
+        this.m12 = n12;
+        this.m13 = n13;
+
+        this.m20 = n20;
+        this.m21 = n21;
+        this.m22 = n22;
+        this.m23 = n23;
+    }
+
+    /**
+     * Transforms param vector with using this transformation
+     *
+     * @param vec to transform
+     */
+    public void transform(Vector3D vec) {
+        transform(vec, vec);
+    }
+
+    /**
+     * Transforms param vector and writes the result into another vector
+     *
+     * @param vec    to transform
+     * @param result transformed vector, may be vec
+     */
+    public void transform(Vector3D vec, Vector3D result) {
+        double x = vec.getX();
+        double y = vec.getY();
+        double z = vec.getZ();
+        result.setX(this.m00 * x + this.m01 * y + this.m02 * z + this.m03);
+        result.setY(this.m10 * x + this.m11 * y + this.m12 * z + this.m13);
+        result.setZ(this.m20 * x + this.m21 * y + this.m22 * z + this.m23);
+    }
+
+    /**
+     * Transforms all param vectors in place
+     *
+     * @param points to transform
+     */
+    public void transform(List<Vector3D> points) {
+        for (Vector3D point : points) {
+            transform(point, point);
+        }
+    }
+
+    /**
+     * Transforms points of coordinate array in place
+     *
+     * @param coordinates points as x, y, z triples
+     * @param count       number of points
+     */
+    public void transform(double[] coordinates, int count) {
+        for (int i = 0, end = count * 3; i < end; i += 3) {
+            double x = coordinates[i];
+            double y = coordinates[i + 1];
+            double z = coordinates[i + 2];
+            coordinates[i] = this.m00 * x + this.m01 * y + this.m02 * z + this.m03;
+            coordinates[i + 1] = this.m10 * x + this.m11 * y + this.m12 * z + this.m13;
+            coordinates[i + 2] = this.m20 * x + this.m21 * y + this.m22 * z + this.m23;
+        }
+    }
+
+    /**
+     * Transforms points of coordinate arrays in place
+     *
+     * @param x     x coordinates of points
+     * @param y     y coordinates of points
+     * @param z     z coordinates of points
+     * @param count number of points
+     */
+    public void transform(double[] x, double[] y, double[] z, int count) {
+        for (int i = 0; i < count; i++) {
+            double px = x[i];
+            double py = y[i];
+            double pz = z[i];
+            x[i] = this.m00 * px + this.m01 * py + this.m02 * pz + this.m03;
+            y[i] = this.m10 * px + this.m11 * py + this.m12 * pz + this.m13;
+            z[i] = this.m20 * px + this.m21 * py + this.m22 * pz + this.m23;
+        }
+    }
+}
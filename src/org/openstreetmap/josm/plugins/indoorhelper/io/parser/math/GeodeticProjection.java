@@ -0,0 +1,65 @@
+// License: AGPL. For details, see LICENSE file.
+package org.openstreetmap.josm.plugins.indoorhelper.io.parser.math;
+
+import org.openstreetmap.gui.jmapviewer.OsmMercator;
+import org.openstreetmap.josm.data.coor.LatLon;
+
+/**
+ * Projects cartesian points in meter to latlon around a latlon origin (latlon for cartesian 0.0/0.0). Uses the same
+ * formula as {@link ParserGeoMath#cartesianToGeodetic}, with the trigonometric values of the origin computed once.
+ * Points are projected in batches of coordinate arrays supplied by the caller.
+ */
+public class GeodeticProjection {
+
+    private final double originLat;
+    private final double originLon;
+    private final double sinOriginLat;
+    private final double cosOriginLat;
+
+    /**
+     * Creates projection
+     *
+     * @param origin latlon of cartesian origin
+     */
+    public GeodeticProjection(LatLon origin) {
+        this.originLat = Math.toRadians(origin.lat());
+        this.originLon = Math.toRadians(origin.lon());
+        this.sinOriginLat = Math.sin(originLat);
+        this.cosOriginLat = Math.cos(originLat);
+    }
+
+    /**
+     * Projects cartesian points to latlon. Sine and cosine of the bearing are taken directly from the coordinates,
+     * so no trigonometric functions of the bearing are evaluated.
+     *
+     * @param x     east coordinates in meter
+     * @param y     north coordinates in meter
+     * @param lat   latitudes of points in degree, may be x
+     * @param lon   longitudes of points in degree, may be y
+     * @param count number of points
+     */
+    public void project(double[] x, double[] y, double[] lat, double[] lon, int count) {
+        for (int i = 0; i < count; i++) {
+            double px = x[i];
+            double py = y[i];
+            double distance = Math.sqrt(px * px + py * py);
+            if (distance == 0.0) {
+                lat[i] = Math.toDegrees(originLat);
+                lon[i] = Math.toDegrees(originLon);
+                continue;
+            }
+            // bearing is measured clockwise from north
+            double sinBearing = px / distance;
+            double cosBearing = py / distance;
+            double angularDistance = distance / OsmMercator.EARTH_RADIUS;
+            double sinDistance = Math.sin(angularDistance);
+            double cosDistance = Math.cos(angularDistance);
+
+            double pointLat = Math.asin(sinOriginLat * cosDistance + cosOriginLat * sinDistance * cosBearing);
+            double pointLon = originLon + Math.atan2(sinBearing * sinDistance * cosOriginLat,
+                    cosDistance - sinOriginLat * Math.sin(pointLat));
+            lat[i] = Math.toDegrees(pointLat);
+            lon[i] = Math.toDegrees(pointLon);
+        }
+    }
+}
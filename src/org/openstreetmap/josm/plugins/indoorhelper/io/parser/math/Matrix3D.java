@@ -203,6 +203,20 @@ public class Matrix3D {
         vec.setY(y);
     }
 
+    /**
+     * Transforms param vector with using the transposed matrix. For orthonormal matrices, e.g. rotations, this is
+     * the transformation by the inverse matrix without inverting it.
+     *
+     * @param vec to transform
+     */
+    public void transformTransposed(Vector3D vec) {
+        double x = this.m00 * vec.getX() + this.m10 * vec.getY() + this.m20 * vec.getZ();
+        double y = this.m01 * vec.getX() + this.m11 * vec.getY() + this.m21 * vec.getZ();
+        vec.setZ(this.m02 * vec.getX() + this.m12 * vec.getY() + this.m22 * vec.getZ());
+        vec.setX(x);
+        vec.setY(y);
+    }
+
     /**
      * Sets the values of this matrix to multiply result of this matrix with param scalar
      *
@@ -0,0 +1,100 @@
+// License: AGPL. For details, see LICENSE file.
+package org.openstreetmap.josm.plugins.indoorhelper.io.parser.step;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Read only byte access to the content of a STEP file. Files are memory-mapped in segments, so files larger than
+ * 2 GB can be addressed with long offsets. Content of streams, e.g. decompressed files, is held in heap segments.
+ */
+final class StepBuffer {
+
+    private static final int SEGMENT_BITS = 30;
+    private static final long SEGMENT_SIZE = 1L << SEGMENT_BITS;
+    private static final long SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    private final ByteBuffer[] segments;
+    private final long length;
+
+    private StepBuffer(ByteBuffer[] segments, long length) {
+        this.segments = segments;
+        this.length = length;
+    }
+
+    /**
+     * Maps file into memory
+     *
+     * @param file to map
+     * @return buffer of file content
+     * @throws IOException if file can not be read
+     */
+    static StepBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            ByteBuffer[] segments = new ByteBuffer[(int) ((length + SEGMENT_SIZE - 1) >>> SEGMENT_BITS)];
+            for (int i = 0; i < segments.length; i++) {
+                long start = i * SEGMENT_SIZE;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(SEGMENT_SIZE, length - start));
+            }
+            // mapping stays valid after channel is closed
+            return new StepBuffer(segments, length);
+        }
+    }
+
+    /**
+     * Wraps file content already held in memory
+     *
+     * @param data file content
+     * @return buffer of data
+     */
+    static StepBuffer wrap(byte[] data) {
+        return new StepBuffer(new ByteBuffer[]{ByteBuffer.wrap(data)}, data.length);
+    }
+
+    /**
+     * Reads stream content into memory
+     *
+     * @param in stream to read until its end, not closed
+     * @return buffer of stream content
+     * @throws IOException if stream can not be read
+     */
+    static StepBuffer read(InputStream in) throws IOException {
+        List<ByteBuffer> segments = new ArrayList<>();
+        long length = 0;
+        while (true) {
+            // segment grows by doubling until it is full or stream ends
+            byte[] segment = new byte[1 << 16];
+            int size = 0;
+            int read;
+            while ((read = in.read(segment, size, segment.length - size)) >= 0) {
+                size += read;
+                if (size == segment.length) {
+                    if (segment.length == SEGMENT_SIZE) break;
+                    segment = Arrays.copyOf(segment, (int) Math.min(SEGMENT_SIZE, segment.length * 2L));
+                }
+            }
+            if (size > 0) {
+                segments.add(ByteBuffer.wrap(segment, 0, size).slice());
+                length += size;
+            }
+            if (read < 0) break;
+        }
+        return new StepBuffer(segments.toArray(new ByteBuffer[0]), length);
+    }
+
+    byte get(long position) {
+        return segments[(int) (position >>> SEGMENT_BITS)].get((int) (position & SEGMENT_MASK));
+    }
+
+    long length() {
+        return length;
+    }
+}
@@ -0,0 +1,81 @@
+// License: AGPL. For details, see LICENSE file.
+package org.openstreetmap.josm.plugins.indoorhelper.io.parser.step;
+
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.data.ifc.IfcAttributeCatalog;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.data.ifc.IfcEntity;
+import org.openstreetmap.josm.tools.Logging;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entity of {@link StepModel}. Parameters are decoded on first attribute access and kept afterwards.
+ */
+class StepEntity implements IfcEntity {
+
+    private final StepModel model;
+    private final int record;
+    // decoded at most once per thread, the list is never modified afterwards
+    private volatile List<Object> parameters;
+
+    StepEntity(StepModel model, int record) {
+        this.model = model;
+        this.record = record;
+    }
+
+    StepModel getModel() {
+        return model;
+    }
+
+    int getRecord() {
+        return record;
+    }
+
+    @Override
+    public int getId() {
+        return model.getId(record);
+    }
+
+    @Override
+    public String getTypeName() {
+        return model.getTypeName(record);
+    }
+
+    @Override
+    public Object getAttributeValueBN(String name) {
+        int index = IfcAttributeCatalog.getAttributeIndex(getTypeName(), name);
+        if (index < 0) {
+            Logging.debug(StepEntity.class.getName() + ": attribute " + name + " of " + getTypeName() + " is unknown");
+            return null;
+        }
+        List<Object> values = parameters;
+        if (values == null) {
+            values = model.decode(record);
+            parameters = values;
+        }
+        return index < values.size() ? values.get(index) : null;
+    }
+
+    @Override
+    public IfcEntity getAttributeValueBNasEntityInstance(String name) {
+        Object value = getAttributeValueBN(name);
+        return value instanceof IfcEntity ? (IfcEntity) value : null;
+    }
+
+    @Override
+    public ArrayList<IfcEntity> getAttributeValueBNasEntityInstanceList(String name) {
+        ArrayList<IfcEntity> entities = new ArrayList<>();
+        Object value = getAttributeValueBN(name);
+        if (value instanceof List) {
+            for (Object item : (List<?>) value) {
+                if (item instanceof IfcEntity) entities.add((IfcEntity) item);
+            }
+        }
+        return entities;
+    }
+
+    @Override
+    public String toString() {
+        return "#" + getId() + "=" + getTypeName();
+    }
+}
@@ -0,0 +1,332 @@
+// License: AGPL. For details, see LICENSE file.
+package org.openstreetmap.josm.plugins.indoorhelper.io.parser.step;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Builds the entity index of a STEP file. For each instance (#id=TYPE(...);) of the DATA section only id, type
+ * and offset of the parameter list are recorded, parameters are not decoded. Large DATA sections are split into
+ * chunks aligned to record boundaries which are indexed concurrently and merged afterwards.
+ */
+final class StepIndexer {
+
+    // type name of complex entity instances, which consist of several partial entities
+    static final String COMPLEX_TYPE = "";
+
+    private static final int INITIAL_CAPACITY = 1024;
+    // smallest DATA section part indexed by one worker
+    private static final long MIN_CHUNK_SIZE = 1L << 19;
+    // lexical states of chunk scan, '/' and '*' states mark a possible start or end of a block comment
+    private static final int CODE = 0;
+    private static final int CODE_SLASH = 1;
+    private static final int STRING = 2;
+    private static final int COMMENT = 3;
+    private static final int COMMENT_STAR = 4;
+    private static final int STATES = 5;
+
+    // index of records, sorted by instance id after indexing
+    int[] ids = new int[INITIAL_CAPACITY];
+    int[] types = new int[INITIAL_CAPACITY];
+    long[] offsets = new long[INITIAL_CAPACITY];
+    int records;
+
+    // entity type names, type code equals position in list
+    final List<String> typeNames = new ArrayList<>();
+    final Map<String, Integer> typeCodes = new HashMap<>();
+
+    // value of FILE_SCHEMA header entity
+    String schema = "";
+    // position behind DATA keyword
+    long dataOffset;
+    // true if ENDSEC keyword of DATA section was read
+    private boolean dataEnd;
+
+    /**
+     * Indexes header and data section of buffer
+     *
+     * @param buffer      STEP file content
+     * @param parallelism maximum number of chunks indexed concurrently, 1 to index sequentially
+     * @return indexer holding the index
+     */
+    static StepIndexer index(StepBuffer buffer, int parallelism) {
+        StepIndexer indexer = new StepIndexer();
+        StepTokenizer tokenizer = new StepTokenizer(buffer, 0, id -> null);
+        if (indexer.readHeader(tokenizer)) {
+            long dataLength = buffer.length() - indexer.dataOffset;
+            int chunks = (int) Math.min(parallelism, dataLength / MIN_CHUNK_SIZE);
+            if (chunks > 1) {
+                indexer.readDataParallel(buffer, chunks);
+            } else {
+                indexer.readData(tokenizer, buffer.length());
+            }
+        }
+        indexer.sortById();
+        return indexer;
+    }
+
+    /**
+     * Reads header section until DATA keyword
+     *
+     * @param tokenizer positioned at file start
+     * @return true if DATA section was found, else false
+     */
+    private boolean readHeader(StepTokenizer tokenizer) {
+        while (true) {
+            tokenizer.skipWhitespace();
+            if (!tokenizer.hasNext()) return false;
+            long statementStart = tokenizer.getPosition();
+            String keyword = tokenizer.readKeyword();
+            if (keyword.equals("DATA")) {
+                tokenizer.skipStatement();
+                dataOffset = tokenizer.getPosition();
+                return true;
+            }
+            if (keyword.equals("FILE_SCHEMA")) {
+                schema = readSchema(tokenizer.readParameterList());
+                tokenizer.setPosition(statementStart);
+            }
+            tokenizer.skipStatement();
+        }
+    }
+
+    /**
+     * Splits data section into chunks, indexes them concurrently and merges the chunk indices in file order
+     *
+     * @param buffer STEP file content
+     * @param chunks number of chunks
+     */
+    private void readDataParallel(StepBuffer buffer, int chunks) {
+        long[] bounds = chunkBounds(buffer, dataOffset, buffer.length(), chunks);
+        List<StepIndexer> parts = IntStream.range(0, chunks).parallel().mapToObj(chunk -> {
+            StepIndexer part = new StepIndexer();
+            part.readData(new StepTokenizer(buffer, bounds[chunk], id -> null), bounds[chunk + 1]);
+            return part;
+        }).collect(Collectors.toList());
+
+        int total = parts.stream().mapToInt(part -> part.records).sum();
+        ids = Arrays.copyOf(ids, Math.max(total, ids.length));
+        types = Arrays.copyOf(types, ids.length);
+        offsets = Arrays.copyOf(offsets, ids.length);
+        for (StepIndexer part : parts) {
+            merge(part);
+            if (part.dataEnd) return;
+        }
+    }
+
+    /**
+     * Reads instances of data section until ENDSEC keyword or end position
+     *
+     * @param tokenizer positioned at start of an instance or behind DATA keyword
+     * @param end       position to stop reading at, has to be a record boundary
+     */
+    private void readData(StepTokenizer tokenizer, long end) {
+        while (true) {
+            tokenizer.skipWhitespace();
+            if (!tokenizer.hasNext() || tokenizer.getPosition() >= end) return;
+            if (tokenizer.peek() != '#') {
+                if (tokenizer.readKeyword().equals("ENDSEC")) {
+                    dataEnd = true;
+                    return;
+                }
+                tokenizer.skipStatement();
+                continue;
+            }
+
+            int id = tokenizer.readInstanceId();
+            tokenizer.skipWhitespace();
+            if (id < 0 || !tokenizer.hasNext() || tokenizer.peek() != '=') {
+                tokenizer.skipStatement();
+                continue;
+            }
+            tokenizer.setPosition(tokenizer.getPosition() + 1);
+            tokenizer.skipWhitespace();
+
+            // complex entity instances #id=(TYPE1() TYPE2()) are indexed without type, parameters start at '('
+            if (tokenizer.hasNext() && tokenizer.peek() == '(') {
+                add(id, typeCode(COMPLEX_TYPE), tokenizer.getPosition());
+                tokenizer.skipStatement();
+                continue;
+            }
+            String typeName = tokenizer.readKeyword();
+            tokenizer.skipWhitespace();
+            if (!typeName.isEmpty() && tokenizer.hasNext() && tokenizer.peek() == '(') {
+                add(id, typeCode(typeName), tokenizer.getPosition());
+            }
+            tokenizer.skipStatement();
+        }
+    }
+
+    private void add(int id, int type, long offset) {
+        if (records == ids.length) {
+            ids = Arrays.copyOf(ids, records * 2);
+            types = Arrays.copyOf(types, records * 2);
+            offsets = Arrays.copyOf(offsets, records * 2);
+        }
+        ids[records] = id;
+        types[records] = type;
+        offsets[records] = offset;
+        records++;
+    }
+
+    /**
+     * Appends records of chunk index, type codes of chunk are mapped to type codes of this index
+     *
+     * @param part index of chunk
+     */
+    private void merge(StepIndexer part) {
+        int[] typeMapping = new int[part.typeNames.size()];
+        for (int type = 0; type < typeMapping.length; type++) {
+            typeMapping[type] = typeCode(part.typeNames.get(type));
+        }
+        for (int record = 0; record < part.records; record++) {
+            add(part.ids[record], typeMapping[part.types[record]], part.offsets[record]);
+        }
+    }
+
+    private int typeCode(String typeName) {
+        Integer code = typeCodes.get(typeName);
+        if (code == null) {
+            code = typeNames.size();
+            typeNames.add(typeName);
+            typeCodes.put(typeName, code);
+        }
+        return code;
+    }
+
+    /**
+     * Sorts records by instance id to allow binary search. Exporters usually write ascending ids,
+     * so sorting is skipped in most cases.
+     */
+    private void sortById() {
+        boolean sorted = true;
+        for (int i = 1; i < records && sorted; i++) {
+            sorted = ids[i - 1] < ids[i];
+        }
+        if (sorted) return;
+
+        long[] order = new long[records];
+        for (int i = 0; i < records; i++) {
+            order[i] = ((long) ids[i] << 32) | i;
+        }
+        Arrays.sort(order);
+        int[] sortedIds = new int[records];
+        int[] sortedTypes = new int[records];
+        long[] sortedOffsets = new long[records];
+        for (int i = 0; i < records; i++) {
+            int record = (int) order[i];
+            sortedIds[i] = ids[record];
+            sortedTypes[i] = types[record];
+            sortedOffsets[i] = offsets[record];
+        }
+        ids = sortedIds;
+        types = sortedTypes;
+        offsets = sortedOffsets;
+    }
+
+    /**
+     * Calculates chunk boundaries behind ';' characters outside of quoted strings and block comments. The lexical
+     * state at a nominal chunk start is derived from the chunks in front of it: each chunk is scanned concurrently
+     * for every possible start state, the resulting state transitions are composed in file order afterwards.
+     *
+     * @param buffer STEP file content
+     * @param start  start of data section
+     * @param end    end of data section
+     * @param chunks number of chunks
+     * @return chunks + 1 ascending positions, first is start and last is end
+     */
+    private static long[] chunkBounds(StepBuffer buffer, long start, long end, int chunks) {
+        long chunkSize = (end - start) / chunks;
+        long[] bounds = new long[chunks + 1];
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            bounds[chunk] = start + chunk * chunkSize;
+        }
+        bounds[chunks] = end;
+
+        int[][] transitions = IntStream.range(0, chunks).parallel()
+                .mapToObj(chunk -> stateTransitions(buffer, bounds[chunk], bounds[chunk + 1]))
+                .toArray(int[][]::new);
+        int state = transitions[0][CODE];
+        for (int chunk = 1; chunk < chunks; chunk++) {
+            long boundary = recordEnd(buffer, bounds[chunk], end, state);
+            state = transitions[chunk][state];
+            bounds[chunk] = Math.max(boundary, bounds[chunk - 1]);
+        }
+        return bounds;
+    }
+
+    /**
+     * Scans a chunk once for all start states
+     *
+     * @param buffer STEP file content
+     * @param start  start of chunk
+     * @param end    end of chunk
+     * @return state at chunk end, indexed by state at chunk start
+     */
+    private static int[] stateTransitions(StepBuffer buffer, long start, long end) {
+        int[] states = new int[STATES];
+        for (int state = 0; state < STATES; state++) {
+            states[state] = state;
+        }
+        for (long i = start; i < end; i++) {
+            byte c = buffer.get(i);
+            for (int state = 0; state < STATES; state++) {
+                states[state] = nextState(states[state], c);
+            }
+        }
+        return states;
+    }
+
+    /**
+     * Moves to the first record boundary at or behind start
+     *
+     * @param buffer STEP file content
+     * @param start  position to start searching at
+     * @param end    end of data section
+     * @param state  lexical state at start
+     * @return position behind the next ';' outside of strings and comments, end if there is none
+     */
+    private static long recordEnd(StepBuffer buffer, long start, long end, int state) {
+        for (long i = start; i < end; i++) {
+            byte c = buffer.get(i);
+            if (c == ';' && (state == CODE || state == CODE_SLASH)) {
+                return i + 1;
+            }
+            state = nextState(state, c);
+        }
+        return end;
+    }
+
+    private static int nextState(int state, byte c) {
+        switch (state) {
+            case CODE_SLASH:
+                if (c == '*') return COMMENT;
+                return nextState(CODE, c);
+            case CODE:
+                if (c == '\'') return STRING;
+                return c == '/' ? CODE_SLASH : CODE;
+            case STRING:
+                // escaped quotes ('') leave and enter string again
+                return c == '\'' ? CODE : STRING;
+            case COMMENT_STAR:
+                if (c == '/') return CODE;
+                return nextState(COMMENT, c);
+            default:
+                return c == '*' ? COMMENT_STAR : COMMENT;
+        }
+    }
+
+    private static String readSchema(List<Object> parameters) {
+        // FILE_SCHEMA(('IFC4'))
+        if (parameters.isEmpty() || !(parameters.get(0) instanceof List)) return "";
+        List<?> schemas = (List<?>) parameters.get(0);
+        if (schemas.isEmpty() || schemas.get(0) == null) return "";
+        String schema = schemas.get(0).toString();
+        return schema.length() > 1 ? schema.substring(1, schema.length() - 1) : "";
+    }
+}
@@ -0,0 +1,305 @@
+// License: AGPL. For details, see LICENSE file.
+package org.openstreetmap.josm.plugins.indoorhelper.io.parser.step;
+
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.data.ifc.IfcEntity;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.data.ifc.IfcModel;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.utils.IfcInputUtility;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lightweight IFC model reading STEP files without EXPRESS schema. Loading the file only indexes the entity
+ * instances of the memory-mapped file, parameters of an entity are decoded the first time one of its attributes
+ * is requested. Attribute names are resolved by {@link org.openstreetmap.josm.plugins.indoorhelper.io.parser.data.ifc.IfcAttributeCatalog}.
+ */
+public class StepModel implements IfcModel {
+
+    private final StepBuffer buffer;
+    private final String schema;
+    private final long dataOffset;
+
+    // entity index sorted by id
+    private final int[] ids;
+    private final int[] types;
+    private final long[] offsets;
+    private final int records;
+
+    private final List<String> typeNames;
+    private final Map<String, Integer> typeCodes;
+    private final int[][] recordsByType;
+
+    // entity handles, created on first access, model is read by several threads while extracting geometry
+    private final AtomicReferenceArray<StepEntity> entities;
+
+    private StepModel(StepBuffer buffer, StepIndexer index) {
+        this(buffer, index.schema, index.dataOffset, index.ids, index.types, index.offsets, index.records,
+                index.typeNames, index.typeCodes);
+    }
+
+    private StepModel(StepBuffer buffer, String schema, long dataOffset, int[] ids, int[] types, long[] offsets,
+                      int records, List<String> typeNames, Map<String, Integer> typeCodes) {
+        this.buffer = buffer;
+        this.schema = schema;
+        this.dataOffset = dataOffset;
+        this.ids = ids;
+        this.types = types;
+        this.offsets = offsets;
+        this.records = records;
+        this.typeNames = typeNames;
+        this.typeCodes = new ConcurrentHashMap<>(typeCodes);
+        recordsByType = groupByType();
+        entities = new AtomicReferenceArray<>(records);
+    }
+
+    /**
+     * Loads and indexes STEP file using all available processors
+     *
+     * @param file IFC file in STEP format
+     * @return loaded model
+     * @throws IOException if file can not be read
+     */
+    public static StepModel load(Path file) throws IOException {
+        return load(file, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Loads and indexes STEP file. The DATA section of large files is indexed in chunks concurrently.
+     * Compressed files (.ifczip, .ifc.gz) are decompressed into memory, plain files are memory-mapped.
+     *
+     * @param file        IFC file in STEP format
+     * @param parallelism maximum number of chunks indexed concurrently, 1 to index sequentially
+     * @return loaded model
+     * @throws IOException if file can not be read
+     */
+    public static StepModel load(Path file, int parallelism) throws IOException {
+        StepBuffer buffer;
+        if (IfcInputUtility.getCompression(file.toFile()) == IfcInputUtility.Compression.NONE) {
+            buffer = StepBuffer.map(file);
+        } else {
+            try (InputStream in = IfcInputUtility.openInputStream(file.toFile())) {
+                buffer = StepBuffer.read(in);
+            }
+        }
+        return new StepModel(buffer, StepIndexer.index(buffer, Math.max(1, parallelism)));
+    }
+
+    /**
+     * Returns schema name of FILE_SCHEMA header entity, e.g. IFC4
+     *
+     * @return schema name, empty if not defined
+     */
+    public String getSchema() {
+        return schema;
+    }
+
+    /**
+     * Returns model containing only entities of root types and all entities they reference directly or
+     * indirectly. References are followed without decoding parameter values, references of the partial entities of
+     * complex entity instances are followed, too.
+     *
+     * @param rootTypes entity types to start from, case insensitive
+     * @return reduced model sharing the file buffer with this model
+     */
+    public StepModel retainReachable(Collection<String> rootTypes) {
+        BitSet reachable = new BitSet(records);
+        RecordStack pending = new RecordStack();
+        for (String rootType : rootTypes) {
+            int code = typeCode(rootType);
+            if (code < 0) continue;
+            for (int record : recordsByType[code]) {
+                if (!reachable.get(record)) {
+                    reachable.set(record);
+                    pending.push(record);
+                }
+            }
+        }
+
+        // depth first traversal over references, order of visits is not relevant
+        while (!pending.isEmpty()) {
+            new StepTokenizer(buffer, offsets[pending.pop()], null).readReferences(id -> {
+                int referenced = Arrays.binarySearch(ids, 0, records, id);
+                if (referenced >= 0 && !reachable.get(referenced)) {
+                    reachable.set(referenced);
+                    pending.push(referenced);
+                }
+            });
+        }
+
+        int size = reachable.cardinality();
+        int[] reachableIds = new int[size];
+        int[] reachableTypes = new int[size];
+        long[] reachableOffsets = new long[size];
+        int i = 0;
+        for (int record = reachable.nextSetBit(0); record >= 0; record = reachable.nextSetBit(record + 1)) {
+            reachableIds[i] = ids[record];
+            reachableTypes[i] = types[record];
+            reachableOffsets[i] = offsets[record];
+            i++;
+        }
+        return new StepModel(buffer, schema, dataOffset, reachableIds, reachableTypes, reachableOffsets, size,
+                typeNames, typeCodes);
+    }
+
+    /**
+     * Writes model as STEP file. Header section is copied from source file, the data section contains
+     * all entities of this model. Complex entity instances are copied as they are, block comments are left out, so
+     * the file can be read by loaders not supporting comments.
+     *
+     * @param out to write to
+     * @throws IOException if writing fails
+     */
+    public void write(OutputStream out) throws IOException {
+        new StepTokenizer(buffer, 0, null).copyWithoutComments(out, dataOffset, false);
+        out.write('\n');
+        for (int record = 0; record < records; record++) {
+            out.write(("#" + ids[record] + "=" + typeNames.get(types[record])).getBytes(StandardCharsets.US_ASCII));
+            new StepTokenizer(buffer, offsets[record], null).copyWithoutComments(out, buffer.length(), true);
+            out.write('\n');
+        }
+        out.write("ENDSEC;\nEND-ISO-10303-21;\n".getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Returns number of entities per entity type
+     *
+     * @return map of upper case type name to number of entities, types without entities and complex entity
+     * instances are not included
+     */
+    public Map<String, Integer> getTypeHistogram() {
+        Map<String, Integer> histogram = new HashMap<>();
+        for (int type = 0; type < recordsByType.length; type++) {
+            if (recordsByType[type].length > 0 && !typeNames.get(type).equals(StepIndexer.COMPLEX_TYPE)) {
+                histogram.put(typeNames.get(type), recordsByType[type].length);
+            }
+        }
+        return histogram;
+    }
+
+    @Override
+    public List<IfcEntity> getInstancesOfType(String typeName) {
+        int code = typeCode(typeName);
+        if (code < 0) return Collections.emptyList();
+        int[] typeRecords = recordsByType[code];
+        List<IfcEntity> instances = new ArrayList<>(typeRecords.length);
+        for (int record : typeRecords) {
+            instances.add(entity(record));
+        }
+        return instances;
+    }
+
+    @Override
+    public IfcEntity getInstance(int id) {
+        int record = Arrays.binarySearch(ids, 0, records, id);
+        return record < 0 ? null : entity(record);
+    }
+
+    @Override
+    public boolean isInstanceOf(IfcEntity entity, String typeName) {
+        if (!(entity instanceof StepEntity) || ((StepEntity) entity).getModel() != this) {
+            return IfcModel.super.isInstanceOf(entity, typeName);
+        }
+        return types[((StepEntity) entity).getRecord()] == typeCode(typeName);
+    }
+
+    @Override
+    public int size() {
+        return records;
+    }
+
+    int getId(int record) {
+        return ids[record];
+    }
+
+    String getTypeName(int record) {
+        return typeNames.get(types[record]);
+    }
+
+    /**
+     * Decodes parameters of record
+     *
+     * @param record index of entity
+     * @return parameter values
+     */
+    List<Object> decode(int record) {
+        // partial entities of complex instances are not decoded
+        if (isComplex(record)) return Collections.emptyList();
+        StepTokenizer tokenizer = new StepTokenizer(buffer, offsets[record], this::getInstance);
+        return tokenizer.readParameterList();
+    }
+
+    private boolean isComplex(int record) {
+        return typeNames.get(types[record]).equals(StepIndexer.COMPLEX_TYPE);
+    }
+
+    private StepEntity entity(int record) {
+        StepEntity entity = entities.get(record);
+        if (entity == null) {
+            // keep handle of other thread if it was faster
+            entities.compareAndSet(record, null, new StepEntity(this, record));
+            entity = entities.get(record);
+        }
+        return entity;
+    }
+
+    private int typeCode(String typeName) {
+        Integer code = typeCodes.get(typeName);
+        if (code == null) {
+            // remember spelling of requested type name to avoid converting it again
+            code = typeCodes.getOrDefault(typeName.toUpperCase(Locale.ROOT), -1);
+            typeCodes.put(typeName, code);
+        }
+        return code;
+    }
+
+    private int[][] groupByType() {
+        int[] counts = new int[typeNames.size()];
+        for (int i = 0; i < records; i++) {
+            counts[types[i]]++;
+        }
+        int[][] groups = new int[counts.length][];
+        for (int type = 0; type < counts.length; type++) {
+            groups[type] = new int[counts[type]];
+            counts[type] = 0;
+        }
+        for (int i = 0; i < records; i++) {
+            groups[types[i]][counts[types[i]]++] = i;
+        }
+        return groups;
+    }
+
+    /**
+     * Growable stack of record indices
+     */
+    private static final class RecordStack {
+        private int[] records = new int[64];
+        private int size;
+
+        void push(int record) {
+            if (size == records.length) records = Arrays.copyOf(records, size * 2);
+            records[size++] = record;
+        }
+
+        int pop() {
+            return records[--size];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+    }
+}
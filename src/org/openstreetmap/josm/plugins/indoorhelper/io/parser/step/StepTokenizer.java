@@ -0,0 +1,299 @@
+// License: AGPL. For details, see LICENSE file.
+package org.openstreetmap.josm.plugins.indoorhelper.io.parser.step;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+
+/**
+ * Tokenizer for the clear text encoding of ISO 10303-21 (STEP) files. Works on a {@link StepBuffer} and keeps
+ * the current read position. Values are decoded like the BuildingSMARTLibrary does: strings keep their quotes,
+ * enumerations their dots and numbers are returned as written.
+ */
+final class StepTokenizer {
+
+    private final StepBuffer buffer;
+    private final IntFunction<Object> referenceResolver;
+    private long position;
+
+    /**
+     * Constructor
+     *
+     * @param buffer            to read from
+     * @param position          to start reading at
+     * @param referenceResolver resolves instance references (#id) to values
+     */
+    StepTokenizer(StepBuffer buffer, long position, IntFunction<Object> referenceResolver) {
+        this.buffer = buffer;
+        this.position = position;
+        this.referenceResolver = referenceResolver;
+    }
+
+    long getPosition() {
+        return position;
+    }
+
+    void setPosition(long position) {
+        this.position = position;
+    }
+
+    boolean hasNext() {
+        return position < buffer.length();
+    }
+
+    byte peek() {
+        return buffer.get(position);
+    }
+
+    /**
+     * Skips whitespaces and block comments
+     */
+    void skipWhitespace() {
+        long length = buffer.length();
+        while (position < length) {
+            byte c = buffer.get(position);
+            if (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+                position++;
+            } else if (c == '/' && position + 1 < length && buffer.get(position + 1) == '*') {
+                skipComment();
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Moves position behind the next ';' outside of strings and comments
+     */
+    void skipStatement() {
+        long length = buffer.length();
+        while (position < length) {
+            byte c = buffer.get(position);
+            if (c == '\'') {
+                skipString();
+            } else if (c == '/' && position + 1 < length && buffer.get(position + 1) == '*') {
+                skipComment();
+            } else {
+                position++;
+                if (c == ';') return;
+            }
+        }
+    }
+
+    /**
+     * Copies content to stream, block comments are left out. Position is moved behind the copied content.
+     *
+     * @param out          to write to
+     * @param end          position to stop copying at
+     * @param statementEnd true to stop behind the next ';' outside of strings and comments
+     * @throws IOException if writing fails
+     */
+    void copyWithoutComments(OutputStream out, long end, boolean statementEnd) throws IOException {
+        long length = Math.min(end, buffer.length());
+        while (position < length) {
+            byte c = buffer.get(position);
+            if (c == '\'') {
+                long start = position;
+                skipString();
+                for (long i = start; i < position; i++) {
+                    out.write(buffer.get(i));
+                }
+            } else if (c == '/' && position + 1 < buffer.length() && buffer.get(position + 1) == '*') {
+                skipComment();
+            } else {
+                out.write(c);
+                position++;
+                if (c == ';' && statementEnd) return;
+            }
+        }
+    }
+
+    /**
+     * Reports all instance references (#id) up to the end of the current statement without decoding values.
+     * Position is moved behind the statement.
+     *
+     * @param consumer receiving referenced instance ids
+     */
+    void readReferences(IntConsumer consumer) {
+        long length = buffer.length();
+        while (position < length) {
+            byte c = buffer.get(position);
+            if (c == '\'') {
+                skipString();
+            } else if (c == '/' && position + 1 < length && buffer.get(position + 1) == '*') {
+                skipComment();
+            } else if (c == '#') {
+                int id = readInstanceId();
+                if (id >= 0) consumer.accept(id);
+            } else {
+                position++;
+                if (c == ';') return;
+            }
+        }
+    }
+
+    /**
+     * Reads a keyword or entity type name
+     *
+     * @return keyword in upper case, empty if there is no keyword at position
+     */
+    String readKeyword() {
+        StringBuilder keyword = new StringBuilder();
+        while (hasNext() && isKeywordChar(peek())) {
+            keyword.append((char) Character.toUpperCase(buffer.get(position++)));
+        }
+        return keyword.toString();
+    }
+
+    /**
+     * Reads an instance id (#123)
+     *
+     * @return instance id or -1 if there is no instance id at position
+     */
+    int readInstanceId() {
+        if (!hasNext() || peek() != '#') return -1;
+        position++;
+        int id = 0;
+        boolean digits = false;
+        while (hasNext() && peek() >= '0' && peek() <= '9') {
+            id = id * 10 + (buffer.get(position++) - '0');
+            digits = true;
+        }
+        return digits ? id : -1;
+    }
+
+    /**
+     * Parses parameter list starting with '(' at position
+     *
+     * @return decoded parameters
+     */
+    List<Object> readParameterList() {
+        ArrayList<Object> values = new ArrayList<>();
+        skipWhitespace();
+        if (!hasNext() || peek() != '(') return values;
+        position++;
+        skipWhitespace();
+        if (hasNext() && peek() == ')') {
+            position++;
+            return values;
+        }
+        while (hasNext()) {
+            values.add(readValue());
+            skipWhitespace();
+            if (!hasNext()) break;
+            byte c = buffer.get(position++);
+            if (c == ')') break;
+            if (c != ',') {
+                // malformed record, stop decoding here
+                break;
+            }
+        }
+        values.trimToSize();
+        return values;
+    }
+
+    /**
+     * Parses a single parameter value at position
+     *
+     * @return decoded value, null for unset ($) and derived (*) values
+     */
+    Object readValue() {
+        skipWhitespace();
+        if (!hasNext()) return null;
+        byte c = peek();
+        switch (c) {
+            case '$':
+            case '*':
+                position++;
+                return null;
+            case '#':
+                return referenceResolver.apply(readInstanceId());
+            case '\'':
+                return readString();
+            case '"':
+                return readDelimited('"');
+            case '.':
+                return readDelimited('.');
+            case '(':
+                return readParameterList();
+            default:
+                if (isLetter(c)) {
+                    // typed parameter, e.g. IFCLABEL('name'), decode wrapped value
+                    readKeyword();
+                    List<Object> wrapped = readParameterList();
+                    return wrapped.isEmpty() ? null : wrapped.get(0);
+                }
+                return readNumber();
+        }
+    }
+
+    private String readString() {
+        long start = position;
+        skipString();
+        return decode(start, position);
+    }
+
+    private String readDelimited(char delimiter) {
+        long start = position++;
+        while (hasNext() && buffer.get(position++) != delimiter) {
+            // move to closing delimiter
+        }
+        return decode(start, position);
+    }
+
+    private String readNumber() {
+        long start = position;
+        while (hasNext() && isNumberChar(peek())) {
+            position++;
+        }
+        return decode(start, position);
+    }
+
+    private void skipString() {
+        long length = buffer.length();
+        position++;
+        while (position < length) {
+            if (buffer.get(position++) == '\'') {
+                // '' is an escaped quote inside of string
+                if (position < length && buffer.get(position) == '\'') {
+                    position++;
+                } else {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void skipComment() {
+        long length = buffer.length();
+        position += 2;
+        while (position + 1 < length && !(buffer.get(position) == '*' && buffer.get(position + 1) == '/')) {
+            position++;
+        }
+        position = Math.min(position + 2, length);
+    }
+
+    private String decode(long start, long end) {
+        byte[] bytes = new byte[(int) (end - start)];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(start + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static boolean isLetter(byte c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+    }
+
+    private static boolean isKeywordChar(byte c) {
+        return isLetter(c) || (c >= '0' && c <= '9') || c == '_' || c == '-';
+    }
+
+    private static boolean isNumberChar(byte c) {
+        return (c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == 'E' || c == 'e';
+    }
+}
@@ -0,0 +1,108 @@
+// License: AGPL. For details, see LICENSE file.
+package org.openstreetmap.josm.plugins.indoorhelper.io.parser.utils;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Utility methods to read plain and compressed IFC files. Compressed files (.ifczip, .ifc.gz) are detected by
+ * their magic bytes and decompressed while reading, they are never extracted to disk.
+ */
+public class IfcInputUtility {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Compression formats of IFC files
+     */
+    public enum Compression {
+        NONE,
+        GZIP,
+        ZIP
+    }
+
+    private IfcInputUtility() {
+        // private constructor for utility class
+    }
+
+    /**
+     * Detects compression of file by its magic bytes
+     *
+     * @param ifcFile to check
+     * @return compression of file
+     * @throws IOException if file can not be read
+     */
+    public static Compression getCompression(File ifcFile) throws IOException {
+        byte[] magic = new byte[4];
+        int read;
+        try (InputStream in = new FileInputStream(ifcFile)) {
+            read = in.readNBytes(magic, 0, magic.length);
+        }
+        if (read >= 2 && (magic[0] & 0xff) == 0x1f && (magic[1] & 0xff) == 0x8b) {
+            return Compression.GZIP;
+        }
+        if (read == 4 && magic[0] == 'P' && magic[1] == 'K' && magic[2] == 3 && magic[3] == 4) {
+            return Compression.ZIP;
+        }
+        return Compression.NONE;
+    }
+
+    /**
+     * Opens stream of uncompressed IFC file content. For zip archives the first entry with .ifc suffix is read,
+     * or the first file entry if there is none.
+     *
+     * @param ifcFile plain or compressed IFC file
+     * @return buffered stream of IFC content
+     * @throws IOException if file can not be read or archive does not contain a file
+     */
+    public static InputStream openInputStream(File ifcFile) throws IOException {
+        switch (getCompression(ifcFile)) {
+            case GZIP:
+                return new BufferedInputStream(new GZIPInputStream(new FileInputStream(ifcFile), BUFFER_SIZE),
+                        BUFFER_SIZE);
+            case ZIP:
+                return new BufferedInputStream(openIfcEntry(ifcFile), BUFFER_SIZE);
+            default:
+                return new BufferedInputStream(new FileInputStream(ifcFile), BUFFER_SIZE);
+        }
+    }
+
+    /**
+     * Opens zip archive positioned at the IFC entry
+     *
+     * @param zipFile archive to read
+     * @return zip stream positioned at IFC entry
+     * @throws IOException if archive can not be read or does not contain a file
+     */
+    private static ZipInputStream openIfcEntry(File zipFile) throws IOException {
+        String firstFile = null;
+        ZipInputStream zip = new ZipInputStream(new BufferedInputStream(new FileInputStream(zipFile), BUFFER_SIZE));
+        try {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                if (entry.isDirectory()) continue;
+                if (entry.getName().toLowerCase(Locale.ROOT).endsWith(".ifc")) return zip;
+                if (firstFile == null) firstFile = entry.getName();
+            }
+        } catch (IOException e) {
+            zip.close();
+            throw e;
+        }
+        zip.close();
+        if (firstFile == null) throw new IOException(zipFile.getPath() + " does not contain an IFC file");
+
+        // no entry with .ifc suffix, read first file instead
+        zip = new ZipInputStream(new BufferedInputStream(new FileInputStream(zipFile), BUFFER_SIZE));
+        for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+            if (entry.getName().equals(firstFile)) return zip;
+        }
+        zip.close();
+        throw new IOException(zipFile.getPath() + " does not contain an IFC file");
+    }
+}
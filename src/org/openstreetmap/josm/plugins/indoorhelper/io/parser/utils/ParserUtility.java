@@ -60,6 +60,77 @@ public class ParserUtility {
         }
     }
 
+    /**
+     * Parses string value from ifc file, i.e. removes the enclosing quotes and decodes escaped characters
+     *
+     * @param stepString string with enclosing quotes
+     * @return string value or null if value is not set
+     */
+    public static String prepareString(String stepString) {
+        if (stepString == null || stepString.equals("$")) return null;
+        if (stepString.length() >= 2 && stepString.startsWith("'") && stepString.endsWith("'")) {
+            return decodeStepString(stepString.substring(1, stepString.length() - 1).replace("''", "'"));
+        }
+        return decodeStepString(stepString);
+    }
+
+    /**
+     * Decodes control directives of STEP strings (ISO 10303-21), e.g. {@code \X2\00FC\X0\} for code point U+00FC.
+     * Malformed directives are kept as they are.
+     *
+     * @param value string value without enclosing quotes
+     * @return decoded string
+     */
+    private static String decodeStepString(String value) {
+        if (value.indexOf('\\') < 0) return value;
+        StringBuilder sb = new StringBuilder(value.length());
+        int i = 0;
+        while (i < value.length()) {
+            char c = value.charAt(i);
+            if (c != '\\') {
+                sb.append(c);
+                i++;
+            } else if (value.startsWith("\\\\", i)) {
+                sb.append('\\');
+                i += 2;
+            } else if (value.startsWith("\\X2\\", i) || value.startsWith("\\X4\\", i)) {
+                // UTF-16 (X2) or UTF-32 (X4) code points in hex, terminated by \X0\
+                int digits = value.charAt(i + 2) == '2' ? 4 : 8;
+                int end = value.indexOf("\\X0\\", i + 4);
+                if (end < 0 || (end - i - 4) % digits != 0) {
+                    sb.append(c);
+                    i++;
+                    continue;
+                }
+                try {
+                    for (int j = i + 4; j < end; j += digits) {
+                        sb.appendCodePoint(Integer.parseInt(value.substring(j, j + digits), 16));
+                    }
+                } catch (IllegalArgumentException e) {
+                    Logging.error(e.getMessage());
+                }
+                i = end + 4;
+            } else if (value.startsWith("\\X\\", i) && i + 5 <= value.length()) {
+                // ISO 8859-1 character in hex
+                try {
+                    sb.append((char) Integer.parseInt(value.substring(i + 3, i + 5), 16));
+                    i += 5;
+                } catch (NumberFormatException e) {
+                    sb.append(c);
+                    i++;
+                }
+            } else if (value.startsWith("\\S\\", i) && i + 3 < value.length()) {
+                // ISO 8859-1 character shifted by 128
+                sb.append((char) (value.charAt(i + 3) + 128));
+                i += 4;
+            } else {
+                sb.append(c);
+                i++;
+            }
+        }
+        return sb.toString();
+    }
+
     /**
      * Get list of levels included in dataset
      *
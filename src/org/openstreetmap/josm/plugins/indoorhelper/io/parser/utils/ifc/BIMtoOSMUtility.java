@@ -1,19 +1,33 @@
 // License: AGPL. For details, see LICENSE file.
 package org.openstreetmap.josm.plugins.indoorhelper.io.parser.utils.ifc;
 
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.data.ifc.IfcPointCache;
 import org.openstreetmap.josm.plugins.indoorhelper.io.parser.data.ifc.IfcRepresentation;
 import org.openstreetmap.josm.plugins.indoorhelper.io.parser.data.ifc.IfcRepresentationCatalog.IfcSlabTypeEnum;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.data.ifc.IfcRepresentationCatalog.IfcSpatialStructureElementTypes;
 import org.openstreetmap.josm.plugins.indoorhelper.io.parser.data.ifc.IfcRepresentationCatalog.RepresentationIdentifier;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.data.ifc.IfcRepresentationCatalog.RepresentationType;
 import org.openstreetmap.josm.plugins.indoorhelper.io.model.BIMtoOSMCatalog;
 import org.openstreetmap.josm.plugins.indoorhelper.io.parser.data.BIMDataCollection;
 import org.openstreetmap.josm.plugins.indoorhelper.io.parser.data.BIMObject3D;
 import org.openstreetmap.josm.plugins.indoorhelper.io.parser.math.*;
-import nl.tue.buildingsmart.express.population.EntityInstance;
-import nl.tue.buildingsmart.express.population.ModelPopulation;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.data.ifc.IfcEntity;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.data.ifc.IfcModel;
+import org.openstreetmap.josm.tools.Logging;
+import org.openstreetmap.josm.tools.Pair;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import static org.openstreetmap.josm.plugins.indoorhelper.io.parser.utils.ParserUtility.prepareDoubleString;
+import static org.openstreetmap.josm.plugins.indoorhelper.io.parser.utils.ParserUtility.prepareString;
 import static org.openstreetmap.josm.plugins.indoorhelper.io.parser.utils.ParserUtility.stringVectorToVector3D;
 
 /**
@@ -21,6 +35,14 @@ import static org.openstreetmap.josm.plugins.indoorhelper.io.parser.utils.Parser
  */
 public class BIMtoOSMUtility {
 
+    /**
+     * Level tag of objects whose storey is unknown
+     */
+    public static final int DEFAULT_LEVEL = 999;
+
+    // chunks of IfcSpace entities transformed in parallel, more than threads to balance uneven chunks
+    private static final int SPACE_CHUNKS = 4 * Runtime.getRuntime().availableProcessors();
+
     /**
      * Types of geometry precision
      */
@@ -35,49 +57,64 @@ public class BIMtoOSMUtility {
      * @param ifcModel ifcModel
      * @return FilteredBIMData including BIM objects of ways, rooms, etc.
      */
-    public static BIMDataCollection extractMajorBIMData(ModelPopulation ifcModel) {
+    public static BIMDataCollection extractMajorBIMData(IfcModel ifcModel) {
         BIMDataCollection bimData = new BIMDataCollection();
 
         // get the root element IfcSite
-        List<EntityInstance> ifcSiteObjects = new ArrayList<>();
+        List<IfcEntity> ifcSiteObjects = new ArrayList<>();
         BIMtoOSMCatalog.getIFCSITETags().forEach(tag -> ifcSiteObjects.addAll(ifcModel.getInstancesOfType(tag)));
 
         if (!ifcSiteObjects.isEmpty()) {
             bimData.setIfcSite(ifcSiteObjects.get(0));
         }
 
-        // get all relevant areas
-        List<EntityInstance> areaObjects = new ArrayList<>();
-        BIMtoOSMCatalog.getAreaTags().forEach(tag -> ifcModel.getInstancesOfType(tag).forEach(entity -> {
-            String identifier = (String) entity.getAttributeValueBN("PredefinedType");
-            if (!identifier.equals("." + IfcSlabTypeEnum.ROOF + ".")) {
-                areaObjects.add(entity);
+        // get all rooms, aggregations of spaces and gross floor areas would overlap them
+        List<IfcEntity> spaceObjects = new ArrayList<>();
+        BIMtoOSMCatalog.getSpaceTags().forEach(tag -> ifcModel.getInstancesOfType(tag).forEach(entity -> {
+            if (!".COMPLEX.".equals(entity.getAttributeValueBN("CompositionType"))
+                    && !".GFA.".equals(entity.getAttributeValueBN("PredefinedType"))) {
+                spaceObjects.add(entity);
             }
         }));
+        bimData.setSpaceObjects(spaceObjects);
+
+        // get all relevant areas, slabs are used as rooms only if model contains no spaces
+        List<IfcEntity> areaObjects = new ArrayList<>();
+        if (spaceObjects.isEmpty()) {
+            BIMtoOSMCatalog.getAreaTags().forEach(tag -> ifcModel.getInstancesOfType(tag).forEach(entity -> {
+                String identifier = (String) entity.getAttributeValueBN("PredefinedType");
+                if (identifier == null || !identifier.equals("." + IfcSlabTypeEnum.ROOF + ".")) {
+                    areaObjects.add(entity);
+                }
+            }));
+        } else {
+            Logging.info(BIMtoOSMUtility.class.getName() + ": " + spaceObjects.size()
+                    + " spaces found, slabs are not imported as rooms");
+        }
         bimData.setAreaObjects(areaObjects);
 
         // get all walls
-        List<EntityInstance> wallObjects = new ArrayList<>();
+        List<IfcEntity> wallObjects = new ArrayList<>();
         BIMtoOSMCatalog.getWallTags().forEach(tag -> wallObjects.addAll(ifcModel.getInstancesOfType(tag)));
         bimData.setWallObjects(wallObjects);
 
         // get all columns
-        List<EntityInstance> colObjects = new ArrayList<>();
+        List<IfcEntity> colObjects = new ArrayList<>();
         BIMtoOSMCatalog.getColumnTags().forEach(tag -> colObjects.addAll(ifcModel.getInstancesOfType(tag)));
         bimData.setColumnObjects(colObjects);
 
         // get all doors
-        List<EntityInstance> doorObjects = new ArrayList<>();
+        List<IfcEntity> doorObjects = new ArrayList<>();
         BIMtoOSMCatalog.getDoorTags().forEach(tag -> doorObjects.addAll(ifcModel.getInstancesOfType(tag)));
         bimData.setDoorObjects(doorObjects);
 
         // get all doors
-        List<EntityInstance> stairObjects = new ArrayList<>();
+        List<IfcEntity> stairObjects = new ArrayList<>();
         BIMtoOSMCatalog.getStairTags().forEach(tag -> stairObjects.addAll(ifcModel.getInstancesOfType(tag)));
         bimData.setStairObjects(stairObjects);
 
         // get all windows
-        List<EntityInstance> windowObjects = new ArrayList<>();
+        List<IfcEntity> windowObjects = new ArrayList<>();
         BIMtoOSMCatalog.getWindowTags().forEach(tag -> windowObjects.addAll(ifcModel.getInstancesOfType(tag)));
         bimData.setWindowObjects(windowObjects);
 
@@ -88,18 +125,19 @@ public class BIMtoOSMUtility {
      * Transforms BIM objects for further operations. Extracts OSM relevant information and puts it into {@link BIMObject3D}
      *
      * @param ifcModel   ifcModel
+     * @param pointCache cache of decoded IfcCartesianPoint coordinates
      * @param solution   geometry solution type
      * @param objectType relating BIMtoOSMCatalog.BIMObject
      * @param bimObjects All BIM objects of objectType
      * @return Transformed BIM objects
      */
-    public static List<BIMObject3D> transformBIMObjects(ModelPopulation ifcModel, GeometrySolution solution,
-                                                        BIMtoOSMCatalog.BIMObject objectType, List<EntityInstance> bimObjects) {
+    public static List<BIMObject3D> transformBIMObjects(IfcModel ifcModel, IfcPointCache pointCache, GeometrySolution solution,
+                                                        BIMtoOSMCatalog.BIMObject objectType, List<IfcEntity> bimObjects) {
         ArrayList<BIMObject3D> transformedObjects = new ArrayList<>();
 
-        for (EntityInstance objectEntity : bimObjects) {
+        for (IfcEntity objectEntity : bimObjects) {
 
-            BIMObject3D object = transformBIMObject(ifcModel, solution, objectType, objectEntity);
+            BIMObject3D object = transformBIMObject(ifcModel, pointCache, solution, objectType, objectEntity);
             if (object == null) {
                 continue;
             }
@@ -120,30 +158,118 @@ public class BIMtoOSMUtility {
         return transformedObjects;
     }
 
+    /**
+     * Transforms IfcSpace entities into rooms. Footprints of chunks of spaces are computed in parallel, point caches
+     * are not thread-safe so each chunk uses its own cache, which is dropped when the chunk is done.
+     *
+     * @param ifcModel ifcModel
+     * @param spaces   IfcSpace entities
+     * @return rooms with footprint geometry in order of spaces, spaces without supported footprint are skipped
+     */
+    public static List<BIMObject3D> transformSpaces(IfcModel ifcModel, List<IfcEntity> spaces) {
+        int chunkSize = Math.max(1, (spaces.size() + SPACE_CHUNKS - 1) / SPACE_CHUNKS);
+        return IntStream.range(0, (spaces.size() + chunkSize - 1) / chunkSize).parallel()
+                .mapToObj(chunk -> {
+                    IfcPointCache pointCache = new IfcPointCache();
+                    List<BIMObject3D> rooms = new ArrayList<>();
+                    for (IfcEntity space : spaces.subList(chunk * chunkSize,
+                            Math.min(spaces.size(), (chunk + 1) * chunkSize))) {
+                        BIMObject3D room = transformSpace(ifcModel, pointCache, space);
+                        if (room != null) rooms.add(room);
+                    }
+                    return rooms;
+                })
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Transforms IfcSpace entity into room. Name, number and usage of the room are taken from LongName, Name and
+     * ObjectType of the space.
+     *
+     * @param ifcModel   ifcModel
+     * @param pointCache cache of decoded IfcCartesianPoint coordinates
+     * @param space      IfcSpace entity
+     * @return room with closed footprint or null if space has no supported footprint
+     */
+    public static BIMObject3D transformSpace(IfcModel ifcModel, IfcPointCache pointCache, IfcEntity space) {
+        IfcEntity objectIFCLP = space.getAttributeValueBNasEntityInstance("ObjectPlacement");
+        BIMObject3D object = resolveObjectPlacement(pointCache, objectIFCLP, new BIMObject3D(space.getId()));
+        object.setType(BIMtoOSMCatalog.BIMObject.IfcSpace);
+        object.setGlobalId(prepareString((String) space.getAttributeValueBN("GlobalId")));
+        object.setName(prepareString((String) space.getAttributeValueBN("LongName")));
+        object.setNumber(prepareString((String) space.getAttributeValueBN("Name")));
+        object.setUsage(prepareString((String) space.getAttributeValueBN("ObjectType")));
+        Vector3D cartesianOrigin = object.getTranslation();
+        Matrix3D rotMatrix = getObjectRotationMatrix(space);
+
+        List<Vector3D> footprint = getFootprintData(ifcModel, pointCache, space);
+        if (cartesianOrigin == null || rotMatrix == null || footprint == null || footprint.size() < 3) return null;
+        if (!footprint.get(0).equalsVector(footprint.get(footprint.size() - 1))) {
+            footprint.add(new Vector3D(footprint.get(0)));
+        }
+        new Affine3D(rotMatrix, cartesianOrigin).transform(footprint);
+        object.setCartesianGeometryCoordinates(footprint);
+        return object;
+    }
+
+    /**
+     * Method gets local footprint of ifc object. Uses the FootPrint representation, the profile of an extruded
+     * Body representation or the Box representation, whichever is found first.
+     *
+     * @param ifcModel   ifcModel
+     * @param pointCache cache of decoded IfcCartesianPoint coordinates
+     * @param object     BIM object
+     * @return points of footprint or null if object has no supported representation
+     */
+    public static List<Vector3D> getFootprintData(IfcModel ifcModel, IfcPointCache pointCache, IfcEntity object) {
+        List<IfcRepresentation> repObjectIdentities = getIfcRepresentations(object);
+        if (repObjectIdentities == null) return null;
+
+        List<Vector3D> footprint = null;
+        IfcRepresentation footPrintRepresentation = getIfcRepresentation(repObjectIdentities, RepresentationIdentifier.FootPrint);
+        if (footPrintRepresentation != null) {
+            footprint = IfcGeometryExtractor.getDataFromFootPrintRepresentation(ifcModel, pointCache, footPrintRepresentation);
+        }
+        IfcRepresentation bodyRepresentation = getIfcRepresentation(repObjectIdentities, RepresentationIdentifier.Body);
+        if ((footprint == null || footprint.isEmpty()) && bodyRepresentation != null
+                && bodyRepresentation.getType() == RepresentationType.SweptSolid) {
+            footprint = IfcGeometryExtractor.getDataFromBodyRepresentation(ifcModel, pointCache, bodyRepresentation);
+        }
+        IfcRepresentation boxRepresentation = getIfcRepresentation(repObjectIdentities, RepresentationIdentifier.Box);
+        if ((footprint == null || footprint.isEmpty()) && boxRepresentation != null) {
+            footprint = IfcGeometryExtractor.getDataFromBoxRepresentation(ifcModel, pointCache, boxRepresentation);
+        }
+        return footprint;
+    }
+
     /**
      * Transform BIM object for further operations. Extracts OSM relevant information and puts it into {@link BIMObject3D}
      *
      * @param ifcModel     ifcModel
+     * @param pointCache   cache of decoded IfcCartesianPoint coordinates
      * @param solution     geometry solution type
      * @param objectType   relating BIMtoOSMCatalog.BIMObject
      * @param objectEntity BIM object of objectType
      * @return Transformed BIM object
      */
-    public static BIMObject3D transformBIMObject(ModelPopulation ifcModel, GeometrySolution solution,
-                                                 BIMtoOSMCatalog.BIMObject objectType, EntityInstance objectEntity) {
+    public static BIMObject3D transformBIMObject(IfcModel ifcModel, IfcPointCache pointCache, GeometrySolution solution,
+                                                 BIMtoOSMCatalog.BIMObject objectType, IfcEntity objectEntity) {
 
-        EntityInstance objectIFCLP = objectEntity.getAttributeValueBNasEntityInstance("ObjectPlacement");
-        BIMObject3D object = resolveObjectPlacement(objectIFCLP, new BIMObject3D(objectEntity.getId()));
+        IfcEntity objectIFCLP = objectEntity.getAttributeValueBNasEntityInstance("ObjectPlacement");
+        BIMObject3D object = resolveObjectPlacement(pointCache, objectIFCLP, new BIMObject3D(objectEntity.getId()));
         object.setType(objectType);
+        object.setGlobalId(prepareString((String) objectEntity.getAttributeValueBN("GlobalId")));
         Vector3D cartesianOrigin = object.getTranslation();
         Matrix3D rotMatrix = getObjectRotationMatrix(objectEntity);
 
         // get object geometry
-        ArrayList<Vector3D> shapeDataOfObject = (ArrayList<Vector3D>) getShapeData(ifcModel, objectEntity, solution);
+        ArrayList<Vector3D> shapeDataOfObject = (ArrayList<Vector3D>) getShapeData(ifcModel, pointCache, objectEntity, solution);
 
         // transform and prepare
         if (cartesianOrigin != null && rotMatrix != null && (shapeDataOfObject != null && !shapeDataOfObject.isEmpty())) {
-            transformPoints(shapeDataOfObject, rotMatrix, cartesianOrigin);
+            // rotation and translation are applied in one pass
+            new Affine3D(rotMatrix, cartesianOrigin).transform(shapeDataOfObject);
             object.setCartesianGeometryCoordinates(shapeDataOfObject);
         } else {
             return null;
@@ -152,38 +278,145 @@ public class BIMtoOSMUtility {
         return object;
     }
 
+    /**
+     * Method gets level tags of BIM objects. Elements are contained in their storey by
+     * IfcRelContainedInSpatialStructure, spaces decompose their storey by IfcRelAggregates.
+     *
+     * @param ifcModel ifcModel
+     * @param objects  to get level tags for
+     * @return level tags in order of objects, {@link #DEFAULT_LEVEL} for objects without storey
+     */
+    public static int[] getLevelTags(IfcModel ifcModel, List<BIMObject3D> objects) {
+        Map<Integer, IfcEntity> spatialStructures = getSpatialStructures(ifcModel);
+        ArrayList<Pair<Double, Integer>> levelIdentifier = extractAndIdentifyLevels(ifcModel, spatialStructures.values());
+        int[] levels = new int[objects.size()];
+        for (int i = 0; i < levels.length; i++) {
+            levels[i] = getLevelTag(ifcModel, spatialStructures.get(objects.get(i).getId()), levelIdentifier);
+        }
+        return levels;
+    }
+
+    /**
+     * Method maps ids of contained elements and aggregated spaces to the spatial structure they belong to
+     *
+     * @param ifcModel ifcModel
+     * @return spatial structures by id of element
+     */
+    private static Map<Integer, IfcEntity> getSpatialStructures(IfcModel ifcModel) {
+        Map<Integer, IfcEntity> spatialStructures = new LinkedHashMap<>();
+        for (IfcEntity rel : ifcModel.getInstancesOfType("IfcRelContainedInSpatialStructure")) {
+            IfcEntity relatingStructure = rel.getAttributeValueBNasEntityInstance("RelatingStructure");
+            for (IfcEntity element : rel.getAttributeValueBNasEntityInstanceList("RelatedElements")) {
+                spatialStructures.put(element.getId(), relatingStructure);
+            }
+        }
+        for (IfcEntity rel : ifcModel.getInstancesOfType("IfcRelAggregates")) {
+            IfcEntity relatingObject = rel.getAttributeValueBNasEntityInstance("RelatingObject");
+            if (!isBuildingStorey(ifcModel, relatingObject)) continue;
+            for (IfcEntity part : rel.getAttributeValueBNasEntityInstanceList("RelatedObjects")) {
+                if (ifcModel.isInstanceOf(part, BIMtoOSMCatalog.BIMObject.IfcSpace.name())) {
+                    spatialStructures.putIfAbsent(part.getId(), relatingObject);
+                }
+            }
+        }
+        return spatialStructures;
+    }
+
+    /**
+     * Method gets level tag of spatial structure
+     *
+     * @param ifcModel            ifcModel
+     * @param spatialStructure    spatial structure the object belongs to, may be null
+     * @param levelIdentifierList with identified levels
+     * @return level, 0 if spatial structure is no storey
+     */
+    private static int getLevelTag(IfcModel ifcModel, IfcEntity spatialStructure, ArrayList<Pair<Double, Integer>> levelIdentifierList) {
+        if (spatialStructure == null) return DEFAULT_LEVEL;
+        if (!isBuildingStorey(ifcModel, spatialStructure)) return 0;
+        // if of type IfcBuildingStorey get assigned level tag to Elevation entity
+        double storeyElevation = prepareDoubleString((String) spatialStructure.getAttributeValueBN("Elevation"));
+        for (Pair<Double, Integer> identifier : levelIdentifierList) {
+            if (identifier.a == storeyElevation) {
+                return identifier.b;
+            }
+        }
+        return DEFAULT_LEVEL;
+    }
+
+    /**
+     * Method identifies level tags of storeys
+     *
+     * @param ifcModel          ifcModel
+     * @param spatialStructures spatial structures of elements
+     * @return List with pairs of level Elevation entity (Double) and assigned level tag (Integer)
+     */
+    private static ArrayList<Pair<Double, Integer>> extractAndIdentifyLevels(IfcModel ifcModel, Collection<IfcEntity> spatialStructures) {
+        ArrayList<Pair<Double, Integer>> levelIdentifier = new ArrayList<>();
+        ArrayList<Double> levelList = new ArrayList<>();
+
+        // run thru spatial structures and get the buildingStorey elements. Those elements include an Elevation entity
+        for (IfcEntity buildingStorey : new LinkedHashSet<>(spatialStructures)) {
+            if (!isBuildingStorey(ifcModel, buildingStorey)) continue;
+            double storeyElevation = prepareDoubleString((String) buildingStorey.getAttributeValueBN("Elevation"));
+            if (!levelList.contains(storeyElevation)) levelList.add(storeyElevation);
+        }
+
+        // Sort the Elevation entity ascending
+        Collections.sort(levelList);
+
+        int level0Index = -1;
+        double level0 = 999.0;
+        for (Double level : levelList) {
+            double d = Math.abs(0.0 - level);
+            if (d < level0) {
+                level0Index = levelList.indexOf(level);
+                level0 = d;
+            }
+        }
+
+        for (Double level : levelList) {
+            int index = levelList.indexOf(level) - level0Index;
+            levelIdentifier.add(new Pair<>(level, index));
+        }
+
+        return levelIdentifier;
+    }
+
+    private static boolean isBuildingStorey(IfcModel ifcModel, IfcEntity entity) {
+        return entity != null && ifcModel.isInstanceOf(entity, IfcSpatialStructureElementTypes.IfcBuildingStorey.name());
+    }
+
     /**
      * Method resolves placement of Ifc object and keeps the result in {@link BIMObject3D}
      *
+     * @param pointCache            cache of decoded IfcCartesianPoint coordinates
      * @param objectPlacementEntity of {@link BIMObject3D}
      * @param object                to resolve placement of
      * @return {@link BIMObject3D} with resolved placement
      */
-    private static BIMObject3D resolveObjectPlacement(EntityInstance objectPlacementEntity, BIMObject3D object) {
+    private static BIMObject3D resolveObjectPlacement(IfcPointCache pointCache, IfcEntity objectPlacementEntity, BIMObject3D object) {
         if (object == null) return null;
         if (objectPlacementEntity == null) return object;
 
         // get objects IfcRelativePlacement entity
-        EntityInstance relativePlacement = objectPlacementEntity.getAttributeValueBNasEntityInstance("RelativePlacement");
+        IfcEntity relativePlacement = objectPlacementEntity.getAttributeValueBNasEntityInstance("RelativePlacement");
 
         // get rotation of this entity
         Matrix3D rotation = getRotationFromRelativePlacement(relativePlacement);
         if (rotation == null) return object;
 
         // get translation of this entity
-        Vector3D translation = getTranslationFromRelativePlacement(relativePlacement);
+        Vector3D translation = getTranslationFromRelativePlacement(pointCache, relativePlacement);
         if (translation == null) return object;
 
         // check if this entity has placement parent (PlacementRelTo)
         if (objectPlacementEntity.getAttributeValueBNasEntityInstance("PlacementRelTo") != null) {
-            EntityInstance placementRelTo = objectPlacementEntity.getAttributeValueBNasEntityInstance("PlacementRelTo");
-            resolveObjectPlacement(placementRelTo, object);
+            IfcEntity placementRelTo = objectPlacementEntity.getAttributeValueBNasEntityInstance("PlacementRelTo");
+            resolveObjectPlacement(pointCache, placementRelTo, object);
             // set new rotation
             object.getRotation().multiply(rotation);
-            // set new translation
-            Matrix3D inverse = new Matrix3D(rotation);
-            inverse.invert();
-            inverse.transform(object.getTranslation());
+            // set new translation, rotation is orthonormal so its inverse is its transpose
+            rotation.transformTransposed(object.getTranslation());
             object.getTranslation().add(translation);
         }
         return object;
@@ -192,14 +425,13 @@ public class BIMtoOSMUtility {
     /**
      * Method extracts translation vector from relative placement
      *
+     * @param pointCache        cache of decoded IfcCartesianPoint coordinates
      * @param relativePlacement to get translation information of
      * @return translation vector for required object
      */
-    private static Vector3D getTranslationFromRelativePlacement(EntityInstance relativePlacement) {
-        EntityInstance cPoint = relativePlacement.getAttributeValueBNasEntityInstance("Location");
-        @SuppressWarnings("unchecked")
-        List<String> objectCoords = (List<String>) cPoint.getAttributeValueBN("Coordinates");
-        return stringVectorToVector3D(objectCoords);
+    private static Vector3D getTranslationFromRelativePlacement(IfcPointCache pointCache, IfcEntity relativePlacement) {
+        IfcEntity cPoint = relativePlacement.getAttributeValueBNasEntityInstance("Location");
+        return pointCache.getVector3D(cPoint);
     }
 
     /**
@@ -208,15 +440,15 @@ public class BIMtoOSMUtility {
      * @param relativePlacement to get rotation matrix of
      * @return rotation matrix
      */
-    private static Matrix3D getRotationFromRelativePlacement(EntityInstance relativePlacement) {
+    private static Matrix3D getRotationFromRelativePlacement(IfcEntity relativePlacement) {
         List<String> refDirection;
         List<String> zAxis;
         try {
             // get RefDirection
-            EntityInstance refDirectionEntity = relativePlacement.getAttributeValueBNasEntityInstance("RefDirection");
+            IfcEntity refDirectionEntity = relativePlacement.getAttributeValueBNasEntityInstance("RefDirection");
             refDirection = (List<String>) refDirectionEntity.getAttributeValueBN("DirectionRatios");
             // get z-Axis
-            EntityInstance axisEntity = relativePlacement.getAttributeValueBNasEntityInstance("Axis");
+            IfcEntity axisEntity = relativePlacement.getAttributeValueBNasEntityInstance("Axis");
             zAxis = (List<String>) axisEntity.getAttributeValueBN("DirectionRatios");
         } catch (NullPointerException e) {
             return null;
@@ -249,10 +481,11 @@ public class BIMtoOSMUtility {
      * Method gets local shape representation of ifc object
      *
      * @param ifcModel ifcModel
+     * @param pointCache cache of decoded IfcCartesianPoint coordinates
      * @param object   BIM object
      * @return Array including points of shape representation
      */
-    public static List<Vector3D> getShapeData(ModelPopulation ifcModel, EntityInstance object, GeometrySolution solution) {
+    public static List<Vector3D> getShapeData(IfcModel ifcModel, IfcPointCache pointCache, IfcEntity object, GeometrySolution solution) {
 
         List<IfcRepresentation> repObjectIdentities = getIfcRepresentations(object);
         if (repObjectIdentities == null) return null;
@@ -260,12 +493,12 @@ public class BIMtoOSMUtility {
         if (solution.equals(GeometrySolution.BODY)) {
             IfcRepresentation bodyRepresentation = getIfcRepresentation(repObjectIdentities, RepresentationIdentifier.Body);
             if (bodyRepresentation != null) {
-                return IfcGeometryExtractor.getDataFromBodyRepresentation(ifcModel, bodyRepresentation);
+                return IfcGeometryExtractor.getDataFromBodyRepresentation(ifcModel, pointCache, bodyRepresentation);
             }
         } else if (solution.equals(GeometrySolution.BOUNDING_BOX)) {
             IfcRepresentation boxRepresentation = getIfcRepresentation(repObjectIdentities, RepresentationIdentifier.Box);
             if (boxRepresentation != null) {
-                return IfcGeometryExtractor.getDataFromBoxRepresentation(ifcModel, boxRepresentation);
+                return IfcGeometryExtractor.getDataFromBoxRepresentation(ifcModel, pointCache, boxRepresentation);
             }
         }
         return null;
@@ -293,12 +526,12 @@ public class BIMtoOSMUtility {
      * @return rotation matrix
      */
     @SuppressWarnings("unchecked")
-    private static Matrix3D getObjectRotationMatrix(EntityInstance object) {
+    private static Matrix3D getObjectRotationMatrix(IfcEntity object) {
         // get objects IfcLocalPlacement entity
-        EntityInstance objectIFCLP = object.getAttributeValueBNasEntityInstance("ObjectPlacement");
+        IfcEntity objectIFCLP = object.getAttributeValueBNasEntityInstance("ObjectPlacement");
 
         // get all RelativePlacements to root
-        ArrayList<EntityInstance> objectRP = getRelativePlacementsToRoot(objectIFCLP, new ArrayList<>());
+        ArrayList<IfcEntity> objectRP = getRelativePlacementsToRoot(objectIFCLP, new ArrayList<>());
 
         double rotAngleX = 0.0;    // in rad
         double rotAngleZ = 0.0;    // in rad
@@ -306,13 +539,13 @@ public class BIMtoOSMUtility {
         Vector3D parentZVector = null;
 
         // TODO use one rotation matrix instead of each for each axis
-        for (EntityInstance relativeObject : objectRP) {
+        for (IfcEntity relativeObject : objectRP) {
             // get RefDirection (x axis vector)
             List<String> xDirectionRatios;
             List<String> zDirectionRatios;
             try {
-                EntityInstance xAxisEntity = relativeObject.getAttributeValueBNasEntityInstance("RefDirection");
-                EntityInstance zAxisEntity = relativeObject.getAttributeValueBNasEntityInstance("Axis");
+                IfcEntity xAxisEntity = relativeObject.getAttributeValueBNasEntityInstance("RefDirection");
+                IfcEntity zAxisEntity = relativeObject.getAttributeValueBNasEntityInstance("Axis");
                 xDirectionRatios = (List<String>) xAxisEntity.getAttributeValueBN("DirectionRatios");
                 zDirectionRatios = (List<String>) zAxisEntity.getAttributeValueBN("DirectionRatios");
             } catch (NullPointerException e) {
@@ -363,15 +596,15 @@ public class BIMtoOSMUtility {
      * @param relativePlacementsToRoot empty list at beginning, needed for recursive iteration
      * @return List with EntityInstances of RelativePlacement
      */
-    private static ArrayList<EntityInstance> getRelativePlacementsToRoot(EntityInstance entity, ArrayList<EntityInstance> relativePlacementsToRoot) {
+    private static ArrayList<IfcEntity> getRelativePlacementsToRoot(IfcEntity entity, ArrayList<IfcEntity> relativePlacementsToRoot) {
         if (entity == null) return relativePlacementsToRoot;
 
         // get objects IfcRelativePlacement entity
-        EntityInstance relativePlacement = entity.getAttributeValueBNasEntityInstance("RelativePlacement");
+        IfcEntity relativePlacement = entity.getAttributeValueBNasEntityInstance("RelativePlacement");
         relativePlacementsToRoot.add(relativePlacement);
 
         // get id of placement relative to this (PlacementRelTo)
-        EntityInstance placementRelTo = entity.getAttributeValueBNasEntityInstance("PlacementRelTo");
+        IfcEntity placementRelTo = entity.getAttributeValueBNasEntityInstance("PlacementRelTo");
         getRelativePlacementsToRoot(placementRelTo, relativePlacementsToRoot);
 
         return relativePlacementsToRoot;
@@ -383,17 +616,17 @@ public class BIMtoOSMUtility {
      * @param object object to get the IfcProductDefinitionShape.Representations from which will be identified
      * @return List of IFCShapeRepresentationIdentity holding an IFC representation object and it's identifier
      */
-    public static List<IfcRepresentation> getIfcRepresentations(EntityInstance object) {
+    public static List<IfcRepresentation> getIfcRepresentations(IfcEntity object) {
         ArrayList<IfcRepresentation> repObjectIdentities = new ArrayList<>();
 
         // get IfcProductDefinitionShape of object
-        EntityInstance objectIFCPDS = object.getAttributeValueBNasEntityInstance("Representation");
+        IfcEntity objectIFCPDS = object.getAttributeValueBNasEntityInstance("Representation");
         // get all IfcShapeRepresentation of object
-        ArrayList<EntityInstance> objectRepresentations =
+        ArrayList<IfcEntity> objectRepresentations =
                 objectIFCPDS.getAttributeValueBNasEntityInstanceList("Representations");
 
         // identify each object
-        for (EntityInstance repObject : objectRepresentations) {
+        for (IfcEntity repObject : objectRepresentations) {
             //identify IfcShapeRepresentation type
             IfcRepresentation repIdentity = IfcObjectIdentifier.identifyShapeRepresentation(repObject);
             repIdentity.setRootEntity(object);
@@ -404,20 +637,6 @@ public class BIMtoOSMUtility {
         return repObjectIdentities;
     }
 
-    /**
-     * Transforms the list of points using the given rotation matrix and translation vector
-     *
-     * @param points      to transform
-     * @param rotation    matrix
-     * @param translation vector
-     */
-    private static void transformPoints(ArrayList<Vector3D> points, Matrix3D rotation, Vector3D translation) {
-        points.forEach(p -> {
-            rotation.transform(p);
-            p.add(translation);
-        });
-    }
-
     /**
      * Gets the actual x-axis vector from reference system
      *
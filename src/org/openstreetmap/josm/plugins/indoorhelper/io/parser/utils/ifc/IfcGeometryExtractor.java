@@ -1,14 +1,16 @@
 // License: AGPL. For details, see LICENSE file.
 package org.openstreetmap.josm.plugins.indoorhelper.io.parser.utils.ifc;
 
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.data.ifc.IfcPointCache;
 import org.openstreetmap.josm.plugins.indoorhelper.io.parser.data.ifc.IfcRepresentation;
 import org.openstreetmap.josm.plugins.indoorhelper.io.parser.data.ifc.IfcRepresentationCatalog.*;
 import org.openstreetmap.josm.plugins.indoorhelper.io.parser.math.Vector3D;
-import nl.tue.buildingsmart.express.population.EntityInstance;
-import nl.tue.buildingsmart.express.population.ModelPopulation;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.data.ifc.IfcEntity;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.data.ifc.IfcModel;
 import org.openstreetmap.josm.tools.Logging;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import static org.openstreetmap.josm.plugins.indoorhelper.io.parser.utils.ParserUtility.prepareDoubleString;
@@ -33,20 +35,21 @@ public class IfcGeometryExtractor {
      * Extract representation data from IfcRepresentationItem body
      *
      * @param ifcModel           ifc Model
+     * @param pointCache         cache of decoded IfcCartesianPoint coordinates
      * @param bodyRepresentation representation of body
      * @return List of points representing object shape or null if object type not supported
      */
-    public static List<Vector3D> getDataFromBodyRepresentation(ModelPopulation ifcModel, IfcRepresentation bodyRepresentation) {
+    public static List<Vector3D> getDataFromBodyRepresentation(IfcModel ifcModel, IfcPointCache pointCache, IfcRepresentation bodyRepresentation) {
         ArrayList<Vector3D> shapeRep = new ArrayList<>();
 
         // get IfcObject and RepresentationIdentifier
-        EntityInstance repObject = bodyRepresentation.getEntity();
+        IfcEntity repObject = bodyRepresentation.getEntity();
 
         // get IfcRepresentationItems
-        ArrayList<EntityInstance> bodyItems = repObject.getAttributeValueBNasEntityInstanceList("Items");
+        ArrayList<IfcEntity> bodyItems = repObject.getAttributeValueBNasEntityInstanceList("Items");
 
         // extract information from IfcRepresentationItems
-        for (EntityInstance item : bodyItems) {
+        for (IfcEntity item : bodyItems) {
             // get type of item
             String repItemType = IfcObjectIdentifier.getRepresentationItemType(ifcModel, bodyRepresentation, item);
             if (repItemType == null) return null;
@@ -62,10 +65,10 @@ public class IfcGeometryExtractor {
                 // TODO extract data
                 logUnsupportedRepresentationInfo(repItemType);
             } else if (repItemType.equals(BrepRepresentationTypeItems.IfcFacetedBrep.name())) {
-                ArrayList<Vector3D> shapeData = getIfcFacetedBrepGeometry(ifcModel, item);
+                ArrayList<Vector3D> shapeData = getIfcFacetedBrepGeometry(ifcModel, pointCache, item);
                 // check if entity includes(floor-)openings and handle them
                 // shapeDataWithOpeningHandling will be null, if no openings exists or type of opening not supported
-                ArrayList<Vector3D> shapeDataWithOpeningHandling = handleOpenings(ifcModel, shapeData, bodyRepresentation.getRootEntity());
+                ArrayList<Vector3D> shapeDataWithOpeningHandling = handleOpenings(ifcModel, pointCache, shapeData, bodyRepresentation.getRootEntity());
                 if (shapeDataWithOpeningHandling != null) shapeRep.addAll(shapeDataWithOpeningHandling);
                 else if (shapeData != null) shapeRep.addAll(shapeData);
             } else if (repItemType.equals(CSGRepresentationTypeItems.IfcBooleanResult.name())) {
@@ -74,15 +77,15 @@ public class IfcGeometryExtractor {
                 String operator = operatorObject.toString();
                 ArrayList<Vector3D> shapeData = null;
                 if (operator.equals("." + IfcBooleanOperator.DIFFERENCE + ".")) {
-                    shapeData = getIfcBooleanResultGeometry(ifcModel, item, IfcBooleanOperator.DIFFERENCE);
+                    shapeData = getIfcBooleanResultGeometry(ifcModel, pointCache, item, IfcBooleanOperator.DIFFERENCE);
                 } else if (operator.equals("." + IfcBooleanOperator.INTERSECTION + ".")) {
-                    shapeData = getIfcBooleanResultGeometry(ifcModel, item, IfcBooleanOperator.INTERSECTION);
+                    shapeData = getIfcBooleanResultGeometry(ifcModel, pointCache, item, IfcBooleanOperator.INTERSECTION);
                 } else if (operator.equals("." + IfcBooleanOperator.UNION + ".")) {
-                    shapeData = getIfcBooleanResultGeometry(ifcModel, item, IfcBooleanOperator.UNION);
+                    shapeData = getIfcBooleanResultGeometry(ifcModel, pointCache, item, IfcBooleanOperator.UNION);
                 }
                 // check if entity includes(floor-)openings and handle them
                 // shapeDataWithOpeningHandling will be null, if no openings exists or type of opening not supported
-                ArrayList<Vector3D> shapeDataWithOpeningHandling = handleOpenings(ifcModel, shapeData, bodyRepresentation.getRootEntity());
+                ArrayList<Vector3D> shapeDataWithOpeningHandling = handleOpenings(ifcModel, pointCache, shapeData, bodyRepresentation.getRootEntity());
                 if (shapeDataWithOpeningHandling != null) shapeRep.addAll(shapeDataWithOpeningHandling);
                 else if (shapeData != null) shapeRep.addAll(shapeData);
             } else if (repItemType.equals(CSGRepresentationTypeItems.IfcCsgSolid.name())) {
@@ -95,10 +98,10 @@ public class IfcGeometryExtractor {
                 // TODO extract data
                 logUnsupportedRepresentationInfo(repItemType);
             } else if (repItemType.equals(ClippingRepresentationTypeItems.IfcBooleanClippingResult.name())) {
-                ArrayList<Vector3D> shapeData = getIfcBooleanResultGeometry(ifcModel, item, IfcBooleanOperator.DIFFERENCE);
+                ArrayList<Vector3D> shapeData = getIfcBooleanResultGeometry(ifcModel, pointCache, item, IfcBooleanOperator.DIFFERENCE);
                 // check if entity includes(floor-)openings and handle them
                 // shapeDataWithOpeningHandling will be null, if no openings exists or type of opening not supported
-                ArrayList<Vector3D> shapeDataWithOpeningHandling = handleOpenings(ifcModel, shapeData, bodyRepresentation.getRootEntity());
+                ArrayList<Vector3D> shapeDataWithOpeningHandling = handleOpenings(ifcModel, pointCache, shapeData, bodyRepresentation.getRootEntity());
                 if (shapeDataWithOpeningHandling != null) shapeRep.addAll(shapeDataWithOpeningHandling);
                 else if (shapeData != null) shapeRep.addAll(shapeData);
             } else if (repItemType.equals(SurfaceModelRepresentationTypeItems.IfcTessellatedItem.name())) {
@@ -111,10 +114,10 @@ public class IfcGeometryExtractor {
                 // TODO extract data
                 logUnsupportedRepresentationInfo(repItemType);
             } else if (repItemType.equals(SweptSolidRepresentationTypeItems.IfcExtrudedAreaSolid.name())) {
-                ArrayList<Vector3D> shapeData = getIfcExtrudedAreaSolidGeometry(ifcModel, item);
+                ArrayList<Vector3D> shapeData = getIfcExtrudedAreaSolidGeometry(ifcModel, pointCache, item);
                 // check if entity includes(floor-)openings and handle them
                 // shapeDataWithOpeningHandling will be null, if no openings exists or type of opening not supported
-                ArrayList<Vector3D> shapeDataWithOpeningHandling = handleOpenings(ifcModel, shapeData, bodyRepresentation.getRootEntity());
+                ArrayList<Vector3D> shapeDataWithOpeningHandling = handleOpenings(ifcModel, pointCache, shapeData, bodyRepresentation.getRootEntity());
                 if (shapeDataWithOpeningHandling != null) shapeRep.addAll(shapeDataWithOpeningHandling);
                 else if (shapeData != null) shapeRep.addAll(shapeData);
             } else if (repItemType.equals(SweptSolidRepresentationTypeItems.IfcRevolvedAreaSolid.name())) {
@@ -131,32 +134,58 @@ public class IfcGeometryExtractor {
         return shapeRep;
     }
 
+    /**
+     * Extract representation data from IfcRepresentationItem footprint. The first curve item is used.
+     *
+     * @param ifcModel                ifc Model
+     * @param pointCache              cache of decoded IfcCartesianPoint coordinates
+     * @param footPrintRepresentation representation of footprint
+     * @return List of points representing footprint or null if no curve type is supported
+     */
+    public static List<Vector3D> getDataFromFootPrintRepresentation(IfcModel ifcModel, IfcPointCache pointCache, IfcRepresentation footPrintRepresentation) {
+        // get IfcRepresentationItems
+        ArrayList<IfcEntity> footPrintItems = footPrintRepresentation.getEntity().getAttributeValueBNasEntityInstanceList("Items");
+
+        for (IfcEntity item : footPrintItems) {
+            // footprints are usually exported as IfcGeometricCurveSet wrapping the outline
+            List<IfcEntity> curves = IfcObjectIdentifier.isIfcGeometricSet(ifcModel, item)
+                    ? item.getAttributeValueBNasEntityInstanceList("Elements")
+                    : Collections.singletonList(item);
+            for (IfcEntity curve : curves) {
+                ArrayList<Vector3D> curvePoints = getIfcCurveGeometry(ifcModel, pointCache, curve);
+                if (curvePoints != null && curvePoints.size() > 2) return curvePoints;
+            }
+        }
+        return null;
+    }
+
     /**
      * Extract representation data from IfcRepresentationItem box
      *
      * @param ifcModel          ifc Model
+     * @param pointCache        cache of decoded IfcCartesianPoint coordinates
      * @param boxRepresentation representation of box
      * @return List of points representing object shape or null if object type not supported
      */
-    public static List<Vector3D> getDataFromBoxRepresentation(ModelPopulation ifcModel, IfcRepresentation boxRepresentation) {
+    public static List<Vector3D> getDataFromBoxRepresentation(IfcModel ifcModel, IfcPointCache pointCache, IfcRepresentation boxRepresentation) {
         ArrayList<Vector3D> shapeRep = new ArrayList<>();
 
         // get IfcObject and RepresentationIdentifier
-        EntityInstance repObject = boxRepresentation.getEntity();
+        IfcEntity repObject = boxRepresentation.getEntity();
 
         // get IfcRepresentationItems
-        ArrayList<EntityInstance> boxItems = repObject.getAttributeValueBNasEntityInstanceList("Items");
+        ArrayList<IfcEntity> boxItems = repObject.getAttributeValueBNasEntityInstanceList("Items");
 
         // extract information from IfcRepresentationItems
-        for (EntityInstance item : boxItems) {
+        for (IfcEntity item : boxItems) {
             // get type of IfcRepresentationItem
             String repItemType = IfcObjectIdentifier.getRepresentationItemType(ifcModel, boxRepresentation, item);
             if (repItemType == null) return null;
 
             if (repItemType.equals(BoundingBoxRepresentationTypeItems.IfcBoundingBox.name())) {
                 // get cartesian point of bounding box
-                EntityInstance cartesianCorner = item.getAttributeValueBNasEntityInstance("Corner");
-                Vector3D cPointAsVector3D = ifcCoordinatesToVector3D(cartesianCorner);
+                IfcEntity cartesianCorner = item.getAttributeValueBNasEntityInstance("Corner");
+                Vector3D cPointAsVector3D = pointCache.getVector3D(cartesianCorner);
                 if (cPointAsVector3D == null) return null;
                 double xDim = prepareDoubleString((String) item.getAttributeValueBN("XDim"));
                 double yDim = prepareDoubleString((String) item.getAttributeValueBN("YDim"));
@@ -180,38 +209,40 @@ public class IfcGeometryExtractor {
      * Method extracts shape representation coordinates from IfcFacetedBrep object
      *
      * @param ifcModel     ifc model
+     * @param pointCache   cache of decoded IfcCartesianPoint coordinates
      * @param faceBrepItem to get shape representation coordinates for
      * @return points representing shape of IfcFacetedBrep
      */
-    private static ArrayList<Vector3D> getIfcFacetedBrepGeometry(ModelPopulation ifcModel, EntityInstance faceBrepItem) {
+    private static ArrayList<Vector3D> getIfcFacetedBrepGeometry(IfcModel ifcModel, IfcPointCache pointCache, IfcEntity faceBrepItem) {
         // get IfcClosedShell stored in IfcFacetedBrep.Outer
-        EntityInstance closedShell = faceBrepItem.getAttributeValueBNasEntityInstance("Outer");
-        return getIfcClosedShellGeometry(ifcModel, closedShell);
+        IfcEntity closedShell = faceBrepItem.getAttributeValueBNasEntityInstance("Outer");
+        return getIfcClosedShellGeometry(ifcModel, pointCache, closedShell);
     }
 
     /**
      * Method extracts shape representation coordinates from IfcClosedShell object
      *
      * @param ifcModel  ifc model
+     * @param pointCache cache of decoded IfcCartesianPoint coordinates
      * @param shellItem to get shape representation coordinates for
      * @return points representing shape of IfcClosedShell
      */
-    private static ArrayList<Vector3D> getIfcClosedShellGeometry(ModelPopulation ifcModel, EntityInstance shellItem) {
+    private static ArrayList<Vector3D> getIfcClosedShellGeometry(IfcModel ifcModel, IfcPointCache pointCache, IfcEntity shellItem) {
         // get IfcFaces of IfcClosedShell
-        ArrayList<EntityInstance> facesOfClosedShell = shellItem.getAttributeValueBNasEntityInstanceList("CfsFaces");
+        ArrayList<IfcEntity> facesOfClosedShell = shellItem.getAttributeValueBNasEntityInstanceList("CfsFaces");
 
         // get IfcFaceBounds of every IfcFace
-        ArrayList<EntityInstance> faceBoundsOfClosedShell = new ArrayList<>();
+        ArrayList<IfcEntity> faceBoundsOfClosedShell = new ArrayList<>();
         facesOfClosedShell.forEach(face -> faceBoundsOfClosedShell.addAll(face.getAttributeValueBNasEntityInstanceList("Bounds")));
 
         // get IfcLoop of every IfcFaceBounds
-        ArrayList<EntityInstance> loopsOfClosedShell = new ArrayList<>();
+        ArrayList<IfcEntity> loopsOfClosedShell = new ArrayList<>();
         faceBoundsOfClosedShell.forEach(bound -> loopsOfClosedShell.addAll(bound.getAttributeValueBNasEntityInstanceList("Bound")));
 
         // collect points of IfcLoops
         ArrayList<Vector3D> shapePoints = new ArrayList<>();
-        for (EntityInstance loop : loopsOfClosedShell) {
-            ArrayList<Vector3D> pointsOfLoop = getIfcLoopGeometry(ifcModel, loop);
+        for (IfcEntity loop : loopsOfClosedShell) {
+            ArrayList<Vector3D> pointsOfLoop = getIfcLoopGeometry(ifcModel, pointCache, loop);
             if (pointsOfLoop == null) return null;
             // workaround: Add points of each loop to shapePoints. Also add a default point after each loop as separator
             // (needed later on for rendering)
@@ -226,10 +257,11 @@ public class IfcGeometryExtractor {
      * Method extracts shape representation coordinates from IfcLoop object
      *
      * @param ifcModel ifc model
+     * @param pointCache cache of decoded IfcCartesianPoint coordinates
      * @param loop     to get shape representation coordinates for
      * @return points representing shape of IfcLoop
      */
-    private static ArrayList<Vector3D> getIfcLoopGeometry(ModelPopulation ifcModel, EntityInstance loop) {
+    private static ArrayList<Vector3D> getIfcLoopGeometry(IfcModel ifcModel, IfcPointCache pointCache, IfcEntity loop) {
         // get loop type
         String loopType = IfcObjectIdentifier.getIFCLoopType(ifcModel, loop);
         if (loopType == null) return null;
@@ -237,8 +269,8 @@ public class IfcGeometryExtractor {
         if (loopType.equals(LoopSubRepresentationTypeItems.IfcPolyLoop.name())) {
             // get all IfcCartesianPoints
             ArrayList<Vector3D> cartesianPointsOfClosedShell = new ArrayList<>();
-            for (EntityInstance cPoint : loop.getAttributeValueBNasEntityInstanceList("Polygon")) {
-                Vector3D cPointAsVector3D = ifcCoordinatesToVector3D(cPoint);
+            for (IfcEntity cPoint : loop.getAttributeValueBNasEntityInstanceList("Polygon")) {
+                Vector3D cPointAsVector3D = pointCache.getVector3D(cPoint);
                 if (cPointAsVector3D == null) return null;
                 cartesianPointsOfClosedShell.add(cPointAsVector3D);
             }
@@ -254,19 +286,20 @@ public class IfcGeometryExtractor {
      * Method extracts shape representation coordinates from IfcCurve object
      *
      * @param ifcModel ifc model
+     * @param pointCache cache of decoded IfcCartesianPoint coordinates
      * @param curve    to get shape representation coordinates for
      * @return points representing shape of IfcCurve
      */
-    private static ArrayList<Vector3D> getIfcCurveGeometry(ModelPopulation ifcModel, EntityInstance curve) {
+    private static ArrayList<Vector3D> getIfcCurveGeometry(IfcModel ifcModel, IfcPointCache pointCache, IfcEntity curve) {
         if (IfcObjectIdentifier.isIfcPolyline(ifcModel, curve)) {
-            return getIfcPolylineGeometry(curve);
+            return getIfcPolylineGeometry(pointCache, curve);
         } else if (IfcObjectIdentifier.isIfcCompositeCurve(ifcModel, curve)) {
-            return getIfcCompositeCurveGeometry(ifcModel, curve);
+            return getIfcCompositeCurveGeometry(ifcModel, pointCache, curve);
         } else if (IfcObjectIdentifier.isIfcTrimmedCurve(ifcModel, curve)) {
             // TODO implement proper; handle trim of basis curve
-            EntityInstance basisCurve = curve.getAttributeValueBNasEntityInstance("BasisCurve");
+            IfcEntity basisCurve = curve.getAttributeValueBNasEntityInstance("BasisCurve");
             if (basisCurve == null) return null;
-            return getIfcCurveGeometry(ifcModel, basisCurve);
+            return getIfcCurveGeometry(ifcModel, pointCache, basisCurve);
         } else if (IfcObjectIdentifier.isIfcCircle(ifcModel, curve)) {
             // TODO implement
             logUnsupportedRepresentationInfo(IfcObjectIdentifier.getIfcCurveType(ifcModel, curve));
@@ -280,14 +313,15 @@ public class IfcGeometryExtractor {
     /**
      * Method extracts local coordinates of polyline
      *
-     * @param polyline o get coordinates from
+     * @param pointCache cache of decoded IfcCartesianPoint coordinates
+     * @param polyline   to get coordinates from
      * @return coordinates of polyline (local)
      */
-    private static ArrayList<Vector3D> getIfcPolylineGeometry(EntityInstance polyline) {
-        ArrayList<EntityInstance> points = polyline.getAttributeValueBNasEntityInstanceList("Points");
+    private static ArrayList<Vector3D> getIfcPolylineGeometry(IfcPointCache pointCache, IfcEntity polyline) {
+        ArrayList<IfcEntity> points = polyline.getAttributeValueBNasEntityInstanceList("Points");
         ArrayList<Vector3D> cartesianPointsOfSArea = new ArrayList<>();
         points.forEach(point -> {
-            Vector3D pointAsVector3D = ifcCoordinatesToVector3D(point);
+            Vector3D pointAsVector3D = pointCache.getVector3D(point);
             assert pointAsVector3D != null;
             cartesianPointsOfSArea.add(new Vector3D(pointAsVector3D.getX(), pointAsVector3D.getY(), 0.0));
         });
@@ -298,15 +332,16 @@ public class IfcGeometryExtractor {
      * Method extracts local coordinates of ifcCompositeCurve
      *
      * @param ifcModel     ifc model
+     * @param pointCache   cache of decoded IfcCartesianPoint coordinates
      * @param curveSegment to get coordinates from
      * @return Extracts coordinate data from IfcCompositeCurve
      */
-    private static ArrayList<Vector3D> getIfcCompositeCurveGeometry(ModelPopulation ifcModel, EntityInstance curveSegment) {
+    private static ArrayList<Vector3D> getIfcCompositeCurveGeometry(IfcModel ifcModel, IfcPointCache pointCache, IfcEntity curveSegment) {
         ArrayList<Vector3D> shapeData = new ArrayList<>();
-        ArrayList<EntityInstance> curveSegments = curveSegment.getAttributeValueBNasEntityInstanceList("Segments");
-        for (EntityInstance segment : curveSegments) {
-            EntityInstance parentCurve = segment.getAttributeValueBNasEntityInstance("ParentCurve");
-            ArrayList<Vector3D> parentCurveShape = getIfcCurveGeometry(ifcModel, parentCurve);
+        ArrayList<IfcEntity> curveSegments = curveSegment.getAttributeValueBNasEntityInstanceList("Segments");
+        for (IfcEntity segment : curveSegments) {
+            IfcEntity parentCurve = segment.getAttributeValueBNasEntityInstance("ParentCurve");
+            ArrayList<Vector3D> parentCurveShape = getIfcCurveGeometry(ifcModel, pointCache, parentCurve);
             if (parentCurveShape == null)
                 return null;   // if one element null, return null to void wrong mapped elements
             shapeData.addAll(parentCurveShape);
@@ -320,18 +355,19 @@ public class IfcGeometryExtractor {
      * recursive run thru every operation.
      *
      * @param ifcModel     ifc model
+     * @param pointCache   cache of decoded IfcCartesianPoint coordinates
      * @param resultEntity to get coordinates from
      * @param operator     IfcBooleanOperator
      * @return Extracts coordinate data from IfcBooleanResult
      */
-    private static ArrayList<Vector3D> getIfcBooleanResultGeometry(ModelPopulation ifcModel, EntityInstance resultEntity, IfcBooleanOperator operator) {
+    private static ArrayList<Vector3D> getIfcBooleanResultGeometry(IfcModel ifcModel, IfcPointCache pointCache, IfcEntity resultEntity, IfcBooleanOperator operator) {
         // get and identify both operands
-        EntityInstance operand1 = resultEntity.getAttributeValueBNasEntityInstance("FirstOperand");
-        EntityInstance operand2 = resultEntity.getAttributeValueBNasEntityInstance("SecondOperand");
+        IfcEntity operand1 = resultEntity.getAttributeValueBNasEntityInstance("FirstOperand");
+        IfcEntity operand2 = resultEntity.getAttributeValueBNasEntityInstance("SecondOperand");
 
         // extract shape data from operands
-        ArrayList<Vector3D> pointsOfOperand1 = getBooleanOperandGeometry(ifcModel, operand1);
-        ArrayList<Vector3D> pointsOfOperand2 = getBooleanOperandGeometry(ifcModel, operand2);
+        ArrayList<Vector3D> pointsOfOperand1 = getBooleanOperandGeometry(ifcModel, pointCache, operand1);
+        ArrayList<Vector3D> pointsOfOperand2 = getBooleanOperandGeometry(ifcModel, pointCache, operand2);
 
         if (pointsOfOperand1 == null || pointsOfOperand2 == null) return pointsOfOperand1;
 
@@ -365,10 +401,11 @@ public class IfcGeometryExtractor {
      * handled dependent on type.
      *
      * @param ifcModel ifc model
+     * @param pointCache cache of decoded IfcCartesianPoint coordinates
      * @param operand  to get shape data from
      * @return points representing shape of operand
      */
-    private static ArrayList<Vector3D> getBooleanOperandGeometry(ModelPopulation ifcModel, EntityInstance operand) {
+    private static ArrayList<Vector3D> getBooleanOperandGeometry(IfcModel ifcModel, IfcPointCache pointCache, IfcEntity operand) {
         String operandType = IfcObjectIdentifier.getIfcBooleanOperandType(ifcModel, operand);
 
         if (operandType == null) return null;
@@ -382,18 +419,18 @@ public class IfcGeometryExtractor {
             logUnsupportedRepresentationInfo(operandType);
         }
         if (operandType.equals(IfcBooleanOperandType.IfcPolygonalBoundedHalfSpace.name())) {
-            return getIfcPolygonalBoundedHalfSpaceGeometry(ifcModel, operand);
+            return getIfcPolygonalBoundedHalfSpaceGeometry(ifcModel, pointCache, operand);
         }
         if (operandType.equals(IfcBooleanOperandType.IfcBooleanResult.name()) || operandType.equals(IfcBooleanOperandType.IfcBooleanClippingResult.name())) {
             String operand1Operator = (String) operand.getAttributeValueBN("Operator");
             if (operand1Operator.equals("." + IfcBooleanOperator.DIFFERENCE + ".")) {
-                return getIfcBooleanResultGeometry(ifcModel, operand, IfcBooleanOperator.DIFFERENCE);
+                return getIfcBooleanResultGeometry(ifcModel, pointCache, operand, IfcBooleanOperator.DIFFERENCE);
             }
             if (operand1Operator.equals("." + IfcBooleanOperator.INTERSECTION + ".")) {
-                return getIfcBooleanResultGeometry(ifcModel, operand, IfcBooleanOperator.INTERSECTION);
+                return getIfcBooleanResultGeometry(ifcModel, pointCache, operand, IfcBooleanOperator.INTERSECTION);
             }
             if (operand1Operator.equals("." + IfcBooleanOperator.UNION + ".")) {
-                return getIfcBooleanResultGeometry(ifcModel, operand, IfcBooleanOperator.UNION);
+                return getIfcBooleanResultGeometry(ifcModel, pointCache, operand, IfcBooleanOperator.UNION);
             }
         }
         if (operandType.equals(IfcBooleanOperandType.IfcCsgPrimitive3D.name())) {
@@ -401,10 +438,10 @@ public class IfcGeometryExtractor {
             logUnsupportedRepresentationInfo(operandType);
         }
         if (operandType.equals(SweptSolidRepresentationTypeItems.IfcExtrudedAreaSolid.name())) {
-            return getIfcExtrudedAreaSolidGeometry(ifcModel, operand);
+            return getIfcExtrudedAreaSolidGeometry(ifcModel, pointCache, operand);
         }
         if (operandType.equals(IfcBooleanOperandType.IfcFacetedBrep.name())) {
-            return getIfcFacetedBrepGeometry(ifcModel, operand);
+            return getIfcFacetedBrepGeometry(ifcModel, pointCache, operand);
         }
 
         // other types are not supported right now
@@ -445,24 +482,25 @@ public class IfcGeometryExtractor {
      * Method extracts shape representation coordinates from IfcPolygonalBoundedHalfSpace object
      *
      * @param ifcModel ifc model
+     * @param pointCache cache of decoded IfcCartesianPoint coordinates
      * @param polygon  object to get shape coordinates from
      * @return points representing shape of IfcPolygonalBoundedHalfSpace
      */
-    private static ArrayList<Vector3D> getIfcPolygonalBoundedHalfSpaceGeometry(ModelPopulation ifcModel, EntityInstance polygon) {
+    private static ArrayList<Vector3D> getIfcPolygonalBoundedHalfSpaceGeometry(IfcModel ifcModel, IfcPointCache pointCache, IfcEntity polygon) {
         // TODO rotation to parent system necessary?
 
         // get local origin position
-        EntityInstance localSystemPosition = polygon.getAttributeValueBNasEntityInstance("Position");
-        EntityInstance locationPoint = localSystemPosition.getAttributeValueBNasEntityInstance("Location");
-        Vector3D locationVector3D = ifcCoordinatesToVector3D(locationPoint);
+        IfcEntity localSystemPosition = polygon.getAttributeValueBNasEntityInstance("Position");
+        IfcEntity locationPoint = localSystemPosition.getAttributeValueBNasEntityInstance("Location");
+        Vector3D locationVector3D = pointCache.getVector3D(locationPoint);
         if (locationVector3D == null) return null;
 
         // get boundary
-        EntityInstance localPolygonBoundary = polygon.getAttributeValueBNasEntityInstance("PolygonalBoundary");
+        IfcEntity localPolygonBoundary = polygon.getAttributeValueBNasEntityInstance("PolygonalBoundary");
 
         // get coordinates of boundary
         if (localPolygonBoundary == null) return null;
-        ArrayList<Vector3D> pointsOfPolygonBoundary = getIfcCurveGeometry(ifcModel, localPolygonBoundary);
+        ArrayList<Vector3D> pointsOfPolygonBoundary = getIfcCurveGeometry(ifcModel, pointCache, localPolygonBoundary);
         if (pointsOfPolygonBoundary != null) {
             pointsOfPolygonBoundary.forEach(point -> point = new Vector3D(locationVector3D.getX() + point.getX(), locationVector3D.getY() + point.getY(), 0.0));
             return pointsOfPolygonBoundary;
@@ -477,19 +515,20 @@ public class IfcGeometryExtractor {
      * Method extracts shape representation coordinates from IfcExtrudedAreaSolid object
      *
      * @param ifcModel     ifc model
+     * @param pointCache   cache of decoded IfcCartesianPoint coordinates
      * @param extrudedArea to get shape representation for
      * @return points representing shape of IfcExtrudedAreaSolid
      */
-    private static ArrayList<Vector3D> getIfcExtrudedAreaSolidGeometry(ModelPopulation ifcModel, EntityInstance extrudedArea) {
+    private static ArrayList<Vector3D> getIfcExtrudedAreaSolidGeometry(IfcModel ifcModel, IfcPointCache pointCache, IfcEntity extrudedArea) {
         // get POSITION attribute and extract local object origin coordinates
-        EntityInstance axisPlacement = extrudedArea.getAttributeValueBNasEntityInstance("Position");
-        EntityInstance locationPoint = axisPlacement.getAttributeValueBNasEntityInstance("Location");
+        IfcEntity axisPlacement = extrudedArea.getAttributeValueBNasEntityInstance("Position");
+        IfcEntity locationPoint = axisPlacement.getAttributeValueBNasEntityInstance("Location");
         // object axis origin
-        Vector3D locationVector3D = ifcCoordinatesToVector3D(locationPoint);
+        Vector3D locationVector3D = pointCache.getVector3D(locationPoint);
         if (locationVector3D == null) return null;
 
         // get IfcProfileDef attribute
-        EntityInstance profileDef = extrudedArea.getAttributeValueBNasEntityInstance("SweptArea");
+        IfcEntity profileDef = extrudedArea.getAttributeValueBNasEntityInstance("SweptArea");
         // handle different SweptArea types
         String sweptAreaType = IfcObjectIdentifier.getIFCProfileDefType(ifcModel, profileDef);
         if (sweptAreaType == null) return null;
@@ -514,10 +553,15 @@ public class IfcGeometryExtractor {
             String profileType = (String) profileDef.getAttributeValueBN("ProfileType");
 
             if (profileType.equals(".AREA.")) {
-                EntityInstance outerCurve = profileDef.getAttributeValueBNasEntityInstance("OuterCurve");
-                ArrayList<Vector3D> curvePoints = getIfcCurveGeometry(ifcModel, outerCurve);
+                IfcEntity outerCurve = profileDef.getAttributeValueBNasEntityInstance("OuterCurve");
+                ArrayList<Vector3D> curvePoints = getIfcCurveGeometry(ifcModel, pointCache, outerCurve);
                 if (curvePoints == null) return null;
-                curvePoints.forEach(point -> point = new Vector3D(locationVector3D.getX() + point.getX(), locationVector3D.getY() + point.getY(), 0.0));
+                // curve points are new vectors, so they can be moved to the object origin in place
+                curvePoints.forEach(point -> {
+                    point.setX(locationVector3D.getX() + point.getX());
+                    point.setY(locationVector3D.getY() + point.getY());
+                    point.setZ(0.0);
+                });
                 return curvePoints;
             }
             if (profileType.equals(".CURVE.")) {
@@ -536,26 +580,28 @@ public class IfcGeometryExtractor {
      * Adds opening coordinates to entity shape data. If no opening, returns null
      *
      * @param ifcModel                    ifc model
+     * @param pointCache                  cache of decoded IfcCartesianPoint coordinates
      * @param shapeDataOfEntity           shape data of entity without opening handling
      * @param rootEntityOfShapeDataEntity root entity of shape representation entity
      * @return shape data of entity with opening handling or null if no handling or no opening
      */
-    private static ArrayList<Vector3D> handleOpenings(ModelPopulation ifcModel, ArrayList<Vector3D> shapeDataOfEntity, EntityInstance rootEntityOfShapeDataEntity) {
+    private static ArrayList<Vector3D> handleOpenings(IfcModel ifcModel, IfcPointCache pointCache, ArrayList<Vector3D> shapeDataOfEntity, IfcEntity rootEntityOfShapeDataEntity) {
         if (shapeDataOfEntity == null) return null;
         // for now opening handling supported for IFCSLAB only
         if (!IfcObjectIdentifier.isIfcSlab(ifcModel, rootEntityOfShapeDataEntity)) return null;
 
         // get relVoidsElement which describes the opening
-        EntityInstance relVoidsElement = IfcObjectIdentifier.getRelVoidsElementOfEntity(ifcModel, rootEntityOfShapeDataEntity);
+        IfcEntity relVoidsElement = IfcObjectIdentifier.getRelVoidsElementOfEntity(ifcModel, rootEntityOfShapeDataEntity);
         if (relVoidsElement == null) return null;
 
         // get element which describes the opening
-        EntityInstance openingElement = relVoidsElement.getAttributeValueBNasEntityInstance("RelatedOpeningElement");
+        IfcEntity openingElement = relVoidsElement.getAttributeValueBNasEntityInstance("RelatedOpeningElement");
 
         if (IfcObjectIdentifier.isIfcOpeningElement(ifcModel, openingElement)) {
             // get shape data of RelatedOpeningElement and RelatingBuildingObject
             BIMtoOSMUtility.GeometrySolution activeSolution = BIMtoOSMUtility.GeometrySolution.BOUNDING_BOX; // set for now
-            List<Vector3D> shapeDataOfRelatedOpeningElement = BIMtoOSMUtility.getShapeData(ifcModel, openingElement, activeSolution);
+            List<Vector3D> shapeDataOfRelatedOpeningElement = BIMtoOSMUtility.getShapeData(ifcModel, pointCache, openingElement, activeSolution);
+            if (shapeDataOfRelatedOpeningElement == null) return null;
             // subtract points of shapeDataOfRelatinBuildingElement from shapeDataOfRelatinBuildingElement
             return getIfcFeatureElementSubtractionGeometry(shapeDataOfEntity, (ArrayList<Vector3D>) shapeDataOfRelatedOpeningElement);
         }
@@ -565,27 +611,6 @@ public class IfcGeometryExtractor {
         return null;
     }
 
-    /**
-     * Transforms IfcCartesianCoordinate entity into {@link Vector3D}
-     *
-     * @param cartesianCoordinate to transform
-     * @return coordinate as {@link Vector3D}
-     */
-    public static Vector3D ifcCoordinatesToVector3D(EntityInstance cartesianCoordinate) {
-        @SuppressWarnings("unchecked")
-        List<String> objectCoords = (List<String>) cartesianCoordinate.getAttributeValueBN("Coordinates");
-        if (objectCoords.isEmpty()) return null;
-        double x = prepareDoubleString(objectCoords.get(0));
-        double y = prepareDoubleString(objectCoords.get(1));
-        double z = 0.0;
-        if (objectCoords.size() == 3) {
-            z = prepareDoubleString(objectCoords.get(2));
-        }
-        if (Double.isNaN(x) || Double.isNaN(y) || Double.isNaN(z)) {
-            return null;
-        }
-        return new Vector3D(x, y, z);
-    }
 
     /**
      * Logs info if representation type is not supported.
@@ -0,0 +1,319 @@
+// License: AGPL. For details, see LICENSE file.
+package org.openstreetmap.josm.plugins.indoorhelper.io.parser.writer;
+
+import org.openstreetmap.josm.data.coor.LatLon;
+import org.openstreetmap.josm.plugins.indoorhelper.model.TagCatalog.IndoorObject;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Writes indoor data as IMDF (Indoor Mapping Data Format) GeoJSON feature collections. {@link IndoorObject}s are
+ * mapped to units, openings and fixtures, walls are left out as IMDF has no feature type for them. Features of each
+ * level are streamed to their own file "level_&lt;ordinal&gt;.geojson", the level features and the manifest are
+ * written on close. Coordinates are rounded to a fixed number of decimals.
+ */
+public class ImdfWriter implements Closeable {
+
+    /**
+     * Default number of decimals of coordinates, about 1 cm
+     */
+    public static final int DEFAULT_PRECISION = 7;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Path directory;
+    private final double scale;
+    private final int precision;
+    private final Map<Integer, LevelFile> levels = new TreeMap<>();
+    private final StringBuilder line = new StringBuilder(256);
+
+    /**
+     * Creates writer
+     *
+     * @param directory directory to write the IMDF files to, created if it does not exist
+     * @param precision number of decimals of coordinates
+     * @throws IOException if directory can not be created
+     */
+    public ImdfWriter(Path directory, int precision) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.precision = precision;
+        this.scale = Math.pow(10, precision);
+    }
+
+    /**
+     * IMDF feature types and categories of indoor objects
+     *
+     * @param object indoor object
+     * @return feature type and category or null if object is not exported
+     */
+    static String[] getFeatureType(IndoorObject object) {
+        switch (object) {
+            case ROOM:
+                return new String[]{"unit", "room"};
+            case CORRIDOR:
+                return new String[]{"unit", "walkway"};
+            case AREA:
+                return new String[]{"unit", "unenclosedarea"};
+            case ELEVATOR:
+                return new String[]{"unit", "elevator"};
+            case STEPS:
+                return new String[]{"unit", "stairs"};
+            case TOILET_FEMALE:
+                return new String[]{"unit", "restroom.female"};
+            case TOILET_MALE:
+                return new String[]{"unit", "restroom.male"};
+            case DOOR_PRIVATE:
+            case DOOR_PUBLIC:
+                return new String[]{"opening", "pedestrian"};
+            case ENTRANCE:
+                return new String[]{"opening", "pedestrian.principal"};
+            case ENTRANCE_EXIT_ONLY:
+                return new String[]{"opening", "emergencyexit"};
+            case BENCH:
+                return new String[]{"fixture", "furniture"};
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Writes feature of indoor object to the file of its level. Units and fixtures are written as polygon, openings
+     * as line string.
+     *
+     * @param points  coordinates of object outline
+     * @param object  indoor object
+     * @param ordinal level of object
+     * @return true if feature was written, false if object is not exported or has too few points
+     * @throws IOException if feature can not be written
+     */
+    public boolean writeFeature(List<LatLon> points, IndoorObject object, int ordinal) throws IOException {
+        String[] featureType = getFeatureType(object);
+        if (featureType == null || points.size() < 2) return false;
+        boolean opening = featureType[0].equals("opening");
+        if (!opening && points.size() < 3) return false;
+
+        LevelFile level = getLevel(ordinal);
+        line.setLength(0);
+        line.append(level.features == 0 ? "\n" : ",\n");
+        line.append("{\"id\":\"").append(UUID.randomUUID()).append("\",\"type\":\"Feature\",\"feature_type\":\"")
+                .append(featureType[0]).append("\",\"geometry\":");
+        if (opening) {
+            line.append("{\"type\":\"LineString\",\"coordinates\":[");
+            appendCoordinates(points, false, level);
+            line.append("]}");
+        } else {
+            line.append("{\"type\":\"Polygon\",\"coordinates\":[[");
+            appendCoordinates(points, true, level);
+            line.append("]]}");
+        }
+        line.append(",\"properties\":{\"category\":\"").append(featureType[1]).append('"');
+        if (opening) {
+            line.append(",\"accessibility\":null,\"access_control\":null,\"door\":{\"type\":\"door\",")
+                    .append("\"automatic\":null,\"material\":null}");
+        } else if (featureType[0].equals("unit")) {
+            line.append(",\"restriction\":null,\"accessibility\":null");
+        } else {
+            line.append(",\"anchor_id\":null");
+        }
+        line.append(",\"name\":null,\"alt_name\":null,\"display_point\":null,\"level_id\":\"")
+                .append(level.id).append("\"}}");
+        level.writer.append(line);
+        level.features++;
+        return true;
+    }
+
+    /**
+     * Closes the level files and writes level features and manifest
+     *
+     * @throws IOException if files can not be written
+     */
+    @Override
+    public void close() throws IOException {
+        IOException exception = null;
+        for (LevelFile level : levels.values()) {
+            try {
+                level.writer.write("\n]}\n");
+                level.writer.close();
+            } catch (IOException e) {
+                if (exception == null) exception = e;
+            }
+        }
+        if (exception != null) throw exception;
+
+        try (Writer writer = Files.newBufferedWriter(directory.resolve("level.geojson"), StandardCharsets.UTF_8)) {
+            writer.write("{\"type\":\"FeatureCollection\",\"features\":[");
+            boolean first = true;
+            for (Map.Entry<Integer, LevelFile> entry : levels.entrySet()) {
+                LevelFile level = entry.getValue();
+                line.setLength(0);
+                line.append(first ? "\n" : ",\n");
+                line.append("{\"id\":\"").append(level.id)
+                        .append("\",\"type\":\"Feature\",\"feature_type\":\"level\",\"geometry\":")
+                        .append("{\"type\":\"Polygon\",\"coordinates\":[[");
+                appendCoordinate(level.minLon, level.minLat);
+                line.append(',');
+                appendCoordinate(level.maxLon, level.minLat);
+                line.append(',');
+                appendCoordinate(level.maxLon, level.maxLat);
+                line.append(',');
+                appendCoordinate(level.minLon, level.maxLat);
+                line.append(',');
+                appendCoordinate(level.minLon, level.minLat);
+                line.append("]]},\"properties\":{\"category\":\"unspecified\",\"restriction\":null,")
+                        .append("\"ordinal\":").append(entry.getKey())
+                        .append(",\"outdoor\":false,\"name\":{\"en\":\"Level ").append(entry.getKey())
+                        .append("\"},\"short_name\":{\"en\":\"").append(entry.getKey())
+                        .append("\"},\"display_point\":null,\"address_id\":null,\"building_ids\":null}}");
+                writer.append(line);
+                first = false;
+            }
+            writer.write("\n]}\n");
+        }
+
+        try (Writer writer = Files.newBufferedWriter(directory.resolve("manifest.json"), StandardCharsets.UTF_8)) {
+            writer.write("{\"version\":\"1.0.0\",\"created\":\"" + Instant.now().truncatedTo(ChronoUnit.SECONDS)
+                    + "\",\"generated_by\":\"indoorhelper\",\"language\":\"en\"}\n");
+        }
+    }
+
+    /**
+     * Gets file of level, creates it on first use
+     *
+     * @param ordinal of level
+     * @return level file
+     * @throws IOException if file can not be created
+     */
+    private LevelFile getLevel(int ordinal) throws IOException {
+        LevelFile level = levels.get(ordinal);
+        if (level == null) {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(
+                    directory.resolve("level_" + ordinal + ".geojson")), StandardCharsets.UTF_8), BUFFER_SIZE);
+            writer.write("{\"type\":\"FeatureCollection\",\"features\":[");
+            level = new LevelFile(writer);
+            levels.put(ordinal, level);
+        }
+        return level;
+    }
+
+    /**
+     * Appends coordinates as [lon,lat] positions. Polygon rings are closed and oriented counterclockwise.
+     *
+     * @param points coordinates to append
+     * @param ring   true if points are a polygon ring
+     * @param level  level to extend the bounds of
+     */
+    private void appendCoordinates(List<LatLon> points, boolean ring, LevelFile level) {
+        int count = points.size();
+        LatLon first = points.get(0);
+        LatLon last = points.get(count - 1);
+        boolean closed = first.lat() == last.lat() && first.lon() == last.lon();
+        if (ring && closed) count--;
+
+        boolean reverse = ring && signedArea(points, count) < 0;
+        for (int i = 0; i < count; i++) {
+            LatLon point = points.get(reverse ? count - 1 - i : i);
+            if (i > 0) line.append(',');
+            appendCoordinate(point.lon(), point.lat());
+            level.extend(point);
+        }
+        if (ring) {
+            line.append(',');
+            LatLon start = points.get(reverse ? count - 1 : 0);
+            appendCoordinate(start.lon(), start.lat());
+        }
+    }
+
+    private void appendCoordinate(double lon, double lat) {
+        line.append('[');
+        appendRounded(lon);
+        line.append(',');
+        appendRounded(lat);
+        line.append(']');
+    }
+
+    /**
+     * Appends value rounded to precision, without trailing zeros
+     *
+     * @param value to append
+     */
+    private void appendRounded(double value) {
+        long rounded = Math.round(value * scale);
+        if (rounded < 0) {
+            line.append('-');
+            rounded = -rounded;
+        }
+        String digits = Long.toString(rounded);
+        int integerDigits = digits.length() - precision;
+        if (integerDigits > 0) {
+            line.append(digits, 0, integerDigits);
+        } else {
+            line.append('0');
+        }
+        int end = digits.length();
+        while (end > Math.max(integerDigits, 0) && digits.charAt(end - 1) == '0') {
+            end--;
+        }
+        if (end > Math.max(integerDigits, 0)) {
+            line.append('.');
+            for (int i = integerDigits; i < 0; i++) {
+                line.append('0');
+            }
+            line.append(digits, Math.max(integerDigits, 0), end);
+        }
+    }
+
+    /**
+     * Calculates signed area of ring in degree, positive if ring is counterclockwise
+     *
+     * @param points ring without closing point
+     * @param count  number of points
+     * @return signed area
+     */
+    private static double signedArea(List<LatLon> points, int count) {
+        double area = 0.0;
+        for (int i = 0; i < count; i++) {
+            LatLon a = points.get(i);
+            LatLon b = points.get((i + 1) % count);
+            area += a.lon() * b.lat() - b.lon() * a.lat();
+        }
+        return area / 2.0;
+    }
+
+    /**
+     * Open feature file and bounds of a level
+     */
+    private static class LevelFile {
+
+        private final String id = UUID.randomUUID().toString();
+        private final Writer writer;
+        private int features;
+        private double minLat = Double.POSITIVE_INFINITY;
+        private double minLon = Double.POSITIVE_INFINITY;
+        private double maxLat = Double.NEGATIVE_INFINITY;
+        private double maxLon = Double.NEGATIVE_INFINITY;
+
+        LevelFile(Writer writer) {
+            this.writer = writer;
+        }
+
+        void extend(LatLon point) {
+            minLat = Math.min(minLat, point.lat());
+            minLon = Math.min(minLon, point.lon());
+            maxLat = Math.max(maxLat, point.lat());
+            maxLon = Math.max(maxLon, point.lon());
+        }
+    }
+}
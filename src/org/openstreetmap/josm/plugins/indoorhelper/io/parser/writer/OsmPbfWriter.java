@@ -0,0 +1,440 @@
+// License: AGPL. For details, see LICENSE file.
+package org.openstreetmap.josm.plugins.indoorhelper.io.parser.writer;
+
+import org.openstreetmap.josm.data.coor.LatLon;
+import org.openstreetmap.josm.data.osm.DataSet;
+import org.openstreetmap.josm.data.osm.Node;
+import org.openstreetmap.josm.data.osm.Tag;
+import org.openstreetmap.josm.data.osm.Way;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.Deflater;
+
+/**
+ * Writes OSM data to OSM PBF format. Nodes are written as dense nodes, ids, coordinates and way node references are
+ * delta coded and each block has its own string table. Blocks are encoded and zlib compressed concurrently and
+ * written in order. All node blocks precede the way blocks, way blocks completed before closing are held in a
+ * temporary file until then. Nodes and ways of {@link #writeWay} get sequential negative ids, so a writer should
+ * either be used for streamed ways or for a {@link DataSet}.
+ */
+public class OsmPbfWriter implements OsmStreamWriter {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    // entities per block, as written by common OSM tools
+    private static final int BLOCK_SIZE = 8000;
+    // coordinates are written in units of 100 nanodegrees, the default granularity
+    private static final double COORDINATE_SCALE = 1e7;
+    private static final int MAX_PENDING_BLOCKS = 2 * Runtime.getRuntime().availableProcessors();
+
+    private final OutputStream out;
+    private PrimitiveBlock nodeBlock = new PrimitiveBlock(false);
+    private PrimitiveBlock wayBlock = new PrimitiveBlock(true);
+    private final Deque<CompletableFuture<byte[]>> pendingNodeBlocks = new ArrayDeque<>();
+    private final Deque<CompletableFuture<byte[]>> pendingWayBlocks = new ArrayDeque<>();
+    // way blocks completed while nodes are still written
+    private Path wayFile;
+    private OutputStream wayOut;
+    private long nextId = -1;
+    private long[] nodeIds = new long[0];
+
+    /**
+     * Creates writer and writes the header block
+     *
+     * @param out stream to write to, closed with this writer
+     * @throws IOException if header can not be written
+     */
+    public OsmPbfWriter(OutputStream out) throws IOException {
+        this.out = out;
+        ProtobufOutput header = new ProtobufOutput(64);
+        header.writeStringField(4, "OsmSchema-V0.6");
+        header.writeStringField(4, "DenseNodes");
+        header.writeStringField(16, "indoorhelper");
+        out.write(toBlob("OSMHeader", header));
+    }
+
+    /**
+     * Creates writer for file
+     *
+     * @param file to write to
+     * @return writer
+     * @throws IOException if file can not be created
+     */
+    public static OsmPbfWriter open(Path file) throws IOException {
+        OutputStream stream = new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE);
+        try {
+            return new OsmPbfWriter(stream);
+        } catch (IOException e) {
+            stream.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public long writeWay(List<LatLon> points, List<Tag> tags) throws IOException {
+        int count = points.size();
+        if (count < 2) return 0;
+        LatLon first = points.get(0);
+        LatLon last = points.get(count - 1);
+        boolean closed = first.lat() == last.lat() && first.lon() == last.lon();
+        int nodeCount = closed ? count - 1 : count;
+
+        if (nodeIds.length < count) nodeIds = new long[count];
+        for (int i = 0; i < nodeCount; i++) {
+            nodeIds[i] = nextId--;
+            addNode(nodeIds[i], points.get(i).lat(), points.get(i).lon());
+        }
+        if (closed) nodeIds[count - 1] = nodeIds[0];
+
+        long wayId = nextId--;
+        wayBlock.addWay(wayId, nodeIds, count);
+        for (Tag tag : tags) {
+            wayBlock.addTag(tag.getKey(), tag.getValue());
+        }
+        if (wayBlock.isFull()) flushWays();
+        return wayId;
+    }
+
+    /**
+     * Writes nodes and ways of data set with their ids. Deleted primitives and nodes without coordinates are
+     * skipped.
+     *
+     * @param dataSet to write, e.g. packed data of BIM import
+     * @throws IOException if data can not be written
+     */
+    public void write(DataSet dataSet) throws IOException {
+        for (Node node : dataSet.getNodes()) {
+            if (node.isDeleted() || !node.isLatLonKnown()) continue;
+            addNode(node.getUniqueId(), node.lat(), node.lon());
+            addTags(nodeBlock, node.getKeys());
+        }
+        for (Way way : dataSet.getWays()) {
+            if (way.isDeleted()) continue;
+            List<Node> nodes = way.getNodes();
+            if (nodeIds.length < nodes.size()) nodeIds = new long[nodes.size()];
+            for (int i = 0; i < nodes.size(); i++) {
+                nodeIds[i] = nodes.get(i).getUniqueId();
+            }
+            wayBlock.addWay(way.getUniqueId(), nodeIds, nodes.size());
+            addTags(wayBlock, way.getKeys());
+            if (wayBlock.isFull()) flushWays();
+        }
+    }
+
+    /**
+     * Writes remaining blocks, appends the way blocks to the node blocks and closes the underlying stream
+     *
+     * @throws IOException if stream can not be written or closed
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (nodeBlock.size() > 0) submit(nodeBlock, pendingNodeBlocks, out);
+            drain(pendingNodeBlocks, out, 0);
+
+            if (wayBlock.size() > 0) {
+                submit(wayBlock, pendingWayBlocks, wayOut != null ? wayOut : out);
+            }
+            if (wayOut != null) {
+                drain(pendingWayBlocks, wayOut, 0);
+                wayOut.close();
+                wayOut = null;
+                Files.copy(wayFile, out);
+            } else {
+                drain(pendingWayBlocks, out, 0);
+            }
+        } finally {
+            out.close();
+            if (wayOut != null) wayOut.close();
+            if (wayFile != null) Files.deleteIfExists(wayFile);
+        }
+    }
+
+    private void addNode(long id, double lat, double lon) throws IOException {
+        if (nodeBlock.isFull()) {
+            submit(nodeBlock, pendingNodeBlocks, out);
+            nodeBlock = new PrimitiveBlock(false);
+        }
+        nodeBlock.addNode(id, Math.round(lat * COORDINATE_SCALE), Math.round(lon * COORDINATE_SCALE));
+    }
+
+    private static void addTags(PrimitiveBlock block, Map<String, String> tags) {
+        for (Map.Entry<String, String> tag : tags.entrySet()) {
+            block.addTag(tag.getKey(), tag.getValue());
+        }
+    }
+
+    /**
+     * Submits completed way block, way blocks are held in temporary file until all nodes are written
+     *
+     * @throws IOException if temporary file can not be created or written
+     */
+    private void flushWays() throws IOException {
+        if (wayOut == null) {
+            wayFile = Files.createTempFile("indoorhelper-ways", ".pbf");
+            wayOut = new BufferedOutputStream(Files.newOutputStream(wayFile), BUFFER_SIZE);
+        }
+        submit(wayBlock, pendingWayBlocks, wayOut);
+        wayBlock = new PrimitiveBlock(true);
+    }
+
+    /**
+     * Starts encoding of block and writes encoded blocks if too many blocks are pending
+     *
+     * @param block   to encode
+     * @param pending blocks being encoded in write order
+     * @param target  stream to write the pending blocks to
+     * @throws IOException if blocks can not be written
+     */
+    private static void submit(PrimitiveBlock block, Deque<CompletableFuture<byte[]>> pending, OutputStream target)
+            throws IOException {
+        pending.add(CompletableFuture.supplyAsync(block::encode));
+        drain(pending, target, MAX_PENDING_BLOCKS);
+    }
+
+    /**
+     * Writes pending blocks in order until at most maxPending blocks are left
+     *
+     * @param pending    blocks being encoded in write order
+     * @param target     stream to write to
+     * @param maxPending number of blocks which may stay pending
+     * @throws IOException if blocks can not be written
+     */
+    private static void drain(Deque<CompletableFuture<byte[]>> pending, OutputStream target, int maxPending)
+            throws IOException {
+        while (pending.size() > maxPending) {
+            target.write(pending.poll().join());
+        }
+    }
+
+    /**
+     * Wraps message into a zlib compressed blob preceded by its blob header
+     *
+     * @param type    type of blob, OSMHeader or OSMData
+     * @param message encoded header block or primitive block
+     * @return framed blob
+     */
+    static byte[] toBlob(String type, ProtobufOutput message) {
+        byte[] raw = message.toByteArray();
+        Deflater deflater = new Deflater();
+        deflater.setInput(raw);
+        deflater.finish();
+        byte[] compressed = new byte[raw.length + raw.length / 1000 + 64];
+        int compressedSize = 0;
+        while (!deflater.finished()) {
+            if (compressedSize == compressed.length) compressed = Arrays.copyOf(compressed, compressed.length * 2);
+            compressedSize += deflater.deflate(compressed, compressedSize, compressed.length - compressedSize);
+        }
+        deflater.end();
+
+        ProtobufOutput blob = new ProtobufOutput(compressedSize + 16);
+        blob.writeVarintField(2, raw.length);
+        blob.writeBytesField(3, compressed, compressedSize);
+
+        ProtobufOutput blobHeader = new ProtobufOutput(32);
+        blobHeader.writeStringField(1, type);
+        blobHeader.writeVarintField(3, blob.size());
+
+        byte[] framed = new byte[4 + blobHeader.size() + blob.size()];
+        int headerSize = blobHeader.size();
+        framed[0] = (byte) (headerSize >>> 24);
+        framed[1] = (byte) (headerSize >>> 16);
+        framed[2] = (byte) (headerSize >>> 8);
+        framed[3] = (byte) headerSize;
+        System.arraycopy(blobHeader.toByteArray(), 0, framed, 4, headerSize);
+        System.arraycopy(blob.toByteArray(), 0, framed, 4 + headerSize, blob.size());
+        return framed;
+    }
+
+    /**
+     * Block of either nodes or ways with its own string table. Entities are collected as primitive arrays and
+     * encoded once the block is complete.
+     */
+    private static class PrimitiveBlock {
+
+        private final boolean ways;
+        private final Map<String, Integer> stringIndices = new HashMap<>();
+        private String[] strings = new String[64];
+        private int stringCount;
+
+        private final long[] ids = new long[BLOCK_SIZE];
+        private int count;
+        // coordinates of nodes in units of granularity
+        private final long[] lats;
+        private final long[] lons;
+        // node references of ways, refStarts[i] is index of first reference of way i
+        private final int[] refStarts;
+        private long[] refs;
+        private int refCount;
+        // key and value string indices, tagStarts[i] is index of first key of entity i
+        private final int[] tagStarts = new int[BLOCK_SIZE];
+        private int[] tags = new int[0];
+        private int tagCount;
+
+        PrimitiveBlock(boolean ways) {
+            this.ways = ways;
+            lats = ways ? null : new long[BLOCK_SIZE];
+            lons = ways ? null : new long[BLOCK_SIZE];
+            refStarts = ways ? new int[BLOCK_SIZE] : null;
+            refs = ways ? new long[BLOCK_SIZE * 4] : null;
+            // index 0 is reserved as delimiter in dense nodes
+            indexOf("");
+        }
+
+        int size() {
+            return count;
+        }
+
+        boolean isFull() {
+            return count == BLOCK_SIZE;
+        }
+
+        void addNode(long id, long lat, long lon) {
+            lats[count] = lat;
+            lons[count] = lon;
+            addEntity(id);
+        }
+
+        void addWay(long id, long[] nodeIds, int nodeCount) {
+            if (refCount + nodeCount > refs.length) {
+                refs = Arrays.copyOf(refs, Math.max(refs.length * 2, refCount + nodeCount));
+            }
+            refStarts[count] = refCount;
+            System.arraycopy(nodeIds, 0, refs, refCount, nodeCount);
+            refCount += nodeCount;
+            addEntity(id);
+        }
+
+        /**
+         * Adds tag to last added entity
+         *
+         * @param key   of tag
+         * @param value of tag
+         */
+        void addTag(String key, String value) {
+            if (tagCount + 2 > tags.length) tags = Arrays.copyOf(tags, Math.max(64, tags.length * 2));
+            tags[tagCount++] = indexOf(key);
+            tags[tagCount++] = indexOf(value);
+        }
+
+        private void addEntity(long id) {
+            ids[count] = id;
+            tagStarts[count] = tagCount;
+            count++;
+        }
+
+        private int indexOf(String string) {
+            Integer index = stringIndices.get(string);
+            if (index == null) {
+                index = stringCount;
+                stringIndices.put(string, index);
+                if (stringCount == strings.length) strings = Arrays.copyOf(strings, stringCount * 2);
+                strings[stringCount++] = string;
+            }
+            return index;
+        }
+
+        private int tagEnd(int entity) {
+            return entity + 1 < count ? tagStarts[entity + 1] : tagCount;
+        }
+
+        /**
+         * Encodes block as OSMData blob
+         *
+         * @return framed blob
+         */
+        byte[] encode() {
+            ProtobufOutput stringTable = new ProtobufOutput(stringCount * 16);
+            for (int i = 0; i < stringCount; i++) {
+                stringTable.writeStringField(1, strings[i]);
+            }
+            ProtobufOutput group = ways ? encodeWays() : encodeDenseNodes();
+
+            ProtobufOutput block = new ProtobufOutput(stringTable.size() + group.size() + 16);
+            block.writeMessageField(1, stringTable);
+            block.writeMessageField(2, group);
+            return toBlob("OSMData", block);
+        }
+
+        private ProtobufOutput encodeDenseNodes() {
+            ProtobufOutput packed = new ProtobufOutput(count * 4);
+            ProtobufOutput dense = new ProtobufOutput(count * 12);
+            writeDeltas(packed, ids, 0, count);
+            dense.writeMessageField(1, packed);
+            writeDeltas(packed, lats, 0, count);
+            dense.writeMessageField(8, packed);
+            writeDeltas(packed, lons, 0, count);
+            dense.writeMessageField(9, packed);
+            if (tagCount > 0) {
+                // keys and values of each node followed by 0
+                packed.reset();
+                for (int i = 0; i < count; i++) {
+                    for (int t = tagStarts[i], end = tagEnd(i); t < end; t++) {
+                        packed.writeVarint(tags[t]);
+                    }
+                    packed.writeVarint(0);
+                }
+                dense.writeMessageField(10, packed);
+            }
+
+            ProtobufOutput group = new ProtobufOutput(dense.size() + 8);
+            group.writeMessageField(2, dense);
+            return group;
+        }
+
+        private ProtobufOutput encodeWays() {
+            ProtobufOutput group = new ProtobufOutput(count * 16 + refCount * 2);
+            ProtobufOutput way = new ProtobufOutput(64);
+            ProtobufOutput keys = new ProtobufOutput(16);
+            ProtobufOutput values = new ProtobufOutput(16);
+            ProtobufOutput packed = new ProtobufOutput(64);
+            for (int i = 0; i < count; i++) {
+                way.reset();
+                way.writeVarintField(1, ids[i]);
+                int tagEnd = tagEnd(i);
+                if (tagEnd > tagStarts[i]) {
+                    keys.reset();
+                    values.reset();
+                    for (int t = tagStarts[i]; t < tagEnd; t += 2) {
+                        keys.writeVarint(tags[t]);
+                        values.writeVarint(tags[t + 1]);
+                    }
+                    way.writeMessageField(2, keys);
+                    way.writeMessageField(3, values);
+                }
+                int refEnd = i + 1 < count ? refStarts[i + 1] : refCount;
+                writeDeltas(packed, refs, refStarts[i], refEnd);
+                way.writeMessageField(8, packed);
+                group.writeMessageField(3, way);
+            }
+            return group;
+        }
+
+        /**
+         * Writes delta coded values as packed sint64
+         *
+         * @param packed buffer to write to, reset before writing
+         * @param values to write
+         * @param start  index of first value
+         * @param end    index behind last value
+         */
+        private static void writeDeltas(ProtobufOutput packed, long[] values, int start, int end) {
+            packed.reset();
+            long previous = 0;
+            for (int i = start; i < end; i++) {
+                packed.writeSignedVarint(values[i] - previous);
+                previous = values[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+// License: AGPL. For details, see LICENSE file.
+package org.openstreetmap.josm.plugins.indoorhelper.io.parser.writer;
+
+import org.openstreetmap.josm.data.coor.LatLon;
+import org.openstreetmap.josm.data.osm.Tag;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writer of OSM data which is written way by way, without building a {@link org.openstreetmap.josm.data.osm.DataSet}
+ */
+public interface OsmStreamWriter extends Closeable {
+
+    /**
+     * Writes way and its nodes. If first and last point are equal, the way is closed by its first node.
+     *
+     * @param points coordinates of way nodes
+     * @param tags   tags of way
+     * @return id of written way or 0 if way has less than 2 points and was skipped
+     * @throws IOException if way can not be written
+     */
+    long writeWay(List<LatLon> points, List<Tag> tags) throws IOException;
+}
@@ -0,0 +1,164 @@
+// License: AGPL. For details, see LICENSE file.
+package org.openstreetmap.josm.plugins.indoorhelper.io.parser.writer;
+
+import org.openstreetmap.josm.data.coor.LatLon;
+import org.openstreetmap.josm.data.osm.Tag;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes ways directly to OSM XML without building a {@link org.openstreetmap.josm.data.osm.DataSet}. Each way is
+ * written with its nodes as soon as it is passed, so memory does not depend on the number of written ways.
+ * Nodes and ways get sequential negative ids, like new primitives in JOSM.
+ */
+public class OsmXmlStreamWriter implements OsmStreamWriter {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Writer out;
+    // same precision as coordinates written by JOSM
+    private final DecimalFormat coordinateFormat = new DecimalFormat("0.##########",
+            DecimalFormatSymbols.getInstance(Locale.ROOT));
+    private long nextId = -1;
+    private long[] nodeIds = new long[0];
+
+    /**
+     * Creates writer and writes the XML header
+     *
+     * @param out stream to write to, closed with this writer
+     * @throws IOException if header can not be written
+     */
+    public OsmXmlStreamWriter(OutputStream out) throws IOException {
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        this.out.write("<?xml version='1.0' encoding='UTF-8'?>\n");
+        this.out.write("<osm version='0.6' generator='indoorhelper'>\n");
+    }
+
+    /**
+     * Creates writer for file, files with .gz suffix are gzip compressed
+     *
+     * @param file to write to
+     * @return writer
+     * @throws IOException if file can not be created
+     */
+    public static OsmXmlStreamWriter open(Path file) throws IOException {
+        OutputStream stream = Files.newOutputStream(file);
+        try {
+            if (file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".gz")) {
+                stream = new GZIPOutputStream(stream, BUFFER_SIZE);
+            }
+            return new OsmXmlStreamWriter(stream);
+        } catch (IOException e) {
+            stream.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public long writeWay(List<LatLon> points, List<Tag> tags) throws IOException {
+        int count = points.size();
+        if (count < 2) return 0;
+        LatLon first = points.get(0);
+        LatLon last = points.get(count - 1);
+        boolean closed = first.lat() == last.lat() && first.lon() == last.lon();
+        int nodeCount = closed ? count - 1 : count;
+
+        if (nodeIds.length < nodeCount) nodeIds = new long[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            LatLon point = points.get(i);
+            nodeIds[i] = nextId--;
+            out.write("  <node id='");
+            out.write(Long.toString(nodeIds[i]));
+            out.write("' action='modify' visible='true' lat='");
+            out.write(coordinateFormat.format(point.lat()));
+            out.write("' lon='");
+            out.write(coordinateFormat.format(point.lon()));
+            out.write("' />\n");
+        }
+
+        long wayId = nextId--;
+        out.write("  <way id='");
+        out.write(Long.toString(wayId));
+        out.write("' action='modify' visible='true'>\n");
+        for (int i = 0; i < count; i++) {
+            out.write("    <nd ref='");
+            out.write(Long.toString(nodeIds[i < nodeCount ? i : 0]));
+            out.write("' />\n");
+        }
+        for (Tag tag : tags) {
+            out.write("    <tag k='");
+            writeEscaped(tag.getKey());
+            out.write("' v='");
+            writeEscaped(tag.getValue());
+            out.write("' />\n");
+        }
+        out.write("  </way>\n");
+        return wayId;
+    }
+
+    /**
+     * Writes the closing element and closes the underlying stream
+     *
+     * @throws IOException if stream can not be written or closed
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            out.write("</osm>\n");
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Writes attribute value with XML special characters escaped
+     *
+     * @param value to write
+     * @throws IOException if value can not be written
+     */
+    private void writeEscaped(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&':
+                    out.write("&amp;");
+                    break;
+                case '<':
+                    out.write("&lt;");
+                    break;
+                case '>':
+                    out.write("&gt;");
+                    break;
+                case '\'':
+                    out.write("&apos;");
+                    break;
+                case '"':
+                    out.write("&quot;");
+                    break;
+                case '\n':
+                    out.write("&#xA;");
+                    break;
+                case '\r':
+                    out.write("&#xD;");
+                    break;
+                case '\t':
+                    out.write("&#x9;");
+                    break;
+                default:
+                    out.write(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+// License: AGPL. For details, see LICENSE file.
+package org.openstreetmap.josm.plugins.indoorhelper.io.parser.writer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Growable buffer encoding protocol buffer fields. Only the wire types needed to write OSM PBF files are supported.
+ */
+final class ProtobufOutput {
+
+    static final int WIRE_TYPE_VARINT = 0;
+    static final int WIRE_TYPE_LENGTH_DELIMITED = 2;
+
+    private byte[] buffer;
+    private int size;
+
+    /**
+     * Creates buffer
+     *
+     * @param capacity initial capacity in bytes
+     */
+    ProtobufOutput(int capacity) {
+        buffer = new byte[Math.max(capacity, 16)];
+    }
+
+    /**
+     * Writes unsigned varint, negative values are written as 64 bit two's complement
+     *
+     * @param value to write
+     */
+    void writeVarint(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[size++] = (byte) value;
+    }
+
+    /**
+     * Writes zigzag encoded varint of sint32 and sint64 fields
+     *
+     * @param value to write
+     */
+    void writeSignedVarint(long value) {
+        writeVarint((value << 1) ^ (value >> 63));
+    }
+
+    /**
+     * Writes key of field
+     *
+     * @param field    number of field
+     * @param wireType wire type of field
+     */
+    void writeKey(int field, int wireType) {
+        writeVarint(((long) field << 3) | wireType);
+    }
+
+    /**
+     * Writes varint field
+     *
+     * @param field number of field
+     * @param value to write
+     */
+    void writeVarintField(int field, long value) {
+        writeKey(field, WIRE_TYPE_VARINT);
+        writeVarint(value);
+    }
+
+    /**
+     * Writes bytes field
+     *
+     * @param field  number of field
+     * @param bytes  to write
+     * @param length number of bytes to write
+     */
+    void writeBytesField(int field, byte[] bytes, int length) {
+        writeKey(field, WIRE_TYPE_LENGTH_DELIMITED);
+        writeVarint(length);
+        ensureCapacity(length);
+        System.arraycopy(bytes, 0, buffer, size, length);
+        size += length;
+    }
+
+    /**
+     * Writes string field
+     *
+     * @param field number of field
+     * @param value to write
+     */
+    void writeStringField(int field, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeBytesField(field, bytes, bytes.length);
+    }
+
+    /**
+     * Writes embedded message or packed repeated field
+     *
+     * @param field   number of field
+     * @param message encoded message or packed values
+     */
+    void writeMessageField(int field, ProtobufOutput message) {
+        writeBytesField(field, message.buffer, message.size);
+    }
+
+    /**
+     * Clears buffer, capacity is kept
+     */
+    void reset() {
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    /**
+     * Writes content of buffer to stream
+     *
+     * @param out to write to
+     * @throws IOException if stream can not be written
+     */
+    void writeTo(OutputStream out) throws IOException {
+        out.write(buffer, 0, size);
+    }
+
+    private void ensureCapacity(int additional) {
+        if (size + additional > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + additional));
+        }
+    }
+}
@@ -0,0 +1,379 @@
+// License: AGPL. For details, see LICENSE file.
+package org.openstreetmap.josm.plugins.indoorhelper.model;
+
+import org.openstreetmap.josm.command.ChangePropertyCommand;
+import org.openstreetmap.josm.command.Command;
+import org.openstreetmap.josm.command.DeleteCommand;
+import org.openstreetmap.josm.command.SequenceCommand;
+import org.openstreetmap.josm.data.osm.BBox;
+import org.openstreetmap.josm.data.osm.DataSet;
+import org.openstreetmap.josm.data.osm.Node;
+import org.openstreetmap.josm.data.osm.OsmPrimitive;
+import org.openstreetmap.josm.data.osm.QuadBuckets;
+import org.openstreetmap.josm.data.osm.Way;
+
+import java.awt.geom.Area;
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.openstreetmap.josm.tools.I18n.trn;
+
+/**
+ * Finds ways of imported data which duplicate ways of existing data, e.g. rooms and walls mapped before a BIM
+ * import. Existing ways are indexed per level in a spatial index, so only ways of the same level with intersecting
+ * bounding boxes are compared. Areas match if their intersection over union (IoU) is high enough, areas and lines
+ * match if the Hausdorff distance of their vertices is small enough. Each way is matched at most once, best
+ * matches first.
+ */
+public class Conflator {
+
+    public static final double DEFAULT_MIN_IOU = 0.8;
+    public static final double DEFAULT_MAX_HAUSDORFF_DISTANCE = 0.5;
+
+    private static final double METER_PER_DEGREE = 6378137.0 * Math.PI / 180.0;
+
+    private final double minIou;
+    private final double maxHausdorffDistance;
+
+    // local metric projection of the compared data
+    private double originLat;
+    private double originLon;
+    private double lonScale;
+    private final Map<Way, Footprint> footprints = new HashMap<>();
+
+    /**
+     * Creates conflator
+     *
+     * @param minIou               minimum intersection over union of matching areas, 0 to 1
+     * @param maxHausdorffDistance maximum Hausdorff distance of matching ways in meter
+     */
+    public Conflator(double minIou, double maxHausdorffDistance) {
+        this.minIou = minIou;
+        this.maxHausdorffDistance = maxHausdorffDistance;
+    }
+
+    /**
+     * Finds existing ways duplicated by imported ways
+     *
+     * @param target       existing data
+     * @param importedWays ways of imported data
+     * @return matches, best matches first
+     */
+    public List<Match> findMatches(DataSet target, Collection<Way> importedWays) {
+        footprints.clear();
+        setOrigin(importedWays);
+
+        Map<String, QuadBuckets<Way>> levels = new HashMap<>();
+        for (Way way : target.getWays()) {
+            if (isComparable(way)) levels.computeIfAbsent(getLevel(way), level -> new QuadBuckets<>()).add(way);
+        }
+
+        double latMargin = maxHausdorffDistance / METER_PER_DEGREE;
+        double lonMargin = latMargin / lonScale;
+        List<Match> candidates = new ArrayList<>();
+        for (Way importedWay : importedWays) {
+            QuadBuckets<Way> index = isComparable(importedWay) ? levels.get(getLevel(importedWay)) : null;
+            if (index == null) continue;
+            BBox bbox = importedWay.getBBox();
+            BBox searchBox = new BBox(bbox.getTopLeftLon() - lonMargin, bbox.getBottomRightLat() - latMargin,
+                    bbox.getBottomRightLon() + lonMargin, bbox.getTopLeftLat() + latMargin);
+            for (Way targetWay : index.search(searchBox)) {
+                Match match = compare(importedWay, targetWay);
+                if (match != null) candidates.add(match);
+            }
+        }
+
+        candidates.sort(Comparator.comparingDouble((Match match) -> -match.iou)
+                .thenComparingDouble(match -> match.hausdorffDistance));
+        Set<Way> matchedWays = new HashSet<>();
+        List<Match> matches = new ArrayList<>();
+        for (Match candidate : candidates) {
+            if (!matchedWays.contains(candidate.importedWay) && !matchedWays.contains(candidate.targetWay)) {
+                matchedWays.add(candidate.importedWay);
+                matchedWays.add(candidate.targetWay);
+                matches.add(candidate);
+            }
+        }
+        footprints.clear();
+        return matches;
+    }
+
+    /**
+     * Creates command setting tags of imported ways which are missing on the matched existing ways. Tags existing
+     * on both ways are not changed.
+     *
+     * @param matches to transfer tags of
+     * @return one command for all ways or null if no tag is missing
+     */
+    public static Command createTagTransferCommand(List<Match> matches) {
+        List<Command> commands = new ArrayList<>();
+        for (Match match : matches) {
+            Map<String, String> missingTags = new LinkedHashMap<>();
+            match.importedWay.getKeys().forEach((key, value) -> {
+                if (!match.targetWay.hasKey(key)) missingTags.put(key, value);
+            });
+            if (!missingTags.isEmpty()) {
+                commands.add(new ChangePropertyCommand(Collections.singleton(match.targetWay), missingTags));
+            }
+        }
+        if (commands.isEmpty()) return null;
+        return new SequenceCommand(trn("Transfer tags to {0} way", "Transfer tags to {0} ways", commands.size(),
+                commands.size()), commands);
+    }
+
+    /**
+     * Creates command deleting matched ways of imported data, together with their nodes which are not used by
+     * other ways
+     *
+     * @param imported data containing the imported ways
+     * @param matches  to delete imported ways of
+     * @return command or null if there are no matches
+     */
+    public static Command createRemoveDuplicatesCommand(DataSet imported, List<Match> matches) {
+        if (matches.isEmpty()) return null;
+        Set<Way> ways = new LinkedHashSet<>();
+        Set<Node> nodes = new LinkedHashSet<>();
+        for (Match match : matches) {
+            ways.add(match.importedWay);
+            nodes.addAll(match.importedWay.getNodes());
+        }
+        List<OsmPrimitive> deleted = new ArrayList<>(ways);
+        for (Node node : nodes) {
+            if (!node.hasKeys() && ways.containsAll(node.getReferrers())) deleted.add(node);
+        }
+        return new DeleteCommand(imported, deleted);
+    }
+
+    /**
+     * Compares imported way with existing way
+     *
+     * @param importedWay way of imported data
+     * @param targetWay   way of existing data
+     * @return match or null if ways do not match
+     */
+    private Match compare(Way importedWay, Way targetWay) {
+        Footprint a = getFootprint(importedWay);
+        Footprint b = getFootprint(targetWay);
+        if (a.closed != b.closed) return null;
+
+        double iou = Double.NaN;
+        if (a.closed) {
+            // intersection over union is at most the ratio of both areas
+            if (Math.min(a.area, b.area) < minIou * Math.max(a.area, b.area)) return null;
+            iou = getIntersectionOverUnion(a, b);
+            if (!(iou >= minIou)) return null;
+        }
+        double hausdorffDistance = Math.max(a.getDirectedHausdorffDistance(b), b.getDirectedHausdorffDistance(a));
+        if (hausdorffDistance > maxHausdorffDistance) return null;
+        return new Match(importedWay, targetWay, a.closed ? iou : 1.0, hausdorffDistance);
+    }
+
+    private static double getIntersectionOverUnion(Footprint a, Footprint b) {
+        Area intersection = new Area(a.toPath());
+        intersection.intersect(new Area(b.toPath()));
+        double intersectionArea = getArea(intersection);
+        double unionArea = a.area + b.area - intersectionArea;
+        return unionArea > 0.0 ? intersectionArea / unionArea : 0.0;
+    }
+
+    /**
+     * Calculates area of polygonal area
+     *
+     * @param area consisting of straight segments only
+     * @return area in square meter
+     */
+    private static double getArea(Area area) {
+        double sum = 0.0;
+        double[] coordinates = new double[6];
+        double startX = 0.0;
+        double startY = 0.0;
+        double lastX = 0.0;
+        double lastY = 0.0;
+        for (PathIterator iterator = area.getPathIterator(null); !iterator.isDone(); iterator.next()) {
+            switch (iterator.currentSegment(coordinates)) {
+                case PathIterator.SEG_MOVETO:
+                    startX = lastX = coordinates[0];
+                    startY = lastY = coordinates[1];
+                    break;
+                case PathIterator.SEG_LINETO:
+                    sum += lastX * coordinates[1] - coordinates[0] * lastY;
+                    lastX = coordinates[0];
+                    lastY = coordinates[1];
+                    break;
+                case PathIterator.SEG_CLOSE:
+                    sum += lastX * startY - startX * lastY;
+                    lastX = startX;
+                    lastY = startY;
+                    break;
+                default:
+                    break;
+            }
+        }
+        // holes have opposite orientation of outer rings
+        return Math.abs(sum) / 2.0;
+    }
+
+    private void setOrigin(Collection<Way> ways) {
+        BBox bounds = null;
+        for (Way way : ways) {
+            if (!isComparable(way)) continue;
+            if (bounds == null) {
+                bounds = new BBox(way.getBBox());
+            } else {
+                bounds.add(way.getBBox());
+            }
+        }
+        originLat = bounds != null ? (bounds.getTopLeftLat() + bounds.getBottomRightLat()) / 2.0 : 0.0;
+        originLon = bounds != null ? (bounds.getTopLeftLon() + bounds.getBottomRightLon()) / 2.0 : 0.0;
+        lonScale = Math.max(Math.cos(Math.toRadians(originLat)), 1e-6);
+    }
+
+    private Footprint getFootprint(Way way) {
+        return footprints.computeIfAbsent(way, w -> {
+            List<Node> nodes = w.getNodes();
+            double[] x = new double[nodes.size()];
+            double[] y = new double[nodes.size()];
+            for (int i = 0; i < nodes.size(); i++) {
+                x[i] = (nodes.get(i).lon() - originLon) * lonScale * METER_PER_DEGREE;
+                y[i] = (nodes.get(i).lat() - originLat) * METER_PER_DEGREE;
+            }
+            return new Footprint(x, y, w.isClosed());
+        });
+    }
+
+    private static boolean isComparable(Way way) {
+        if (!way.isUsable() || way.getNodesCount() < 2) return false;
+        for (Node node : way.getNodes()) {
+            if (!node.isLatLonKnown()) return false;
+        }
+        return true;
+    }
+
+    private static String getLevel(Way way) {
+        String level = way.get(LevelAssigner.LEVEL_KEY);
+        return level != null ? level : "";
+    }
+
+    /**
+     * Way projected to local metric coordinates
+     */
+    private static class Footprint {
+
+        // vertices, closed ways end with first vertex
+        private final double[] x;
+        private final double[] y;
+        private final boolean closed;
+        private final double area;
+
+        Footprint(double[] x, double[] y, boolean closed) {
+            this.x = x;
+            this.y = y;
+            this.closed = closed;
+            double sum = 0.0;
+            if (closed) {
+                for (int i = 0; i < x.length - 1; i++) {
+                    sum += x[i] * y[i + 1] - x[i + 1] * y[i];
+                }
+            }
+            this.area = Math.abs(sum) / 2.0;
+        }
+
+        Path2D toPath() {
+            Path2D.Double path = new Path2D.Double(Path2D.WIND_EVEN_ODD, x.length);
+            path.moveTo(x[0], y[0]);
+            for (int i = 1; i < x.length; i++) {
+                path.lineTo(x[i], y[i]);
+            }
+            path.closePath();
+            return path;
+        }
+
+        /**
+         * Calculates maximum distance of vertices of this footprint to the segments of other footprint
+         *
+         * @param other footprint
+         * @return directed Hausdorff distance in meter
+         */
+        double getDirectedHausdorffDistance(Footprint other) {
+            double max = 0.0;
+            for (int i = 0; i < x.length; i++) {
+                double min = Double.POSITIVE_INFINITY;
+                for (int j = 0; j < other.x.length - 1 && min > max; j++) {
+                    min = Math.min(min, getSegmentDistanceSq(x[i], y[i], other.x[j], other.y[j], other.x[j + 1],
+                            other.y[j + 1]));
+                }
+                if (other.x.length == 1) min = square(x[i] - other.x[0]) + square(y[i] - other.y[0]);
+                max = Math.max(max, min);
+            }
+            return Math.sqrt(max);
+        }
+
+        private static double getSegmentDistanceSq(double px, double py, double ax, double ay, double bx,
+                                                   double by) {
+            double dx = bx - ax;
+            double dy = by - ay;
+            double lengthSq = dx * dx + dy * dy;
+            double t = lengthSq > 0.0 ? ((px - ax) * dx + (py - ay) * dy) / lengthSq : 0.0;
+            t = Math.max(0.0, Math.min(1.0, t));
+            return square(px - (ax + t * dx)) + square(py - (ay + t * dy));
+        }
+
+        private static double square(double value) {
+            return value * value;
+        }
+    }
+
+    /**
+     * Imported way matching an existing way
+     */
+    public static final class Match {
+        private final Way importedWay;
+        private final Way targetWay;
+        private final double iou;
+        private final double hausdorffDistance;
+
+        Match(Way importedWay, Way targetWay, double iou, double hausdorffDistance) {
+            this.importedWay = importedWay;
+            this.targetWay = targetWay;
+            this.iou = iou;
+            this.hausdorffDistance = hausdorffDistance;
+        }
+
+        public Way getImportedWay() {
+            return importedWay;
+        }
+
+        public Way getTargetWay() {
+            return targetWay;
+        }
+
+        /**
+         * Returns intersection over union of matched areas
+         *
+         * @return intersection over union, 1.0 for lines
+         */
+        public double getIou() {
+            return iou;
+        }
+
+        /**
+         * Returns Hausdorff distance of matched ways
+         *
+         * @return Hausdorff distance in meter
+         */
+        public double getHausdorffDistance() {
+            return hausdorffDistance;
+        }
+    }
+}
@@ -5,13 +5,21 @@ import org.openstreetmap.josm.plugins.indoorhelper.model.TagCatalog.IndoorObject
 
 import org.openstreetmap.josm.command.AddCommand;
 import org.openstreetmap.josm.command.ChangePropertyCommand;
+import org.openstreetmap.josm.command.Command;
+import org.openstreetmap.josm.data.Preferences;
 import org.openstreetmap.josm.data.UndoRedoHandler;
 import org.openstreetmap.josm.data.osm.*;
 import org.openstreetmap.josm.gui.MainApplication;
+import org.openstreetmap.josm.spi.preferences.Config;
 
 import javax.swing.*;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.openstreetmap.josm.tools.I18n.tr;
 
@@ -31,8 +39,9 @@ public class IndoorHelperModel {
      * and {@link PresetCounter}.
      */
     public IndoorHelperModel() {
-        this.tags = new TagCatalog();
-        this.counter = new PresetCounter();
+        this.tags = TagCatalog.load(Paths.get(Preferences.main().getPluginsDirectory().toString(), "indoorhelper",
+                TagCatalog.OVERRIDE_FILE));
+        this.counter = new PresetCounter(Config.getPref());
     }
 
     /**
@@ -58,8 +67,8 @@ public class IndoorHelperModel {
                 !OsmDataManager.getInstance().getInProgressSelection().isEmpty()) {
 
             DataSet ds = OsmDataManager.getInstance().getEditDataSet();
-            List<Tag> tags = this.getObjectTags(object);
-            Collection<Relation> relations = ds.getRelations();
+            // tag-sets of the catalog are shared, combine them in a new list
+            List<Tag> tags = new ArrayList<>(this.getObjectTags(object));
             Relation relationToAdd = null;
 
             tags.addAll(userTags);
@@ -68,19 +77,17 @@ public class IndoorHelperModel {
             this.counter.count(object);
 
             // Put value on {@link relationToAdd} if selected object is a relation.
-            relationToAdd = getRelationFromDataSet(ds, relations);
+            SelectedMember selectedMember = SelectedMember.find(ds.getSelected());
+            if (selectedMember != null) {
+                relationToAdd = selectedMember.relation;
+            }
 
             if (relationToAdd != null) {
                 //Add tags to relation
-                for (Tag t : tags) {
-                    UndoRedoHandler.getInstance().add(new ChangePropertyCommand(relationToAdd, t.getKey(), t.getValue()));
-                }
+                applyTags(Collections.singleton(relationToAdd), tags);
             } else {
                 //Add tags to ways or nodes
-                for (Tag t : tags) {
-                    UndoRedoHandler.getInstance().add(new ChangePropertyCommand(
-                            OsmDataManager.getInstance().getInProgressSelection(), t.getKey(), t.getValue()));
-                }
+                applyTags(OsmDataManager.getInstance().getInProgressSelection(), tags);
             }
             //If the selected dataset is empty
         } else if (MainApplication.getLayerManager().getEditDataSet().selectionEmpty()) {
@@ -105,9 +112,7 @@ public class IndoorHelperModel {
                 this.counter.count(object);
 
                 //Add the tags to the current selection
-                for (Tag t : tags) {
-                    UndoRedoHandler.getInstance().add(new ChangePropertyCommand(selection, t.getKey(), t.getValue()));
-                }
+                applyTags(selection, tags);
                 //If the selected dataset ist empty
             } else if (editDataSet.selectionEmpty()) {
                 JOptionPane.showMessageDialog(null, tr("No data selected."), tr("Error"), JOptionPane.ERROR_MESSAGE);
@@ -126,15 +131,40 @@ public class IndoorHelperModel {
                 !OsmDataManager.getInstance().getInProgressSelection().isEmpty()) {
 
             //Add the tags to the current selection
-            for (Tag t : userTags) {
-                UndoRedoHandler.getInstance().add(new ChangePropertyCommand(
-                        OsmDataManager.getInstance().getInProgressSelection(), t.getKey(), t.getValue()));
-            }
+            applyTags(OsmDataManager.getInstance().getInProgressSelection(), userTags);
         } else if (MainApplication.getLayerManager().getEditDataSet().selectionEmpty()) {
             JOptionPane.showMessageDialog(null, tr("No data selected."), tr("Error"), JOptionPane.ERROR_MESSAGE);
         }
     }
 
+    /**
+     * Applies all tags to the objects as one command, so the change causes a single data set update and undo entry.
+     *
+     * @param objects objects to tag
+     * @param tags    tags to apply
+     */
+    private static void applyTags(Collection<? extends OsmPrimitive> objects, List<Tag> tags) {
+        Command command = createTagCommand(objects, tags);
+        if (command != null) {
+            UndoRedoHandler.getInstance().add(command);
+        }
+    }
+
+    /**
+     * Creates one command which applies all tags to the objects. Later tags overwrite earlier tags with the same key.
+     *
+     * @param objects objects to tag
+     * @param tags    tags to apply
+     * @return command or null if there are no tags
+     */
+    public static Command createTagCommand(Collection<? extends OsmPrimitive> objects, List<Tag> tags) {
+        Map<String, String> tagMap = new LinkedHashMap<>();
+        for (Tag t : tags) {
+            tagMap.put(t.getKey(), t.getValue());
+        }
+        return tagMap.isEmpty() ? null : new ChangePropertyCommand(objects, tagMap);
+    }
+
     /**
      * Method which adds the relation to OSM data. Also adds the selected tag-set to relation object.
      *
@@ -166,17 +196,18 @@ public class IndoorHelperModel {
 
         RelationMember newMember;
         DataSet ds = OsmDataManager.getInstance().getEditDataSet();
-        Collection<Relation> relations = ds.getRelations();
-        Relation relation = getRelationFromDataSet(ds, relations);
+        // look up relation of selection once, it is used by all checks below
+        SelectedMember selectedMember = SelectedMember.find(ds.getSelected());
+        String selectedRole = selectedMember != null ? selectedMember.role : "";
 
         if (!MainApplication.getLayerManager().getEditDataSet().selectionEmpty() &&
                 !OsmDataManager.getInstance().getInProgressSelection().isEmpty() &&
-                !innerRelation.isEmpty() && getRole(ds, relations).equals("outer")) {
+                !innerRelation.isEmpty() && selectedRole.equals("outer")) {
 
             //Add new relation member to selected relation
             for (OsmPrimitive osm : innerRelation) {
                 newMember = new RelationMember(role == null ? "" : role, osm);
-                relation.addMember(newMember);
+                selectedMember.relation.addMember(newMember);
             }
 
             //Check if dataset is not empty or if {@link innerRelation} has no value
@@ -184,7 +215,7 @@ public class IndoorHelperModel {
             JOptionPane.showMessageDialog(null, tr("No data selected."), tr("Error"), JOptionPane.ERROR_MESSAGE);
 
             //If selected object is not a relation member or not a relation member with role "outer"
-        } else if (!getRole(ds, relations).equals("outer")) {
+        } else if (!selectedRole.equals("outer")) {
             JOptionPane.showMessageDialog(null,
                     tr("No relation or no relation member with role \"outer\" selected."), tr("Error"), JOptionPane.ERROR_MESSAGE);
         }
@@ -200,67 +231,52 @@ public class IndoorHelperModel {
     }
 
     /**
-     * Function which returns the the relation (if any) of the currently selected object.
-     * If not returns null.
-     *
-     * @param ds        actual working dataset
-     * @param relations collection of relations in the dataset
-     * @return relation of currently selected dataset
+     * Saves usage counts of the preset counter to the preferences.
      */
-    private Relation getRelationFromDataSet(DataSet ds, Collection<Relation> relations) {
-        for (Relation r : relations) {
-            for (RelationMember rm : r.getMembers()) {
-                for (OsmPrimitive osm : ds.getSelected()) {
-                    if (rm.refersTo(osm)) {
-                        return r;
-                    }
-                }
-            }
-        }
-        return null;
+    public void savePresetCounts() {
+        counter.save();
     }
 
     /**
-     * Function which returns the relation role (if any) of the currently selected object.
-     * If object is not a relation returns empty string.
-     *
-     * @param ds        active dataset
-     * @param relations collection of relations in the dataset
-     * @return role of currently selected relation member if any
+     * Relation member of the currently selected objects. Relations are found by the referrers of the selected
+     * objects, so relations of the data set do not have to be scanned.
      */
-    private String getRole(DataSet ds, Collection<Relation> relations) {
+    public static final class SelectedMember {
+        private final Relation relation;
+        private final String role;
+
+        private SelectedMember(Relation relation, String role) {
+            this.relation = relation;
+            this.role = role;
+        }
 
-        if (isRelationMember(ds, relations)) {
-            for (Relation r : relations) {
-                for (RelationMember rm : r.getMembers()) {
-                    for (OsmPrimitive osm : ds.getSelected()) {
+        /**
+         * Returns the first relation membership of the selected objects
+         *
+         * @param selection selected objects
+         * @return relation and role of first selected relation member or null if no selected object is a member
+         */
+        public static SelectedMember find(Collection<OsmPrimitive> selection) {
+            for (OsmPrimitive osm : selection) {
+                for (OsmPrimitive referrer : osm.getReferrers()) {
+                    if (!(referrer instanceof Relation) || referrer.isDeleted()) continue;
+                    Relation relation = (Relation) referrer;
+                    for (RelationMember rm : relation.getMembers()) {
                         if (rm.refersTo(osm)) {
-                            return rm.getRole();
+                            return new SelectedMember(relation, rm.getRole());
                         }
                     }
                 }
             }
+            return null;
         }
-        return "";
-    }
 
-    /**
-     * Function which returns true if the currently selected object is a relation
-     *
-     * @param ds        active dataset
-     * @param relations relations
-     * @return true if selected object is a relation
-     */
-    private boolean isRelationMember(DataSet ds, Collection<Relation> relations) {
-        for (Relation r : relations) {
-            for (RelationMember rm : r.getMembers()) {
-                for (OsmPrimitive osm : ds.getSelected()) {
-                    if (rm.refersTo(osm)) {
-                        return true;
-                    }
-                }
-            }
+        public Relation getRelation() {
+            return relation;
+        }
+
+        public String getRole() {
+            return role;
         }
-        return false;
     }
 }
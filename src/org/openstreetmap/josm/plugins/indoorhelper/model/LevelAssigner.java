@@ -0,0 +1,238 @@
+// License: AGPL. For details, see LICENSE file.
+package org.openstreetmap.josm.plugins.indoorhelper.model;
+
+import org.openstreetmap.josm.command.ChangePropertyCommand;
+import org.openstreetmap.josm.command.Command;
+import org.openstreetmap.josm.command.SequenceCommand;
+import org.openstreetmap.josm.data.osm.BBox;
+import org.openstreetmap.josm.data.osm.DataSet;
+import org.openstreetmap.josm.data.osm.Node;
+import org.openstreetmap.josm.data.osm.QuadBuckets;
+import org.openstreetmap.josm.data.osm.Way;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.openstreetmap.josm.tools.I18n.trn;
+
+/**
+ * Assigns level tags to all ways without level tag in one pass. The level of a way is taken from the elevation band
+ * containing its elevation tag, else from the storey outline (closed way tagged indoor=level) containing the way.
+ * Storey outlines are looked up in a spatial index. If outlines of different levels contain a way, e.g. stacked
+ * storeys with the same footprint, the way is left untagged.
+ */
+public class LevelAssigner {
+
+    public static final String LEVEL_KEY = "level";
+    public static final String OUTLINE_KEY = "indoor";
+    public static final String OUTLINE_VALUE = "level";
+    public static final String DEFAULT_ELEVATION_KEY = "ele";
+
+    private static final Pattern BAND_REGEX =
+            Pattern.compile("^(?<Lower>-?[0-9]+(\\.[0-9]+)?):(?<Upper>-?[0-9]+(\\.[0-9]+)?)=(?<Level>-?[0-9]+(\\.[0-9]+)?)$");
+
+    // bands sorted by lower bound, bands do not overlap
+    private final List<ElevationBand> bands;
+    private final String elevationKey;
+
+    /**
+     * Creates level assigner
+     *
+     * @param bands        elevation bands, may be empty to use storey outlines only
+     * @param elevationKey key of elevation tag of ways
+     */
+    public LevelAssigner(List<ElevationBand> bands, String elevationKey) {
+        List<ElevationBand> sortedBands = new ArrayList<>(bands);
+        sortedBands.sort(Comparator.comparingDouble(band -> band.lower));
+        for (int i = 1; i < sortedBands.size(); i++) {
+            if (sortedBands.get(i).lower < sortedBands.get(i - 1).upper) {
+                throw new IllegalArgumentException("elevation bands overlap: " + sortedBands.get(i - 1) + ", "
+                        + sortedBands.get(i));
+            }
+        }
+        this.bands = Collections.unmodifiableList(sortedBands);
+        this.elevationKey = elevationKey;
+    }
+
+    /**
+     * Parses elevation bands like "-3:0=-1;0:3=0;3:6.5=1", each band is lower:upper=level. Lower bound is inclusive,
+     * upper bound is exclusive.
+     *
+     * @param value bands as string, may be empty
+     * @return parsed bands
+     * @throws IllegalArgumentException if a band is invalid
+     */
+    public static List<ElevationBand> parseBands(String value) {
+        List<ElevationBand> bands = new ArrayList<>();
+        if (value == null) return bands;
+        for (String part : value.split(";")) {
+            String trimmed = part.trim();
+            if (trimmed.isEmpty()) continue;
+            Matcher bandMatch = BAND_REGEX.matcher(trimmed);
+            if (!bandMatch.matches()) {
+                throw new IllegalArgumentException("invalid elevation band: " + trimmed);
+            }
+            double lower = Double.parseDouble(bandMatch.group("Lower"));
+            double upper = Double.parseDouble(bandMatch.group("Upper"));
+            if (!(lower < upper)) {
+                throw new IllegalArgumentException("empty elevation band: " + trimmed);
+            }
+            bands.add(new ElevationBand(lower, upper, bandMatch.group("Level")));
+        }
+        return bands;
+    }
+
+    /**
+     * Assigns levels to ways without level tag
+     *
+     * @param dataSet data set containing storey outlines
+     * @param ways    ways to assign levels to
+     * @return ways grouped by assigned level, ways without unique level are not included
+     */
+    public Map<String, List<Way>> assignLevels(DataSet dataSet, Collection<Way> ways) {
+        QuadBuckets<Way> outlines = new QuadBuckets<>();
+        for (Way way : dataSet.getWays()) {
+            if (isOutline(way)) outlines.add(way);
+        }
+
+        Map<String, List<Way>> assignedLevels = new TreeMap<>();
+        for (Way way : ways) {
+            if (!way.isUsable() || way.getNodesCount() == 0 || way.hasKey(LEVEL_KEY)
+                    || way.hasKey(RepeatOnIndex.KEY) || isOutline(way)) {
+                continue;
+            }
+            String level = getBandLevel(way);
+            if (level == null) level = getOutlineLevel(way, outlines);
+            if (level != null) assignedLevels.computeIfAbsent(level, l -> new ArrayList<>()).add(way);
+        }
+        return assignedLevels;
+    }
+
+    /**
+     * Creates command assigning levels to ways without level tag
+     *
+     * @param dataSet data set containing storey outlines
+     * @param ways    ways to assign levels to
+     * @return one command for all assigned levels or null if no level was assigned
+     */
+    public Command createCommand(DataSet dataSet, Collection<Way> ways) {
+        Map<String, List<Way>> assignedLevels = assignLevels(dataSet, ways);
+        if (assignedLevels.isEmpty()) return null;
+
+        List<Command> commands = new ArrayList<>();
+        int count = 0;
+        for (Map.Entry<String, List<Way>> entry : assignedLevels.entrySet()) {
+            commands.add(new ChangePropertyCommand(entry.getValue(), LEVEL_KEY, entry.getKey()));
+            count += entry.getValue().size();
+        }
+        return new SequenceCommand(trn("Assign level to {0} way", "Assign levels to {0} ways", count, count),
+                commands);
+    }
+
+    private String getBandLevel(Way way) {
+        double elevation = LevelSet.parseLevel(way.get(elevationKey));
+        if (Double.isNaN(elevation)) return null;
+
+        // find last band starting at or below elevation
+        int low = 0;
+        int high = bands.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (bands.get(mid).lower <= elevation) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high >= 0 && elevation < bands.get(high).upper ? bands.get(high).level : null;
+    }
+
+    private static String getOutlineLevel(Way way, QuadBuckets<Way> outlines) {
+        BBox bbox = way.getBBox();
+        Set<String> levels = new LinkedHashSet<>();
+        for (Way outline : outlines.search(bbox)) {
+            if (outline.getBBox().bounds(bbox) && contains(outline, way)) {
+                levels.add(outline.get(LEVEL_KEY));
+            }
+        }
+        return levels.size() == 1 ? levels.iterator().next() : null;
+    }
+
+    private static boolean isOutline(Way way) {
+        return way.isUsable() && way.isClosed() && way.hasTag(OUTLINE_KEY, OUTLINE_VALUE) && way.hasKey(LEVEL_KEY);
+    }
+
+    /**
+     * Checks if all nodes of way are inside of or on outline
+     *
+     * @param outline closed way
+     * @param way     to check
+     * @return true if outline contains way, else false
+     */
+    private static boolean contains(Way outline, Way way) {
+        List<Node> polygon = outline.getNodes();
+        for (Node node : way.getNodes()) {
+            if (!outline.containsNode(node) && !isInside(node, polygon)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Ray casting point in polygon test on lat/lon coordinates
+     *
+     * @param node    to check
+     * @param polygon closed list of polygon nodes
+     * @return true if node is inside of polygon, else false
+     */
+    private static boolean isInside(Node node, List<Node> polygon) {
+        if (!node.isLatLonKnown()) return false;
+        double x = node.lon();
+        double y = node.lat();
+        boolean inside = false;
+        for (int i = 0, j = polygon.size() - 1; i < polygon.size(); j = i++) {
+            Node a = polygon.get(i);
+            Node b = polygon.get(j);
+            if ((a.lat() > y) != (b.lat() > y)
+                    && x < (b.lon() - a.lon()) * (y - a.lat()) / (b.lat() - a.lat()) + a.lon()) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    /**
+     * Elevation range mapped to a level
+     */
+    public static final class ElevationBand {
+        private final double lower;
+        private final double upper;
+        private final String level;
+
+        /**
+         * Creates elevation band
+         *
+         * @param lower inclusive lower elevation
+         * @param upper exclusive upper elevation
+         * @param level level tag of elevation range
+         */
+        public ElevationBand(double lower, double upper, String level) {
+            this.lower = lower;
+            this.upper = upper;
+            this.level = level;
+        }
+
+        @Override
+        public String toString() {
+            return lower + ":" + upper + "=" + level;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+// License: AGPL. For details, see LICENSE file.
+package org.openstreetmap.josm.plugins.indoorhelper.model;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable set of levels described by a repeat_on tag value like "-1;0.5;2-4". The value is compiled into sorted,
+ * merged intervals which are looked up by binary search. Compiled sets are interned by tag value, since buildings
+ * usually use only a few distinct values.
+ */
+public final class LevelSet {
+
+    private static final Pattern RANGE_REGEX =
+            Pattern.compile("^(?<LowerBound>-?[0-9]+(\\.[0-9]+)?)-(?<UpperBound>-?[0-9]+(\\.[0-9]+)?)$");
+    private static final Pattern LEVEL_REGEX = Pattern.compile("^-?[0-9]+(\\.[0-9]+)?$");
+
+    // interned sets, cleared if it grows larger than expected for real data
+    private static final int MAX_CACHE_SIZE = 4096;
+    private static final Map<String, LevelSet> CACHE = new ConcurrentHashMap<>();
+
+    public static final LevelSet EMPTY = new LevelSet(new double[0]);
+
+    // sorted pairs of lower and upper bound, both inclusive, intervals do not overlap
+    private final double[] bounds;
+
+    private LevelSet(double[] bounds) {
+        this.bounds = bounds;
+    }
+
+    /**
+     * Returns compiled level set of repeat_on tag value. Invalid parts of the value are skipped.
+     *
+     * @param repeatOnValue tag as string
+     * @return level set, equal values return the same instance
+     */
+    public static LevelSet of(String repeatOnValue) {
+        if (repeatOnValue == null) return EMPTY;
+        LevelSet levelSet = CACHE.get(repeatOnValue);
+        if (levelSet == null) {
+            levelSet = compile(repeatOnValue);
+            if (CACHE.size() >= MAX_CACHE_SIZE) CACHE.clear();
+            LevelSet interned = CACHE.putIfAbsent(repeatOnValue, levelSet);
+            if (interned != null) levelSet = interned;
+        }
+        return levelSet;
+    }
+
+    /**
+     * Parses a single level value like "-1" or "0.5"
+     *
+     * @param level level as string
+     * @return level or NaN if value is not a level
+     */
+    public static double parseLevel(String level) {
+        if (level == null) return Double.NaN;
+        String trimmed = level.trim();
+        return LEVEL_REGEX.matcher(trimmed).matches() ? Double.parseDouble(trimmed) : Double.NaN;
+    }
+
+    /**
+     * Checks if level is part of set
+     *
+     * @param level to check
+     * @return true if any interval contains level, else false
+     */
+    public boolean contains(double level) {
+        // find last interval starting at or below level
+        int low = 0;
+        int high = bounds.length / 2 - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (bounds[2 * mid] <= level) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high >= 0 && level <= bounds[2 * high + 1];
+    }
+
+    public boolean isEmpty() {
+        return bounds.length == 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return Arrays.equals(bounds, ((LevelSet) o).bounds);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(bounds);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder value = new StringBuilder();
+        for (int i = 0; i < bounds.length; i += 2) {
+            if (value.length() > 0) value.append(';');
+            value.append(format(bounds[i]));
+            if (bounds[i] != bounds[i + 1]) value.append('-').append(format(bounds[i + 1]));
+        }
+        return value.toString();
+    }
+
+    private static LevelSet compile(String repeatOnValue) {
+        String[] parts = repeatOnValue.trim().split(";");
+        double[][] intervals = new double[parts.length][];
+        int size = 0;
+        for (String part : parts) {
+            Matcher rangeMatch = RANGE_REGEX.matcher(part);
+            double lowerBound;
+            double upperBound;
+            if (rangeMatch.matches()) {
+                lowerBound = Double.parseDouble(rangeMatch.group("LowerBound"));
+                upperBound = Double.parseDouble(rangeMatch.group("UpperBound"));
+            } else {
+                lowerBound = parseLevel(part);
+                upperBound = lowerBound;
+            }
+            // skip invalid parts and inverted ranges
+            if (Double.isNaN(lowerBound) || !(lowerBound <= upperBound)) continue;
+            intervals[size++] = new double[]{lowerBound, upperBound};
+        }
+        if (size == 0) return EMPTY;
+
+        // sort by lower bound and merge overlapping intervals
+        Arrays.sort(intervals, 0, size, (a, b) -> Double.compare(a[0], b[0]));
+        double[] bounds = new double[size * 2];
+        int merged = 0;
+        for (int i = 0; i < size; i++) {
+            if (merged > 0 && intervals[i][0] <= bounds[merged - 1]) {
+                bounds[merged - 1] = Math.max(bounds[merged - 1], intervals[i][1]);
+            } else {
+                bounds[merged++] = intervals[i][0];
+                bounds[merged++] = intervals[i][1];
+            }
+        }
+        return new LevelSet(Arrays.copyOf(bounds, merged));
+    }
+
+    private static String format(double level) {
+        return level == Math.rint(level) ? Long.toString((long) level) : Double.toString(level);
+    }
+}
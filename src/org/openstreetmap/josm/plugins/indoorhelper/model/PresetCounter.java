@@ -2,43 +2,73 @@
 package org.openstreetmap.josm.plugins.indoorhelper.model;
 
 import org.openstreetmap.josm.plugins.indoorhelper.model.TagCatalog.IndoorObject;
+import org.openstreetmap.josm.spi.preferences.IPreferences;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.ListIterator;
 
 /**
  * Counter for the calls of specific indoor objects, to track which items were used most frequently.
+ * Counts are indexed by ordinal of the object and the ranking is updated incrementally. If preferences are given,
+ * counts are restored from and saved to them, so the ranking survives JOSM sessions. Counts are saved in batches,
+ * owners have to call {@link #save()} before the counter is discarded.
  *
  * @author egru
  */
 public class PresetCounter {
 
+    private static final String COUNTS_PREF = "indoorhelper.preset-counts";
+    private static final int RANKING_SIZE = 4;
+    // counts are saved if ranking changed or after this number of counts
+    private static final int SAVE_INTERVAL = 10;
+
+    // objects available as preset, order is the initial ranking of objects without counts
+    private static final IndoorObject[] PRESETS = {IndoorObject.CONCRETE_WALL, IndoorObject.DOOR_PRIVATE,
+            IndoorObject.DOOR_PUBLIC, IndoorObject.ELEVATOR, IndoorObject.ENTRANCE, IndoorObject.ENTRANCE_EXIT_ONLY,
+            IndoorObject.ACCESS_PRIVATE, IndoorObject.ACCESS_PUBLIC, IndoorObject.GLASS_WALL, IndoorObject.ROOM,
+            IndoorObject.STEPS, IndoorObject.CORRIDOR, IndoorObject.TOILET_FEMALE, IndoorObject.TOILET_MALE,
+            IndoorObject.AREA, IndoorObject.BENCH};
+    private static final boolean[] IS_PRESET = new boolean[IndoorObject.values().length];
+
+    static {
+        for (IndoorObject preset : PRESETS) {
+            IS_PRESET[preset.ordinal()] = true;
+        }
+    }
+
+    private final IPreferences preferences;
+    // counts indexed by ordinal of IndoorObject
+    private final int[] counts = new int[IndoorObject.values().length];
+    // most used objects in descending order, recently used object first among equal counts
+    private final IndoorObject[] ranking = new IndoorObject[RANKING_SIZE];
     private List<IndoorObject> rankingList;
-    private final List<ObjectCounter> counterList = new ArrayList<>();
+    private int unsavedCounts;
 
     /**
-     * Initiates the counterList with the available IndoorObjects.
+     * Initiates the counter with the available IndoorObjects, counts are not persisted.
      */
-
     public PresetCounter() {
-        counterList.add(new ObjectCounter(IndoorObject.CONCRETE_WALL, 0));
-        counterList.add(new ObjectCounter(IndoorObject.DOOR_PRIVATE, 0));
-        counterList.add(new ObjectCounter(IndoorObject.DOOR_PUBLIC, 0));
-        counterList.add(new ObjectCounter(IndoorObject.ELEVATOR, 0));
-        counterList.add(new ObjectCounter(IndoorObject.ENTRANCE, 0));
-        counterList.add(new ObjectCounter(IndoorObject.ENTRANCE_EXIT_ONLY, 0));
-        counterList.add(new ObjectCounter(IndoorObject.ACCESS_PRIVATE, 0));
-        counterList.add(new ObjectCounter(IndoorObject.ACCESS_PUBLIC, 0));
-        counterList.add(new ObjectCounter(IndoorObject.GLASS_WALL, 0));
-        counterList.add(new ObjectCounter(IndoorObject.ROOM, 0));
-        counterList.add(new ObjectCounter(IndoorObject.STEPS, 0));
-        counterList.add(new ObjectCounter(IndoorObject.CORRIDOR, 0));
-        counterList.add(new ObjectCounter(IndoorObject.TOILET_FEMALE, 0));
-        counterList.add(new ObjectCounter(IndoorObject.TOILET_MALE, 0));
-        counterList.add(new ObjectCounter(IndoorObject.AREA, 0));
-        counterList.add(new ObjectCounter(IndoorObject.BENCH, 0));
+        this(null);
+    }
+
+    /**
+     * Initiates the counter with the available IndoorObjects and restores counts from preferences.
+     *
+     * @param preferences to persist counts in, may be null
+     */
+    public PresetCounter(IPreferences preferences) {
+        this.preferences = preferences;
+        if (preferences != null) load();
+
+        // initial ranking by count, stable sort keeps preset order for equal counts
+        List<IndoorObject> sorted = new ArrayList<>(Arrays.asList(PRESETS));
+        sorted.sort((a, b) -> Integer.compare(counts[b.ordinal()], counts[a.ordinal()]));
+        for (int i = 0; i < RANKING_SIZE; i++) {
+            ranking[i] = sorted.get(i);
+        }
+        rankingList = Collections.unmodifiableList(Arrays.asList(ranking.clone()));
     }
 
     /**
@@ -47,70 +77,76 @@ public class PresetCounter {
      * @param object the IndoorObject, which counter should be incremented
      */
     public void count(TagCatalog.IndoorObject object) {
-        ListIterator<ObjectCounter> iterator = this.counterList.listIterator();
-
-        // Go through the list and increment the corresponding objects counter value.
-        while (iterator.hasNext()) {
-            ObjectCounter counterTemp = iterator.next();
-            if (counterTemp.getObject().equals(object)) {
-                counterList.get(iterator.nextIndex() - 1).increment();
-            }
+        if (object == null || !isPreset(object)) return;
+        int count = ++counts[object.ordinal()];
+
+        // only the counted object changed, so it can only move up in the ranking or enter it at the end
+        int position = indexOfRanking(object);
+        boolean changed = false;
+        if (position < 0 && count >= counts[ranking[RANKING_SIZE - 1].ordinal()]) {
+            position = RANKING_SIZE - 1;
+            ranking[position] = object;
+            changed = true;
+        }
+        while (position > 0 && counts[ranking[position - 1].ordinal()] <= count) {
+            ranking[position] = ranking[position - 1];
+            ranking[position - 1] = object;
+            position--;
+            changed = true;
         }
 
-        //Sort the list.
-        this.sort();
-    }
-
-    private void sort() {
-        Collections.sort(counterList);
-        Collections.reverse(counterList);
+        if (changed) rankingList = Collections.unmodifiableList(Arrays.asList(ranking.clone()));
+        saveIfDue(changed);
     }
 
+    /**
+     * Returns the most used objects
+     *
+     * @return unmodifiable list of the 4 most used objects
+     */
     public List<IndoorObject> getRanking() {
-        rankingList = new ArrayList<>();
-
-        rankingList.add(counterList.get(0).getObject());
-        rankingList.add(counterList.get(1).getObject());
-        rankingList.add(counterList.get(2).getObject());
-        rankingList.add(counterList.get(3).getObject());
-
         return rankingList;
     }
 
-    private static class ObjectCounter implements Comparable<ObjectCounter> {
-        private IndoorObject object;
-        private int count;
-
-        ObjectCounter(IndoorObject o, int c) {
-            this.object = o;
-            this.count = c;
+    /**
+     * Saves counts to preferences if any
+     */
+    public void save() {
+        if (preferences == null) return;
+        List<String> values = new ArrayList<>();
+        for (IndoorObject object : PRESETS) {
+            if (counts[object.ordinal()] > 0) values.add(object.name() + "=" + counts[object.ordinal()]);
         }
+        preferences.putList(COUNTS_PREF, values);
+        unsavedCounts = 0;
+    }
 
-        public int getCount() {
-            return this.count;
-        }
+    private void saveIfDue(boolean rankingChanged) {
+        unsavedCounts++;
+        if (rankingChanged || unsavedCounts >= SAVE_INTERVAL) save();
+    }
 
-        public IndoorObject getObject() {
-            return this.object;
+    private void load() {
+        for (String value : preferences.getList(COUNTS_PREF)) {
+            String[] parts = value.split("=", 2);
+            if (parts.length != 2) continue;
+            try {
+                IndoorObject object = IndoorObject.valueOf(parts[0]);
+                if (isPreset(object)) counts[object.ordinal()] = Math.max(0, Integer.parseInt(parts[1]));
+            } catch (IllegalArgumentException e) {
+                // skip unknown objects and invalid counts
+            }
         }
+    }
 
-        public void increment() {
-            this.count += 1;
+    private int indexOfRanking(IndoorObject object) {
+        for (int i = 0; i < RANKING_SIZE; i++) {
+            if (ranking[i] == object) return i;
         }
+        return -1;
+    }
 
-        @Override
-        public int compareTo(ObjectCounter o) {
-            if (this.getCount() < o.getCount()) {
-                return -1;
-            }
-            if (this.getCount() == o.getCount()) {
-                return 0;
-            }
-            if (this.getCount() > o.getCount()) {
-                return 1;
-            }
-
-            return 0;
-        }
+    private static boolean isPreset(IndoorObject object) {
+        return IS_PRESET[object.ordinal()];
     }
 }
@@ -0,0 +1,184 @@
+// License: AGPL. For details, see LICENSE file.
+package org.openstreetmap.josm.plugins.indoorhelper.model;
+
+import org.openstreetmap.josm.data.osm.DataSet;
+import org.openstreetmap.josm.data.osm.OsmPrimitive;
+import org.openstreetmap.josm.data.osm.event.AbstractDatasetChangedEvent;
+import org.openstreetmap.josm.data.osm.event.DataChangedEvent;
+import org.openstreetmap.josm.data.osm.event.DataSetListener;
+import org.openstreetmap.josm.data.osm.event.NodeMovedEvent;
+import org.openstreetmap.josm.data.osm.event.PrimitivesAddedEvent;
+import org.openstreetmap.josm.data.osm.event.PrimitivesRemovedEvent;
+import org.openstreetmap.josm.data.osm.event.RelationMembersChangedEvent;
+import org.openstreetmap.josm.data.osm.event.TagsChangedEvent;
+import org.openstreetmap.josm.data.osm.event.WayNodesChangedEvent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of all primitives of a data set tagged with repeat_on key. Primitives are grouped by their repeat_on
+ * value, each value is compiled once into a {@link LevelSet}. The index is kept up to date by data set events, so
+ * finding the primitives repeated on a level does not require to scan the data set.
+ */
+public class RepeatOnIndex implements DataSetListener {
+
+    public static final String KEY = "repeat_on";
+
+    private final DataSet dataSet;
+    // primitives grouped by repeat_on value
+    private final Map<String, Group> groups = new HashMap<>();
+    // repeat_on value each indexed primitive is grouped by
+    private final Map<OsmPrimitive, String> indexedValues = new HashMap<>();
+    // number of data set events received, filters of the data set may have been executed again since
+    private int changeCount;
+
+    /**
+     * Creates index of data set and registers it as data set listener
+     *
+     * @param dataSet to index
+     */
+    public RepeatOnIndex(DataSet dataSet) {
+        this.dataSet = dataSet;
+        rebuild();
+        dataSet.addDataSetListener(this);
+    }
+
+    /**
+     * Unregisters index from data set
+     */
+    public void dispose() {
+        dataSet.removeDataSetListener(this);
+    }
+
+    public DataSet getDataSet() {
+        return dataSet;
+    }
+
+    /**
+     * Returns all primitives whose repeat_on value includes level
+     *
+     * @param level working level
+     * @return primitives repeated on level
+     */
+    public List<OsmPrimitive> getPrimitivesOnLevel(double level) {
+        List<OsmPrimitive> primitives = new ArrayList<>();
+        for (Group group : groups.values()) {
+            if (group.levels.contains(level)) primitives.addAll(group.primitives);
+        }
+        return primitives;
+    }
+
+    /**
+     * Returns number of indexed primitives
+     *
+     * @return number of primitives tagged with repeat_on key
+     */
+    public int size() {
+        return indexedValues.size();
+    }
+
+    /**
+     * Returns number of data set events received by index
+     *
+     * @return count which changes whenever the data set changes
+     */
+    public int getChangeCount() {
+        return changeCount;
+    }
+
+    private void rebuild() {
+        groups.clear();
+        indexedValues.clear();
+        dataSet.allPrimitives().forEach(this::update);
+    }
+
+    /**
+     * Adds, moves or removes primitive depending on its current repeat_on value
+     *
+     * @param primitive to update
+     */
+    private void update(OsmPrimitive primitive) {
+        String value = primitive.isDeleted() ? null : primitive.get(KEY);
+        String indexedValue = indexedValues.get(primitive);
+        if (value != null && value.equals(indexedValue)) return;
+
+        if (indexedValue != null) remove(primitive);
+        if (value != null) {
+            groups.computeIfAbsent(value, Group::new).primitives.add(primitive);
+            indexedValues.put(primitive, value);
+        }
+    }
+
+    private void remove(OsmPrimitive primitive) {
+        String indexedValue = indexedValues.remove(primitive);
+        if (indexedValue == null) return;
+        Group group = groups.get(indexedValue);
+        group.primitives.remove(primitive);
+        if (group.primitives.isEmpty()) groups.remove(indexedValue);
+    }
+
+    @Override
+    public void primitivesAdded(PrimitivesAddedEvent event) {
+        changeCount++;
+        event.getPrimitives().forEach(this::update);
+    }
+
+    @Override
+    public void primitivesRemoved(PrimitivesRemovedEvent event) {
+        changeCount++;
+        event.getPrimitives().forEach(this::remove);
+    }
+
+    @Override
+    public void tagsChanged(TagsChangedEvent event) {
+        changeCount++;
+        update(event.getPrimitive());
+    }
+
+    @Override
+    public void nodeMoved(NodeMovedEvent event) {
+        changeCount++;
+        // geometry is not indexed
+    }
+
+    @Override
+    public void wayNodesChanged(WayNodesChangedEvent event) {
+        changeCount++;
+        // geometry is not indexed
+    }
+
+    @Override
+    public void relationMembersChanged(RelationMembersChangedEvent event) {
+        changeCount++;
+        // members are not indexed
+    }
+
+    @Override
+    public void otherDatasetChange(AbstractDatasetChangedEvent event) {
+        changeCount++;
+        // no tag changes
+    }
+
+    @Override
+    public void dataChanged(DataChangedEvent event) {
+        changeCount++;
+        rebuild();
+    }
+
+    /**
+     * Primitives sharing the same repeat_on value
+     */
+    private static final class Group {
+        private final LevelSet levels;
+        private final Set<OsmPrimitive> primitives = new LinkedHashSet<>();
+
+        Group(String repeatOnValue) {
+            levels = LevelSet.of(repeatOnValue);
+        }
+    }
+}
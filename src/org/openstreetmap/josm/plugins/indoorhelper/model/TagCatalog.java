@@ -2,85 +2,168 @@
 package org.openstreetmap.josm.plugins.indoorhelper.model;
 
 import org.openstreetmap.josm.data.osm.Tag;
+import org.openstreetmap.josm.tools.Logging;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Properties;
 
+/**
+ * Catalog of the tag-sets of {@link IndoorObject}s. Tag-sets are compiled once into immutable lists which are
+ * shared by all callers. Tag-sets and the mapping of imported object types and room usages to {@link IndoorObject}s
+ * can be overridden by a properties file, e.g.
+ * <pre>
+ * ROOM = indoor=room;level:ref=auto
+ * IfcColumn = NONE
+ * WC = TOILET_MALE
+ * </pre>
+ */
 public final class TagCatalog {
 
+    /**
+     * Name of the override file in the plugin directory
+     */
+    public static final String OVERRIDE_FILE = "tagcatalog.properties";
+
+    private static final Map<IndoorObject, List<Tag>> DEFAULT_TAGS = createDefaultTags();
+
+    private final Map<IndoorObject, List<Tag>> tags;
+    // object types and room usages of other sources mapped to indoor objects, e.g. IfcSlab
+    private final Map<String, IndoorObject> typeMapping;
+
+    /**
+     * Creates catalog with default tag-sets
+     */
+    public TagCatalog() {
+        this(DEFAULT_TAGS, Collections.emptyMap());
+    }
+
+    private TagCatalog(Map<IndoorObject, List<Tag>> tags, Map<String, IndoorObject> typeMapping) {
+        this.tags = tags;
+        this.typeMapping = typeMapping;
+    }
+
+    /**
+     * Creates catalog with default tag-sets overridden by the entries of the override file. Invalid entries are
+     * skipped.
+     *
+     * @param overrideFile properties file, default tag-sets are used if the file does not exist
+     * @return catalog
+     */
+    public static TagCatalog load(Path overrideFile) {
+        if (overrideFile == null || !Files.isRegularFile(overrideFile)) return new TagCatalog();
+
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(overrideFile, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException | IllegalArgumentException e) {
+            Logging.info(TagCatalog.class.getName() + ": failed to read " + overrideFile + ": " + e.getMessage());
+            return new TagCatalog();
+        }
+
+        Map<IndoorObject, List<Tag>> tags = new EnumMap<>(DEFAULT_TAGS);
+        Map<String, IndoorObject> typeMapping = new HashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            String value = properties.getProperty(key).trim();
+            try {
+                IndoorObject object = getIndoorObject(key);
+                if (object != null) {
+                    tags.put(object, parseTags(value));
+                } else {
+                    typeMapping.put(key, IndoorObject.valueOf(value));
+                }
+            } catch (IllegalArgumentException e) {
+                Logging.info(TagCatalog.class.getName() + ": skipped invalid entry " + key + " of " + overrideFile);
+            }
+        }
+        Logging.info(String.format("%s: loaded %d entries of %s", TagCatalog.class.getName(), properties.size(),
+                overrideFile));
+        return new TagCatalog(Collections.unmodifiableMap(tags), Collections.unmodifiableMap(typeMapping));
+    }
+
     /**
      * Function to get a specific tag-set out of the {@link TagCatalog}.
      *
      * @param o the object for which you want the tag-set
-     * @return a list of tags for the specified object
+     * @return an unmodifiable list of tags for the specified object
      */
     public List<Tag> getTags(IndoorObject o) {
+        return tags.get(o);
+    }
 
-        List<Tag> tagList = new ArrayList<>();
+    /**
+     * Returns the indoor object an object type of another source is mapped to by the override file
+     *
+     * @param type name of object type or room usage, e.g. IfcSlab
+     * @return mapped indoor object or null if type is not overridden
+     */
+    public IndoorObject getMappedObject(String type) {
+        return typeMapping.get(type);
+    }
+
+    private static IndoorObject getIndoorObject(String name) {
+        for (IndoorObject object : IndoorObject.values()) {
+            if (object.name().equals(name)) return object;
+        }
+        return null;
+    }
 
-        switch (o) {
-            case CONCRETE_WALL:
-                tagList.add(new Tag("indoor", "wall"));
-                tagList.add(new Tag("material", "concrete"));
-                return tagList;
-            case DOOR_PRIVATE:
-                tagList.add(new Tag("door", "yes"));
-                tagList.add(new Tag("access", "private"));
-                return tagList;
-            case DOOR_PUBLIC:
-                tagList.add(new Tag("door", "yes"));
-                tagList.add(new Tag("access", "yes"));
-                return tagList;
-            case ELEVATOR:
-                tagList.add(new Tag("highway", "elevator"));
-                return tagList;
-            case ENTRANCE:
-                tagList.add(new Tag("entrance", "yes"));
-                return tagList;
-            case ENTRANCE_EXIT_ONLY:
-                tagList.add(new Tag("entrance", "exit"));
-                return tagList;
-            case ACCESS_PRIVATE:
-                tagList.add(new Tag("access", "private"));
-                return tagList;
-            case ACCESS_PUBLIC:
-                tagList.add(new Tag("access", "yes"));
-                return tagList;
-            case TOILET_FEMALE:
-                tagList.add(new Tag("indoor", "room"));
-                tagList.add(new Tag("amenity", "toilets"));
-                tagList.add(new Tag("female", "yes"));
-                return tagList;
-            case GLASS_WALL:
-                tagList.add(new Tag("indoor", "wall"));
-                tagList.add(new Tag("material", "glass"));
-                return tagList;
-            case TOILET_MALE:
-                tagList.add(new Tag("indoor", "room"));
-                tagList.add(new Tag("amenity", "toilets"));
-                tagList.add(new Tag("male", "yes"));
-                return tagList;
-            case ROOM:
-                tagList.add(new Tag("indoor", "room"));
-                return tagList;
-            case STEPS:
-                tagList.add(new Tag("highway", "steps"));
-                return tagList;
-            case CORRIDOR:
-                tagList.add(new Tag("indoor", "corridor"));
-                return tagList;
-            case BENCH:
-                tagList.add(new Tag("amenity", "bench"));
-                return tagList;
-            case AREA:
-                tagList.add(new Tag("indoor", "area"));
-                return tagList;
-            case NONE:
-                return tagList;
-            default:
-                tagList = null;
-                return tagList;
+    /**
+     * Parses tags like "indoor=room;amenity=toilets"
+     *
+     * @param value tags as string
+     * @return unmodifiable list of tags
+     * @throws IllegalArgumentException if a tag has no key
+     */
+    private static List<Tag> parseTags(String value) {
+        List<Tag> tagList = new ArrayList<>();
+        for (String part : value.split(";")) {
+            if (part.trim().isEmpty()) continue;
+            String[] keyValue = part.split("=", 2);
+            if (keyValue.length != 2 || keyValue[0].trim().isEmpty()) {
+                throw new IllegalArgumentException("invalid tag: " + part);
+            }
+            tagList.add(new Tag(keyValue[0].trim(), keyValue[1].trim()));
         }
+        return Collections.unmodifiableList(tagList);
+    }
+
+    private static Map<IndoorObject, List<Tag>> createDefaultTags() {
+        Map<IndoorObject, List<Tag>> tags = new EnumMap<>(IndoorObject.class);
+        tags.put(IndoorObject.CONCRETE_WALL, tagSet(new Tag("indoor", "wall"), new Tag("material", "concrete")));
+        tags.put(IndoorObject.DOOR_PRIVATE, tagSet(new Tag("door", "yes"), new Tag("access", "private")));
+        tags.put(IndoorObject.DOOR_PUBLIC, tagSet(new Tag("door", "yes"), new Tag("access", "yes")));
+        tags.put(IndoorObject.ELEVATOR, tagSet(new Tag("highway", "elevator")));
+        tags.put(IndoorObject.ENTRANCE, tagSet(new Tag("entrance", "yes")));
+        tags.put(IndoorObject.ENTRANCE_EXIT_ONLY, tagSet(new Tag("entrance", "exit")));
+        tags.put(IndoorObject.ACCESS_PRIVATE, tagSet(new Tag("access", "private")));
+        tags.put(IndoorObject.ACCESS_PUBLIC, tagSet(new Tag("access", "yes")));
+        tags.put(IndoorObject.TOILET_FEMALE, tagSet(new Tag("indoor", "room"), new Tag("amenity", "toilets"),
+                new Tag("female", "yes")));
+        tags.put(IndoorObject.GLASS_WALL, tagSet(new Tag("indoor", "wall"), new Tag("material", "glass")));
+        tags.put(IndoorObject.TOILET_MALE, tagSet(new Tag("indoor", "room"), new Tag("amenity", "toilets"),
+                new Tag("male", "yes")));
+        tags.put(IndoorObject.ROOM, tagSet(new Tag("indoor", "room")));
+        tags.put(IndoorObject.STEPS, tagSet(new Tag("highway", "steps")));
+        tags.put(IndoorObject.CORRIDOR, tagSet(new Tag("indoor", "corridor")));
+        tags.put(IndoorObject.BENCH, tagSet(new Tag("amenity", "bench")));
+        tags.put(IndoorObject.AREA, tagSet(new Tag("indoor", "area")));
+        tags.put(IndoorObject.NONE, Collections.emptyList());
+        return Collections.unmodifiableMap(tags);
+    }
+
+    private static List<Tag> tagSet(Tag... tags) {
+        return Collections.unmodifiableList(Arrays.asList(tags));
     }
 
     /**
@@ -0,0 +1,45 @@
+// License: AGPL. For details, see LICENSE file.
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openstreetmap.josm.plugins.indoorhelper.PluginResourceManager;
+
+/**
+ * Unit tests of {@link PluginResourceManager} class.
+ */
+class PluginResourceManagerTest {
+
+    /**
+     * Test case for {@link PluginResourceManager#isUnchanged} method.
+     */
+    @Test
+    void testIsUnchanged(@TempDir Path dir) throws IOException {
+        byte[] content = "way { color: red; }".getBytes(StandardCharsets.UTF_8);
+        Path file = dir.resolve("sit.mapcss");
+        assertFalse(PluginResourceManager.isUnchanged(new ByteArrayInputStream(content), file));
+
+        Files.write(file, content);
+        assertTrue(PluginResourceManager.isUnchanged(new ByteArrayInputStream(content), file));
+
+        // same size, different content
+        byte[] changed = "way { color: tan; }".getBytes(StandardCharsets.UTF_8);
+        assertFalse(PluginResourceManager.isUnchanged(new ByteArrayInputStream(changed), file));
+
+        // content larger than read buffer, differing in last byte only
+        byte[] large = new byte[200000];
+        Files.write(file, large);
+        assertTrue(PluginResourceManager.isUnchanged(new ByteArrayInputStream(large), file));
+        large[large.length - 1] = 1;
+        assertFalse(PluginResourceManager.isUnchanged(new ByteArrayInputStream(large), file));
+        assertFalse(PluginResourceManager.isUnchanged(new ByteArrayInputStream(content), file));
+    }
+}
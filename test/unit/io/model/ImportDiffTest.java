@@ -0,0 +1,132 @@
+// License: AGPL. For details, see LICENSE file.
+package io.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.openstreetmap.josm.data.osm.DataSet;
+import org.openstreetmap.josm.data.osm.Relation;
+import org.openstreetmap.josm.data.osm.RelationMember;
+import org.openstreetmap.josm.data.osm.Way;
+import org.openstreetmap.josm.plugins.indoorhelper.io.model.BIMtoOSMCatalog;
+import org.openstreetmap.josm.plugins.indoorhelper.io.model.ImportDiff;
+import org.openstreetmap.josm.plugins.indoorhelper.io.model.ImportRecord;
+
+import testutils.OsmTestData;
+
+/**
+ * Unit tests of {@link ImportDiff} class.
+ */
+class ImportDiffTest {
+
+    /**
+     * Test case for {@link ImportDiff#compute} method.
+     */
+    @Test
+    void testCompute() {
+        DataSet target = new DataSet();
+        addWay(target, "A", 0, 0, 0, 1, 1, 1, 0, 0);
+        Way changed = addWay(target, "B", 1, 1, 2, 2);
+        changed.put("name", "user tag");
+        addWay(target, "C", 5, 5, 6, 6);
+
+        DataSet imported = new DataSet();
+        addWay(imported, "A", 0, 0, 0, 1, 1, 1, 0, 0);
+        addWay(imported, "B", 1, 1, 2, 3).put("level", "1");
+        addWay(imported, "D", 6, 6, 7, 7);
+
+        ImportDiff diff = ImportDiff.compute(target, ImportRecord.of(target), imported);
+        assertEquals(1, diff.getAddedCount());
+        assertEquals(1, diff.getChangedCount());
+        assertEquals(1, diff.getDeletedCount());
+        assertEquals(1, diff.getUnchangedCount());
+        assertNotNull(diff.getCommand());
+
+        assertNull(ImportDiff.compute(imported, ImportRecord.of(imported), imported).getCommand());
+    }
+
+    /**
+     * Test case for {@link ImportDiff#compute} method deleting a way which is member of a relation.
+     */
+    @Test
+    void testDeleteRelationMember() {
+        DataSet target = new DataSet();
+        Way deleted = addWay(target, "A", 0, 0, 0, 1, 1, 1, 0, 0);
+        Way kept = addWay(target, "B", 2, 2, 2, 3, 3, 3, 2, 2);
+        Relation relation = new Relation();
+        relation.addMember(new RelationMember("outer", deleted));
+        relation.addMember(new RelationMember("outer", kept));
+        target.addPrimitive(relation);
+
+        DataSet imported = new DataSet();
+        addWay(imported, "B", 2, 2, 2, 3, 3, 3, 2, 2);
+
+        ImportDiff diff = ImportDiff.compute(target, ImportRecord.of(target), imported);
+        assertEquals(1, diff.getDeletedCount());
+        diff.getCommand().executeCommand();
+        assertTrue(deleted.isDeleted());
+        assertEquals(1, relation.getMembersCount());
+        assertSame(kept, relation.getMembers().get(0).getMember());
+    }
+
+    /**
+     * Test case for {@link ImportDiff#compute} method updating a way without GlobalId twice.
+     */
+    @Test
+    void testComputeWithoutGlobalId() {
+        DataSet target = new DataSet();
+        DataSet imported = new DataSet();
+        addWay(imported, "A", 0, 0, 0, 1, 1, 1, 0, 0);
+        addWay(imported, null, 2, 2, 2, 3);
+
+        ImportRecord record = ImportRecord.of(target);
+        for (int i = 0; i < 2; i++) {
+            ImportDiff diff = ImportDiff.compute(target, record, imported);
+            if (diff.getCommand() != null) diff.getCommand().executeCommand();
+            record = diff.getRecord();
+        }
+        ImportDiff diff = ImportDiff.compute(target, record, imported);
+        assertNull(diff.getCommand());
+        assertEquals(2, diff.getUnchangedCount());
+        assertEquals(1, target.getWays().stream().filter(way -> !way.hasKey(BIMtoOSMCatalog.GLOBAL_ID_KEY)).count());
+    }
+
+    /**
+     * Test case for {@link ImportDiff#compute} method keeping ways which were not created by the earlier import.
+     */
+    @Test
+    void testComputeKeepsOtherWays() {
+        DataSet target = new DataSet();
+        addWay(target, "A", 0, 0, 0, 1, 1, 1, 0, 0);
+        ImportRecord record = ImportRecord.of(target);
+        Way otherModel = addWay(target, "X", 5, 5, 6, 6);
+        Way userWay = addWay(target, null, 2, 2, 2, 3);
+        userWay.remove("indoor");
+
+        DataSet imported = new DataSet();
+        addWay(imported, "A", 0, 0, 0, 1, 1, 1, 0, 0);
+        addWay(imported, null, 2, 2, 2, 3);
+
+        ImportDiff diff = ImportDiff.compute(target, record, imported);
+        assertEquals(1, diff.getAddedCount());
+        assertEquals(0, diff.getDeletedCount());
+        diff.getCommand().executeCommand();
+        assertFalse(otherModel.isDeleted());
+        assertFalse(userWay.hasKeys());
+        assertEquals(4, target.getWays().size());
+        assertFalse(diff.getRecord().contains(otherModel));
+        assertFalse(diff.getRecord().contains(userWay));
+    }
+
+    private static Way addWay(DataSet dataSet, String globalId, double... coordinates) {
+        Way way = OsmTestData.addWay(dataSet, coordinates);
+        way.put("indoor", "room");
+        way.put(BIMtoOSMCatalog.GLOBAL_ID_KEY, globalId);
+        return way;
+    }
+}
@@ -45,9 +45,9 @@ class BIMtoOSMParserTest {
         assertParseFalse("test3_IFC4.ifc");
         assertParseFalse("test4_IFC4.ifc");
 
-        // Schema is not supported
-        assertParseFalse("test1_IFC4X2.ifc");
-        assertParseFalse("test1_IFC4X3.ifc");
+        // Schema without EXPRESS schema file, loaded by lightweight STEP loader
+        assertParseTrue("test1_IFC4X2.ifc");
+        assertParseTrue("test1_IFC4X3.ifc");
     }
 
     private void assertParseFalse(String filename) {
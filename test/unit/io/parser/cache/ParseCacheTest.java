@@ -0,0 +1,154 @@
+// License: AGPL. For details, see LICENSE file.
+package io.parser.cache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openstreetmap.josm.TestUtils;
+import org.openstreetmap.josm.data.coor.LatLon;
+import org.openstreetmap.josm.plugins.indoorhelper.io.model.BIMtoOSMCatalog;
+import org.openstreetmap.josm.plugins.indoorhelper.io.optimizer.InputOptimizer;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.BIMtoOSMParser;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.cache.ParseCache;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.data.BIMObject3D;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.data.ifc.IfcUnitCatalog;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.math.Vector3D;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.utils.ifc.BIMtoOSMUtility;
+
+/**
+ * Unit tests of {@link ParseCache} class.
+ */
+class ParseCacheTest {
+
+    String resourcePathDir = TestUtils.getTestDataRoot();
+
+    /**
+     * Test case for {@link ParseCache#getKey} method.
+     */
+    @Test
+    void testGetKey(@TempDir Path cacheDir) throws IOException {
+        ParseCache cache = new ParseCache(cacheDir);
+        File file = new File(resourcePathDir + "test3_IFC4.ifc");
+        String key = getKey(cache, file, BIMtoOSMUtility.GeometrySolution.BOUNDING_BOX,
+                BIMtoOSMParser.ModelLoader.EXPRESS_SCHEMA, new InputOptimizer.Configuration(true, true));
+        assertEquals(key, getKey(cache, file, BIMtoOSMUtility.GeometrySolution.BOUNDING_BOX,
+                BIMtoOSMParser.ModelLoader.EXPRESS_SCHEMA, new InputOptimizer.Configuration(true, true)));
+        assertNotEquals(key, getKey(cache, file, BIMtoOSMUtility.GeometrySolution.BODY,
+                BIMtoOSMParser.ModelLoader.EXPRESS_SCHEMA, new InputOptimizer.Configuration(true, true)));
+        assertNotEquals(key, getKey(cache, new File(resourcePathDir + "test4_IFC4.ifc"),
+                BIMtoOSMUtility.GeometrySolution.BOUNDING_BOX, BIMtoOSMParser.ModelLoader.EXPRESS_SCHEMA,
+                new InputOptimizer.Configuration(true, true)));
+        assertNotEquals(key, getKey(cache, file, BIMtoOSMUtility.GeometrySolution.BOUNDING_BOX,
+                BIMtoOSMParser.ModelLoader.LIGHTWEIGHT_STEP, new InputOptimizer.Configuration(true, true)));
+        assertNotEquals(key, getKey(cache, file, BIMtoOSMUtility.GeometrySolution.BOUNDING_BOX,
+                BIMtoOSMParser.ModelLoader.EXPRESS_SCHEMA, new InputOptimizer.Configuration(true, false)));
+        assertNotEquals(key, getKey(cache, file, BIMtoOSMUtility.GeometrySolution.BOUNDING_BOX,
+                BIMtoOSMParser.ModelLoader.EXPRESS_SCHEMA, new InputOptimizer.Configuration(false, true)));
+    }
+
+    private static String getKey(ParseCache cache, File file, BIMtoOSMUtility.GeometrySolution solution,
+                                 BIMtoOSMParser.ModelLoader loader, InputOptimizer.Configuration inputConfig)
+            throws IOException {
+        return cache.getKey(file, "IFC4", solution, loader, inputConfig);
+    }
+
+    /**
+     * Test case for {@link ParseCache#write} and {@link ParseCache#read} methods.
+     */
+    @Test
+    void testReadWrite(@TempDir Path cacheDir) {
+        ParseCache cache = new ParseCache(cacheDir);
+        assertNull(cache.read("missing"));
+
+        ParseCache.ParsedData data = new ParseCache.ParsedData();
+        BIMObject3D space = new BIMObject3D(43, BIMtoOSMCatalog.BIMObject.IfcSpace, new Vector3D(),
+                Arrays.asList(new Vector3D(0.0, 0.0, 0.0), new Vector3D(1.0, 0.0, 0.0), new Vector3D(0.0, 1.0, 0.0)));
+        space.setName("Schlafzimmer");
+        space.setNumber("4");
+        data.objects = Arrays.asList(new BIMObject3D(42, BIMtoOSMCatalog.BIMObject.IfcWall, new Vector3D(),
+                Arrays.asList(new Vector3D(0.0, 0.0, 0.0), new Vector3D(1.5, 2.0, -0.25))), space);
+        data.objects.get(0).setGlobalId("2O2Fr$t4X7Zf8NOew3FLOH");
+        data.levels = new int[]{1, 1};
+        data.sourceObjectCount = 2;
+        data.lengthUnit = IfcUnitCatalog.LengthUnit.MM;
+        data.buildingOrigin = new LatLon(50.5, 12.25);
+        cache.write("key", data);
+
+        ParseCache.ParsedData cached = cache.read("key");
+        assertNotNull(cached);
+        assertEquals(2, cached.objects.size());
+        assertEquals(42, cached.objects.get(0).getId());
+        assertEquals(BIMtoOSMCatalog.BIMObject.IfcWall, cached.objects.get(0).getType());
+        assertEquals("2O2Fr$t4X7Zf8NOew3FLOH", cached.objects.get(0).getGlobalId());
+        assertEquals(-0.25, cached.objects.get(0).getCartesianGeometryCoordinates().get(1).getZ());
+        assertNull(cached.objects.get(0).getName());
+        assertEquals("Schlafzimmer", cached.objects.get(1).getName());
+        assertEquals("4", cached.objects.get(1).getNumber());
+        assertNull(cached.objects.get(1).getUsage());
+        assertArrayEquals(data.levels, cached.levels);
+        assertEquals(2, cached.sourceObjectCount);
+        assertEquals(IfcUnitCatalog.LengthUnit.MM, cached.lengthUnit);
+        assertEquals(data.buildingOrigin, cached.buildingOrigin);
+        assertNull(cached.trueNorth);
+    }
+
+    /**
+     * Test case for {@link ParseCache#read} method ignoring entries of an older cache format.
+     */
+    @Test
+    void testReadOutdatedVersion(@TempDir Path cacheDir) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(cacheDir.resolve("key.bin")))) {
+            out.writeInt(0x49485043);
+            out.writeInt(2);
+        }
+        assertNull(new ParseCache(cacheDir).read("key"));
+    }
+
+    /**
+     * Test case for {@link ParseCache#write} method removing least recently used and outdated entries.
+     */
+    @Test
+    void testEvict(@TempDir Path cacheDir) throws IOException {
+        ParseCache.ParsedData data = new ParseCache.ParsedData();
+        data.objects = Collections.emptyList();
+        data.levels = new int[0];
+        data.lengthUnit = IfcUnitCatalog.LengthUnit.M;
+
+        ParseCache unlimited = new ParseCache(cacheDir, Long.MAX_VALUE, Duration.ofDays(1));
+        unlimited.write("first", data);
+        unlimited.write("second", data);
+        long entrySize = Files.size(cacheDir.resolve("first.bin"));
+        long now = System.currentTimeMillis();
+        Files.setLastModifiedTime(cacheDir.resolve("first.bin"), FileTime.fromMillis(now - 60_000));
+        Files.setLastModifiedTime(cacheDir.resolve("second.bin"), FileTime.fromMillis(now - 30_000));
+
+        // reading an entry marks it as used
+        ParseCache cache = new ParseCache(cacheDir, 2 * entrySize, Duration.ofDays(1));
+        assertNotNull(cache.read("first"));
+        cache.write("third", data);
+        assertNotNull(cache.read("first"));
+        assertNull(cache.read("second"));
+        assertNotNull(cache.read("third"));
+
+        Files.setLastModifiedTime(cacheDir.resolve("first.bin"), FileTime.fromMillis(now - 2 * 86_400_000L));
+        cache.write("fourth", data);
+        assertNull(cache.read("first"));
+        assertNotNull(cache.read("third"));
+        assertNotNull(cache.read("fourth"));
+    }
+}
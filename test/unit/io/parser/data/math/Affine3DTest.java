@@ -0,0 +1,59 @@
+// License: AGPL. For details, see LICENSE file.
+package io.parser.data.math;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.math.Affine3D;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.math.Matrix3D;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.math.ParserMath;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.math.Vector3D;
+
+/**
+ * Unit tests of {@link Affine3D} class.
+ */
+class Affine3DTest {
+
+    Matrix3D rotation = ParserMath.getRotationMatrixZ(Math.toRadians(90.0));
+    Vector3D translation = new Vector3D(10.0, 20.0, 3.0);
+
+    @Test
+    void testTransform() {
+        Vector3D v = new Vector3D(1.0, 2.0, 3.0);
+        new Affine3D(rotation, translation).transform(v);
+        assertEquals(8.0, v.getX(), 1e-9);
+        assertEquals(21.0, v.getY(), 1e-9);
+        assertEquals(6.0, v.getZ(), 1e-9);
+
+        double[] coordinates = {1.0, 2.0, 3.0, 0.0, 0.0, 0.0};
+        new Affine3D(rotation, translation).transform(coordinates, 2);
+        assertEquals(8.0, coordinates[0], 1e-9);
+        assertEquals(21.0, coordinates[1], 1e-9);
+        assertEquals(6.0, coordinates[2], 1e-9);
+        assertEquals(10.0, coordinates[3], 1e-9);
+        assertEquals(20.0, coordinates[4], 1e-9);
+        assertEquals(3.0, coordinates[5], 1e-9);
+    }
+
+    @Test
+    void testMultiply() {
+        // scale after rotation and translation
+        Affine3D affine = Affine3D.scale(0.5);
+        affine.multiply(new Affine3D(rotation, translation));
+        Vector3D v = new Vector3D(1.0, 2.0, 3.0);
+        affine.transform(v);
+        assertEquals(4.0, v.getX(), 1e-9);
+        assertEquals(10.5, v.getY(), 1e-9);
+        assertEquals(3.0, v.getZ(), 1e-9);
+    }
+
+    @Test
+    void testTransformTransposed() {
+        Vector3D v = new Vector3D(1.0, 2.0, 3.0);
+        rotation.transform(v);
+        rotation.transformTransposed(v);
+        assertEquals(1.0, v.getX(), 1e-9);
+        assertEquals(2.0, v.getY(), 1e-9);
+        assertEquals(3.0, v.getZ(), 1e-9);
+    }
+}
@@ -0,0 +1,35 @@
+// License: AGPL. For details, see LICENSE file.
+package io.parser.data.math;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import org.openstreetmap.josm.data.coor.LatLon;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.data.ifc.IfcUnitCatalog;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.math.GeodeticProjection;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.math.ParserGeoMath;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.math.Vector3D;
+
+/**
+ * Unit tests of {@link GeodeticProjection} class.
+ */
+class GeodeticProjectionTest {
+
+    LatLon origin = new LatLon(49.41, 8.67);
+
+    @Test
+    void testProject() {
+        double[] x = {0.0, 12.5, -80.0, 3.0};
+        double[] y = {0.0, 40.0, -15.5, -250.0};
+        double[] lat = new double[x.length];
+        double[] lon = new double[x.length];
+        new GeodeticProjection(origin).project(x, y, lat, lon, x.length);
+
+        for (int i = 0; i < x.length; i++) {
+            LatLon expected = ParserGeoMath.cartesianToGeodetic(new Vector3D(x[i], y[i], 0.0),
+                    new Vector3D(0.0, 0.0, 0.0), origin, IfcUnitCatalog.LengthUnit.M);
+            assertEquals(expected.lat(), lat[i], 1e-12);
+            assertEquals(expected.lon(), lon[i], 1e-12);
+        }
+    }
+}
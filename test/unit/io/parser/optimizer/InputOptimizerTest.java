@@ -0,0 +1,56 @@
+// License: AGPL. For details, see LICENSE file.
+package io.parser.optimizer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openstreetmap.josm.plugins.indoorhelper.io.optimizer.InputOptimizer;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.step.StepModel;
+
+/**
+ * Unit tests of {@link InputOptimizer} class.
+ */
+class InputOptimizerTest {
+
+    /**
+     * Test case for {@link InputOptimizer#removeUnreachableEntities} method reading a compressed file with comments.
+     */
+    @Test
+    void testRemoveUnreachableEntities(@TempDir Path tempDir) throws IOException {
+        Path ifcFile = tempDir.resolve("comments.ifc.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(ifcFile))) {
+            out.write(String.join("\n", Arrays.asList(
+                    "ISO-10303-21;", "HEADER;", "/* exported by test */", "FILE_SCHEMA(('IFC2X3'));", "ENDSEC;", "DATA;",
+                    "#1=IFCSITE('1u3eo6ksvCu9hh_UAkRpd0',$,'Site /* no comment */',$,$,#2,$,$,.ELEMENT.,$,$,$,$,$);",
+                    "/* placement of site */",
+                    "#2=IFCLOCALPLACEMENT($,#3 /* relative placement */);",
+                    "#3=IFCAXIS2PLACEMENT3D(#4,$,$);",
+                    "#4=IFCCARTESIANPOINT((0.,0.,0.));",
+                    "#5=IFCPROPERTYSINGLEVALUE('Note',$,$,$);",
+                    "ENDSEC;", "END-ISO-10303-21;")).getBytes(StandardCharsets.US_ASCII));
+        }
+
+        File reducedFile = InputOptimizer.removeUnreachableEntities(ifcFile.toFile());
+        String content = new String(Files.readAllBytes(reducedFile.toPath()), StandardCharsets.US_ASCII);
+        assertFalse(content.contains("exported by test"));
+        assertFalse(content.contains("relative placement"));
+        assertTrue(content.contains("#1=IFCSITE('1u3eo6ksvCu9hh_UAkRpd0',$,'Site /* no comment */',"));
+        assertTrue(content.contains("#2=IFCLOCALPLACEMENT($,#3 );"));
+
+        StepModel reducedModel = StepModel.load(reducedFile.toPath());
+        assertEquals("IFC2X3", reducedModel.getSchema());
+        assertEquals(4, reducedModel.size());
+    }
+}
@@ -0,0 +1,50 @@
+// License: AGPL. For details, see LICENSE file.
+package io.parser.optimizer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static testutils.OsmTestData.addNode;
+import static testutils.OsmTestData.addWay;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.openstreetmap.josm.data.osm.DataSet;
+import org.openstreetmap.josm.data.osm.Node;
+import org.openstreetmap.josm.data.osm.Way;
+import org.openstreetmap.josm.plugins.indoorhelper.io.optimizer.OutputOptimizer;
+
+/**
+ * Unit tests of the way simplification of {@link OutputOptimizer} class.
+ */
+class OutputOptimizerSimplifyTest {
+
+    // about 1 meter in degree
+    private static final double M = 1.0 / 111320.0;
+
+    /**
+     * Test case for {@link OutputOptimizer#optimize} method with way simplification.
+     */
+    @Test
+    void testSimplifyWays() {
+        DataSet ds = new DataSet();
+        Node a = addNode(ds, 0, 0);
+        Node collinear = addNode(ds, 0, 5 * M);
+        Node nearlyCollinear = addNode(ds, 0.002 * M, 7 * M);
+        Node b = addNode(ds, 0, 10 * M);
+        Node c = addNode(ds, 10 * M, 10 * M);
+        Node shared = addNode(ds, 10 * M, 5 * M);
+        Node d = addNode(ds, 10 * M, 0);
+        Way room = addWay(ds, a, collinear, nearlyCollinear, b, c, shared, d, a);
+        Node other = addNode(ds, 20 * M, 5 * M);
+        Way wall = addWay(ds, shared, other);
+
+        OutputOptimizer.optimize(new OutputOptimizer.Configuration(false, 0.0, true, 0.01), ds);
+        assertEquals(Arrays.asList(a, b, c, shared, d, a), room.getNodes());
+        assertEquals(Arrays.asList(shared, other), wall.getNodes());
+        assertFalse(ds.getNodes().contains(collinear));
+        assertFalse(ds.getNodes().contains(nearlyCollinear));
+        assertTrue(ds.getNodes().contains(shared));
+    }
+}
@@ -0,0 +1,215 @@
+// License: AGPL. For details, see LICENSE file.
+package io.parser.step;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openstreetmap.josm.TestUtils;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.data.ifc.IfcEntity;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.step.StepModel;
+
+/**
+ * Unit tests of {@link StepModel} class.
+ */
+class StepModelTest {
+
+    String resourcePathDir = TestUtils.getTestDataRoot();
+
+    /**
+     * Test case for {@link StepModel#load} method.
+     */
+    @Test
+    void testLoad() throws IOException {
+        StepModel model = StepModel.load(Paths.get(resourcePathDir + "test1_IFC4X2.ifc"));
+        assertEquals("IFC4X2", model.getSchema());
+        assertEquals(27149, model.size());
+        assertEquals(1, model.getInstancesOfType("IfcProject").size());
+        assertTrue(model.getInstancesOfType("IfcNotExisting").isEmpty());
+    }
+
+    /**
+     * Test case for {@link StepModel#load} method indexing data section in parallel chunks.
+     */
+    @Test
+    void testLoadParallel() throws IOException {
+        StepModel sequential = StepModel.load(Paths.get(resourcePathDir + "test1_IFC4.ifc"), 1);
+        StepModel parallel = StepModel.load(Paths.get(resourcePathDir + "test1_IFC4.ifc"), 4);
+        assertEquals(sequential.size(), parallel.size());
+        assertEquals(sequential.getTypeHistogram(), parallel.getTypeHistogram());
+        assertEquals(sequential.getInstance(1000).getTypeName(), parallel.getInstance(1000).getTypeName());
+    }
+
+    /**
+     * Test case for {@link StepModel#load} method indexing data section with quotes inside of comments in
+     * parallel chunks.
+     */
+    @Test
+    void testLoadParallelWithComment(@TempDir Path tempDir) throws IOException {
+        Path ifcFile = tempDir.resolve("comment.ifc");
+        StringBuilder content = new StringBuilder("ISO-10303-21;\nHEADER;\nFILE_SCHEMA(('IFC4'));\nENDSEC;\nDATA;\n");
+        content.append("/* Architect's note */\n");
+        for (int id = 1; id <= 40000; id++) {
+            content.append('#').append(id).append("=IFCWALL(").append(globalId(id)).append(",$,'Wall',$);\n");
+        }
+        content.append("ENDSEC;\nEND-ISO-10303-21;\n");
+        Files.write(ifcFile, content.toString().getBytes(StandardCharsets.US_ASCII));
+
+        StepModel sequential = StepModel.load(ifcFile, 1);
+        StepModel parallel = StepModel.load(ifcFile, 4);
+        assertEquals(40000, sequential.size());
+        assertEquals(sequential.size(), parallel.size());
+        assertEquals(sequential.getTypeHistogram(), parallel.getTypeHistogram());
+        for (int id = 1; id <= 40000; id++) {
+            assertEquals(globalId(id), sequential.getInstance(id).getAttributeValueBN("GlobalId"));
+            assertEquals(globalId(id), parallel.getInstance(id).getAttributeValueBN("GlobalId"));
+            assertEquals("'Wall'", parallel.getInstance(id).getAttributeValueBN("Name"));
+        }
+    }
+
+    // string looking like the end of a record and the start of another one, containing an escaped quote
+    private static String globalId(int id) {
+        return "'Note; #" + id + "=IFCWALL(''x'');'";
+    }
+
+    /**
+     * Test case for {@link StepModel#load} method reading gzip and zip compressed files.
+     */
+    @Test
+    void testLoadCompressed(@TempDir Path tempDir) throws IOException {
+        Path ifcFile = Paths.get(resourcePathDir + "test1_IFC4X3.ifc");
+        Path gzipFile = tempDir.resolve("test1_IFC4X3.ifc.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(gzipFile))) {
+            Files.copy(ifcFile, out);
+        }
+        Path zipFile = tempDir.resolve("test1_IFC4X3.ifczip");
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zipFile))) {
+            out.putNextEntry(new ZipEntry("test1_IFC4X3.ifc"));
+            Files.copy(ifcFile, out);
+            out.closeEntry();
+        }
+
+        StepModel model = StepModel.load(ifcFile);
+        for (Path compressedFile : Arrays.asList(gzipFile, zipFile)) {
+            StepModel compressedModel = StepModel.load(compressedFile);
+            assertEquals(model.getSchema(), compressedModel.getSchema());
+            assertEquals(model.size(), compressedModel.size());
+            assertEquals(model.getTypeHistogram(), compressedModel.getTypeHistogram());
+        }
+    }
+
+    /**
+     * Test case for attribute decoding of {@link StepModel} entities.
+     */
+    @Test
+    void testAttributes() throws IOException {
+        StepModel model = StepModel.load(Paths.get(resourcePathDir + "test1_IFC4X2.ifc"));
+
+        // #24 = IFCSITE('1u3eo6ksvCu9hh_UAkRpd0', #2, 'Default Site', 'Description of Object', $, #47, #52, $, .ELEMENT., (24, 28, 0), (54, 25, 0), 10., $, $);
+        IfcEntity site = model.getInstance(24);
+        assertNotNull(site);
+        assertTrue(model.isInstanceOf(site, "IfcSite"));
+        assertEquals("IFCSITE", site.getTypeName());
+        assertEquals("'Default Site'", site.getAttributeValueBN("Name"));
+        assertEquals(".ELEMENT.", site.getAttributeValueBN("CompositionType"));
+        assertEquals(Arrays.asList("24", "28", "0"), site.getAttributeValueBN("RefLatitude"));
+        assertEquals("10.", site.getAttributeValueBN("RefElevation"));
+        assertNull(site.getAttributeValueBN("LandTitleNumber"));
+        assertNull(site.getAttributeValueBN("NotExisting"));
+
+        IfcEntity placement = site.getAttributeValueBNasEntityInstance("ObjectPlacement");
+        assertEquals(47, placement.getId());
+        assertTrue(model.isInstanceOf(placement, "IFCLOCALPLACEMENT"));
+
+        List<IfcEntity> contexts = model.getInstancesOfType("IfcProject").get(0)
+                .getAttributeValueBNasEntityInstanceList("RepresentationContexts");
+        assertEquals(1, contexts.size());
+        assertEquals(20, contexts.get(0).getId());
+    }
+
+    /**
+     * Test case for {@link StepModel#retainReachable} method.
+     */
+    @Test
+    void testRetainReachable() throws IOException {
+        StepModel model = StepModel.load(Paths.get(resourcePathDir + "test1_IFC4X2.ifc"));
+        StepModel reduced = model.retainReachable(Arrays.asList("IfcSite"));
+
+        assertTrue(reduced.size() < model.size());
+        assertEquals(1, reduced.getInstancesOfType("IfcSite").size());
+        assertTrue(reduced.getInstancesOfType("IfcProject").isEmpty());
+
+        // placement of site is referenced and therefore kept
+        IfcEntity placement = reduced.getInstance(24).getAttributeValueBNasEntityInstance("ObjectPlacement");
+        assertNotNull(placement);
+        assertEquals(47, placement.getId());
+    }
+
+    /**
+     * Test case for {@link StepModel#retainReachable} and {@link StepModel#write} methods keeping complex entity
+     * instances and the entities they reference.
+     */
+    @Test
+    void testRetainReachableComplexInstance(@TempDir Path tempDir) throws IOException {
+        Path ifcFile = tempDir.resolve("complex.ifc");
+        Files.write(ifcFile, Arrays.asList(
+                "ISO-10303-21;", "HEADER;", "FILE_SCHEMA(('IFC2X3'));", "ENDSEC;", "DATA;",
+                "#1=IFCSITE('1u3eo6ksvCu9hh_UAkRpd0',$,'Site',$,$,#2,$,$,.ELEMENT.,$,$,$,$,$);",
+                "#2=(IFCLOCALPLACEMENT($,#3) IFCOBJECTPLACEMENT());",
+                "#3=IFCAXIS2PLACEMENT3D(#4,$,$);",
+                "#4=IFCCARTESIANPOINT((0.,0.,0.));",
+                "#5=IFCCARTESIANPOINT((1.,1.,1.));",
+                "ENDSEC;", "END-ISO-10303-21;"), StandardCharsets.US_ASCII);
+
+        StepModel reduced = StepModel.load(ifcFile).retainReachable(Arrays.asList("IfcSite"));
+        assertEquals(4, reduced.size());
+        assertNotNull(reduced.getInstance(2));
+        assertNull(reduced.getInstance(5));
+
+        Path reducedFile = tempDir.resolve("reduced.ifc");
+        try (OutputStream out = Files.newOutputStream(reducedFile)) {
+            reduced.write(out);
+        }
+        List<String> lines = Files.readAllLines(reducedFile, StandardCharsets.US_ASCII);
+        assertTrue(lines.contains("#2=(IFCLOCALPLACEMENT($,#3) IFCOBJECTPLACEMENT());"));
+        assertTrue(lines.contains("#4=IFCCARTESIANPOINT((0.,0.,0.));"));
+        assertEquals(4, StepModel.load(reducedFile).size());
+    }
+
+    /**
+     * Test case for reading {@link StepModel} entities by several threads at once.
+     */
+    @Test
+    void testConcurrentAccess() throws IOException {
+        StepModel sequential = StepModel.load(Paths.get(resourcePathDir + "test1_IFC4.ifc"));
+        List<Integer> ids = sequential.getInstancesOfType("IfcCartesianPoint").stream()
+                .map(IfcEntity::getId).collect(Collectors.toList());
+
+        // handles and attributes of this model are created on first access by any thread
+        StepModel model = StepModel.load(Paths.get(resourcePathDir + "test1_IFC4.ifc"));
+        List<IfcEntity> entities = ids.parallelStream().map(model::getInstance).collect(Collectors.toList());
+        List<Object> coordinates = entities.parallelStream()
+                .map(entity -> entity.getAttributeValueBN("Coordinates")).collect(Collectors.toList());
+        for (int i = 0; i < ids.size(); i++) {
+            assertSame(entities.get(i), model.getInstance(ids.get(i)));
+            assertEquals(sequential.getInstance(ids.get(i)).getAttributeValueBN("Coordinates"), coordinates.get(i));
+        }
+    }
+}
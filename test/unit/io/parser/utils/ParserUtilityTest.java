@@ -0,0 +1,30 @@
+// License: AGPL. For details, see LICENSE file.
+package io.parser.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.utils.ParserUtility;
+
+/**
+ * Unit tests of {@link ParserUtility} class.
+ */
+class ParserUtilityTest {
+
+    /**
+     * Test case for {@link ParserUtility#prepareString} method.
+     */
+    @Test
+    void testPrepareString() {
+        assertNull(ParserUtility.prepareString(null));
+        assertNull(ParserUtility.prepareString("$"));
+        assertEquals("Architect's office", ParserUtility.prepareString("'Architect''s office'"));
+        assertEquals("K\u00fcche", ParserUtility.prepareString("'K\\X2\\00FC\\X0\\che'"));
+        assertEquals("\u00c4 \u00e9", ParserUtility.prepareString("'\\X\\C4 \\S\\i'"));
+        assertEquals("\ud83d\ude00", ParserUtility.prepareString("'\\X4\\0001F600\\X0\\'"));
+        assertEquals("a\\b", ParserUtility.prepareString("'a\\\\b'"));
+        // malformed directives are kept
+        assertEquals("\\X2\\00F\\X0\\", ParserUtility.prepareString("'\\X2\\00F\\X0\\'"));
+    }
+}
@@ -0,0 +1,74 @@
+// License: AGPL. For details, see LICENSE file.
+package io.parser.utils.ifc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.openstreetmap.josm.TestUtils;
+import org.openstreetmap.josm.plugins.indoorhelper.io.model.BIMtoOSMCatalog;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.data.BIMDataCollection;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.data.BIMObject3D;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.math.Vector3D;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.step.StepModel;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.utils.ifc.BIMtoOSMUtility;
+
+/**
+ * Unit tests of {@link BIMtoOSMUtility} class.
+ */
+class BIMtoOSMUtilityTest {
+
+    String resourcePathDir = TestUtils.getTestDataRoot();
+
+    /**
+     * Test case for {@link BIMtoOSMUtility#transformSpaces} method.
+     */
+    @Test
+    void testTransformSpaces() throws IOException {
+        StepModel model = StepModel.load(Paths.get(resourcePathDir + "test1_IFC4.ifc"));
+        BIMDataCollection data = BIMtoOSMUtility.extractMajorBIMData(model);
+        assertEquals(7, data.getSpaceObjects().size());
+        assertTrue(data.getAreaObjects().isEmpty());
+
+        List<BIMObject3D> rooms = BIMtoOSMUtility.transformSpaces(model, data.getSpaceObjects());
+        assertEquals(7, rooms.size());
+        Map<String, BIMObject3D> roomsByNumber = rooms.stream()
+                .collect(Collectors.toMap(BIMObject3D::getNumber, Function.identity()));
+        BIMObject3D bedroom = roomsByNumber.get("4");
+        assertEquals("Schlafzimmer", bedroom.getName());
+        assertEquals("347jFE2yX7IhCEIALmupEH", bedroom.getGlobalId());
+        assertEquals(BIMtoOSMCatalog.BIMObject.IfcSpace, bedroom.getType());
+        assertEquals("K\u00fcche", roomsByNumber.get("6").getName());
+        for (BIMObject3D room : rooms) {
+            List<Vector3D> footprint = room.getCartesianGeometryCoordinates();
+            assertTrue(footprint.size() >= 4);
+            assertTrue(footprint.get(0).equalsVector(footprint.get(footprint.size() - 1)));
+        }
+    }
+
+    /**
+     * Test case for {@link BIMtoOSMUtility#getLevelTags} method with rooms aggregated by their storey.
+     */
+    @Test
+    void testGetLevelTagsOfSpaces() throws IOException {
+        // relations between spaces and storeys must survive the reduction to entities needed for extraction
+        StepModel model = StepModel.load(Paths.get(resourcePathDir + "test1_IFC4.ifc"))
+                .retainReachable(BIMtoOSMCatalog.getLoadRootTags());
+        BIMDataCollection data = BIMtoOSMUtility.extractMajorBIMData(model);
+        List<BIMObject3D> rooms = BIMtoOSMUtility.transformSpaces(model, data.getSpaceObjects());
+
+        int[] levels = BIMtoOSMUtility.getLevelTags(model, rooms);
+        assertEquals(7, levels.length);
+        for (int i = 0; i < levels.length; i++) {
+            // the gallery is the only room of the upper storey
+            assertEquals("Galerie".equals(rooms.get(i).getName()) ? 1 : 0, levels[i], rooms.get(i).getName());
+        }
+    }
+}
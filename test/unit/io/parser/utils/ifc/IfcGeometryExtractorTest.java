@@ -0,0 +1,68 @@
+// License: AGPL. For details, see LICENSE file.
+package io.parser.utils.ifc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.data.ifc.IfcPointCache;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.data.ifc.IfcRepresentation;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.data.ifc.IfcRepresentationCatalog.RepresentationIdentifier;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.data.ifc.IfcRepresentationCatalog.RepresentationType;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.math.Vector3D;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.step.StepModel;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.utils.ifc.IfcGeometryExtractor;
+
+/**
+ * Unit tests of {@link IfcGeometryExtractor} class.
+ */
+class IfcGeometryExtractorTest {
+
+    /**
+     * Test case for {@link IfcGeometryExtractor#getDataFromBodyRepresentation} method with an extruded
+     * {@code .AREA.} profile whose position is not the object origin.
+     */
+    @Test
+    void testExtrudedAreaProfilePosition(@TempDir Path tempDir) throws IOException {
+        Path ifcFile = tempDir.resolve("profile.ifc");
+        Files.write(ifcFile, Arrays.asList(
+                "ISO-10303-21;",
+                "HEADER;",
+                "FILE_DESCRIPTION((''),'2;1');",
+                "FILE_NAME('profile.ifc','',(''),(''),'','','');",
+                "FILE_SCHEMA(('IFC4'));",
+                "ENDSEC;",
+                "DATA;",
+                "#1=IFCCARTESIANPOINT((0.,0.));",
+                "#2=IFCCARTESIANPOINT((2.,0.));",
+                "#3=IFCCARTESIANPOINT((2.,1.));",
+                "#4=IFCPOLYLINE((#1,#2,#3,#1));",
+                "#5=IFCARBITRARYCLOSEDPROFILEDEF(.AREA.,$,#4);",
+                "#6=IFCCARTESIANPOINT((10.,5.,0.));",
+                "#7=IFCAXIS2PLACEMENT3D(#6,$,$);",
+                "#8=IFCDIRECTION((0.,0.,1.));",
+                "#9=IFCEXTRUDEDAREASOLID(#5,#7,#8,3.);",
+                "#10=IFCSHAPEREPRESENTATION($,'Body','SweptSolid',(#9));",
+                "#11=IFCWALL('0M8h7bGJD2ZOPOG4TzR1sZ',$,$,$,$,$,$,$,$);",
+                "ENDSEC;",
+                "END-ISO-10303-21;"), StandardCharsets.US_ASCII);
+        StepModel model = StepModel.load(ifcFile);
+
+        IfcRepresentation body = new IfcRepresentation(RepresentationIdentifier.Body, RepresentationType.SweptSolid,
+                model.getInstance(10), model.getInstance(11));
+        List<Vector3D> points = IfcGeometryExtractor.getDataFromBodyRepresentation(model, new IfcPointCache(), body);
+
+        assertEquals(4, points.size());
+        assertEquals(10.0, points.get(0).getX());
+        assertEquals(5.0, points.get(0).getY());
+        assertEquals(12.0, points.get(1).getX());
+        assertEquals(6.0, points.get(2).getY());
+    }
+}
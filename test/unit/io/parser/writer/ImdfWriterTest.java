@@ -0,0 +1,61 @@
+// License: AGPL. For details, see LICENSE file.
+package io.parser.writer;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openstreetmap.josm.data.coor.LatLon;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.writer.ImdfWriter;
+import org.openstreetmap.josm.plugins.indoorhelper.model.TagCatalog.IndoorObject;
+
+/**
+ * Unit tests of {@link ImdfWriter} class.
+ */
+class ImdfWriterTest {
+
+    /**
+     * Test case for {@link ImdfWriter#writeFeature} method.
+     */
+    @Test
+    void testWriteFeature(@TempDir Path dir) throws IOException {
+        try (ImdfWriter writer = new ImdfWriter(dir, ImdfWriter.DEFAULT_PRECISION)) {
+            // clockwise ring is written counterclockwise
+            assertTrue(writer.writeFeature(Arrays.asList(new LatLon(49.0, 8.0), new LatLon(49.0001, 8.0),
+                    new LatLon(49.0001, 8.0001), new LatLon(49.0, 8.0001), new LatLon(49.0, 8.0)), IndoorObject.ROOM, 0));
+            assertTrue(writer.writeFeature(Arrays.asList(new LatLon(-0.00000012, -8.123456789),
+                    new LatLon(49.0001, 8.0)), IndoorObject.DOOR_PUBLIC, -1));
+            assertFalse(writer.writeFeature(Arrays.asList(new LatLon(49.0, 8.0), new LatLon(49.0001, 8.0)),
+                    IndoorObject.NONE, 0));
+            assertFalse(writer.writeFeature(Arrays.asList(new LatLon(49.0, 8.0), new LatLon(49.0001, 8.0),
+                    new LatLon(49.0001, 8.0001), new LatLon(49.0, 8.0)), IndoorObject.CONCRETE_WALL, 0));
+            assertFalse(writer.writeFeature(Arrays.asList(new LatLon(49.0, 8.0), new LatLon(49.0001, 8.0)),
+                    IndoorObject.ROOM, 0));
+        }
+
+        String level0 = read(dir.resolve("level_0.geojson"));
+        assertTrue(level0.contains("\"feature_type\":\"unit\""));
+        assertTrue(level0.contains("\"category\":\"room\""));
+        assertTrue(level0.contains("[[[8.0001,49],[8.0001,49.0001],[8,49.0001],[8,49],[8.0001,49]]]"));
+
+        String level1 = read(dir.resolve("level_-1.geojson"));
+        assertTrue(level1.contains("\"feature_type\":\"opening\""));
+        assertTrue(level1.contains("[[-8.1234568,-0.0000001],[8,49.0001]]"));
+
+        String levels = read(dir.resolve("level.geojson"));
+        assertTrue(levels.contains("\"ordinal\":-1"));
+        assertTrue(levels.contains("\"ordinal\":0"));
+        assertTrue(Files.isRegularFile(dir.resolve("manifest.json")));
+    }
+
+    private static String read(Path file) throws IOException {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,86 @@
+// License: AGPL. For details, see LICENSE file.
+package io.parser.writer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.openstreetmap.josm.data.coor.LatLon;
+import org.openstreetmap.josm.data.osm.DataSet;
+import org.openstreetmap.josm.data.osm.Node;
+import org.openstreetmap.josm.data.osm.Tag;
+import org.openstreetmap.josm.data.osm.Way;
+import org.openstreetmap.josm.gui.progress.NullProgressMonitor;
+import org.openstreetmap.josm.io.OsmPbfReader;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.writer.OsmPbfWriter;
+
+/**
+ * Unit tests of {@link OsmPbfWriter} class.
+ */
+class OsmPbfWriterTest {
+
+    /**
+     * Test case for {@link OsmPbfWriter#writeWay} method, writes more ways than fit into one block.
+     */
+    @Test
+    void testWriteWay() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OsmPbfWriter writer = new OsmPbfWriter(out)) {
+            for (int i = 0; i < 10000; i++) {
+                double offset = i * 1e-4;
+                writer.writeWay(Arrays.asList(new LatLon(49.0 + offset, 8.0), new LatLon(49.0 + offset, 8.00005),
+                        new LatLon(49.00005 + offset, 8.00005), new LatLon(49.0 + offset, 8.0)),
+                        Arrays.asList(new Tag("indoor", "room"), new Tag("level", Integer.toString(i % 3))));
+            }
+        }
+
+        DataSet dataSet = OsmPbfReader.parseDataSet(new ByteArrayInputStream(out.toByteArray()),
+                NullProgressMonitor.INSTANCE);
+        assertEquals(30000, dataSet.getNodes().size());
+        assertEquals(10000, dataSet.getWays().size());
+        for (Way way : dataSet.getWays()) {
+            assertEquals(4, way.getNodesCount());
+            assertEquals(way.firstNode(), way.lastNode());
+            assertEquals("room", way.get("indoor"));
+        }
+    }
+
+    /**
+     * Test case for {@link OsmPbfWriter#write} method.
+     */
+    @Test
+    void testWriteDataSet() throws Exception {
+        DataSet dataSet = new DataSet();
+        List<Node> nodes = new ArrayList<>();
+        for (LatLon point : Arrays.asList(new LatLon(1.0, 2.0), new LatLon(1.0, 2.5), new LatLon(-1.5, -2.5))) {
+            Node node = new Node(point);
+            dataSet.addPrimitive(node);
+            nodes.add(node);
+        }
+        nodes.get(2).put("door", "yes");
+        Way way = new Way();
+        way.setNodes(nodes);
+        way.put("indoor", "wall");
+        dataSet.addPrimitive(way);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OsmPbfWriter writer = new OsmPbfWriter(out)) {
+            writer.write(dataSet);
+        }
+
+        DataSet read = OsmPbfReader.parseDataSet(new ByteArrayInputStream(out.toByteArray()),
+                NullProgressMonitor.INSTANCE);
+        assertEquals(1, read.getWays().size());
+        Way readWay = read.getWays().iterator().next();
+        assertEquals("wall", readWay.get("indoor"));
+        assertEquals(3, readWay.getNodesCount());
+        assertEquals(-1.5, readWay.getNode(2).lat(), 1e-7);
+        assertEquals(-2.5, readWay.getNode(2).lon(), 1e-7);
+        assertEquals("yes", readWay.getNode(2).get("door"));
+    }
+}
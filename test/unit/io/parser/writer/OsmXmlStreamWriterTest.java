@@ -0,0 +1,68 @@
+// License: AGPL. For details, see LICENSE file.
+package io.parser.writer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openstreetmap.josm.data.coor.LatLon;
+import org.openstreetmap.josm.data.osm.Tag;
+import org.openstreetmap.josm.plugins.indoorhelper.io.parser.writer.OsmXmlStreamWriter;
+
+/**
+ * Unit tests of {@link OsmXmlStreamWriter} class.
+ */
+class OsmXmlStreamWriterTest {
+
+    /**
+     * Test case for {@link OsmXmlStreamWriter#writeWay} method.
+     */
+    @Test
+    void testWriteWay() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OsmXmlStreamWriter writer = new OsmXmlStreamWriter(out)) {
+            assertEquals(-4, writer.writeWay(Arrays.asList(new LatLon(1.0, 2.0), new LatLon(1.0, 2.5),
+                    new LatLon(1.5, 2.5), new LatLon(1.0, 2.0)), Collections.singletonList(new Tag("indoor", "room"))));
+            assertEquals(0, writer.writeWay(Collections.singletonList(new LatLon(1.0, 2.0)),
+                    Collections.emptyList()));
+            assertEquals(-7, writer.writeWay(Arrays.asList(new LatLon(0.12345678901, -3.0), new LatLon(0.5, -3.0)),
+                    Collections.singletonList(new Tag("name", "A&B <'x'>"))));
+        }
+        String xml = new String(out.toByteArray(), StandardCharsets.UTF_8);
+
+        assertTrue(xml.contains("<node id='-1' action='modify' visible='true' lat='1' lon='2' />"));
+        assertTrue(xml.contains("<way id='-4' action='modify' visible='true'>\n"
+                + "    <nd ref='-1' />\n    <nd ref='-2' />\n    <nd ref='-3' />\n    <nd ref='-1' />\n"
+                + "    <tag k='indoor' v='room' />\n  </way>"));
+        assertTrue(xml.contains("lat='0.123456789' lon='-3'"));
+        assertTrue(xml.contains("<tag k='name' v='A&amp;B &lt;&apos;x&apos;&gt;' />"));
+        assertTrue(xml.endsWith("</osm>\n"));
+    }
+
+    /**
+     * Test case for {@link OsmXmlStreamWriter#open} method.
+     */
+    @Test
+    void testOpenCompressed(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("building.osm.gz");
+        try (OsmXmlStreamWriter writer = OsmXmlStreamWriter.open(file)) {
+            writer.writeWay(Arrays.asList(new LatLon(1.0, 2.0), new LatLon(1.0, 2.5)), Collections.emptyList());
+        }
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            String xml = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            assertTrue(xml.startsWith("<?xml"));
+            assertTrue(xml.contains("<way id='-3'"));
+        }
+    }
+}
@@ -0,0 +1,81 @@
+// License: AGPL. For details, see LICENSE file.
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.openstreetmap.josm.data.osm.DataSet;
+import org.openstreetmap.josm.data.osm.Node;
+import org.openstreetmap.josm.data.osm.Way;
+import org.openstreetmap.josm.plugins.indoorhelper.model.Conflator;
+import org.openstreetmap.josm.plugins.indoorhelper.model.LevelAssigner;
+
+import testutils.OsmTestData;
+
+/**
+ * Unit tests of {@link Conflator} class.
+ */
+class ConflatorTest {
+
+    // about 1 meter in degree
+    private static final double M = 1.0 / 111320.0;
+
+    /**
+     * Test case for {@link Conflator#findMatches(DataSet, java.util.Collection)} method.
+     */
+    @Test
+    void testFindMatches() {
+        DataSet target = new DataSet();
+        Way room = addWay(target, "0", 0, 0, 0, 10 * M, 10 * M, 10 * M, 10 * M, 0, 0, 0);
+        room.put("name", "Lab");
+        Way otherLevel = addWay(target, "1", 0, 0, 0, 10 * M, 10 * M, 10 * M, 10 * M, 0, 0, 0);
+        Way wall = addWay(target, "0", 20 * M, 0, 20 * M, 10 * M);
+
+        DataSet imported = new DataSet();
+        Way importedRoom = addWay(imported, "0", 0.1 * M, 0, 0.1 * M, 10 * M, 10.1 * M, 10 * M, 10.1 * M, 0,
+                0.1 * M, 0);
+        importedRoom.put("indoor", "room");
+        importedRoom.put("name", "Laboratory");
+        Way importedWall = addWay(imported, "0", 20.2 * M, 0, 20.2 * M, 10 * M);
+        Way shiftedRoom = addWay(imported, "0", 5 * M, 5 * M, 5 * M, 15 * M, 15 * M, 15 * M, 15 * M, 5 * M,
+                5 * M, 5 * M);
+
+        List<Conflator.Match> matches = new Conflator(Conflator.DEFAULT_MIN_IOU,
+                Conflator.DEFAULT_MAX_HAUSDORFF_DISTANCE).findMatches(target, imported.getWays());
+        assertEquals(2, matches.size());
+        Conflator.Match roomMatch = getMatch(matches, importedRoom);
+        assertSame(room, roomMatch.getTargetWay());
+        assertTrue(roomMatch.getIou() > 0.95);
+        assertEquals(0.1, roomMatch.getHausdorffDistance(), 0.01);
+        assertSame(wall, getMatch(matches, importedWall).getTargetWay());
+        assertTrue(matches.stream().noneMatch(match -> match.getImportedWay() == shiftedRoom
+                || match.getTargetWay() == otherLevel));
+
+        Conflator.createTagTransferCommand(matches).executeCommand();
+        assertEquals("room", room.get("indoor"));
+        assertEquals("Lab", room.get("name"));
+        assertNull(Conflator.createTagTransferCommand(matches));
+
+        Node wallNode = importedWall.firstNode();
+        Conflator.createRemoveDuplicatesCommand(imported, matches).executeCommand();
+        assertTrue(importedRoom.isDeleted());
+        assertTrue(importedWall.isDeleted());
+        assertTrue(wallNode.isDeleted());
+        assertTrue(!shiftedRoom.isDeleted() && !shiftedRoom.firstNode().isDeleted());
+    }
+
+    private static Conflator.Match getMatch(List<Conflator.Match> matches, Way importedWay) {
+        return matches.stream().filter(match -> match.getImportedWay() == importedWay).findFirst().orElse(null);
+    }
+
+    private static Way addWay(DataSet dataSet, String level, double... coordinates) {
+        Way way = OsmTestData.addWay(dataSet, coordinates);
+        way.put(LevelAssigner.LEVEL_KEY, level);
+        return way;
+    }
+}
@@ -0,0 +1,87 @@
+// License: AGPL. For details, see LICENSE file.
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static testutils.OsmTestData.addWay;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.openstreetmap.josm.command.ChangePropertyCommand;
+import org.openstreetmap.josm.command.Command;
+import org.openstreetmap.josm.data.osm.DataSet;
+import org.openstreetmap.josm.data.osm.Relation;
+import org.openstreetmap.josm.data.osm.RelationMember;
+import org.openstreetmap.josm.data.osm.Tag;
+import org.openstreetmap.josm.data.osm.Way;
+import org.openstreetmap.josm.plugins.indoorhelper.model.IndoorHelperModel;
+import org.openstreetmap.josm.plugins.indoorhelper.model.IndoorHelperModel.SelectedMember;
+import org.openstreetmap.josm.plugins.indoorhelper.model.TagCatalog;
+import org.openstreetmap.josm.plugins.indoorhelper.model.TagCatalog.IndoorObject;
+
+/**
+ * Unit tests of {@link IndoorHelperModel} class.
+ */
+class IndoorHelperModelTest {
+
+    /**
+     * Test case for {@link SelectedMember#find} method.
+     */
+    @Test
+    void testFindSelectedMember() {
+        DataSet dataSet = new DataSet();
+        Way outer = addWay(dataSet, 0, 0, 0, 10, 10, 10, 10, 0, 0, 0);
+        Way inner = addWay(dataSet, 2, 2, 2, 4, 4, 4, 4, 2, 2, 2);
+        Way unrelated = addWay(dataSet, 20, 20, 21, 21);
+        Relation other = new Relation();
+        other.addMember(new RelationMember("", unrelated));
+        dataSet.addPrimitive(other);
+        Relation multipolygon = new Relation();
+        multipolygon.addMember(new RelationMember("outer", outer));
+        multipolygon.addMember(new RelationMember("inner", inner));
+        dataSet.addPrimitive(multipolygon);
+
+        SelectedMember member = SelectedMember.find(Arrays.asList(inner, outer));
+        assertSame(multipolygon, member.getRelation());
+        assertEquals("inner", member.getRole());
+        assertEquals("outer", SelectedMember.find(Collections.singleton(outer)).getRole());
+
+        // members of deleted relations and objects without relation are not found
+        multipolygon.setDeleted(true);
+        assertNull(SelectedMember.find(Collections.singleton(outer)));
+        assertNull(SelectedMember.find(Collections.singleton(addWay(dataSet, 30, 30, 31, 31))));
+    }
+
+    /**
+     * Test case for {@link IndoorHelperModel#createTagCommand} method.
+     */
+    @Test
+    void testCreateTagCommand() {
+        DataSet dataSet = new DataSet();
+        Way room = addWay(dataSet, 0, 0, 0, 10, 10, 10, 10, 0, 0, 0);
+        Way corridor = addWay(dataSet, 10, 0, 10, 10, 20, 10, 20, 0, 10, 0);
+        List<Tag> tags = new ArrayList<>(new TagCatalog().getTags(IndoorObject.ROOM));
+        tags.add(new Tag("name", "Lab"));
+        tags.add(new Tag("ref", "1.01"));
+        tags.add(new Tag("name", "Lab 1"));
+
+        Command command = IndoorHelperModel.createTagCommand(Arrays.asList(room, corridor), tags);
+        assertInstanceOf(ChangePropertyCommand.class, command);
+        command.executeCommand();
+        for (Way way : Arrays.asList(room, corridor)) {
+            for (Tag tag : new TagCatalog().getTags(IndoorObject.ROOM)) {
+                assertEquals(tag.getValue(), way.get(tag.getKey()));
+            }
+            assertEquals("1.01", way.get("ref"));
+            // later tags overwrite earlier ones
+            assertEquals("Lab 1", way.get("name"));
+        }
+        assertNull(IndoorHelperModel.createTagCommand(Collections.singleton(room), Collections.emptyList()));
+    }
+}
@@ -0,0 +1,69 @@
+// License: AGPL. For details, see LICENSE file.
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static testutils.OsmTestData.addWay;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.openstreetmap.josm.data.osm.DataSet;
+import org.openstreetmap.josm.data.osm.Way;
+import org.openstreetmap.josm.plugins.indoorhelper.model.LevelAssigner;
+
+/**
+ * Unit tests of {@link LevelAssigner} class.
+ */
+class LevelAssignerTest {
+
+    /**
+     * Test case for {@link LevelAssigner#parseBands(String)} method.
+     */
+    @Test
+    void testParseBands() {
+        assertEquals(3, LevelAssigner.parseBands("-3:0=-1; 0:3=0;3:6.5=1;").size());
+        assertTrue(LevelAssigner.parseBands("").isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> LevelAssigner.parseBands("0-3=0"));
+        assertThrows(IllegalArgumentException.class, () -> LevelAssigner.parseBands("3:0=0"));
+        assertThrows(IllegalArgumentException.class,
+                () -> new LevelAssigner(LevelAssigner.parseBands("0:3=0;2:6=1"), LevelAssigner.DEFAULT_ELEVATION_KEY));
+    }
+
+    /**
+     * Test case for {@link LevelAssigner#assignLevels(DataSet, java.util.Collection)} method.
+     */
+    @Test
+    void testAssignLevels() {
+        DataSet dataSet = new DataSet();
+        Way outline = addWay(dataSet, 0, 0, 0, 10, 10, 10, 10, 0, 0, 0);
+        outline.put(LevelAssigner.OUTLINE_KEY, LevelAssigner.OUTLINE_VALUE);
+        outline.put(LevelAssigner.LEVEL_KEY, "2");
+
+        Way inside = addWay(dataSet, 1, 1, 2, 2);
+        Way outside = addWay(dataSet, 1, 1, 12, 12);
+        Way elevated = addWay(dataSet, 20, 20, 21, 21);
+        elevated.put(LevelAssigner.DEFAULT_ELEVATION_KEY, "3.5");
+        Way tagged = addWay(dataSet, 1, 1, 3, 3);
+        tagged.put(LevelAssigner.LEVEL_KEY, "0");
+
+        LevelAssigner assigner = new LevelAssigner(LevelAssigner.parseBands("0:3=0;3:6=1"),
+                LevelAssigner.DEFAULT_ELEVATION_KEY);
+        Map<String, List<Way>> levels = assigner.assignLevels(dataSet, dataSet.getWays());
+        assertEquals(2, levels.size());
+        assertEquals(Arrays.asList(elevated), levels.get("1"));
+        assertEquals(Arrays.asList(inside), levels.get("2"));
+        assertTrue(levels.values().stream().noneMatch(ways -> ways.contains(outside) || ways.contains(tagged)));
+
+        // stacked storey with same footprint makes outline ambiguous
+        Way upperOutline = addWay(dataSet, 0, 0, 0, 10, 10, 10, 10, 0, 0, 0);
+        upperOutline.put(LevelAssigner.OUTLINE_KEY, LevelAssigner.OUTLINE_VALUE);
+        upperOutline.put(LevelAssigner.LEVEL_KEY, "3");
+        levels = assigner.assignLevels(dataSet, dataSet.getWays());
+        assertEquals(1, levels.size());
+        assertEquals(Arrays.asList(elevated), levels.get("1"));
+    }
+}
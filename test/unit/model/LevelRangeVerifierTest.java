@@ -60,5 +60,9 @@ class LevelRangeVerifierTest {
 
         assertFalse(LevelRangeVerifier.isPartOfWorkingLevel(".", 4));
         assertFalse(LevelRangeVerifier.isPartOfWorkingLevel(";t-3", 4));
+
+        assertTrue(LevelRangeVerifier.isPartOfWorkingLevel("0;0.5", 0.5));
+        assertTrue(LevelRangeVerifier.isPartOfWorkingLevel("0-1.5", 1.5));
+        assertFalse(LevelRangeVerifier.isPartOfWorkingLevel("0-1.5", 2));
     }
 }
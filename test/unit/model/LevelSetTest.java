@@ -0,0 +1,57 @@
+// License: AGPL. For details, see LICENSE file.
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.openstreetmap.josm.plugins.indoorhelper.model.LevelSet;
+
+/**
+ * Unit tests of {@link LevelSet} class.
+ */
+class LevelSetTest {
+
+    /**
+     * Test case for {@link LevelSet#of(String)} method.
+     */
+    @Test
+    void testOf() {
+        assertSame(LevelSet.of("-1;2-4"), LevelSet.of("-1;2-4"));
+        assertEquals("-1;2-6", LevelSet.of("4-6;-1;2-4;3").toString());
+        assertEquals("0.5;1-2", LevelSet.of(" 1-2;0.5 ").toString());
+        assertTrue(LevelSet.of(";t-3;3-1;.").isEmpty());
+        assertTrue(LevelSet.of(null).isEmpty());
+    }
+
+    /**
+     * Test case for {@link LevelSet#contains(double)} method.
+     */
+    @Test
+    void testContains() {
+        LevelSet levels = LevelSet.of("-3--1;0.5;2-4");
+        assertTrue(levels.contains(-3));
+        assertTrue(levels.contains(-1));
+        assertFalse(levels.contains(0));
+        assertTrue(levels.contains(0.5));
+        assertFalse(levels.contains(1));
+        assertTrue(levels.contains(2.5));
+        assertTrue(levels.contains(4));
+        assertFalse(levels.contains(4.5));
+        assertFalse(levels.contains(-4));
+    }
+
+    /**
+     * Test case for {@link LevelSet#parseLevel(String)} method.
+     */
+    @Test
+    void testParseLevel() {
+        assertEquals(-1.0, LevelSet.parseLevel("-1"));
+        assertEquals(0.5, LevelSet.parseLevel(" 0.5"));
+        assertTrue(Double.isNaN(LevelSet.parseLevel("")));
+        assertTrue(Double.isNaN(LevelSet.parseLevel("NaN")));
+        assertTrue(Double.isNaN(LevelSet.parseLevel(null)));
+    }
+}
@@ -7,6 +7,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
+import org.openstreetmap.josm.spi.preferences.MemoryPreferences;
 import org.openstreetmap.josm.plugins.indoorhelper.model.PresetCounter;
 import org.openstreetmap.josm.plugins.indoorhelper.model.TagCatalog.IndoorObject;
 
@@ -46,4 +47,43 @@ class PresetCounterTest {
         assertEquals(expectedList.get(2), actualList.get(2));
         assertEquals(expectedList.get(3), actualList.get(3));
     }
+
+    /**
+     * Test case for restoring counts from preferences.
+     */
+    @Test
+    void testPersistence() {
+        MemoryPreferences preferences = new MemoryPreferences();
+        PresetCounter counter = new PresetCounter(preferences);
+        counter.count(IndoorObject.BENCH);
+        counter.count(IndoorObject.BENCH);
+        counter.count(IndoorObject.ROOM);
+
+        List<IndoorObject> actualList = new PresetCounter(preferences).getRanking();
+        assertEquals(IndoorObject.BENCH, actualList.get(0));
+        assertEquals(IndoorObject.ROOM, actualList.get(1));
+        assertEquals(IndoorObject.CONCRETE_WALL, actualList.get(2));
+        assertEquals(IndoorObject.DOOR_PRIVATE, actualList.get(3));
+    }
+
+    /**
+     * Test case for saving counts which did not change the ranking.
+     */
+    @Test
+    void testSave() {
+        MemoryPreferences preferences = new MemoryPreferences();
+        PresetCounter counter = new PresetCounter(preferences);
+        counter.count(IndoorObject.BENCH);
+        // counts of first ranked object do not change the ranking and are saved in batches
+        counter.count(IndoorObject.BENCH);
+        counter.count(IndoorObject.BENCH);
+        counter.count(IndoorObject.ROOM);
+        counter.count(IndoorObject.ROOM);
+        assertEquals(IndoorObject.BENCH, new PresetCounter(preferences).getRanking().get(0));
+
+        counter.count(IndoorObject.ROOM);
+        counter.count(IndoorObject.ROOM);
+        counter.save();
+        assertEquals(IndoorObject.ROOM, new PresetCounter(preferences).getRanking().get(0));
+    }
 }
@@ -0,0 +1,51 @@
+// License: AGPL. For details, see LICENSE file.
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.openstreetmap.josm.data.coor.LatLon;
+import org.openstreetmap.josm.data.osm.DataSet;
+import org.openstreetmap.josm.data.osm.Node;
+import org.openstreetmap.josm.plugins.indoorhelper.model.RepeatOnIndex;
+
+/**
+ * Unit tests of {@link RepeatOnIndex} class.
+ */
+class RepeatOnIndexTest {
+
+    /**
+     * Test case for updates of {@link RepeatOnIndex} by data set events.
+     */
+    @Test
+    void testGetPrimitivesOnLevel() {
+        DataSet dataSet = new DataSet();
+        Node stairs = new Node(new LatLon(0, 0));
+        stairs.put(RepeatOnIndex.KEY, "0-3");
+        dataSet.addPrimitive(stairs);
+
+        RepeatOnIndex index = new RepeatOnIndex(dataSet);
+        assertEquals(1, index.size());
+        assertEquals(1, index.getPrimitivesOnLevel(2).size());
+        assertTrue(index.getPrimitivesOnLevel(4).isEmpty());
+
+        // added primitive
+        Node elevator = new Node(new LatLon(1, 1));
+        elevator.put(RepeatOnIndex.KEY, "-1;4");
+        dataSet.addPrimitive(elevator);
+        assertEquals(1, index.getPrimitivesOnLevel(4).size());
+
+        // changed and removed tag
+        stairs.put(RepeatOnIndex.KEY, "4");
+        assertEquals(2, index.getPrimitivesOnLevel(4).size());
+        assertTrue(index.getPrimitivesOnLevel(2).isEmpty());
+        stairs.remove(RepeatOnIndex.KEY);
+        assertEquals(1, index.size());
+
+        // removed primitive
+        dataSet.removePrimitive(elevator);
+        assertEquals(0, index.size());
+        index.dispose();
+    }
+}
@@ -0,0 +1,58 @@
+// License: AGPL. For details, see LICENSE file.
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openstreetmap.josm.data.osm.Tag;
+import org.openstreetmap.josm.plugins.indoorhelper.model.TagCatalog;
+import org.openstreetmap.josm.plugins.indoorhelper.model.TagCatalog.IndoorObject;
+
+/**
+ * Unit tests of {@link TagCatalog} class.
+ */
+class TagCatalogTest {
+
+    /**
+     * Test case for shared tag-sets of {@link TagCatalog#getTags(IndoorObject)} method.
+     */
+    @Test
+    void testGetTags() {
+        List<Tag> tags = new TagCatalog().getTags(IndoorObject.GLASS_WALL);
+        assertEquals(Arrays.asList(new Tag("indoor", "wall"), new Tag("material", "glass")), tags);
+        assertSame(tags, new TagCatalog().getTags(IndoorObject.GLASS_WALL));
+        assertThrows(UnsupportedOperationException.class, () -> tags.add(new Tag("level", "0")));
+    }
+
+    /**
+     * Test case for {@link TagCatalog#load(Path)} method.
+     *
+     * @param tempDir temporary directory
+     * @throws IOException if override file can not be written
+     */
+    @Test
+    void testLoad(@TempDir Path tempDir) throws IOException {
+        Path overrideFile = tempDir.resolve(TagCatalog.OVERRIDE_FILE);
+        Files.write(overrideFile, Arrays.asList("ROOM = indoor=room;level:ref=auto", "IfcColumn = NONE",
+                "IfcWall = UNKNOWN"), StandardCharsets.UTF_8);
+
+        TagCatalog catalog = TagCatalog.load(overrideFile);
+        assertEquals(Arrays.asList(new Tag("indoor", "room"), new Tag("level:ref", "auto")),
+                catalog.getTags(IndoorObject.ROOM));
+        assertEquals(new TagCatalog().getTags(IndoorObject.STEPS), catalog.getTags(IndoorObject.STEPS));
+        assertEquals(IndoorObject.NONE, catalog.getMappedObject("IfcColumn"));
+        assertNull(catalog.getMappedObject("IfcWall"));
+        assertNull(TagCatalog.load(tempDir.resolve("missing")).getMappedObject("IfcColumn"));
+    }
+}
@@ -0,0 +1,66 @@
+// License: AGPL. For details, see LICENSE file.
+package testutils;
+
+import java.util.Arrays;
+
+import org.openstreetmap.josm.data.coor.LatLon;
+import org.openstreetmap.josm.data.osm.DataSet;
+import org.openstreetmap.josm.data.osm.Node;
+import org.openstreetmap.josm.data.osm.Way;
+
+/**
+ * Creates nodes and ways of test data sets.
+ */
+public final class OsmTestData {
+
+    private OsmTestData() {
+        // private constructor for utility class
+    }
+
+    /**
+     * Adds node to data set
+     *
+     * @param dataSet to add node to
+     * @param lat     latitude of node
+     * @param lon     longitude of node
+     * @return added node
+     */
+    public static Node addNode(DataSet dataSet, double lat, double lon) {
+        Node node = new Node(new LatLon(lat, lon));
+        dataSet.addPrimitive(node);
+        return node;
+    }
+
+    /**
+     * Adds way of nodes already added to data set
+     *
+     * @param dataSet to add way to
+     * @param nodes   of way
+     * @return added way
+     */
+    public static Way addWay(DataSet dataSet, Node... nodes) {
+        Way way = new Way();
+        way.setNodes(Arrays.asList(nodes));
+        dataSet.addPrimitive(way);
+        return way;
+    }
+
+    /**
+     * Adds way with new nodes to data set. If the last coordinates equal the first ones, the way is closed with its
+     * first node.
+     *
+     * @param dataSet     to add way to
+     * @param coordinates latitude and longitude of each node
+     * @return added way
+     */
+    public static Way addWay(DataSet dataSet, double... coordinates) {
+        Node[] nodes = new Node[coordinates.length / 2];
+        for (int i = 0; i < nodes.length; i++) {
+            double lat = coordinates[2 * i];
+            double lon = coordinates[2 * i + 1];
+            boolean closing = i > 0 && lat == nodes[0].lat() && lon == nodes[0].lon();
+            nodes[i] = closing ? nodes[0] : addNode(dataSet, lat, lon);
+        }
+        return addWay(dataSet, nodes);
+    }
+}